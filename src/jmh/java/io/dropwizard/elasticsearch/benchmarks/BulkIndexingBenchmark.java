@@ -0,0 +1,66 @@
+package io.dropwizard.elasticsearch.benchmarks;
+
+import io.dropwizard.elasticsearch.config.BulkProcessorConfiguration;
+import io.dropwizard.elasticsearch.managed.ManagedBulkProcessor;
+import io.dropwizard.elasticsearch.managed.ManagedEsClient;
+import org.elasticsearch.action.index.IndexRequest;
+import org.elasticsearch.client.Client;
+import org.elasticsearch.node.Node;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the indexing throughput through the managed client against an embedded local-mode Elasticsearch node,
+ * comparing single index requests with the {@link ManagedBulkProcessor}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BulkIndexingBenchmark {
+    private static final String INDEX = "bulk-indexing-benchmark";
+    private static final String SOURCE = "{\"message\":\"The quick brown fox jumps over the lazy dog\",\"count\":42}";
+
+    private Node node;
+    private Client client;
+    private ManagedBulkProcessor bulkProcessor;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        node = EmbeddedNodes.startLocalNode("bulk-indexing");
+        final ManagedEsClient managedClient = new ManagedEsClient(node);
+        client = managedClient.getClient();
+        bulkProcessor = new ManagedBulkProcessor(managedClient, new BulkProcessorConfiguration());
+        bulkProcessor.start();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        bulkProcessor.stop();
+        node.close();
+    }
+
+    @Benchmark
+    public void singleIndexRequest() {
+        client.prepareIndex(INDEX, "doc").setSource(SOURCE).get();
+    }
+
+    @Benchmark
+    public void bulkProcessor() {
+        bulkProcessor.add(new IndexRequest(INDEX, "doc").source(SOURCE));
+    }
+}
@@ -0,0 +1,78 @@
+package io.dropwizard.elasticsearch.benchmarks;
+
+import io.dropwizard.elasticsearch.client.BulkWriter;
+import io.dropwizard.elasticsearch.managed.ManagedEsClient;
+import org.elasticsearch.action.bulk.BulkRequest;
+import org.elasticsearch.action.index.IndexRequest;
+import org.elasticsearch.client.Client;
+import org.elasticsearch.node.Node;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures bulk indexing of pre-serialized JSON documents against an embedded local-mode Elasticsearch node,
+ * comparing bulk requests built from {@link IndexRequest index requests} with the pooled buffers of
+ * {@link BulkWriter}. Run with {@code -prof gc} to compare the allocation rates.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BulkWriterBenchmark {
+    private static final String INDEX = "bulk-writer-benchmark";
+    private static final byte[] SOURCE = "{\"message\":\"The quick brown fox jumps over the lazy dog\",\"count\":42}"
+            .getBytes(StandardCharsets.UTF_8);
+
+    @Param({"1000"})
+    public int documents;
+
+    private Node node;
+    private Client client;
+    private BulkWriter bulkWriter;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        node = EmbeddedNodes.startLocalNode("bulk-writer");
+        client = new ManagedEsClient(node).getClient();
+        bulkWriter = new BulkWriter(client);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        node.close();
+    }
+
+    @Benchmark
+    public Object indexRequests() {
+        final BulkRequest request = new BulkRequest();
+        for (int i = 0; i < documents; i++) {
+            request.add(new IndexRequest(INDEX, "doc").source(SOURCE));
+        }
+        return client.bulk(request).actionGet();
+    }
+
+    @Benchmark
+    public Object bulkWriter() throws Exception {
+        final BulkWriter.Batch batch = bulkWriter.newBatch();
+        for (int i = 0; i < documents; i++) {
+            batch.index(INDEX, "doc", null, SOURCE);
+        }
+        return batch.execute().actionGet();
+    }
+}
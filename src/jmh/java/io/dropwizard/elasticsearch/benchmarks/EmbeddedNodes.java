@@ -0,0 +1,31 @@
+package io.dropwizard.elasticsearch.benchmarks;
+
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.node.Node;
+
+import static org.elasticsearch.node.NodeBuilder.nodeBuilder;
+
+/**
+ * Helper for starting an embedded local-mode Elasticsearch {@link Node} without network access.
+ */
+final class EmbeddedNodes {
+    private EmbeddedNodes() {
+    }
+
+    static Node startLocalNode(String name) {
+        final Settings settings = Settings.builder()
+                .put("path.home", "target/benchmarks/" + name)
+                .put("http.enabled", false)
+                .put("index.number_of_shards", 1)
+                .put("index.number_of_replicas", 0)
+                .build();
+
+        final Node node = nodeBuilder()
+                .local(true)
+                .clusterName("benchmarks-" + name)
+                .settings(settings)
+                .node();
+        node.client().admin().cluster().prepareHealth().setWaitForYellowStatus().get();
+        return node;
+    }
+}
@@ -0,0 +1,70 @@
+package io.dropwizard.elasticsearch.benchmarks;
+
+import com.codahale.metrics.health.HealthCheck;
+import io.dropwizard.elasticsearch.health.EsClusterHealthCheck;
+import io.dropwizard.elasticsearch.health.EsIndexDocsHealthCheck;
+import io.dropwizard.elasticsearch.health.EsIndexExistsHealthCheck;
+import org.elasticsearch.client.Client;
+import org.elasticsearch.node.Node;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the latency of the health checks against an embedded local-mode Elasticsearch node.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HealthCheckBenchmark {
+    private static final String INDEX = "health-check-benchmark";
+
+    private Node node;
+    private HealthCheck clusterHealthCheck;
+    private HealthCheck indexDocsHealthCheck;
+    private HealthCheck indexExistsHealthCheck;
+
+    @Setup
+    public void setUp() {
+        node = EmbeddedNodes.startLocalNode("health-check");
+        final Client client = node.client();
+        client.prepareIndex(INDEX, "doc", "1").setSource("field", "value").setRefresh(true).get();
+
+        clusterHealthCheck = new EsClusterHealthCheck(client);
+        indexDocsHealthCheck = new EsIndexDocsHealthCheck(client, INDEX);
+        indexExistsHealthCheck = new EsIndexExistsHealthCheck(client, INDEX);
+    }
+
+    @TearDown
+    public void tearDown() {
+        node.close();
+    }
+
+    @Benchmark
+    public HealthCheck.Result clusterHealth() {
+        return clusterHealthCheck.execute();
+    }
+
+    @Benchmark
+    public HealthCheck.Result indexDocs() {
+        return indexDocsHealthCheck.execute();
+    }
+
+    @Benchmark
+    public HealthCheck.Result indexExists() {
+        return indexExistsHealthCheck.execute();
+    }
+}
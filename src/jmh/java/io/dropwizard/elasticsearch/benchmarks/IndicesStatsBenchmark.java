@@ -0,0 +1,82 @@
+package io.dropwizard.elasticsearch.benchmarks;
+
+import org.elasticsearch.action.admin.indices.stats.CommonStats;
+import org.elasticsearch.action.admin.indices.stats.CommonStatsFlags;
+import org.elasticsearch.common.bytes.BytesReference;
+import org.elasticsearch.common.io.stream.BytesStreamOutput;
+import org.elasticsearch.common.io.stream.StreamInput;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the size and the parse time of the per-shard stats of an indices stats response, comparing all stats
+ * sections (the default of {@code prepareStats()}) with the {@code docs} section requested by
+ * {@link io.dropwizard.elasticsearch.health.EsIndexDocsHealthCheck}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IndicesStatsBenchmark {
+    private static final Logger LOGGER = LoggerFactory.getLogger(IndicesStatsBenchmark.class);
+
+    @Param({"all", "docs"})
+    public String flags;
+
+    @Param({"1000"})
+    public int shards;
+
+    private BytesReference serializedStats;
+
+    @Setup
+    public void setUp() throws IOException {
+        final CommonStatsFlags statsFlags = "docs".equals(flags)
+                ? new CommonStatsFlags(CommonStatsFlags.Flag.Docs)
+                : CommonStatsFlags.ALL;
+
+        final BytesStreamOutput out = new BytesStreamOutput();
+        for (int i = 0; i < shards; i++) {
+            new CommonStats(statsFlags).writeTo(out);
+        }
+        serializedStats = out.bytes();
+
+        LOGGER.info("Serialized stats of {} shards ({}): {} bytes", shards, flags, serializedStats.length());
+    }
+
+    @Benchmark
+    public void serialize(Blackhole blackhole) throws IOException {
+        final CommonStatsFlags statsFlags = "docs".equals(flags)
+                ? new CommonStatsFlags(CommonStatsFlags.Flag.Docs)
+                : CommonStatsFlags.ALL;
+        final BytesStreamOutput out = new BytesStreamOutput();
+        for (int i = 0; i < shards; i++) {
+            new CommonStats(statsFlags).writeTo(out);
+        }
+        blackhole.consume(out.size());
+    }
+
+    @Benchmark
+    public void parse(Blackhole blackhole) throws IOException {
+        final StreamInput in = StreamInput.wrap(serializedStats);
+        for (int i = 0; i < shards; i++) {
+            blackhole.consume(CommonStats.readCommonStats(in));
+        }
+    }
+}
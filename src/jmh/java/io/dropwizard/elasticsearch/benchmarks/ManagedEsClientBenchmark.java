@@ -0,0 +1,50 @@
+package io.dropwizard.elasticsearch.benchmarks;
+
+import io.dropwizard.configuration.ResourceConfigurationSourceProvider;
+import io.dropwizard.configuration.YamlConfigurationFactory;
+import io.dropwizard.elasticsearch.config.EsConfiguration;
+import io.dropwizard.elasticsearch.managed.ManagedEsClient;
+import io.dropwizard.jackson.Jackson;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.validation.Validation;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the construction (and closing) of a {@link ManagedEsClient} in node client and transport client mode.
+ * The created clients are not started, so no cluster is required.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ManagedEsClientBenchmark {
+    @Param({"node_client.yml", "transport_client.yml"})
+    public String configFile;
+
+    private EsConfiguration config;
+
+    @Setup
+    public void setUp() throws Exception {
+        config = new YamlConfigurationFactory<>(EsConfiguration.class,
+                Validation.buildDefaultValidatorFactory().getValidator(), Jackson.newObjectMapper(), "dw")
+                .build(new ResourceConfigurationSourceProvider(), configFile);
+    }
+
+    @Benchmark
+    public void constructAndClose() throws Exception {
+        new ManagedEsClient(config).stop();
+    }
+}
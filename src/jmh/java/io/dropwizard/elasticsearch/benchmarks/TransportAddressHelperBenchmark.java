@@ -0,0 +1,52 @@
+package io.dropwizard.elasticsearch.benchmarks;
+
+import com.google.common.net.HostAndPort;
+import io.dropwizard.elasticsearch.util.TransportAddressHelper;
+import org.elasticsearch.common.transport.TransportAddress;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the conversion of configured servers to transport addresses, including the DNS resolution of host names.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TransportAddressHelperBenchmark {
+    @Param({"localhost", "127.0.0.1"})
+    public String host;
+
+    @Param({"1", "30"})
+    public int servers;
+
+    private List<HostAndPort> hostAndPorts;
+
+    @Setup
+    public void setUp() {
+        hostAndPorts = new ArrayList<>(servers);
+        for (int i = 0; i < servers; i++) {
+            hostAndPorts.add(HostAndPort.fromParts(host, 9300 + i));
+        }
+    }
+
+    @Benchmark
+    public TransportAddress[] fromHostAndPorts() {
+        return TransportAddressHelper.fromHostAndPorts(hostAndPorts);
+    }
+}
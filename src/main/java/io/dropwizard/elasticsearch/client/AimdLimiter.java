@@ -0,0 +1,62 @@
+package io.dropwizard.elasticsearch.client;
+
+import io.dropwizard.elasticsearch.config.AimdLimitConfiguration;
+
+/**
+ * An additive increase/multiplicative decrease (AIMD) concurrency limit as configured by an
+ * {@link AimdLimitConfiguration}.
+ */
+class AimdLimiter {
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+    private final long latencyThresholdNanos;
+    private double limit;
+    private int inFlight = 0;
+
+    AimdLimiter(AimdLimitConfiguration config) {
+        this.minLimit = config.getMinLimit();
+        this.maxLimit = config.getMaxLimit();
+        this.backoffRatio = config.getBackoffRatio();
+        this.latencyThresholdNanos = config.getLatencyThreshold().toNanoseconds();
+        this.limit = config.getInitialLimit();
+    }
+
+    /**
+     * Acquires a permit if the number of requests in flight is below the current limit.
+     *
+     * @return {@literal true} if a permit has been acquired, {@literal false} if the limit has been reached
+     */
+    synchronized boolean tryAcquire() {
+        if (inFlight >= getLimit()) {
+            return false;
+        }
+
+        inFlight++;
+        return true;
+    }
+
+    /**
+     * Releases a permit and adjusts the limit to the outcome of the request.
+     *
+     * @param latencyNanos the latency of the request in nanoseconds
+     * @param overloaded   whether the request has been rejected or timed out by the cluster
+     */
+    synchronized void release(long latencyNanos, boolean overloaded) {
+        inFlight--;
+
+        if (overloaded || latencyNanos > latencyThresholdNanos) {
+            limit = Math.max(minLimit, limit * backoffRatio);
+        } else if (inFlight * 2 >= limit) {
+            limit = Math.min(maxLimit, limit + 1.0d);
+        }
+    }
+
+    synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    synchronized int getInFlight() {
+        return inFlight;
+    }
+}
@@ -0,0 +1,197 @@
+package io.dropwizard.elasticsearch.client;
+
+import org.elasticsearch.action.Action;
+import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.action.ActionRequest;
+import org.elasticsearch.action.ActionRequestBuilder;
+import org.elasticsearch.action.ActionResponse;
+import org.elasticsearch.action.bulk.BulkAction;
+import org.elasticsearch.action.bulk.BulkRequest;
+import org.elasticsearch.action.bulk.BulkResponse;
+import org.elasticsearch.action.get.GetAction;
+import org.elasticsearch.action.get.GetRequest;
+import org.elasticsearch.action.get.GetResponse;
+import org.elasticsearch.action.index.IndexAction;
+import org.elasticsearch.action.index.IndexRequest;
+import org.elasticsearch.action.index.IndexResponse;
+import org.elasticsearch.action.search.ClearScrollAction;
+import org.elasticsearch.action.search.ClearScrollRequest;
+import org.elasticsearch.action.search.ClearScrollResponse;
+import org.elasticsearch.action.search.SearchAction;
+import org.elasticsearch.action.search.SearchRequest;
+import org.elasticsearch.action.search.SearchResponse;
+import org.elasticsearch.action.search.SearchScrollAction;
+import org.elasticsearch.action.search.SearchScrollRequest;
+import org.elasticsearch.client.Client;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * A facade over an Elasticsearch {@link Client} which returns a {@link CompletableFuture} for every request instead of
+ * an {@link org.elasticsearch.action.ActionFuture}, so that requests can be composed without blocking a thread.
+ * <p>
+ * The futures are completed on the provided {@link Executor} instead of the network threads of the client, so that
+ * dependent stages can't stall the client. If the executor rejects a completion, the future is completed on the
+ * network thread instead of losing the response.
+ */
+public class AsyncEsClient {
+    private static final Logger LOGGER = LoggerFactory.getLogger(AsyncEsClient.class);
+
+    private final Client client;
+    private final Executor executor;
+
+    /**
+     * Construct a new asynchronous facade completing its futures on the {@link ForkJoinPool#commonPool()}.
+     *
+     * @param client the Elasticsearch {@link Client} to send the requests to
+     */
+    public AsyncEsClient(Client client) {
+        this(client, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Construct a new asynchronous facade.
+     *
+     * @param client   the Elasticsearch {@link Client} to send the requests to
+     * @param executor the {@link Executor} to complete the futures on
+     */
+    public AsyncEsClient(Client client, Executor executor) {
+        this.client = checkNotNull(client, "Elasticsearch client must not be null");
+        this.executor = checkNotNull(executor, "Executor must not be null");
+    }
+
+    /**
+     * Get the underlying Elasticsearch {@link Client}.
+     *
+     * @return the Elasticsearch {@link Client} the requests are sent to
+     */
+    public Client getClient() {
+        return client;
+    }
+
+    /**
+     * Execute a search request.
+     *
+     * @param request the search request
+     * @return a {@link CompletableFuture} of the search response
+     */
+    public CompletableFuture<SearchResponse> search(SearchRequest request) {
+        return execute(SearchAction.INSTANCE, request);
+    }
+
+    /**
+     * Fetch the next batch of a scroll search.
+     *
+     * @param request the search scroll request
+     * @return a {@link CompletableFuture} of the search response
+     */
+    public CompletableFuture<SearchResponse> searchScroll(SearchScrollRequest request) {
+        return execute(SearchScrollAction.INSTANCE, request);
+    }
+
+    /**
+     * Clear the context of one or more scroll searches.
+     *
+     * @param request the clear scroll request
+     * @return a {@link CompletableFuture} of the clear scroll response
+     */
+    public CompletableFuture<ClearScrollResponse> clearScroll(ClearScrollRequest request) {
+        return execute(ClearScrollAction.INSTANCE, request);
+    }
+
+    /**
+     * Get a document by its ID.
+     *
+     * @param request the get request
+     * @return a {@link CompletableFuture} of the get response
+     */
+    public CompletableFuture<GetResponse> get(GetRequest request) {
+        return execute(GetAction.INSTANCE, request);
+    }
+
+    /**
+     * Index a document.
+     *
+     * @param request the index request
+     * @return a {@link CompletableFuture} of the index response
+     */
+    public CompletableFuture<IndexResponse> index(IndexRequest request) {
+        return execute(IndexAction.INSTANCE, request);
+    }
+
+    /**
+     * Execute a bulk request.
+     *
+     * @param request the bulk request
+     * @return a {@link CompletableFuture} of the bulk response
+     */
+    public CompletableFuture<BulkResponse> bulk(BulkRequest request) {
+        return execute(BulkAction.INSTANCE, request);
+    }
+
+    /**
+     * Execute a request built by a request builder of the client, e. g. {@code client.prepareSearch("index")}.
+     *
+     * @param requestBuilder the builder of the request
+     * @param <Response>     the type of the response
+     * @return a {@link CompletableFuture} of the response
+     */
+    public <Response extends ActionResponse> CompletableFuture<Response> execute(
+            ActionRequestBuilder<?, Response, ?> requestBuilder) {
+        final CompletableFuture<Response> future = new CompletableFuture<>();
+        try {
+            requestBuilder.execute(listener(future));
+        } catch (RuntimeException e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    /**
+     * Execute an arbitrary action of the client.
+     *
+     * @param action  the action to execute
+     * @param request the request of the action
+     * @return a {@link CompletableFuture} of the response
+     */
+    public <Request extends ActionRequest, Response extends ActionResponse, RequestBuilder extends ActionRequestBuilder<Request, Response, RequestBuilder>> CompletableFuture<Response> execute(
+            Action<Request, Response, RequestBuilder> action, Request request) {
+        final CompletableFuture<Response> future = new CompletableFuture<>();
+        try {
+            client.execute(action, request, listener(future));
+        } catch (RuntimeException e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    private <Response> ActionListener<Response> listener(CompletableFuture<Response> future) {
+        return new ActionListener<Response>() {
+            @Override
+            public void onResponse(Response response) {
+                complete(() -> future.complete(response));
+            }
+
+            @Override
+            public void onFailure(Throwable e) {
+                complete(() -> future.completeExceptionally(e));
+            }
+        };
+    }
+
+    private void complete(Runnable completion) {
+        try {
+            executor.execute(completion);
+        } catch (RejectedExecutionException e) {
+            LOGGER.debug("Executor rejected completion, completing on the calling thread", e);
+            completion.run();
+        }
+    }
+}
@@ -0,0 +1,303 @@
+package io.dropwizard.elasticsearch.client;
+
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.MetricRegistry;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.dropwizard.elasticsearch.config.BatchingConfiguration;
+import io.dropwizard.util.Duration;
+import org.elasticsearch.ElasticsearchException;
+import org.elasticsearch.action.Action;
+import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.action.ActionRequest;
+import org.elasticsearch.action.ActionRequestBuilder;
+import org.elasticsearch.action.ActionResponse;
+import org.elasticsearch.action.get.GetAction;
+import org.elasticsearch.action.get.GetRequest;
+import org.elasticsearch.action.get.GetResponse;
+import org.elasticsearch.action.get.MultiGetAction;
+import org.elasticsearch.action.get.MultiGetItemResponse;
+import org.elasticsearch.action.get.MultiGetRequest;
+import org.elasticsearch.action.get.MultiGetResponse;
+import org.elasticsearch.action.search.MultiSearchAction;
+import org.elasticsearch.action.search.MultiSearchRequest;
+import org.elasticsearch.action.search.MultiSearchResponse;
+import org.elasticsearch.action.search.SearchAction;
+import org.elasticsearch.action.search.SearchRequest;
+import org.elasticsearch.action.search.SearchResponse;
+import org.elasticsearch.client.Client;
+import org.elasticsearch.client.FilterClient;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+
+import static com.codahale.metrics.MetricRegistry.name;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * An Elasticsearch {@link Client} which collects the get and search requests sent within a short time window and
+ * sends them as a single {@link MultiGetRequest} or {@link MultiSearchRequest}, passing each item of the response to
+ * the listener of the corresponding request.
+ * <p>
+ * A batch is sent once {@link BatchingConfiguration#getWindow()} has passed since its first request or once it
+ * contains {@link BatchingConfiguration#getMaxBatchSize()} requests, whichever comes first. Batches containing a
+ * single request are sent as they are. Get requests are only batched with requests sharing their realtime and refresh
+ * flags, while get requests with a preference and scroll requests are never batched. Headers and the context of the
+ * individual requests aren't passed on to the multi requests.
+ * <p>
+ * The tightest {@link EsDeadline} of the requests in a batch applies to the whole batch.
+ * <p>
+ * The number of requests per batch is recorded as {@code <prefix>.batch.get.size} and
+ * {@code <prefix>.batch.search.size} ({@link Histogram}).
+ */
+public class BatchingClient extends FilterClient {
+    private final long windowNanos;
+    private final int maxBatchSize;
+    private final ConcurrentMap<GetGroup, Batcher<GetRequest, GetResponse>> getBatchers = new ConcurrentHashMap<>();
+    private final Batcher<SearchRequest, SearchResponse> searchBatcher;
+    private final Histogram getBatchSizes;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(
+            new ThreadFactoryBuilder()
+                    .setNameFormat("es-batching-client-%d")
+                    .setDaemon(true)
+                    .build());
+
+    /**
+     * Construct a new batching Elasticsearch client.
+     *
+     * @param client         the Elasticsearch {@link Client} to send the batched requests to
+     * @param config         a valid {@link BatchingConfiguration} instance
+     * @param metricRegistry the {@link MetricRegistry} to record the metrics in
+     * @param prefix         the prefix of the metric names
+     */
+    public BatchingClient(Client client, BatchingConfiguration config, MetricRegistry metricRegistry, String prefix) {
+        super(checkNotNull(client, "Elasticsearch client must not be null"));
+        checkNotNull(config, "BatchingConfiguration must not be null");
+        checkNotNull(metricRegistry, "MetricRegistry must not be null");
+        checkNotNull(prefix, "Metric prefix must not be null");
+
+        this.windowNanos = config.getWindow().toNanoseconds();
+        this.maxBatchSize = config.getMaxBatchSize();
+        this.getBatchSizes = metricRegistry.histogram(name(prefix, "batch", "get", "size"));
+        this.searchBatcher = new Batcher<>(
+                metricRegistry.histogram(name(prefix, "batch", "search", "size")), this::sendSearches);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected <Request extends ActionRequest, Response extends ActionResponse, RequestBuilder extends ActionRequestBuilder<Request, Response, RequestBuilder>> void doExecute(
+            Action<Request, Response, RequestBuilder> action, Request request, ActionListener<Response> listener) {
+        if (GetAction.INSTANCE.equals(action)) {
+            final GetRequest getRequest = (GetRequest) request;
+            if (null != getRequest.preference()) {
+                super.doExecute(action, request, listener);
+                return;
+            }
+
+            final GetGroup group = new GetGroup(getRequest);
+            getBatchers.computeIfAbsent(group, key -> new Batcher<>(getBatchSizes,
+                    (requests, listeners) -> sendGets(group, requests, listeners)))
+                    .add(getRequest, (ActionListener<GetResponse>) listener);
+        } else if (SearchAction.INSTANCE.equals(action) && ((SearchRequest) request).scroll() == null) {
+            searchBatcher.add((SearchRequest) request, (ActionListener<SearchResponse>) listener);
+        } else {
+            super.doExecute(action, request, listener);
+        }
+    }
+
+    /**
+     * Sends all pending batches, stops the scheduler and closes the underlying client.
+     */
+    @Override
+    public void close() {
+        searchBatcher.flush();
+        for (Batcher<GetRequest, GetResponse> batcher : getBatchers.values()) {
+            batcher.flush();
+        }
+        scheduler.shutdownNow();
+        super.close();
+    }
+
+    private void sendGets(GetGroup group, List<GetRequest> requests, List<ActionListener<GetResponse>> listeners) {
+        if (requests.size() == 1) {
+            super.doExecute(GetAction.INSTANCE, requests.get(0), listeners.get(0));
+            return;
+        }
+
+        final MultiGetRequest multiGetRequest = new MultiGetRequest()
+                .realtime(group.realtime)
+                .refresh(group.refresh)
+                .ignoreErrorsOnGeneratedFields(group.ignoreErrorsOnGeneratedFields);
+        for (GetRequest request : requests) {
+            multiGetRequest.add(new MultiGetRequest.Item(request.index(), request.type(), request.id())
+                    .routing(request.routing())
+                    .fields(request.fields())
+                    .version(request.version())
+                    .versionType(request.versionType())
+                    .fetchSourceContext(request.fetchSourceContext()));
+        }
+
+        super.doExecute(MultiGetAction.INSTANCE, multiGetRequest, new ActionListener<MultiGetResponse>() {
+            @Override
+            public void onResponse(MultiGetResponse response) {
+                final MultiGetItemResponse[] items = response.getResponses();
+                for (int i = 0; i < listeners.size(); i++) {
+                    final MultiGetItemResponse item = items[i];
+                    if (!item.isFailed()) {
+                        listeners.get(i).onResponse(item.getResponse());
+                    } else if (null != item.getFailure().getFailure()) {
+                        listeners.get(i).onFailure(item.getFailure().getFailure());
+                    } else {
+                        listeners.get(i).onFailure(new ElasticsearchException(item.getFailure().getMessage()));
+                    }
+                }
+            }
+
+            @Override
+            public void onFailure(Throwable e) {
+                for (ActionListener<GetResponse> listener : listeners) {
+                    listener.onFailure(e);
+                }
+            }
+        });
+    }
+
+    private void sendSearches(List<SearchRequest> requests, List<ActionListener<SearchResponse>> listeners) {
+        if (requests.size() == 1) {
+            super.doExecute(SearchAction.INSTANCE, requests.get(0), listeners.get(0));
+            return;
+        }
+
+        final MultiSearchRequest multiSearchRequest = new MultiSearchRequest();
+        for (SearchRequest request : requests) {
+            multiSearchRequest.add(request);
+        }
+
+        super.doExecute(MultiSearchAction.INSTANCE, multiSearchRequest, new ActionListener<MultiSearchResponse>() {
+            @Override
+            public void onResponse(MultiSearchResponse response) {
+                final MultiSearchResponse.Item[] items = response.getResponses();
+                for (int i = 0; i < listeners.size(); i++) {
+                    if (items[i].isFailure()) {
+                        listeners.get(i).onFailure(items[i].getFailure());
+                    } else {
+                        listeners.get(i).onResponse(items[i].getResponse());
+                    }
+                }
+            }
+
+            @Override
+            public void onFailure(Throwable e) {
+                for (ActionListener<SearchResponse> listener : listeners) {
+                    listener.onFailure(e);
+                }
+            }
+        });
+    }
+
+    /**
+     * Collects requests until the batch is full or the window has passed.
+     */
+    private class Batcher<Request, Response> {
+        private final Histogram batchSizes;
+        private final BiConsumer<List<Request>, List<ActionListener<Response>>> sender;
+        private List<Request> requests = new ArrayList<>();
+        private List<ActionListener<Response>> listeners = new ArrayList<>();
+        private Long deadline;
+
+        private Batcher(Histogram batchSizes, BiConsumer<List<Request>, List<ActionListener<Response>>> sender) {
+            this.batchSizes = batchSizes;
+            this.sender = sender;
+        }
+
+        private void add(Request request, ActionListener<Response> listener) {
+            final Long remainingNanos = EsDeadline.remainingNanos();
+            final boolean full;
+            synchronized (this) {
+                if (null != remainingNanos) {
+                    final long requestDeadline = System.nanoTime() + remainingNanos;
+                    if (null == deadline || requestDeadline - deadline < 0L) {
+                        deadline = requestDeadline;
+                    }
+                }
+                requests.add(request);
+                listeners.add(listener);
+                full = requests.size() >= maxBatchSize;
+
+                if (requests.size() == 1 && !full) {
+                    scheduler.schedule(this::flush, windowNanos, TimeUnit.NANOSECONDS);
+                }
+            }
+
+            if (full) {
+                flush();
+            }
+        }
+
+        private void flush() {
+            final List<Request> batchRequests;
+            final List<ActionListener<Response>> batchListeners;
+            final Long batchDeadline;
+            synchronized (this) {
+                if (requests.isEmpty()) {
+                    return;
+                }
+
+                batchRequests = requests;
+                batchListeners = listeners;
+                batchDeadline = deadline;
+                requests = new ArrayList<>();
+                listeners = new ArrayList<>();
+                deadline = null;
+            }
+
+            batchSizes.update(batchRequests.size());
+            try (EsDeadline.Scope scope = null == batchDeadline ? null : EsDeadline.within(
+                    Duration.nanoseconds(Math.max(0L, batchDeadline - System.nanoTime())))) {
+                sender.accept(batchRequests, batchListeners);
+            } catch (RuntimeException e) {
+                for (ActionListener<Response> listener : batchListeners) {
+                    listener.onFailure(e);
+                }
+            }
+        }
+    }
+
+    private static class GetGroup {
+        private final boolean realtime;
+        private final boolean refresh;
+        private final boolean ignoreErrorsOnGeneratedFields;
+
+        private GetGroup(GetRequest request) {
+            this.realtime = request.realtime();
+            this.refresh = request.refresh();
+            this.ignoreErrorsOnGeneratedFields = request.ignoreErrorsOnGeneratedFields();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof GetGroup)) {
+                return false;
+            }
+
+            final GetGroup other = (GetGroup) o;
+            return realtime == other.realtime
+                    && refresh == other.refresh
+                    && ignoreErrorsOnGeneratedFields == other.ignoreErrorsOnGeneratedFields;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(realtime, refresh, ignoreErrorsOnGeneratedFields);
+        }
+    }
+}
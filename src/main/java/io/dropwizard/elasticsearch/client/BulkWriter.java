@@ -0,0 +1,283 @@
+package io.dropwizard.elasticsearch.client;
+
+import org.elasticsearch.action.ActionFuture;
+import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.action.bulk.BulkRequest;
+import org.elasticsearch.action.bulk.BulkResponse;
+import org.elasticsearch.action.support.PlainActionFuture;
+import org.elasticsearch.client.Client;
+import org.elasticsearch.common.bytes.BytesArray;
+import org.elasticsearch.common.bytes.BytesReference;
+import org.elasticsearch.common.xcontent.XContent;
+import org.elasticsearch.common.xcontent.XContentBuilder;
+import org.elasticsearch.common.xcontent.XContentType;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+
+/**
+ * A writer of bulk requests from documents which are already serialized, e. g. as JSON or SMILE.
+ * <p>
+ * Each {@link Batch} appends the action metadata and the source of its documents to a byte buffer taken from a pool
+ * of reusable buffers, instead of creating an {@link org.elasticsearch.action.index.IndexRequest} with a copy of every
+ * source. When the batch is executed, the buffer is parsed as a bulk body and the sources of the resulting requests
+ * are slices of the buffer. The buffer is returned to the pool when the bulk request has completed successfully. The
+ * buffer of a failed request is dropped instead, because a failure may be reported before the request has actually
+ * been sent, e. g. by a {@link TimeoutClient}, and reusing the buffer could overwrite the sources of a request which
+ * is still in flight.
+ * <p>
+ * The sources must be encoded in the content type of the writer and, for JSON, must not contain line breaks. CBOR is
+ * not supported because it has no stream separator for bulk bodies.
+ *
+ * @see <a href="https://www.elastic.co/guide/en/elasticsearch/reference/2.4/docs-bulk.html">Bulk API</a>
+ */
+public class BulkWriter {
+    private static final int DEFAULT_POOL_SIZE = 4;
+    private static final int DEFAULT_BUFFER_SIZE = 1024 * 1024;
+
+    private final Client client;
+    private final XContent xContent;
+    private final byte separator;
+    private final int bufferSize;
+    private final BlockingQueue<Buffer> pool;
+
+    /**
+     * Construct a new bulk writer for JSON documents with a pool of 4 buffers.
+     *
+     * @param client the Elasticsearch {@link Client} to send the bulk requests to
+     */
+    public BulkWriter(Client client) {
+        this(client, XContentType.JSON, DEFAULT_POOL_SIZE, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Construct a new bulk writer.
+     *
+     * @param client      the Elasticsearch {@link Client} to send the bulk requests to
+     * @param contentType the {@link XContentType} of the documents, {@link XContentType#JSON} or
+     *                    {@link XContentType#SMILE}
+     * @param poolSize    the maximum number of idle buffers kept for reuse
+     * @param bufferSize  the initial size of new buffers in bytes
+     * @throws IllegalArgumentException if {@code contentType} can't be used for bulk bodies
+     */
+    public BulkWriter(Client client, XContentType contentType, int poolSize, int bufferSize) {
+        checkNotNull(contentType, "Content type must not be null");
+        checkArgument(contentType == XContentType.JSON || contentType == XContentType.SMILE,
+                "Content type %s is not supported in bulk bodies", contentType);
+        checkArgument(poolSize > 0, "Pool size must be positive");
+        checkArgument(bufferSize > 0, "Buffer size must be positive");
+
+        this.client = checkNotNull(client, "Elasticsearch client must not be null");
+        this.xContent = contentType.xContent();
+        this.separator = xContent.streamSeparator();
+        this.bufferSize = bufferSize;
+        this.pool = new ArrayBlockingQueue<>(poolSize);
+    }
+
+    /**
+     * Start a new batch of documents backed by a pooled buffer.
+     *
+     * @return a new, empty {@link Batch}
+     */
+    public Batch newBatch() {
+        final Buffer buffer = pool.poll();
+        return new Batch(null == buffer ? new Buffer(bufferSize) : buffer);
+    }
+
+    int getIdleBuffers() {
+        return pool.size();
+    }
+
+    private void release(Buffer buffer) {
+        buffer.reset();
+        pool.offer(buffer);
+    }
+
+    private static class Buffer extends ByteArrayOutputStream {
+        private Buffer(int size) {
+            super(size);
+        }
+
+        private BytesReference bytes() {
+            return new BytesArray(buf, 0, count);
+        }
+    }
+
+    /**
+     * A batch of pre-serialized documents which is sent as a single bulk request. A batch must be either executed or
+     * closed exactly once and is not thread-safe.
+     */
+    public class Batch implements AutoCloseable {
+        private Buffer buffer;
+        private int numberOfActions = 0;
+
+        private Batch(Buffer buffer) {
+            this.buffer = buffer;
+        }
+
+        /**
+         * Add an index action with a serialized source.
+         *
+         * @param index  the name of the index
+         * @param type   the type of the document
+         * @param id     the ID of the document, or {@literal null} to generate one
+         * @param source the serialized source in the content type of the writer
+         * @return this batch
+         * @throws IOException if the action couldn't be written
+         */
+        public Batch index(String index, String type, String id, byte[] source) throws IOException {
+            return index(index, type, id, source, 0, source.length);
+        }
+
+        /**
+         * Add an index action with a serialized source.
+         *
+         * @param index  the name of the index
+         * @param type   the type of the document
+         * @param id     the ID of the document, or {@literal null} to generate one
+         * @param source an array containing the serialized source in the content type of the writer
+         * @param offset the offset of the source in {@code source}
+         * @param length the length of the source in bytes
+         * @return this batch
+         * @throws IOException if the action couldn't be written
+         */
+        public Batch index(String index, String type, String id, byte[] source, int offset, int length)
+                throws IOException {
+            return index(index, type, id, new BytesArray(source, offset, length));
+        }
+
+        /**
+         * Add an index action with a serialized source.
+         *
+         * @param index  the name of the index
+         * @param type   the type of the document
+         * @param id     the ID of the document, or {@literal null} to generate one
+         * @param source the serialized source in the content type of the writer
+         * @return this batch
+         * @throws IOException if the action couldn't be written
+         */
+        public Batch index(String index, String type, String id, BytesReference source) throws IOException {
+            checkNotNull(source, "Source must not be null");
+            writeAction("index", index, type, id);
+            source.writeTo(buffer());
+            buffer.write(separator);
+            return this;
+        }
+
+        /**
+         * Add a delete action.
+         *
+         * @param index the name of the index
+         * @param type  the type of the document
+         * @param id    the ID of the document
+         * @return this batch
+         * @throws IOException if the action couldn't be written
+         */
+        public Batch delete(String index, String type, String id) throws IOException {
+            writeAction("delete", index, type, checkNotNull(id, "ID must not be null"));
+            return this;
+        }
+
+        /**
+         * Get the number of actions in this batch.
+         *
+         * @return the number of actions
+         */
+        public int numberOfActions() {
+            return numberOfActions;
+        }
+
+        /**
+         * Get the size of the bulk body of this batch.
+         *
+         * @return the size of the bulk body in bytes
+         */
+        public int sizeInBytes() {
+            return buffer().size();
+        }
+
+        /**
+         * Send the batch as a bulk request. The buffer is returned to the pool once the request has completed
+         * successfully and dropped if it failed.
+         *
+         * @param listener the {@link ActionListener} to notify with the {@link BulkResponse}
+         */
+        public void execute(ActionListener<BulkResponse> listener) {
+            checkNotNull(listener, "Listener must not be null");
+            final Buffer body = buffer();
+            buffer = null;
+
+            final BulkRequest request = new BulkRequest();
+            try {
+                request.add(body.bytes(), null, null);
+            } catch (Exception e) {
+                release(body);
+                listener.onFailure(e);
+                return;
+            }
+
+            client.bulk(request, new ActionListener<BulkResponse>() {
+                @Override
+                public void onResponse(BulkResponse response) {
+                    release(body);
+                    listener.onResponse(response);
+                }
+
+                @Override
+                public void onFailure(Throwable e) {
+                    // The request may still be in flight, so its buffer must not be reused
+                    listener.onFailure(e);
+                }
+            });
+        }
+
+        /**
+         * Send the batch as a bulk request. The buffer is returned to the pool once the request has completed
+         * successfully and dropped if it failed.
+         *
+         * @return an {@link ActionFuture} of the {@link BulkResponse}
+         */
+        public ActionFuture<BulkResponse> execute() {
+            final PlainActionFuture<BulkResponse> future = PlainActionFuture.newFuture();
+            execute(future);
+            return future;
+        }
+
+        /**
+         * Discard the batch without sending it and return its buffer to the pool. Does nothing if the batch has been
+         * executed.
+         */
+        @Override
+        public void close() {
+            if (null != buffer) {
+                release(buffer);
+                buffer = null;
+            }
+        }
+
+        private Buffer buffer() {
+            checkState(null != buffer, "Batch has already been executed or closed");
+            return buffer;
+        }
+
+        private void writeAction(String action, String index, String type, String id) throws IOException {
+            checkNotNull(index, "Index must not be null");
+            checkNotNull(type, "Type must not be null");
+
+            final XContentBuilder builder = new XContentBuilder(xContent, buffer());
+            builder.startObject().startObject(action).field("_index", index).field("_type", type);
+            if (null != id) {
+                builder.field("_id", id);
+            }
+            builder.endObject().endObject().flush();
+            buffer.write(separator);
+            numberOfActions++;
+        }
+    }
+}
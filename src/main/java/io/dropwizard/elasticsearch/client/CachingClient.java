@@ -0,0 +1,375 @@
+package io.dropwizard.elasticsearch.client;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalCause;
+import com.google.common.collect.ImmutableSet;
+import io.dropwizard.elasticsearch.config.ResultCacheConfiguration;
+import org.elasticsearch.action.Action;
+import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.action.ActionRequest;
+import org.elasticsearch.action.ActionRequestBuilder;
+import org.elasticsearch.action.ActionResponse;
+import org.elasticsearch.action.DocumentRequest;
+import org.elasticsearch.action.IndicesRequest;
+import org.elasticsearch.action.admin.indices.alias.IndicesAliasesRequest;
+import org.elasticsearch.action.admin.indices.close.CloseIndexRequest;
+import org.elasticsearch.action.admin.indices.delete.DeleteIndexRequest;
+import org.elasticsearch.action.admin.indices.open.OpenIndexRequest;
+import org.elasticsearch.action.bulk.BulkRequest;
+import org.elasticsearch.action.search.SearchAction;
+import org.elasticsearch.action.search.SearchRequest;
+import org.elasticsearch.action.search.SearchResponse;
+import org.elasticsearch.client.Client;
+import org.elasticsearch.client.FilterClient;
+import org.elasticsearch.common.bytes.BytesReference;
+import org.elasticsearch.common.io.stream.BytesStreamOutput;
+import org.elasticsearch.common.io.stream.StreamInput;
+import org.elasticsearch.common.regex.Regex;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.codahale.metrics.MetricRegistry.name;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * An Elasticsearch {@link Client} which caches the responses of search requests on the client side.
+ * <p>
+ * Search requests are keyed on their complete serialized form, i. e. the indices, types, search source, routing and
+ * preference, and their responses are kept in serialized form, so that the weight of the cache is bounded by
+ * {@link ResultCacheConfiguration#getMaxWeight()} bytes. Cached responses expire after
+ * {@link ResultCacheConfiguration#getTtl()}. Scroll requests are never cached.
+ * <p>
+ * Index, update, delete and bulk requests as well as deleting, opening and closing indices through this client
+ * invalidate all cached responses of searches on the affected indices, including wildcard patterns matching them;
+ * changing aliases invalidates the whole cache. Writes through other clients and aliases pointing to the written
+ * indices aren't detected, and writes only become visible to searches after the next refresh, so the TTL bounds how
+ * stale a cached response can be.
+ * <p>
+ * The cache records the metrics {@code <prefix>.cache.hits}, {@code <prefix>.cache.misses},
+ * {@code <prefix>.cache.evictions} ({@link Meter}) as well as {@code <prefix>.cache.entries} and
+ * {@code <prefix>.cache.weight} ({@link Gauge}). The gauges are removed when the client is {@link #close() closed}.
+ */
+public class CachingClient extends FilterClient {
+    private static final Set<String> ALL_INDICES = ImmutableSet.of("_all");
+
+    private final Cache<CacheKey, BytesReference> cache;
+    private final ConcurrentMap<String, Set<CacheKey>> keysByIndex = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Set<CacheKey>> keysByPattern = new ConcurrentHashMap<>();
+    private final Set<InFlightSearch> inFlightSearches = ConcurrentHashMap.newKeySet();
+    private final AtomicLong weight = new AtomicLong();
+    private final Meter hits;
+    private final Meter misses;
+    private final Meter evictions;
+    private final MetricRegistry metricRegistry;
+    private final String entriesGaugeName;
+    private final String weightGaugeName;
+
+    /**
+     * Construct a new caching Elasticsearch client.
+     *
+     * @param client         the Elasticsearch {@link Client} to send uncached requests to
+     * @param config         a valid {@link ResultCacheConfiguration} instance
+     * @param metricRegistry the {@link MetricRegistry} to record the metrics in
+     * @param prefix         the prefix of the metric names
+     */
+    public CachingClient(Client client, ResultCacheConfiguration config, MetricRegistry metricRegistry, String prefix) {
+        super(checkNotNull(client, "Elasticsearch client must not be null"));
+        checkNotNull(config, "ResultCacheConfiguration must not be null");
+        checkNotNull(metricRegistry, "MetricRegistry must not be null");
+        checkNotNull(prefix, "Metric prefix must not be null");
+
+        this.hits = metricRegistry.meter(name(prefix, "cache", "hits"));
+        this.misses = metricRegistry.meter(name(prefix, "cache", "misses"));
+        this.evictions = metricRegistry.meter(name(prefix, "cache", "evictions"));
+        this.cache = CacheBuilder.newBuilder()
+                .maximumWeight(config.getMaxWeight().toBytes())
+                .<CacheKey, BytesReference>weigher((key, value) -> key.weight() + value.length())
+                .expireAfterWrite(config.getTtl().toNanoseconds(), TimeUnit.NANOSECONDS)
+                .<CacheKey, BytesReference>removalListener(notification -> {
+                    weight.addAndGet(-(notification.getKey().weight() + notification.getValue().length()));
+                    if (notification.getCause() != RemovalCause.REPLACED) {
+                        deindex(notification.getKey());
+                    }
+                    if (notification.getCause() == RemovalCause.SIZE) {
+                        evictions.mark();
+                    }
+                })
+                .build();
+
+        this.metricRegistry = metricRegistry;
+        this.entriesGaugeName = name(prefix, "cache", "entries");
+        this.weightGaugeName = name(prefix, "cache", "weight");
+        metricRegistry.gauge(entriesGaugeName, () -> cache::size);
+        metricRegistry.gauge(weightGaugeName, () -> weight::get);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected <Request extends ActionRequest, Response extends ActionResponse, RequestBuilder extends ActionRequestBuilder<Request, Response, RequestBuilder>> void doExecute(
+            Action<Request, Response, RequestBuilder> action, Request request, ActionListener<Response> listener) {
+        if (SearchAction.INSTANCE.equals(action) && ((SearchRequest) request).scroll() == null) {
+            cachedSearch((SearchRequest) request, (ActionListener<SearchResponse>) listener);
+            return;
+        }
+
+        final Set<String> writtenIndices = writtenIndices(request);
+        if (null == writtenIndices) {
+            super.doExecute(action, request, listener);
+            return;
+        }
+
+        invalidate(writtenIndices);
+        super.doExecute(action, request, new ActionListener<Response>() {
+            @Override
+            public void onResponse(Response response) {
+                invalidate(writtenIndices);
+                listener.onResponse(response);
+            }
+
+            @Override
+            public void onFailure(Throwable e) {
+                invalidate(writtenIndices);
+                listener.onFailure(e);
+            }
+        });
+    }
+
+    /**
+     * Discard all cached search responses.
+     */
+    public void invalidateAll() {
+        invalidate(ALL_INDICES);
+    }
+
+    /**
+     * Removes the cache gauges from the {@link MetricRegistry} and closes the underlying client.
+     */
+    @Override
+    public void close() {
+        metricRegistry.remove(entriesGaugeName);
+        metricRegistry.remove(weightGaugeName);
+        super.close();
+    }
+
+    private void cachedSearch(SearchRequest request, ActionListener<SearchResponse> listener) {
+        final CacheKey key;
+        try {
+            key = new CacheKey(request);
+        } catch (IOException e) {
+            super.doExecute(SearchAction.INSTANCE, request, listener);
+            return;
+        }
+
+        final SearchResponse cached = get(key);
+        if (null != cached) {
+            hits.mark();
+            listener.onResponse(cached);
+            return;
+        }
+
+        misses.mark();
+        final InFlightSearch inFlight = new InFlightSearch(key);
+        inFlightSearches.add(inFlight);
+
+        super.doExecute(SearchAction.INSTANCE, request, new ActionListener<SearchResponse>() {
+            @Override
+            public void onResponse(SearchResponse response) {
+                inFlightSearches.remove(inFlight);
+                if (!inFlight.invalidated && response.getFailedShards() == 0 && !response.isTimedOut()) {
+                    put(key, response);
+                }
+                listener.onResponse(response);
+            }
+
+            @Override
+            public void onFailure(Throwable e) {
+                inFlightSearches.remove(inFlight);
+                listener.onFailure(e);
+            }
+        });
+    }
+
+    private SearchResponse get(CacheKey key) {
+        final BytesReference cached = cache.getIfPresent(key);
+        if (null == cached) {
+            return null;
+        }
+
+        final SearchResponse response = new SearchResponse();
+        try {
+            response.readFrom(StreamInput.wrap(cached));
+        } catch (IOException e) {
+            cache.invalidate(key);
+            return null;
+        }
+        return response;
+    }
+
+    private void put(CacheKey key, SearchResponse response) {
+        final BytesStreamOutput out = new BytesStreamOutput();
+        try {
+            response.writeTo(out);
+        } catch (IOException e) {
+            return;
+        }
+
+        final BytesReference bytes = out.bytes();
+        index(key);
+        weight.addAndGet(key.weight() + bytes.length());
+        cache.put(key, bytes);
+    }
+
+    private void index(CacheKey key) {
+        for (String index : key.indices) {
+            keysByName(index).compute(index, (name, keys) -> {
+                final Set<CacheKey> indexKeys = null == keys ? ConcurrentHashMap.newKeySet() : keys;
+                indexKeys.add(key);
+                return indexKeys;
+            });
+        }
+    }
+
+    private void deindex(CacheKey key) {
+        for (String index : key.indices) {
+            keysByName(index).computeIfPresent(index, (name, keys) -> {
+                keys.remove(key);
+                return keys.isEmpty() ? null : keys;
+            });
+        }
+    }
+
+    private ConcurrentMap<String, Set<CacheKey>> keysByName(String index) {
+        return Regex.isSimpleMatchPattern(index) ? keysByPattern : keysByIndex;
+    }
+
+    private void invalidate(Set<String> writtenIndices) {
+        for (InFlightSearch inFlight : inFlightSearches) {
+            if (inFlight.key.isAffectedBy(writtenIndices)) {
+                inFlight.invalidated = true;
+            }
+        }
+
+        if (writtenIndices.contains("_all")) {
+            cache.invalidateAll();
+            return;
+        }
+
+        final Set<CacheKey> affectedKeys = new HashSet<>(keysByIndex.getOrDefault("_all", Collections.emptySet()));
+        for (String writtenIndex : writtenIndices) {
+            affectedKeys.addAll(keysByIndex.getOrDefault(writtenIndex, Collections.emptySet()));
+        }
+        for (Map.Entry<String, Set<CacheKey>> entry : keysByPattern.entrySet()) {
+            for (String writtenIndex : writtenIndices) {
+                if (Regex.simpleMatch(entry.getKey(), writtenIndex)) {
+                    affectedKeys.addAll(entry.getValue());
+                    break;
+                }
+            }
+        }
+
+        cache.invalidateAll(affectedKeys);
+    }
+
+    /**
+     * Returns the indices modified by a request or {@literal null} if the request doesn't modify any documents.
+     */
+    private static Set<String> writtenIndices(ActionRequest<?> request) {
+        if (request instanceof IndicesAliasesRequest) {
+            return ALL_INDICES;
+        } else if (request instanceof BulkRequest) {
+            final Set<String> indices = new HashSet<>();
+            for (IndicesRequest subRequest : ((BulkRequest) request).subRequests()) {
+                indices.addAll(Arrays.asList(subRequest.indices()));
+            }
+            return indices;
+        } else if (request instanceof DocumentRequest
+                || request instanceof DeleteIndexRequest
+                || request instanceof CloseIndexRequest
+                || request instanceof OpenIndexRequest) {
+            final String[] indices = ((IndicesRequest) request).indices();
+            return null == indices || indices.length == 0 ? ALL_INDICES : new HashSet<>(Arrays.asList(indices));
+        }
+
+        return null;
+    }
+
+    private static class InFlightSearch {
+        private final CacheKey key;
+        private volatile boolean invalidated = false;
+
+        private InFlightSearch(CacheKey key) {
+            this.key = key;
+        }
+    }
+
+    private static class CacheKey {
+        private final Set<String> indices;
+        private final byte[] request;
+        private final int hashCode;
+
+        private CacheKey(SearchRequest searchRequest) throws IOException {
+            final BytesStreamOutput out = new BytesStreamOutput();
+            searchRequest.writeTo(out);
+
+            this.indices = indices(searchRequest.indices());
+            this.request = out.bytes().toBytes();
+            this.hashCode = Arrays.hashCode(request);
+        }
+
+        private static Set<String> indices(String[] names) {
+            final Set<String> indices = new HashSet<>();
+            if (null != names) {
+                for (String name : names) {
+                    for (String index : name.split(",")) {
+                        indices.add(index.startsWith("+") || index.startsWith("-") ? index.substring(1) : index);
+                    }
+                }
+            }
+            return indices.isEmpty() ? ALL_INDICES : indices;
+        }
+
+        private int weight() {
+            return request.length;
+        }
+
+        private boolean isAffectedBy(Set<String> writtenIndices) {
+            if (writtenIndices.contains("_all") || indices.contains("_all")) {
+                return true;
+            }
+
+            for (String index : indices) {
+                for (String writtenIndex : writtenIndices) {
+                    if (index.equals(writtenIndex)
+                            || Regex.isSimpleMatchPattern(index) && Regex.simpleMatch(index, writtenIndex)) {
+                        return true;
+                    }
+                }
+            }
+
+            return false;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return this == o || o instanceof CacheKey && Arrays.equals(request, ((CacheKey) o).request);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+}
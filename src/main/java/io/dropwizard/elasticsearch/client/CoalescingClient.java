@@ -0,0 +1,194 @@
+package io.dropwizard.elasticsearch.client;
+
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import org.elasticsearch.action.Action;
+import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.action.ActionRequest;
+import org.elasticsearch.action.ActionRequestBuilder;
+import org.elasticsearch.action.ActionResponse;
+import org.elasticsearch.action.get.GetAction;
+import org.elasticsearch.action.search.SearchAction;
+import org.elasticsearch.action.search.SearchRequest;
+import org.elasticsearch.client.Client;
+import org.elasticsearch.client.FilterClient;
+import org.elasticsearch.common.io.stream.BytesStreamOutput;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import static com.codahale.metrics.MetricRegistry.name;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * An Elasticsearch {@link Client} which collapses concurrent identical get and search requests into a single request
+ * and passes its response (or failure) to all callers.
+ * <p>
+ * Requests are identical if their serialized forms are equal. A request only joins an identical request which is
+ * already in flight, so its callers may receive a response which doesn't reflect writes acknowledged after that request
+ * was sent, even for realtime gets; scroll requests are never coalesced. All callers of a coalesced request receive the
+ * same response instance, which must therefore not be modified.
+ * <p>
+ * The number of requests which have been coalesced into an in-flight request is recorded as
+ * {@code <prefix>.coalesced} ({@link Meter}).
+ */
+public class CoalescingClient extends FilterClient {
+    private static final Logger LOGGER = LoggerFactory.getLogger(CoalescingClient.class);
+
+    private final ConcurrentMap<RequestKey, InFlightRequest<?>> inFlightRequests = new ConcurrentHashMap<>();
+    private final Meter coalesced;
+
+    /**
+     * Construct a new coalescing Elasticsearch client.
+     *
+     * @param client         the Elasticsearch {@link Client} to send the requests to
+     * @param metricRegistry the {@link MetricRegistry} to record the metrics in
+     * @param prefix         the prefix of the metric names
+     */
+    public CoalescingClient(Client client, MetricRegistry metricRegistry, String prefix) {
+        super(checkNotNull(client, "Elasticsearch client must not be null"));
+        checkNotNull(metricRegistry, "MetricRegistry must not be null");
+        checkNotNull(prefix, "Metric prefix must not be null");
+
+        this.coalesced = metricRegistry.meter(name(prefix, "coalesced"));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected <Request extends ActionRequest, Response extends ActionResponse, RequestBuilder extends ActionRequestBuilder<Request, Response, RequestBuilder>> void doExecute(
+            Action<Request, Response, RequestBuilder> action, Request request, ActionListener<Response> listener) {
+        final RequestKey key = isCoalescable(action, request) ? RequestKey.of(action, request) : null;
+        if (null == key) {
+            super.doExecute(action, request, listener);
+            return;
+        }
+
+        while (true) {
+            final InFlightRequest<Response> candidate = new InFlightRequest<>(listener);
+            final InFlightRequest<Response> existing =
+                    (InFlightRequest<Response>) inFlightRequests.putIfAbsent(key, candidate);
+
+            if (null == existing) {
+                execute(action, request, key, candidate);
+                return;
+            } else if (existing.join(listener)) {
+                coalesced.mark();
+                return;
+            }
+            // The existing request has completed in the meantime and is no longer registered, so try again.
+        }
+    }
+
+    private <Request extends ActionRequest, Response extends ActionResponse, RequestBuilder extends ActionRequestBuilder<Request, Response, RequestBuilder>> void execute(
+            Action<Request, Response, RequestBuilder> action, Request request, RequestKey key,
+            InFlightRequest<Response> inFlight) {
+        try {
+            super.doExecute(action, request, new ActionListener<Response>() {
+                @Override
+                public void onResponse(Response response) {
+                    inFlightRequests.remove(key, inFlight);
+                    for (ActionListener<Response> listener : inFlight.complete()) {
+                        try {
+                            listener.onResponse(response);
+                        } catch (RuntimeException e) {
+                            LOGGER.warn("Listener of coalesced request failed", e);
+                        }
+                    }
+                }
+
+                @Override
+                public void onFailure(Throwable e) {
+                    inFlightRequests.remove(key, inFlight);
+                    for (ActionListener<Response> listener : inFlight.complete()) {
+                        try {
+                            listener.onFailure(e);
+                        } catch (RuntimeException listenerException) {
+                            LOGGER.warn("Listener of coalesced request failed", listenerException);
+                        }
+                    }
+                }
+            });
+        } catch (RuntimeException e) {
+            inFlightRequests.remove(key, inFlight);
+            final List<ActionListener<Response>> listeners = inFlight.complete();
+            for (ActionListener<Response> listener : listeners.subList(1, listeners.size())) {
+                listener.onFailure(e);
+            }
+            throw e;
+        }
+    }
+
+    private static boolean isCoalescable(Action<?, ?, ?> action, ActionRequest<?> request) {
+        return GetAction.INSTANCE.equals(action)
+                || SearchAction.INSTANCE.equals(action) && ((SearchRequest) request).scroll() == null;
+    }
+
+    private static class InFlightRequest<Response> {
+        private final List<ActionListener<Response>> listeners = new ArrayList<>();
+        private boolean completed = false;
+
+        private InFlightRequest(ActionListener<Response> listener) {
+            listeners.add(listener);
+        }
+
+        private synchronized boolean join(ActionListener<Response> listener) {
+            if (completed) {
+                return false;
+            }
+
+            listeners.add(listener);
+            return true;
+        }
+
+        private synchronized List<ActionListener<Response>> complete() {
+            completed = true;
+            return new ArrayList<>(listeners);
+        }
+    }
+
+    private static class RequestKey {
+        private final String action;
+        private final byte[] request;
+        private final int hashCode;
+
+        private RequestKey(String action, byte[] request) {
+            this.action = action;
+            this.request = request;
+            this.hashCode = 31 * action.hashCode() + Arrays.hashCode(request);
+        }
+
+        private static RequestKey of(Action<?, ?, ?> action, ActionRequest<?> request) {
+            final BytesStreamOutput out = new BytesStreamOutput();
+            try {
+                request.writeTo(out);
+            } catch (IOException e) {
+                return null;
+            }
+            return new RequestKey(action.name(), out.bytes().toBytes());
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof RequestKey)) {
+                return false;
+            }
+
+            final RequestKey other = (RequestKey) o;
+            return action.equals(other.action) && Arrays.equals(request, other.request);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package io.dropwizard.elasticsearch.client;
+
+import io.dropwizard.util.Duration;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * A deadline for all Elasticsearch requests sent by the current thread, e. g. while handling an HTTP request.
+ * <p>
+ * A {@link TimeoutClient} fails requests sent after the deadline has passed immediately and limits the timeout of all
+ * other requests to the remaining time. Nested deadlines can only shorten the current deadline, unless the current
+ * deadline has already passed.
+ * <pre>{@code
+ * try (EsDeadline.Scope scope = EsDeadline.within(Duration.seconds(2L))) {
+ *     client.prepareSearch("index").get();
+ * }
+ * }</pre>
+ *
+ * @see io.dropwizard.elasticsearch.jersey.EsDeadlineFilter
+ */
+public final class EsDeadline {
+    private static final ThreadLocal<Long> DEADLINE = new ThreadLocal<>();
+
+    private EsDeadline() {
+    }
+
+    /**
+     * Set a deadline for the Elasticsearch requests of the current thread, which is reset when the returned
+     * {@link Scope} is closed. A deadline of the current thread which has already passed is replaced.
+     *
+     * @param timeout the time from now after which the deadline passes
+     * @return a {@link Scope} restoring the previous deadline when closed
+     */
+    public static Scope within(Duration timeout) {
+        checkNotNull(timeout, "Timeout must not be null");
+
+        final Long previous = DEADLINE.get();
+        final long now = System.nanoTime();
+        final long deadline = now + timeout.toNanoseconds();
+        if (null == previous || previous - now <= 0L || deadline - previous < 0L) {
+            DEADLINE.set(deadline);
+        }
+        return new Scope(previous);
+    }
+
+    /**
+     * Get the time remaining until the deadline of the current thread.
+     *
+     * @return the remaining time in nanoseconds, which is negative if the deadline has passed, or {@literal null} if
+     * the current thread has no deadline
+     */
+    public static Long remainingNanos() {
+        final Long deadline = DEADLINE.get();
+        return null == deadline ? null : deadline - System.nanoTime();
+    }
+
+    /**
+     * The scope of a deadline which restores the previous deadline of the thread when closed. Closing a scope on
+     * another thread than the one which created it has no effect.
+     */
+    public static final class Scope implements AutoCloseable {
+        private final Long previous;
+        private final Thread thread;
+
+        private Scope(Long previous) {
+            this.previous = previous;
+            this.thread = Thread.currentThread();
+        }
+
+        @Override
+        public void close() {
+            if (Thread.currentThread() != thread) {
+                return;
+            }
+
+            if (null == previous) {
+                DEADLINE.remove();
+            } else {
+                DEADLINE.set(previous);
+            }
+        }
+    }
+}
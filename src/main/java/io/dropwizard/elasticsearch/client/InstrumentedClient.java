@@ -0,0 +1,96 @@
+package io.dropwizard.elasticsearch.client;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import org.elasticsearch.action.Action;
+import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.action.ActionRequest;
+import org.elasticsearch.action.ActionRequestBuilder;
+import org.elasticsearch.action.ActionResponse;
+import org.elasticsearch.client.Client;
+import org.elasticsearch.client.FilterClient;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import static com.codahale.metrics.MetricRegistry.name;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * An Elasticsearch {@link Client} which records the latency, throughput and errors of every executed action in a
+ * {@link MetricRegistry}.
+ * <p>
+ * For each action, the metrics are named {@code <prefix>.<action>.latency} ({@link Timer}),
+ * {@code <prefix>.<action>.requests} ({@link Meter}) and {@code <prefix>.<action>.errors} ({@link Counter}), where
+ * {@code <action>} is the Elasticsearch action name with {@code :} and {@code /} replaced by dots, e. g.
+ * {@code indices.data.read.search}.
+ */
+public class InstrumentedClient extends FilterClient {
+    private final MetricRegistry metricRegistry;
+    private final String prefix;
+    private final ConcurrentMap<String, ActionMetrics> actionMetrics = new ConcurrentHashMap<>();
+
+    /**
+     * Construct a new instrumented Elasticsearch client.
+     *
+     * @param client         the Elasticsearch {@link Client} to instrument
+     * @param metricRegistry the {@link MetricRegistry} to record the metrics in
+     * @param prefix         the prefix of the metric names
+     */
+    public InstrumentedClient(Client client, MetricRegistry metricRegistry, String prefix) {
+        super(checkNotNull(client, "Elasticsearch client must not be null"));
+        this.metricRegistry = checkNotNull(metricRegistry, "MetricRegistry must not be null");
+        this.prefix = checkNotNull(prefix, "Metric prefix must not be null");
+    }
+
+    @Override
+    protected <Request extends ActionRequest, Response extends ActionResponse, RequestBuilder extends ActionRequestBuilder<Request, Response, RequestBuilder>> void doExecute(
+            Action<Request, Response, RequestBuilder> action, Request request, final ActionListener<Response> listener) {
+        final ActionMetrics metrics = actionMetrics.computeIfAbsent(action.name(), this::createActionMetrics);
+        metrics.requests.mark();
+        final Timer.Context context = metrics.latency.time();
+
+        try {
+            super.doExecute(action, request, new ActionListener<Response>() {
+                @Override
+                public void onResponse(Response response) {
+                    context.stop();
+                    listener.onResponse(response);
+                }
+
+                @Override
+                public void onFailure(Throwable e) {
+                    context.stop();
+                    metrics.errors.inc();
+                    listener.onFailure(e);
+                }
+            });
+        } catch (RuntimeException e) {
+            context.stop();
+            metrics.errors.inc();
+            throw e;
+        }
+    }
+
+    private ActionMetrics createActionMetrics(String actionName) {
+        final String baseName = name(prefix, actionName.replace(':', '.').replace('/', '.'));
+        return new ActionMetrics(
+                metricRegistry.timer(name(baseName, "latency")),
+                metricRegistry.meter(name(baseName, "requests")),
+                metricRegistry.counter(name(baseName, "errors")));
+    }
+
+    private static class ActionMetrics {
+        private final Timer latency;
+        private final Meter requests;
+        private final Counter errors;
+
+        private ActionMetrics(Timer latency, Meter requests, Counter errors) {
+            this.latency = latency;
+            this.requests = requests;
+            this.errors = errors;
+        }
+    }
+}
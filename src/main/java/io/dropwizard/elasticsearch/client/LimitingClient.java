@@ -0,0 +1,139 @@
+package io.dropwizard.elasticsearch.client;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import io.dropwizard.elasticsearch.config.ConcurrencyLimitConfiguration;
+import org.elasticsearch.ElasticsearchTimeoutException;
+import org.elasticsearch.ExceptionsHelper;
+import org.elasticsearch.action.Action;
+import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.action.ActionRequest;
+import org.elasticsearch.action.ActionRequestBuilder;
+import org.elasticsearch.action.ActionResponse;
+import org.elasticsearch.action.bulk.BulkItemResponse;
+import org.elasticsearch.action.bulk.BulkResponse;
+import org.elasticsearch.client.Client;
+import org.elasticsearch.client.FilterClient;
+import org.elasticsearch.common.util.concurrent.EsRejectedExecutionException;
+import org.elasticsearch.transport.ReceiveTimeoutTransportException;
+
+import static com.codahale.metrics.MetricRegistry.name;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * An Elasticsearch {@link Client} which limits the number of concurrent read and write requests with adaptive
+ * concurrency limits and rejects requests exceeding the current limit immediately with an
+ * {@link EsRejectedExecutionException}, instead of letting the calling threads pile up on a slow cluster.
+ * <p>
+ * Read requests ({@code indices:data/read/*} actions like get and search) and write requests
+ * ({@code indices:data/write/*} actions like index and bulk) have separate limits, which are adjusted to the observed
+ * latencies and rejections by an additive increase/multiplicative decrease algorithm. Administrative requests aren't
+ * limited.
+ * <p>
+ * The current limit, the number of requests in flight and the rejected requests are recorded as
+ * {@code <prefix>.concurrency.<read|write>.limit}, {@code <prefix>.concurrency.<read|write>.in_flight} ({@link Gauge})
+ * and {@code <prefix>.concurrency.<read|write>.rejected} ({@link Meter}).
+ */
+public class LimitingClient extends FilterClient {
+    private static final String READ_ACTION_PREFIX = "indices:data/read/";
+    private static final String WRITE_ACTION_PREFIX = "indices:data/write/";
+
+    private final Limit reads;
+    private final Limit writes;
+
+    /**
+     * Construct a new limiting Elasticsearch client.
+     *
+     * @param client         the Elasticsearch {@link Client} to send the requests to
+     * @param config         a valid {@link ConcurrencyLimitConfiguration} instance
+     * @param metricRegistry the {@link MetricRegistry} to record the metrics in
+     * @param prefix         the prefix of the metric names
+     */
+    public LimitingClient(Client client, ConcurrencyLimitConfiguration config, MetricRegistry metricRegistry,
+                          String prefix) {
+        super(checkNotNull(client, "Elasticsearch client must not be null"));
+        checkNotNull(config, "ConcurrencyLimitConfiguration must not be null");
+        checkNotNull(metricRegistry, "MetricRegistry must not be null");
+        checkNotNull(prefix, "Metric prefix must not be null");
+
+        this.reads = new Limit("read", new AimdLimiter(config.getReads()), metricRegistry, prefix);
+        this.writes = new Limit("write", new AimdLimiter(config.getWrites()), metricRegistry, prefix);
+    }
+
+    @Override
+    protected <Request extends ActionRequest, Response extends ActionResponse, RequestBuilder extends ActionRequestBuilder<Request, Response, RequestBuilder>> void doExecute(
+            Action<Request, Response, RequestBuilder> action, Request request, ActionListener<Response> listener) {
+        final Limit limit;
+        if (action.name().startsWith(READ_ACTION_PREFIX)) {
+            limit = reads;
+        } else if (action.name().startsWith(WRITE_ACTION_PREFIX)) {
+            limit = writes;
+        } else {
+            super.doExecute(action, request, listener);
+            return;
+        }
+
+        if (!limit.limiter.tryAcquire()) {
+            limit.rejected.mark();
+            listener.onFailure(new EsRejectedExecutionException(String.format(
+                    "Concurrency limit of %d %s requests to Elasticsearch reached, rejecting %s",
+                    limit.limiter.getLimit(), limit.type, action.name())));
+            return;
+        }
+
+        final long startTime = System.nanoTime();
+        try {
+            super.doExecute(action, request, new ActionListener<Response>() {
+                @Override
+                public void onResponse(Response response) {
+                    limit.limiter.release(System.nanoTime() - startTime, isOverloaded(response));
+                    listener.onResponse(response);
+                }
+
+                @Override
+                public void onFailure(Throwable e) {
+                    limit.limiter.release(System.nanoTime() - startTime, isOverloaded(e));
+                    listener.onFailure(e);
+                }
+            });
+        } catch (RuntimeException e) {
+            limit.limiter.release(System.nanoTime() - startTime, false);
+            throw e;
+        }
+    }
+
+    private static boolean isOverloaded(ActionResponse response) {
+        if (response instanceof BulkResponse && ((BulkResponse) response).hasFailures()) {
+            for (BulkItemResponse item : (BulkResponse) response) {
+                if (item.isFailed() && isOverloaded(item.getFailure().getCause())) {
+                    return true;
+                }
+            }
+        }
+
+        return false;
+    }
+
+    private static boolean isOverloaded(Throwable e) {
+        return null != ExceptionsHelper.unwrap(e,
+                EsRejectedExecutionException.class,
+                ElasticsearchTimeoutException.class,
+                ReceiveTimeoutTransportException.class);
+    }
+
+    private static class Limit {
+        private final String type;
+        private final AimdLimiter limiter;
+        private final Meter rejected;
+
+        private Limit(String type, AimdLimiter limiter, MetricRegistry metricRegistry, String prefix) {
+            this.type = type;
+            this.limiter = limiter;
+            this.rejected = metricRegistry.meter(name(prefix, "concurrency", type, "rejected"));
+
+            metricRegistry.gauge(name(prefix, "concurrency", type, "limit"), () -> limiter::getLimit);
+            metricRegistry.gauge(name(prefix, "concurrency", type, "in_flight"), () -> limiter::getInFlight);
+        }
+    }
+}
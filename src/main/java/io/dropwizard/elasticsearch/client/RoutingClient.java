@@ -0,0 +1,446 @@
+package io.dropwizard.elasticsearch.client;
+
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.dropwizard.elasticsearch.config.RoutingConfiguration;
+import org.elasticsearch.ExceptionsHelper;
+import org.elasticsearch.action.Action;
+import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.action.ActionRequest;
+import org.elasticsearch.action.ActionRequestBuilder;
+import org.elasticsearch.action.ActionResponse;
+import org.elasticsearch.action.DocumentRequest;
+import org.elasticsearch.action.admin.cluster.state.ClusterStateResponse;
+import org.elasticsearch.action.bulk.BulkAction;
+import org.elasticsearch.action.bulk.BulkItemResponse;
+import org.elasticsearch.action.bulk.BulkRequest;
+import org.elasticsearch.action.bulk.BulkResponse;
+import org.elasticsearch.action.delete.DeleteRequest;
+import org.elasticsearch.action.update.UpdateRequest;
+import org.elasticsearch.client.Client;
+import org.elasticsearch.client.FilterClient;
+import org.elasticsearch.client.transport.NoNodeAvailableException;
+import org.elasticsearch.client.transport.TransportClient;
+import org.elasticsearch.cluster.ClusterState;
+import org.elasticsearch.cluster.node.DiscoveryNode;
+import org.elasticsearch.cluster.routing.IndexRoutingTable;
+import org.elasticsearch.cluster.routing.IndexShardRoutingTable;
+import org.elasticsearch.cluster.routing.OperationRouting;
+import org.elasticsearch.cluster.routing.ShardRouting;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.unit.TimeValue;
+import org.elasticsearch.index.shard.ShardId;
+import org.elasticsearch.transport.ConnectTransportException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import static com.codahale.metrics.MetricRegistry.name;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * An Elasticsearch {@link Client} which splits bulk requests by the node holding the primary shard of each item and
+ * sends every part directly to that node, so that the node coordinating a part doesn't have to forward it to the
+ * primaries on other nodes.
+ * <p>
+ * The routing table and the index metadata are taken from the cluster state, which is polled every
+ * {@link RoutingConfiguration#getRefreshInterval()} after {@link #start()} and only fetched completely when its
+ * version has changed. Until the first routing table has been fetched, bulk requests are sent through the wrapped
+ * client. Each primary-holding node gets its own single-node {@link TransportClient} with the settings of the managed
+ * client, which is closed once the node doesn't hold any primaries anymore and all parts sent to it have completed.
+ * Items whose shard can't be determined, i. e. items with generated IDs, items for aliases or unknown indices and
+ * items of shards without an active primary, are sent through the wrapped client as before. A part which can't be
+ * sent to its node because the node isn't reachable is sent through the wrapped client as well.
+ * <p>
+ * The responses of the parts are merged in the order of the original items. The number of items sent directly and
+ * through the wrapped client is recorded as {@code <prefix>.routing.routed} and {@code <prefix>.routing.unrouted}
+ * ({@link Meter}).
+ * <p>
+ * A node client already sends the items of bulk requests to the primaries directly and doesn't need this client.
+ */
+public class RoutingClient extends FilterClient {
+    private static final Logger LOGGER = LoggerFactory.getLogger(RoutingClient.class);
+
+    private final Function<DiscoveryNode, Client> nodeClientFactory;
+    private final ConcurrentMap<String, NodeClient> nodeClients = new ConcurrentHashMap<>();
+    private final long refreshIntervalMillis;
+    private final TimeValue refreshTimeout;
+    private final Meter routed;
+    private final Meter unrouted;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(
+            new ThreadFactoryBuilder()
+                    .setNameFormat("es-routing-client-%d")
+                    .setDaemon(true)
+                    .build());
+    private volatile Routing routing = null;
+
+    /**
+     * Construct a new routing Elasticsearch client.
+     *
+     * @param client         the Elasticsearch {@link Client} to send the other requests and unroutable items to
+     * @param settings       the {@link Settings} of the single-node transport clients
+     * @param config         a valid {@link RoutingConfiguration} instance
+     * @param metricRegistry the {@link MetricRegistry} to record the metrics in
+     * @param prefix         the prefix of the metric names
+     */
+    public RoutingClient(Client client, Settings settings, RoutingConfiguration config,
+                         MetricRegistry metricRegistry, String prefix) {
+        this(client, config, nodeClientFactory(checkNotNull(settings, "Settings must not be null")),
+                metricRegistry, prefix);
+    }
+
+    RoutingClient(Client client, RoutingConfiguration config, Function<DiscoveryNode, Client> nodeClientFactory,
+                  MetricRegistry metricRegistry, String prefix) {
+        super(checkNotNull(client, "Elasticsearch client must not be null"));
+        checkNotNull(config, "RoutingConfiguration must not be null");
+        checkNotNull(metricRegistry, "MetricRegistry must not be null");
+        checkNotNull(prefix, "Metric prefix must not be null");
+
+        this.nodeClientFactory = nodeClientFactory;
+        this.routed = metricRegistry.meter(name(prefix, "routing", "routed"));
+        this.unrouted = metricRegistry.meter(name(prefix, "routing", "unrouted"));
+        this.refreshIntervalMillis = config.getRefreshInterval().toMilliseconds();
+        this.refreshTimeout = TimeValue.timeValueMillis(refreshIntervalMillis);
+    }
+
+    /**
+     * Starts refreshing the routing table periodically. Must be called after the transport addresses have been added
+     * to the wrapped client.
+     */
+    public void start() {
+        scheduler.scheduleWithFixedDelay(this::refresh, 0L, refreshIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected <Request extends ActionRequest, Response extends ActionResponse, RequestBuilder extends ActionRequestBuilder<Request, Response, RequestBuilder>> void doExecute(
+            Action<Request, Response, RequestBuilder> action, Request request, ActionListener<Response> listener) {
+        final Routing currentRouting = routing;
+        if (BulkAction.INSTANCE.equals(action) && null != currentRouting) {
+            route(currentRouting, (BulkRequest) request, (ActionListener<BulkResponse>) listener);
+        } else {
+            super.doExecute(action, request, listener);
+        }
+    }
+
+    /**
+     * Stops refreshing the routing table, closes the single-node transport clients and closes the underlying client.
+     */
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+        for (NodeClient nodeClient : nodeClients.values()) {
+            nodeClient.client.close();
+        }
+        nodeClients.clear();
+        super.close();
+    }
+
+    void refresh() {
+        try {
+            final long version = in().admin().cluster().prepareState().clear().get(refreshTimeout)
+                    .getState().version();
+            final Routing currentRouting = routing;
+            if (null != currentRouting && currentRouting.version == version) {
+                return;
+            }
+
+            final ClusterStateResponse response = in().admin().cluster().prepareState()
+                    .clear()
+                    .setNodes(true)
+                    .setRoutingTable(true)
+                    .setMetaData(true)
+                    .get(refreshTimeout);
+            update(Routing.of(response.getState()));
+        } catch (RuntimeException e) {
+            LOGGER.warn("Couldn't refresh the routing table", e);
+        }
+    }
+
+    void update(Routing newRouting) {
+        for (DiscoveryNode node : newRouting.primaries.values()) {
+            nodeClients.computeIfAbsent(node.getId(), id -> new NodeClient(nodeClientFactory.apply(node)));
+        }
+        nodeClients.entrySet().removeIf(entry -> {
+            if (!newRouting.nodeIds.contains(entry.getKey())) {
+                entry.getValue().retire();
+                return true;
+            }
+            return false;
+        });
+        routing = newRouting;
+    }
+
+    private void route(Routing currentRouting, BulkRequest request, ActionListener<BulkResponse> listener) {
+        final Map<String, Part> parts = new LinkedHashMap<>();
+        final List<ActionRequest> items = request.requests();
+        for (int i = 0; i < items.size(); i++) {
+            final DiscoveryNode node = currentRouting.primary(items.get(i));
+            final String nodeId = null == node || !nodeClients.containsKey(node.getId()) ? null : node.getId();
+            parts.computeIfAbsent(nodeId, id -> new Part(id, request)).add(i, items.get(i));
+        }
+
+        if (parts.size() == 1 && parts.containsKey(null)) {
+            unrouted.mark(items.size());
+            super.doExecute(BulkAction.INSTANCE, request, listener);
+            return;
+        }
+
+        final BulkItemResponse[] responses = new BulkItemResponse[items.size()];
+        final AtomicInteger remaining = new AtomicInteger(parts.size());
+        final AtomicLong tookInMillis = new AtomicLong();
+        for (Part part : parts.values()) {
+            final ActionListener<BulkResponse> partListener = new ActionListener<BulkResponse>() {
+                @Override
+                public void onResponse(BulkResponse response) {
+                    for (BulkItemResponse item : response.getItems()) {
+                        final int position = part.positions.get(item.getItemId());
+                        responses[position] = item.isFailed()
+                                ? new BulkItemResponse(position, item.getOpType(), item.getFailure())
+                                : new BulkItemResponse(position, item.getOpType(), item.getResponse());
+                    }
+                    tookInMillis.accumulateAndGet(response.getTookInMillis(), Math::max);
+                    completed();
+                }
+
+                @Override
+                public void onFailure(Throwable e) {
+                    for (int i = 0; i < part.positions.size(); i++) {
+                        final int position = part.positions.get(i);
+                        final ActionRequest item = part.request.requests().get(i);
+                        final DocumentRequest<?> document = (DocumentRequest<?>) item;
+                        responses[position] = new BulkItemResponse(position, opType(item),
+                                new BulkItemResponse.Failure(document.index(), document.type(), document.id(), e));
+                    }
+                    completed();
+                }
+
+                private void completed() {
+                    if (remaining.decrementAndGet() == 0) {
+                        listener.onResponse(new BulkResponse(responses, tookInMillis.get()));
+                    }
+                }
+            };
+
+            send(part, partListener);
+        }
+    }
+
+    private void send(Part part, ActionListener<BulkResponse> listener) {
+        final NodeClient nodeClient = null == part.nodeId ? null : nodeClients.get(part.nodeId);
+        if (null == nodeClient || !nodeClient.acquire()) {
+            sendThroughClient(part, listener);
+            return;
+        }
+
+        routed.mark(part.positions.size());
+        final AtomicBoolean completed = new AtomicBoolean(false);
+        final ActionListener<BulkResponse> nodeListener = new ActionListener<BulkResponse>() {
+            @Override
+            public void onResponse(BulkResponse response) {
+                if (completed.compareAndSet(false, true)) {
+                    nodeClient.release();
+                    listener.onResponse(response);
+                }
+            }
+
+            @Override
+            public void onFailure(Throwable e) {
+                if (completed.compareAndSet(false, true)) {
+                    nodeClient.release();
+                    fallBack(part, listener, e);
+                } else {
+                    LOGGER.warn("Handling the response of node {} failed", part.nodeId, e);
+                }
+            }
+        };
+
+        // The transport client throws a NoNodeAvailableException synchronously if its node isn't connected
+        try {
+            nodeClient.client.bulk(part.request, nodeListener);
+        } catch (RuntimeException e) {
+            nodeListener.onFailure(e);
+        }
+    }
+
+    private void sendThroughClient(Part part, ActionListener<BulkResponse> listener) {
+        unrouted.mark(part.positions.size());
+        try {
+            super.doExecute(BulkAction.INSTANCE, part.request, listener);
+        } catch (RuntimeException e) {
+            listener.onFailure(e);
+        }
+    }
+
+    private void fallBack(Part part, ActionListener<BulkResponse> listener, Throwable e) {
+        final Throwable cause = ExceptionsHelper.unwrapCause(e);
+        if (cause instanceof ConnectTransportException || cause instanceof NoNodeAvailableException) {
+            LOGGER.debug("Couldn't send bulk request to node {}, sending it through the client", part.nodeId, e);
+            sendThroughClient(part, listener);
+        } else {
+            listener.onFailure(e);
+        }
+    }
+
+    private static String opType(ActionRequest item) {
+        if (item instanceof DeleteRequest) {
+            return "delete";
+        } else if (item instanceof UpdateRequest) {
+            return "update";
+        } else {
+            return "index";
+        }
+    }
+
+    private static Function<DiscoveryNode, Client> nodeClientFactory(Settings settings) {
+        final Settings nodeSettings = Settings.builder()
+                .put(settings)
+                .put("client.transport.sniff", false)
+                .build();
+        return node -> {
+            LOGGER.info("Creating transport client for primary-holding node {}", node);
+            return TransportClient.builder().settings(nodeSettings).build().addTransportAddress(node.getAddress());
+        };
+    }
+
+    /**
+     * A single-node transport client, which is closed once it has been retired and no part is in flight on it.
+     */
+    private static class NodeClient {
+        private final Client client;
+        private int inFlight = 0;
+        private boolean retired = false;
+
+        private NodeClient(Client client) {
+            this.client = client;
+        }
+
+        private synchronized boolean acquire() {
+            if (retired) {
+                return false;
+            }
+            inFlight++;
+            return true;
+        }
+
+        private void release() {
+            final boolean close;
+            synchronized (this) {
+                close = --inFlight == 0 && retired;
+            }
+            if (close) {
+                client.close();
+            }
+        }
+
+        private void retire() {
+            final boolean close;
+            synchronized (this) {
+                retired = true;
+                close = inFlight == 0;
+            }
+            if (close) {
+                client.close();
+            }
+        }
+    }
+
+    /**
+     * The items of a bulk request which are sent to the same node.
+     */
+    private static class Part {
+        private final String nodeId;
+        private final BulkRequest request;
+        private final List<Integer> positions = new ArrayList<>();
+
+        private Part(String nodeId, BulkRequest original) {
+            this.nodeId = nodeId;
+            this.request = new BulkRequest(original)
+                    .refresh(original.refresh())
+                    .consistencyLevel(original.consistencyLevel())
+                    .timeout(original.timeout());
+        }
+
+        private void add(int position, ActionRequest item) {
+            positions.add(position);
+            request.add(item);
+        }
+    }
+
+    /**
+     * The nodes holding the active primary shards in a version of the cluster state.
+     */
+    static class Routing {
+        private static final OperationRouting OPERATION_ROUTING = new OperationRouting(Settings.EMPTY, null);
+
+        private final ClusterState state;
+        private final long version;
+        private final Map<ShardId, DiscoveryNode> primaries;
+        private final Set<String> nodeIds;
+
+        Routing(ClusterState state, Map<ShardId, DiscoveryNode> primaries) {
+            this.state = state;
+            this.version = state.version();
+            this.primaries = primaries;
+            this.nodeIds = new HashSet<>();
+            for (DiscoveryNode node : primaries.values()) {
+                nodeIds.add(node.getId());
+            }
+        }
+
+        static Routing of(ClusterState state) {
+            final Map<ShardId, DiscoveryNode> primaries = new HashMap<>();
+            for (IndexRoutingTable indexRoutingTable : state.routingTable()) {
+                for (IndexShardRoutingTable shardRoutingTable : indexRoutingTable) {
+                    final ShardRouting primary = shardRoutingTable.primaryShard();
+                    final DiscoveryNode node = null == primary || !primary.active()
+                            ? null
+                            : state.nodes().get(primary.currentNodeId());
+                    if (null != node) {
+                        primaries.put(shardRoutingTable.shardId(), node);
+                    }
+                }
+            }
+            return new Routing(state, primaries);
+        }
+
+        ClusterState state() {
+            return state;
+        }
+
+        DiscoveryNode primary(ActionRequest item) {
+            if (!(item instanceof DocumentRequest)) {
+                return null;
+            }
+
+            final DocumentRequest<?> document = (DocumentRequest<?>) item;
+            if (null == document.id() || !state.metaData().hasConcreteIndex(document.index())) {
+                return null;
+            }
+
+            try {
+                return primaries.get(OPERATION_ROUTING.shardId(state, document.index(), document.type(),
+                        document.id(), document.routing()));
+            } catch (RuntimeException e) {
+                return null;
+            }
+        }
+    }
+}
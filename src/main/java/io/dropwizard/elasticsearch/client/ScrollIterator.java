@@ -0,0 +1,209 @@
+package io.dropwizard.elasticsearch.client;
+
+import io.dropwizard.util.Duration;
+import org.elasticsearch.ExceptionsHelper;
+import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.action.search.ClearScrollRequest;
+import org.elasticsearch.action.search.ClearScrollResponse;
+import org.elasticsearch.action.search.SearchRequest;
+import org.elasticsearch.action.search.SearchResponse;
+import org.elasticsearch.action.search.SearchScrollRequest;
+import org.elasticsearch.action.search.SearchType;
+import org.elasticsearch.client.Client;
+import org.elasticsearch.common.unit.TimeValue;
+import org.elasticsearch.search.SearchHit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * An {@link Iterator} over all hits of a scroll search, which fetches the next page of hits while the current page is
+ * being processed.
+ * <p>
+ * At most two pages of hits are held in memory: the page being iterated and the page being fetched. The size of a page
+ * is the size of the search request (per shard for the {@code scan} search type). The initial response of a
+ * {@code scan} search never contains hits, so it only ends the iteration if no document matched. The scroll context
+ * is cleared once all hits have been iterated or the iterator is {@link #close() closed}, so it should be used in a
+ * try-with-resources block. Iterators created by
+ * {@link io.dropwizard.elasticsearch.managed.ManagedEsClient#scroll(SearchRequest, Duration)} are also closed when the
+ * managed client is stopped.
+ * <p>
+ * Failed requests are thrown from {@link #hasNext()} and {@link #next()}. Instances are not thread-safe, except for
+ * {@link #close()}.
+ */
+public class ScrollIterator implements Iterator<SearchHit>, AutoCloseable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ScrollIterator.class);
+
+    private final Client client;
+    private final TimeValue keepAlive;
+    private final Consumer<ScrollIterator> closeListener;
+    private final boolean scan;
+    private final AtomicBoolean closed = new AtomicBoolean(false);
+    private CompletableFuture<SearchResponse> nextPage;
+    private String scrollId = null;
+    private SearchHit[] hits = new SearchHit[0];
+    private int position = 0;
+    private boolean initial = true;
+    private boolean exhausted = false;
+
+    /**
+     * Start a new scroll search.
+     *
+     * @param client    the Elasticsearch {@link Client} to send the requests to
+     * @param request   the search request
+     * @param keepAlive the time the scroll context is kept alive between two pages
+     */
+    public ScrollIterator(Client client, SearchRequest request, Duration keepAlive) {
+        this(client, request, keepAlive, iterator -> {
+        });
+    }
+
+    /**
+     * Start a new scroll search.
+     *
+     * @param client        the Elasticsearch {@link Client} to send the requests to
+     * @param request       the search request
+     * @param keepAlive     the time the scroll context is kept alive between two pages
+     * @param closeListener a listener which is called once when the iterator is closed
+     */
+    public ScrollIterator(Client client, SearchRequest request, Duration keepAlive,
+                          Consumer<ScrollIterator> closeListener) {
+        this.client = checkNotNull(client, "Elasticsearch client must not be null");
+        this.keepAlive = TimeValue.timeValueMillis(checkNotNull(keepAlive, "Keep alive must not be null")
+                .toMilliseconds());
+        this.closeListener = checkNotNull(closeListener, "Close listener must not be null");
+
+        checkNotNull(request, "Search request must not be null").scroll(this.keepAlive);
+        this.scan = request.searchType() == SearchType.SCAN;
+        this.nextPage = new CompletableFuture<>();
+        client.search(request, listener(nextPage));
+    }
+
+    /**
+     * Get a sequential {@link Stream} of the remaining hits, which closes this iterator when it is closed.
+     *
+     * @return a {@link Stream} of the remaining hits
+     */
+    public Stream<SearchHit> stream() {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(this,
+                Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(this::close);
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (position >= hits.length) {
+            if (exhausted || closed.get()) {
+                return false;
+            }
+            fetchPage();
+        }
+        return true;
+    }
+
+    @Override
+    public SearchHit next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+
+        final SearchHit hit = hits[position];
+        hits[position++] = null;
+        return hit;
+    }
+
+    /**
+     * Stops fetching further pages and clears the scroll context. Closing an iterator more than once has no effect.
+     */
+    @Override
+    public void close() {
+        if (closed.compareAndSet(false, true)) {
+            hits = new SearchHit[0];
+            final CompletableFuture<SearchResponse> pending = nextPage;
+            if (null == pending) {
+                clearScroll(scrollId);
+            } else {
+                pending.whenComplete((response, e) ->
+                        clearScroll(null == response ? scrollId : response.getScrollId()));
+            }
+            closeListener.accept(this);
+        }
+    }
+
+    private void fetchPage() {
+        final SearchResponse response;
+        try {
+            response = nextPage.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            close();
+            throw new IllegalStateException("Interrupted while waiting for the next page of the scroll search", e);
+        } catch (ExecutionException e) {
+            nextPage = null;
+            close();
+            throw ExceptionsHelper.convertToRuntime(e.getCause());
+        }
+
+        scrollId = response.getScrollId();
+        hits = response.getHits().getHits();
+        position = 0;
+
+        // The initial response of a scan search only contains the total hits and the scroll ID
+        final boolean emptyScanStart = initial && scan && response.getHits().getTotalHits() > 0L;
+        initial = false;
+
+        if (hits.length == 0 && !emptyScanStart) {
+            exhausted = true;
+            nextPage = null;
+            close();
+        } else {
+            nextPage = new CompletableFuture<>();
+            client.searchScroll(new SearchScrollRequest(scrollId).scroll(keepAlive), listener(nextPage));
+        }
+    }
+
+    private void clearScroll(String id) {
+        if (null == id) {
+            return;
+        }
+
+        final ClearScrollRequest request = new ClearScrollRequest();
+        request.addScrollId(id);
+        client.clearScroll(request, new ActionListener<ClearScrollResponse>() {
+            @Override
+            public void onResponse(ClearScrollResponse response) {
+            }
+
+            @Override
+            public void onFailure(Throwable e) {
+                LOGGER.warn("Couldn't clear scroll context", e);
+            }
+        });
+    }
+
+    private static ActionListener<SearchResponse> listener(CompletableFuture<SearchResponse> future) {
+        return new ActionListener<SearchResponse>() {
+            @Override
+            public void onResponse(SearchResponse response) {
+                future.complete(response);
+            }
+
+            @Override
+            public void onFailure(Throwable e) {
+                future.completeExceptionally(e);
+            }
+        };
+    }
+}
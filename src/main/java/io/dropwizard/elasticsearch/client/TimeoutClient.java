@@ -0,0 +1,145 @@
+package io.dropwizard.elasticsearch.client;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.dropwizard.elasticsearch.config.TimeoutConfiguration;
+import io.dropwizard.util.Duration;
+import org.elasticsearch.ElasticsearchTimeoutException;
+import org.elasticsearch.action.Action;
+import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.action.ActionRequest;
+import org.elasticsearch.action.ActionRequestBuilder;
+import org.elasticsearch.action.ActionResponse;
+import org.elasticsearch.action.bulk.BulkAction;
+import org.elasticsearch.client.Client;
+import org.elasticsearch.client.FilterClient;
+
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * An Elasticsearch {@link Client} which fails requests with an {@link ElasticsearchTimeoutException} if they don't
+ * complete within their timeout, so that threads waiting for a response of a hung cluster are released.
+ * <p>
+ * The timeout of a request depends on its action: read requests ({@code indices:data/read/*}) use
+ * {@link TimeoutConfiguration#getSearch()}, bulk requests {@link TimeoutConfiguration#getBulk()}, other write requests
+ * ({@code indices:data/write/*}) {@link TimeoutConfiguration#getIndex()} and all other requests
+ * {@link TimeoutConfiguration#getAdmin()}. If the sending thread has an {@link EsDeadline}, the timeout is limited to
+ * the remaining time and requests sent after the deadline has passed fail immediately.
+ * <p>
+ * The timeouts are enforced on the client side only; the cluster may still complete a request after it timed out.
+ */
+public class TimeoutClient extends FilterClient {
+    private static final String READ_ACTION_PREFIX = "indices:data/read/";
+    private static final String WRITE_ACTION_PREFIX = "indices:data/write/";
+
+    private final Long searchTimeoutNanos;
+    private final Long indexTimeoutNanos;
+    private final Long bulkTimeoutNanos;
+    private final Long adminTimeoutNanos;
+    private final ScheduledThreadPoolExecutor timer;
+
+    /**
+     * Construct a new Elasticsearch client enforcing request timeouts.
+     *
+     * @param client the Elasticsearch {@link Client} to send the requests to
+     * @param config a valid {@link TimeoutConfiguration} instance
+     */
+    public TimeoutClient(Client client, TimeoutConfiguration config) {
+        super(checkNotNull(client, "Elasticsearch client must not be null"));
+        checkNotNull(config, "TimeoutConfiguration must not be null");
+
+        this.searchTimeoutNanos = toNanos(config.getSearch());
+        this.indexTimeoutNanos = toNanos(config.getIndex());
+        this.bulkTimeoutNanos = toNanos(config.getBulk());
+        this.adminTimeoutNanos = toNanos(config.getAdmin());
+        this.timer = new ScheduledThreadPoolExecutor(1, new ThreadFactoryBuilder()
+                .setNameFormat("es-timeout-client-%d")
+                .setDaemon(true)
+                .build());
+        this.timer.setRemoveOnCancelPolicy(true);
+    }
+
+    @Override
+    protected <Request extends ActionRequest, Response extends ActionResponse, RequestBuilder extends ActionRequestBuilder<Request, Response, RequestBuilder>> void doExecute(
+            Action<Request, Response, RequestBuilder> action, Request request, ActionListener<Response> listener) {
+        final Long timeoutNanos = timeoutNanos(action.name());
+        if (null == timeoutNanos) {
+            super.doExecute(action, request, listener);
+            return;
+        } else if (timeoutNanos <= 0L) {
+            listener.onFailure(new ElasticsearchTimeoutException("Deadline passed before sending {}", action.name()));
+            return;
+        }
+
+        final AtomicBoolean completed = new AtomicBoolean(false);
+        final ScheduledFuture<?> timeout = timer.schedule(() -> {
+            if (completed.compareAndSet(false, true)) {
+                listener.onFailure(new ElasticsearchTimeoutException("{} timed out after {}ms",
+                        action.name(), TimeUnit.NANOSECONDS.toMillis(timeoutNanos)));
+            }
+        }, timeoutNanos, TimeUnit.NANOSECONDS);
+
+        try {
+            super.doExecute(action, request, new ActionListener<Response>() {
+                @Override
+                public void onResponse(Response response) {
+                    if (completed.compareAndSet(false, true)) {
+                        timeout.cancel(false);
+                        listener.onResponse(response);
+                    }
+                }
+
+                @Override
+                public void onFailure(Throwable e) {
+                    if (completed.compareAndSet(false, true)) {
+                        timeout.cancel(false);
+                        listener.onFailure(e);
+                    }
+                }
+            });
+        } catch (RuntimeException e) {
+            completed.set(true);
+            timeout.cancel(false);
+            throw e;
+        }
+    }
+
+    /**
+     * Stops the timer and closes the underlying client.
+     */
+    @Override
+    public void close() {
+        timer.shutdownNow();
+        super.close();
+    }
+
+    private Long timeoutNanos(String actionName) {
+        final Long configured;
+        if (actionName.startsWith(READ_ACTION_PREFIX)) {
+            configured = searchTimeoutNanos;
+        } else if (BulkAction.NAME.equals(actionName)) {
+            configured = bulkTimeoutNanos;
+        } else if (actionName.startsWith(WRITE_ACTION_PREFIX)) {
+            configured = indexTimeoutNanos;
+        } else {
+            configured = adminTimeoutNanos;
+        }
+
+        final Long remaining = EsDeadline.remainingNanos();
+        if (null == remaining) {
+            return configured;
+        } else if (null == configured) {
+            return remaining;
+        } else {
+            return Math.min(configured, remaining);
+        }
+    }
+
+    private static Long toNanos(Duration duration) {
+        return null == duration ? null : duration.toNanoseconds();
+    }
+}
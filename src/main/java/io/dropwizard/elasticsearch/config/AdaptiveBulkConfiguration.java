@@ -0,0 +1,84 @@
+package io.dropwizard.elasticsearch.config;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.dropwizard.util.Duration;
+import io.dropwizard.util.Size;
+import io.dropwizard.validation.MinDuration;
+import io.dropwizard.validation.MinSize;
+import io.dropwizard.validation.ValidationMethod;
+
+import javax.validation.constraints.DecimalMax;
+import javax.validation.constraints.DecimalMin;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotNull;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Configuration class for the adaptive bulk sizes of a
+ * {@link io.dropwizard.elasticsearch.managed.ManagedAdaptiveBulkProcessor}.
+ * <p>
+ * The bulk sizes start at {@link BulkProcessorConfiguration#getBulkActions()} and
+ * {@link BulkProcessorConfiguration#getBulkSize()}. They grow by {@link #getMinActions()} and {@link #getMinSize()}
+ * for every bulk request completing within {@link #getTargetLatency()} without rejections, and shrink by
+ * {@link #getBackoffRatio()} for every slower bulk request and every bulk request with rejected items.
+ */
+public class AdaptiveBulkConfiguration {
+    @JsonProperty
+    @Min(1)
+    private int minActions = 100;
+
+    @JsonProperty
+    @Min(1)
+    private int maxActions = 10000;
+
+    @JsonProperty
+    @NotNull
+    @MinSize(1)
+    private Size minSize = Size.megabytes(1L);
+
+    @JsonProperty
+    @NotNull
+    @MinSize(1)
+    private Size maxSize = Size.megabytes(20L);
+
+    @JsonProperty
+    @NotNull
+    @MinDuration(value = 1, unit = TimeUnit.MILLISECONDS)
+    private Duration targetLatency = Duration.milliseconds(500L);
+
+    @JsonProperty
+    @DecimalMin("0.1")
+    @DecimalMax("1.0")
+    private double backoffRatio = 0.5d;
+
+    public int getMinActions() {
+        return minActions;
+    }
+
+    public int getMaxActions() {
+        return maxActions;
+    }
+
+    public Size getMinSize() {
+        return minSize;
+    }
+
+    public Size getMaxSize() {
+        return maxSize;
+    }
+
+    public Duration getTargetLatency() {
+        return targetLatency;
+    }
+
+    public double getBackoffRatio() {
+        return backoffRatio;
+    }
+
+    @ValidationMethod(message = "minActions and minSize must not be greater than maxActions and maxSize")
+    @JsonIgnore
+    public boolean isValidBounds() {
+        return minActions <= maxActions && minSize.toBytes() <= maxSize.toBytes();
+    }
+}
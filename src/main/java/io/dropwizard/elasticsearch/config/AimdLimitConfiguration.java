@@ -0,0 +1,70 @@
+package io.dropwizard.elasticsearch.config;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.dropwizard.util.Duration;
+import io.dropwizard.validation.MinDuration;
+import io.dropwizard.validation.ValidationMethod;
+
+import javax.validation.constraints.DecimalMax;
+import javax.validation.constraints.DecimalMin;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotNull;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Configuration class for an additive increase/multiplicative decrease (AIMD) concurrency limit.
+ * <p>
+ * The limit grows by one for every request completing within {@link #getLatencyThreshold()} while at least half of
+ * the limit is in use, and shrinks by {@link #getBackoffRatio()} for every slower request and every request rejected
+ * or timed out by the cluster.
+ */
+public class AimdLimitConfiguration {
+    @JsonProperty
+    @Min(1)
+    private int initialLimit = 20;
+
+    @JsonProperty
+    @Min(1)
+    private int minLimit = 1;
+
+    @JsonProperty
+    @Min(1)
+    private int maxLimit = 200;
+
+    @JsonProperty
+    @DecimalMin("0.5")
+    @DecimalMax("1.0")
+    private double backoffRatio = 0.9d;
+
+    @JsonProperty
+    @NotNull
+    @MinDuration(value = 1, unit = TimeUnit.MILLISECONDS)
+    private Duration latencyThreshold = Duration.seconds(1L);
+
+    public int getInitialLimit() {
+        return initialLimit;
+    }
+
+    public int getMinLimit() {
+        return minLimit;
+    }
+
+    public int getMaxLimit() {
+        return maxLimit;
+    }
+
+    public double getBackoffRatio() {
+        return backoffRatio;
+    }
+
+    public Duration getLatencyThreshold() {
+        return latencyThreshold;
+    }
+
+    @ValidationMethod(message = "initialLimit must be between minLimit and maxLimit")
+    @JsonIgnore
+    public boolean isValidLimits() {
+        return minLimit <= initialLimit && initialLimit <= maxLimit;
+    }
+}
@@ -0,0 +1,39 @@
+package io.dropwizard.elasticsearch.config;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.dropwizard.util.Duration;
+import io.dropwizard.validation.MinDuration;
+
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotNull;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Configuration class for the micro-batching of get and search requests by a
+ * {@link io.dropwizard.elasticsearch.client.BatchingClient}.
+ */
+public class BatchingConfiguration {
+    @JsonProperty
+    private boolean enabled = false;
+
+    @JsonProperty
+    @NotNull
+    @MinDuration(value = 1, unit = TimeUnit.MICROSECONDS)
+    private Duration window = Duration.milliseconds(2L);
+
+    @JsonProperty
+    @Min(1)
+    private int maxBatchSize = 100;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public Duration getWindow() {
+        return window;
+    }
+
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+}
@@ -0,0 +1,85 @@
+package io.dropwizard.elasticsearch.config;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.dropwizard.util.Duration;
+import io.dropwizard.util.Size;
+import io.dropwizard.validation.MinDuration;
+import io.dropwizard.validation.MinSize;
+
+import javax.validation.Valid;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotNull;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Configuration class for the settings of a {@link io.dropwizard.elasticsearch.managed.ManagedBulkProcessor}.
+ *
+ * @see <a href="https://www.elastic.co/guide/en/elasticsearch/client/java-api/2.4/java-docs-bulk-processor.html">Bulk Processor</a>
+ */
+public class BulkProcessorConfiguration {
+    @JsonProperty
+    @Min(1)
+    private int bulkActions = 1000;
+
+    @JsonProperty
+    @NotNull
+    @MinSize(1)
+    private Size bulkSize = Size.megabytes(5L);
+
+    @JsonProperty
+    private Duration flushInterval = Duration.seconds(5L);
+
+    @JsonProperty
+    @Min(0)
+    private int concurrentRequests = 1;
+
+    @JsonProperty
+    @NotNull
+    @MinDuration(value = 1, unit = TimeUnit.MILLISECONDS)
+    private Duration retryDelay = Duration.milliseconds(50L);
+
+    @JsonProperty
+    @Min(0)
+    private int maxRetries = 8;
+
+    @JsonProperty
+    @NotNull
+    private Duration awaitCloseTimeout = Duration.seconds(30L);
+
+    @JsonProperty
+    @Valid
+    @NotNull
+    private AdaptiveBulkConfiguration adaptive = new AdaptiveBulkConfiguration();
+
+    public int getBulkActions() {
+        return bulkActions;
+    }
+
+    public Size getBulkSize() {
+        return bulkSize;
+    }
+
+    public Duration getFlushInterval() {
+        return flushInterval;
+    }
+
+    public int getConcurrentRequests() {
+        return concurrentRequests;
+    }
+
+    public Duration getRetryDelay() {
+        return retryDelay;
+    }
+
+    public int getMaxRetries() {
+        return maxRetries;
+    }
+
+    public Duration getAwaitCloseTimeout() {
+        return awaitCloseTimeout;
+    }
+
+    public AdaptiveBulkConfiguration getAdaptive() {
+        return adaptive;
+    }
+}
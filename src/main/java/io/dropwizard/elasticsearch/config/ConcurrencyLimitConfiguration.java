@@ -0,0 +1,37 @@
+package io.dropwizard.elasticsearch.config;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotNull;
+
+/**
+ * Configuration class for the adaptive concurrency limits of a
+ * {@link io.dropwizard.elasticsearch.client.LimitingClient}, with separate limits for read and write requests.
+ */
+public class ConcurrencyLimitConfiguration {
+    @JsonProperty
+    private boolean enabled = false;
+
+    @JsonProperty
+    @Valid
+    @NotNull
+    private AimdLimitConfiguration reads = new AimdLimitConfiguration();
+
+    @JsonProperty
+    @Valid
+    @NotNull
+    private AimdLimitConfiguration writes = new AimdLimitConfiguration();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public AimdLimitConfiguration getReads() {
+        return reads;
+    }
+
+    public AimdLimitConfiguration getWrites() {
+        return writes;
+    }
+}
@@ -0,0 +1,53 @@
+package io.dropwizard.elasticsearch.config;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import javax.validation.constraints.Min;
+
+/**
+ * Configuration class for the number of connections an Elasticsearch client opens to every node, by type of
+ * request. Unset values keep the value of the {@link TransportProfile} or the Elasticsearch default.
+ *
+ * @see <a href="https://www.elastic.co/guide/en/elasticsearch/reference/2.4/modules-transport.html">Transport</a>
+ */
+public class ConnectionsPerNodeConfiguration {
+    @JsonProperty
+    @Min(1)
+    private Integer recovery = null;
+
+    @JsonProperty
+    @Min(1)
+    private Integer bulk = null;
+
+    @JsonProperty
+    @Min(1)
+    private Integer reg = null;
+
+    @JsonProperty
+    @Min(1)
+    private Integer state = null;
+
+    @JsonProperty
+    @Min(1)
+    private Integer ping = null;
+
+    public Integer getRecovery() {
+        return recovery;
+    }
+
+    public Integer getBulk() {
+        return bulk;
+    }
+
+    public Integer getReg() {
+        return reg;
+    }
+
+    public Integer getState() {
+        return state;
+    }
+
+    public Integer getPing() {
+        return ping;
+    }
+}
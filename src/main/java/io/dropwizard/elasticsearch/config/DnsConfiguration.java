@@ -0,0 +1,31 @@
+package io.dropwizard.elasticsearch.config;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.dropwizard.util.Duration;
+import io.dropwizard.validation.MinDuration;
+
+import javax.validation.constraints.NotNull;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Configuration class for the resolution of the host names of the {@link EsConfiguration#getServers() servers} of a
+ * transport client.
+ */
+public class DnsConfiguration {
+    @JsonProperty
+    @NotNull
+    @MinDuration(value = 1, unit = TimeUnit.MILLISECONDS)
+    private Duration timeout = Duration.seconds(5L);
+
+    @JsonProperty
+    @MinDuration(value = 1, unit = TimeUnit.SECONDS)
+    private Duration refreshInterval = null;
+
+    public Duration getTimeout() {
+        return timeout;
+    }
+
+    public Duration getRefreshInterval() {
+        return refreshInterval;
+    }
+}
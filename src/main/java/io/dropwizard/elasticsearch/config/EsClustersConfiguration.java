@@ -0,0 +1,23 @@
+package io.dropwizard.elasticsearch.config;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import org.hibernate.validator.constraints.NotEmpty;
+
+import javax.validation.Valid;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Configuration class for several named Elasticsearch clusters, each of them configured by an
+ * {@link EsConfiguration}.
+ */
+public class EsClustersConfiguration {
+    @JsonProperty
+    @Valid
+    @NotEmpty
+    private Map<String, EsConfiguration> clusters = Collections.emptyMap();
+
+    public Map<String, EsConfiguration> getClusters() {
+        return clusters;
+    }
+}
@@ -6,6 +6,8 @@ import com.google.common.net.HostAndPort;
 import io.dropwizard.validation.ValidationMethod;
 import org.hibernate.validator.constraints.NotEmpty;
 
+import javax.validation.Valid;
+import javax.validation.constraints.Min;
 import javax.validation.constraints.NotNull;
 import java.util.Collections;
 import java.util.List;
@@ -33,6 +35,80 @@ public class EsConfiguration {
     @JsonProperty
     private String settingsFile = null;
 
+    @JsonProperty
+    private boolean asyncStartup = false;
+
+    @JsonProperty
+    private boolean coalesceReads = false;
+
+    @JsonProperty
+    @Min(1)
+    private Integer networkThreads = null;
+
+    @JsonProperty
+    @NotNull
+    private Map<String, Integer> threadPools = Collections.emptyMap();
+
+    @JsonProperty
+    @Valid
+    @NotNull
+    private TransportConfiguration transport = new TransportConfiguration();
+
+    @JsonProperty
+    @Valid
+    @NotNull
+    private DnsConfiguration dns = new DnsConfiguration();
+
+    @JsonProperty
+    @Valid
+    @NotNull
+    private TimeoutConfiguration timeouts = new TimeoutConfiguration();
+
+    @JsonProperty
+    @Valid
+    @NotNull
+    private BulkProcessorConfiguration bulkProcessor = new BulkProcessorConfiguration();
+
+    @JsonProperty
+    @Valid
+    @NotNull
+    private SpoolConfiguration spool = new SpoolConfiguration();
+
+    @JsonProperty
+    @Valid
+    @NotNull
+    private HealthCheckConfiguration healthCheck = new HealthCheckConfiguration();
+
+    @JsonProperty
+    @Valid
+    @NotNull
+    private MetricsConfiguration metrics = new MetricsConfiguration();
+
+    @JsonProperty
+    @Valid
+    @NotNull
+    private ResultCacheConfiguration resultCache = new ResultCacheConfiguration();
+
+    @JsonProperty
+    @Valid
+    @NotNull
+    private BatchingConfiguration batching = new BatchingConfiguration();
+
+    @JsonProperty
+    @Valid
+    @NotNull
+    private ConcurrencyLimitConfiguration concurrencyLimit = new ConcurrencyLimitConfiguration();
+
+    @JsonProperty
+    @Valid
+    @NotNull
+    private NodeSelectionConfiguration nodeSelection = new NodeSelectionConfiguration();
+
+    @JsonProperty
+    @Valid
+    @NotNull
+    private RoutingConfiguration routing = new RoutingConfiguration();
+
     public List<HostAndPort> getServers() {
         return servers;
     }
@@ -53,9 +129,79 @@ public class EsConfiguration {
         return settingsFile;
     }
 
+    public boolean isAsyncStartup() {
+        return asyncStartup;
+    }
+
+    public boolean isCoalesceReads() {
+        return coalesceReads;
+    }
+
+    public Integer getNetworkThreads() {
+        return networkThreads;
+    }
+
+    public Map<String, Integer> getThreadPools() {
+        return threadPools;
+    }
+
+    public TransportConfiguration getTransport() {
+        return transport;
+    }
+
+    public DnsConfiguration getDns() {
+        return dns;
+    }
+
+    public TimeoutConfiguration getTimeouts() {
+        return timeouts;
+    }
+
+    public BulkProcessorConfiguration getBulkProcessor() {
+        return bulkProcessor;
+    }
+
+    public SpoolConfiguration getSpool() {
+        return spool;
+    }
+
+    public HealthCheckConfiguration getHealthCheck() {
+        return healthCheck;
+    }
+
+    public MetricsConfiguration getMetrics() {
+        return metrics;
+    }
+
+    public ResultCacheConfiguration getResultCache() {
+        return resultCache;
+    }
+
+    public BatchingConfiguration getBatching() {
+        return batching;
+    }
+
+    public ConcurrencyLimitConfiguration getConcurrencyLimit() {
+        return concurrencyLimit;
+    }
+
+    public NodeSelectionConfiguration getNodeSelection() {
+        return nodeSelection;
+    }
+
+    public RoutingConfiguration getRouting() {
+        return routing;
+    }
+
     @ValidationMethod
     @JsonIgnore
     public boolean isValidConfig() {
         return nodeClient || !servers.isEmpty();
     }
+
+    @ValidationMethod(message = "thread pool sizes must be positive")
+    @JsonIgnore
+    public boolean isValidThreadPools() {
+        return threadPools.values().stream().allMatch(size -> size != null && size > 0);
+    }
 }
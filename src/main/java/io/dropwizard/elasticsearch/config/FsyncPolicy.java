@@ -0,0 +1,23 @@
+package io.dropwizard.elasticsearch.config;
+
+/**
+ * When the write-ahead spool of a {@link io.dropwizard.elasticsearch.managed.ManagedWriteSpool} forces its
+ * memory-mapped segments to disk.
+ */
+public enum FsyncPolicy {
+    /**
+     * Leave flushing the segments to the operating system; spooled requests survive a crash of the application, but
+     * not of the machine.
+     */
+    NEVER,
+
+    /**
+     * Force the segments to disk every {@link SpoolConfiguration#getFsyncInterval()}.
+     */
+    INTERVAL,
+
+    /**
+     * Force the current segment to disk after every spooled request.
+     */
+    ALWAYS
+}
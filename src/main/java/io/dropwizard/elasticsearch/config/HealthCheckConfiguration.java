@@ -0,0 +1,40 @@
+package io.dropwizard.elasticsearch.config;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.dropwizard.util.Duration;
+import io.dropwizard.validation.MinDuration;
+
+import javax.validation.constraints.NotNull;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Configuration class for the settings of an {@link io.dropwizard.elasticsearch.health.EsHealthCheckRefresher} and the
+ * maximum duration of the Elasticsearch health checks.
+ */
+public class HealthCheckConfiguration {
+    @JsonProperty
+    @NotNull
+    @MinDuration(value = 1, unit = TimeUnit.MILLISECONDS)
+    private Duration refreshInterval = Duration.seconds(10L);
+
+    @JsonProperty
+    @NotNull
+    @MinDuration(value = 1, unit = TimeUnit.MILLISECONDS)
+    private Duration maxStaleness = Duration.seconds(30L);
+
+    @JsonProperty
+    @MinDuration(value = 1, unit = TimeUnit.MILLISECONDS)
+    private Duration timeout = Duration.seconds(10L);
+
+    public Duration getRefreshInterval() {
+        return refreshInterval;
+    }
+
+    public Duration getMaxStaleness() {
+        return maxStaleness;
+    }
+
+    public Duration getTimeout() {
+        return timeout;
+    }
+}
@@ -0,0 +1,38 @@
+package io.dropwizard.elasticsearch.config;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.dropwizard.util.Duration;
+import io.dropwizard.validation.MinDuration;
+import org.hibernate.validator.constraints.NotEmpty;
+
+import javax.validation.constraints.NotNull;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Configuration class for the Dropwizard Metrics integration of Elasticsearch.
+ */
+public class MetricsConfiguration {
+    @JsonProperty
+    private boolean instrumentClient = false;
+
+    @JsonProperty
+    @NotEmpty
+    private String prefix = "elasticsearch";
+
+    @JsonProperty
+    @NotNull
+    @MinDuration(value = 1, unit = TimeUnit.SECONDS)
+    private Duration statsRefreshInterval = Duration.seconds(30L);
+
+    public boolean isInstrumentClient() {
+        return instrumentClient;
+    }
+
+    public String getPrefix() {
+        return prefix;
+    }
+
+    public Duration getStatsRefreshInterval() {
+        return statsRefreshInterval;
+    }
+}
@@ -0,0 +1,83 @@
+package io.dropwizard.elasticsearch.config;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.dropwizard.util.Duration;
+import io.dropwizard.validation.MinDuration;
+
+import javax.validation.constraints.DecimalMax;
+import javax.validation.constraints.DecimalMin;
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotNull;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Configuration class for the latency-aware node selection of a
+ * {@link io.dropwizard.elasticsearch.managed.ManagedNodeSelector}.
+ */
+public class NodeSelectionConfiguration {
+    @JsonProperty
+    private boolean enabled = false;
+
+    @JsonProperty
+    private boolean sniff = false;
+
+    @JsonProperty
+    @NotNull
+    @MinDuration(value = 100, unit = TimeUnit.MILLISECONDS)
+    private Duration interval = Duration.seconds(5L);
+
+    @JsonProperty
+    @DecimalMin("0.01")
+    @DecimalMax("1.0")
+    private double ewmaAlpha = 0.3d;
+
+    @JsonProperty
+    @DecimalMin("1.0")
+    private double ejectionFactor = 3.0d;
+
+    @JsonProperty
+    @NotNull
+    private Duration minEjectionLatency = Duration.milliseconds(100L);
+
+    @JsonProperty
+    @NotNull
+    private Duration ejectionDuration = Duration.seconds(30L);
+
+    @JsonProperty
+    @Min(0)
+    @Max(100)
+    private int maxEjectedPercent = 50;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public boolean isSniff() {
+        return sniff;
+    }
+
+    public Duration getInterval() {
+        return interval;
+    }
+
+    public double getEwmaAlpha() {
+        return ewmaAlpha;
+    }
+
+    public double getEjectionFactor() {
+        return ejectionFactor;
+    }
+
+    public Duration getMinEjectionLatency() {
+        return minEjectionLatency;
+    }
+
+    public Duration getEjectionDuration() {
+        return ejectionDuration;
+    }
+
+    public int getMaxEjectedPercent() {
+        return maxEjectedPercent;
+    }
+}
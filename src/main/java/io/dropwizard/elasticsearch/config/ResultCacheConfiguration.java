@@ -0,0 +1,41 @@
+package io.dropwizard.elasticsearch.config;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.dropwizard.util.Duration;
+import io.dropwizard.util.Size;
+import io.dropwizard.validation.MinDuration;
+import io.dropwizard.validation.MinSize;
+
+import javax.validation.constraints.NotNull;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Configuration class for the client-side search result cache of a
+ * {@link io.dropwizard.elasticsearch.client.CachingClient}.
+ */
+public class ResultCacheConfiguration {
+    @JsonProperty
+    private boolean enabled = false;
+
+    @JsonProperty
+    @NotNull
+    @MinSize(1)
+    private Size maxWeight = Size.megabytes(64L);
+
+    @JsonProperty
+    @NotNull
+    @MinDuration(value = 1, unit = TimeUnit.MILLISECONDS)
+    private Duration ttl = Duration.minutes(1L);
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public Size getMaxWeight() {
+        return maxWeight;
+    }
+
+    public Duration getTtl() {
+        return ttl;
+    }
+}
@@ -0,0 +1,30 @@
+package io.dropwizard.elasticsearch.config;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.dropwizard.util.Duration;
+import io.dropwizard.validation.MinDuration;
+
+import javax.validation.constraints.NotNull;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Configuration class for the client-side routing of bulk requests by a
+ * {@link io.dropwizard.elasticsearch.client.RoutingClient}.
+ */
+public class RoutingConfiguration {
+    @JsonProperty
+    private boolean enabled = false;
+
+    @JsonProperty
+    @NotNull
+    @MinDuration(value = 100, unit = TimeUnit.MILLISECONDS)
+    private Duration refreshInterval = Duration.seconds(1L);
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public Duration getRefreshInterval() {
+        return refreshInterval;
+    }
+}
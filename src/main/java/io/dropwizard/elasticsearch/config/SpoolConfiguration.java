@@ -0,0 +1,102 @@
+package io.dropwizard.elasticsearch.config;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.dropwizard.util.Duration;
+import io.dropwizard.util.Size;
+import io.dropwizard.util.SizeUnit;
+import io.dropwizard.validation.MinDuration;
+import io.dropwizard.validation.MinSize;
+import io.dropwizard.validation.ValidationMethod;
+
+import javax.validation.constraints.DecimalMin;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotNull;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Configuration class for the write-ahead spool of a {@link io.dropwizard.elasticsearch.managed.ManagedWriteSpool}.
+ */
+public class SpoolConfiguration {
+    @JsonProperty
+    private String directory = null;
+
+    @JsonProperty
+    @NotNull
+    @MinSize(value = 1, unit = SizeUnit.MEGABYTES)
+    private Size segmentSize = Size.megabytes(64L);
+
+    @JsonProperty
+    @NotNull
+    @MinSize(value = 1, unit = SizeUnit.MEGABYTES)
+    private Size maxSize = Size.gigabytes(1L);
+
+    @JsonProperty
+    @NotNull
+    private FsyncPolicy fsyncPolicy = FsyncPolicy.INTERVAL;
+
+    @JsonProperty
+    @NotNull
+    @MinDuration(value = 1, unit = TimeUnit.MILLISECONDS)
+    private Duration fsyncInterval = Duration.seconds(1L);
+
+    @JsonProperty
+    @Min(1)
+    private int replayBatchSize = 500;
+
+    @JsonProperty
+    @DecimalMin("0.0")
+    private double maxReplayRate = 0.0d;
+
+    @JsonProperty
+    @NotNull
+    @MinDuration(value = 1, unit = TimeUnit.MILLISECONDS)
+    private Duration healthCheckInterval = Duration.seconds(5L);
+
+    @JsonProperty
+    @NotNull
+    @MinDuration(value = 1, unit = TimeUnit.MILLISECONDS)
+    private Duration replayTimeout = Duration.minutes(1L);
+
+    public String getDirectory() {
+        return directory;
+    }
+
+    public Size getSegmentSize() {
+        return segmentSize;
+    }
+
+    public Size getMaxSize() {
+        return maxSize;
+    }
+
+    public FsyncPolicy getFsyncPolicy() {
+        return fsyncPolicy;
+    }
+
+    public Duration getFsyncInterval() {
+        return fsyncInterval;
+    }
+
+    public int getReplayBatchSize() {
+        return replayBatchSize;
+    }
+
+    public double getMaxReplayRate() {
+        return maxReplayRate;
+    }
+
+    public Duration getHealthCheckInterval() {
+        return healthCheckInterval;
+    }
+
+    public Duration getReplayTimeout() {
+        return replayTimeout;
+    }
+
+    @ValidationMethod(message = "maxSize must not be smaller than segmentSize")
+    @JsonIgnore
+    public boolean isValidSizes() {
+        return maxSize.toBytes() >= segmentSize.toBytes();
+    }
+}
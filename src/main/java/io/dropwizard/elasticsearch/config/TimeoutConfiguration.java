@@ -0,0 +1,46 @@
+package io.dropwizard.elasticsearch.config;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.dropwizard.util.Duration;
+import io.dropwizard.validation.MinDuration;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Configuration class for the default timeouts of the requests sent by a
+ * {@link io.dropwizard.elasticsearch.client.TimeoutClient}. A timeout of {@literal null} disables the timeout of the
+ * respective requests; all timeouts are disabled by default.
+ */
+public class TimeoutConfiguration {
+    @JsonProperty
+    @MinDuration(value = 1, unit = TimeUnit.MILLISECONDS)
+    private Duration search = null;
+
+    @JsonProperty
+    @MinDuration(value = 1, unit = TimeUnit.MILLISECONDS)
+    private Duration index = null;
+
+    @JsonProperty
+    @MinDuration(value = 1, unit = TimeUnit.MILLISECONDS)
+    private Duration bulk = null;
+
+    @JsonProperty
+    @MinDuration(value = 1, unit = TimeUnit.MILLISECONDS)
+    private Duration admin = null;
+
+    public Duration getSearch() {
+        return search;
+    }
+
+    public Duration getIndex() {
+        return index;
+    }
+
+    public Duration getBulk() {
+        return bulk;
+    }
+
+    public Duration getAdmin() {
+        return admin;
+    }
+}
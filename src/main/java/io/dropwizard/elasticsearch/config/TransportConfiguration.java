@@ -0,0 +1,104 @@
+package io.dropwizard.elasticsearch.config;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.dropwizard.util.Duration;
+import io.dropwizard.util.Size;
+import io.dropwizard.validation.MinDuration;
+import io.dropwizard.validation.MinSize;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotNull;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Configuration class for the transport layer of an Elasticsearch client. Unset values keep the value of the
+ * {@link TransportProfile} or the Elasticsearch default.
+ *
+ * @see <a href="https://www.elastic.co/guide/en/elasticsearch/reference/2.4/modules-transport.html">Transport</a>
+ */
+public class TransportConfiguration {
+    @JsonProperty
+    private TransportProfile profile = null;
+
+    @JsonProperty
+    @Valid
+    @NotNull
+    private ConnectionsPerNodeConfiguration connectionsPerNode = new ConnectionsPerNodeConfiguration();
+
+    @JsonProperty
+    private Boolean compress = null;
+
+    @JsonProperty
+    private Boolean tcpNoDelay = null;
+
+    @JsonProperty
+    private Boolean tcpKeepAlive = null;
+
+    @JsonProperty
+    @MinSize(1)
+    private Size sendBufferSize = null;
+
+    @JsonProperty
+    @MinSize(1)
+    private Size receiveBufferSize = null;
+
+    @JsonProperty
+    @MinDuration(value = 1, unit = TimeUnit.MILLISECONDS)
+    private Duration connectTimeout = null;
+
+    @JsonProperty
+    @MinDuration(value = 1, unit = TimeUnit.MILLISECONDS)
+    private Duration pingInterval = null;
+
+    @JsonProperty
+    @MinDuration(value = 1, unit = TimeUnit.MILLISECONDS)
+    private Duration pingTimeout = null;
+
+    @JsonProperty
+    @MinDuration(value = 1, unit = TimeUnit.MILLISECONDS)
+    private Duration nodesSamplerInterval = null;
+
+    public TransportProfile getProfile() {
+        return profile;
+    }
+
+    public ConnectionsPerNodeConfiguration getConnectionsPerNode() {
+        return connectionsPerNode;
+    }
+
+    public Boolean getCompress() {
+        return compress;
+    }
+
+    public Boolean getTcpNoDelay() {
+        return tcpNoDelay;
+    }
+
+    public Boolean getTcpKeepAlive() {
+        return tcpKeepAlive;
+    }
+
+    public Size getSendBufferSize() {
+        return sendBufferSize;
+    }
+
+    public Size getReceiveBufferSize() {
+        return receiveBufferSize;
+    }
+
+    public Duration getConnectTimeout() {
+        return connectTimeout;
+    }
+
+    public Duration getPingInterval() {
+        return pingInterval;
+    }
+
+    public Duration getPingTimeout() {
+        return pingTimeout;
+    }
+
+    public Duration getNodesSamplerInterval() {
+        return nodesSamplerInterval;
+    }
+}
@@ -0,0 +1,65 @@
+package io.dropwizard.elasticsearch.config;
+
+import com.google.common.collect.ImmutableMap;
+
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Named presets of transport settings of an Elasticsearch client. The settings of a preset are the defaults for
+ * {@link EsConfiguration#getSettingsFile()}, {@link EsConfiguration#getSettings()} and the typed settings of
+ * {@link TransportConfiguration}, which take precedence over them.
+ */
+public enum TransportProfile {
+    /**
+     * Many regular connections per node without compression for small, latency-sensitive requests like get and
+     * search, and quick detection of unresponsive nodes.
+     */
+    LOW_LATENCY(ImmutableMap.<String, String>builder()
+            .put("transport.connections_per_node.recovery", "1")
+            .put("transport.connections_per_node.bulk", "1")
+            .put("transport.connections_per_node.reg", "12")
+            .put("transport.tcp.compress", "false")
+            .put("transport.netty.tcp_no_delay", "true")
+            .put("transport.tcp.connect_timeout", "5s")
+            .put("transport.ping_schedule", "5s")
+            .put("client.transport.ping_timeout", "2s")
+            .put("client.transport.nodes_sampler_interval", "2s")
+            .build()),
+
+    /**
+     * Many bulk connections per node with compression and large socket buffers for big bulk requests, and patient
+     * detection of busy nodes.
+     */
+    HIGH_THROUGHPUT_INGEST(ImmutableMap.<String, String>builder()
+            .put("transport.connections_per_node.recovery", "1")
+            .put("transport.connections_per_node.bulk", "8")
+            .put("transport.connections_per_node.reg", "4")
+            .put("transport.tcp.compress", "true")
+            .put("transport.netty.tcp_send_buffer_size", "1mb")
+            .put("transport.netty.tcp_receive_buffer_size", "1mb")
+            .put("transport.tcp.connect_timeout", "30s")
+            .put("client.transport.ping_timeout", "10s")
+            .put("client.transport.nodes_sampler_interval", "10s")
+            .build());
+
+    private final Map<String, String> settings;
+
+    TransportProfile(Map<String, String> settings) {
+        this.settings = settings;
+    }
+
+    /**
+     * Get the Elasticsearch settings of this preset.
+     *
+     * @return the settings of this preset by name
+     */
+    public Map<String, String> getSettings() {
+        return settings;
+    }
+
+    @Override
+    public String toString() {
+        return name().toLowerCase(Locale.ENGLISH).replace('_', '-');
+    }
+}
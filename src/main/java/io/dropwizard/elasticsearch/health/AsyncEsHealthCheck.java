@@ -0,0 +1,20 @@
+package io.dropwizard.elasticsearch.health;
+
+import com.codahale.metrics.health.HealthCheck;
+import org.elasticsearch.action.ActionListener;
+
+/**
+ * An Elasticsearch health check which is able to compute its {@link HealthCheck.Result} without blocking the
+ * calling thread.
+ *
+ * @see EsHealthCheckRefresher
+ */
+public interface AsyncEsHealthCheck {
+    /**
+     * Perform the health check asynchronously.
+     *
+     * @param listener the {@link ActionListener} which is notified with the result of the health check, or with
+     *                 the failure if the cluster could not be queried
+     */
+    void checkAsync(ActionListener<HealthCheck.Result> listener);
+}
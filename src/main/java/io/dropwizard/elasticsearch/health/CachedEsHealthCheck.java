@@ -0,0 +1,112 @@
+package io.dropwizard.elasticsearch.health;
+
+import com.codahale.metrics.Clock;
+import com.codahale.metrics.health.HealthCheck;
+import org.elasticsearch.action.ActionListener;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * A {@link HealthCheck} which returns the last result of an {@link AsyncEsHealthCheck} refreshed in the background
+ * by an {@link EsHealthCheckRefresher}, without querying the Elasticsearch cluster itself.
+ * <p>
+ * The check is unhealthy if no result is available yet or if the last result is older than the configured
+ * maximum staleness. A refresh which hasn't completed within the maximum staleness is abandoned, so that a health
+ * check which never calls back doesn't prevent further refreshes; its late result is ignored.
+ */
+public class CachedEsHealthCheck extends HealthCheck {
+    private final AsyncEsHealthCheck delegate;
+    private final Clock clock;
+    private final long maxStalenessNanos;
+    private volatile Snapshot snapshot = null;
+    private long refreshGeneration = 0L;
+    private boolean refreshing = false;
+    private long refreshStartedAt = 0L;
+
+    CachedEsHealthCheck(AsyncEsHealthCheck delegate, Clock clock, long maxStalenessNanos) {
+        this.delegate = checkNotNull(delegate);
+        this.clock = checkNotNull(clock);
+        this.maxStalenessNanos = maxStalenessNanos;
+    }
+
+    /**
+     * Return the last result of the underlying health check.
+     *
+     * @return the last result of the underlying health check if it is recent enough; otherwise, an unhealthy
+     *         {@link com.codahale.metrics.health.HealthCheck.Result} with a descriptive error message
+     */
+    @Override
+    protected Result check() {
+        final Snapshot current = snapshot;
+
+        if (current == null) {
+            return Result.unhealthy("No result available yet");
+        }
+
+        final long age = clock.getTick() - current.tick;
+        if (age > maxStalenessNanos) {
+            return Result.unhealthy("Last result is stale (%d ms old): %s",
+                    TimeUnit.NANOSECONDS.toMillis(age), current.result.getMessage());
+        }
+
+        return current.result;
+    }
+
+    /**
+     * Trigger an asynchronous refresh of the cached result unless a refresh is still in progress and hasn't exceeded
+     * the maximum staleness yet.
+     */
+    void refresh() {
+        final long generation;
+        synchronized (this) {
+            final long now = clock.getTick();
+            if (refreshing) {
+                final long running = now - refreshStartedAt;
+                if (running <= maxStalenessNanos) {
+                    return;
+                }
+                snapshot = new Snapshot(Result.unhealthy("Health check didn't complete within %d ms",
+                        TimeUnit.NANOSECONDS.toMillis(running)), now);
+            }
+            generation = ++refreshGeneration;
+            refreshing = true;
+            refreshStartedAt = now;
+        }
+
+        try {
+            delegate.checkAsync(new ActionListener<Result>() {
+                @Override
+                public void onResponse(Result result) {
+                    update(generation, result);
+                }
+
+                @Override
+                public void onFailure(Throwable e) {
+                    update(generation, Result.unhealthy(e));
+                }
+            });
+        } catch (RuntimeException e) {
+            update(generation, Result.unhealthy(e));
+        }
+    }
+
+    private synchronized void update(long generation, Result result) {
+        if (generation != refreshGeneration || !refreshing) {
+            return;
+        }
+        snapshot = new Snapshot(result, clock.getTick());
+        refreshing = false;
+    }
+
+    private static class Snapshot {
+        private final Result result;
+        private final long tick;
+
+        private Snapshot(Result result, long tick) {
+            this.result = result;
+            this.tick = tick;
+        }
+    }
+}
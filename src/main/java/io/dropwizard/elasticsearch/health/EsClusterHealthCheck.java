@@ -1,8 +1,12 @@
 package io.dropwizard.elasticsearch.health;
 
 import com.codahale.metrics.health.HealthCheck;
+import io.dropwizard.util.Duration;
+import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.action.admin.cluster.health.ClusterHealthResponse;
 import org.elasticsearch.client.Client;
 import org.elasticsearch.cluster.health.ClusterHealthStatus;
+import org.elasticsearch.common.unit.TimeValue;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
@@ -11,19 +15,32 @@ import static com.google.common.base.Preconditions.checkNotNull;
  *
  * @see <a href="http://www.elasticsearch.org/guide/reference/api/admin-cluster-health/">Admin Cluster Health</a>
  */
-public class EsClusterHealthCheck extends HealthCheck {
+public class EsClusterHealthCheck extends HealthCheck implements AsyncEsHealthCheck {
     private final Client client;
     private final boolean failOnYellow;
+    private final TimeValue timeout;
 
     /**
-     * Construct a new Elasticsearch cluster health check.
+     * Construct a new Elasticsearch cluster health check which fails if the cluster doesn't respond in time.
      *
      * @param client       an Elasticsearch {@link Client} instance connected to the cluster
      * @param failOnYellow whether the health check should fail if the cluster health state is yellow
+     * @param timeout      the maximum duration of the health check, or {@literal null} to wait indefinitely
      */
-    public EsClusterHealthCheck(Client client, boolean failOnYellow) {
+    public EsClusterHealthCheck(Client client, boolean failOnYellow, Duration timeout) {
         this.client = checkNotNull(client);
         this.failOnYellow = failOnYellow;
+        this.timeout = Timeouts.toTimeValue(timeout);
+    }
+
+    /**
+     * Construct a new Elasticsearch cluster health check which fails if the cluster doesn't respond within 10 seconds.
+     *
+     * @param client       an Elasticsearch {@link Client} instance connected to the cluster
+     * @param failOnYellow whether the health check should fail if the cluster health state is yellow
+     */
+    public EsClusterHealthCheck(Client client, boolean failOnYellow) {
+        this(client, failOnYellow, Timeouts.DEFAULT_TIMEOUT);
     }
 
     /**
@@ -47,8 +64,33 @@ public class EsClusterHealthCheck extends HealthCheck {
      */
     @Override
     protected Result check() throws Exception {
-        final ClusterHealthStatus status = client.admin().cluster().prepareHealth().get().getStatus();
+        return result(Timeouts.get(client.admin().cluster().prepareHealth(), timeout).getStatus());
+    }
+
+    /**
+     * Perform a check of the Elasticsearch cluster health without blocking the calling thread. The listener is
+     * notified with an {@link org.elasticsearch.ElasticsearchTimeoutException} if the cluster doesn't respond in time.
+     *
+     * @param listener the {@link ActionListener} which is notified with the result of the health check
+     */
+    @Override
+    public void checkAsync(final ActionListener<Result> listener) {
+        final ActionListener<ClusterHealthResponse> responseListener = new ActionListener<ClusterHealthResponse>() {
+            @Override
+            public void onResponse(ClusterHealthResponse response) {
+                listener.onResponse(result(response.getStatus()));
+            }
+
+            @Override
+            public void onFailure(Throwable e) {
+                listener.onFailure(e);
+            }
+        };
+
+        client.admin().cluster().prepareHealth().execute(Timeouts.bounded(responseListener, timeout));
+    }
 
+    private Result result(ClusterHealthStatus status) {
         if (status == ClusterHealthStatus.RED || (failOnYellow && status == ClusterHealthStatus.YELLOW)) {
             return Result.unhealthy("Last status: %s", status.name());
         } else {
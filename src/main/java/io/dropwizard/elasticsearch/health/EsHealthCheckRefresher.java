@@ -0,0 +1,94 @@
+package io.dropwizard.elasticsearch.health;
+
+import com.codahale.metrics.Clock;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.dropwizard.elasticsearch.config.HealthCheckConfiguration;
+import io.dropwizard.lifecycle.Managed;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * A Dropwizard managed object which periodically refreshes the results of registered {@link AsyncEsHealthCheck}
+ * instances in the background. The {@link CachedEsHealthCheck} returned on registration only reads the last
+ * result, so polling the admin endpoint doesn't cause any requests to the Elasticsearch cluster.
+ * <pre>
+ * final EsHealthCheckRefresher refresher = new EsHealthCheckRefresher(config.getHealthCheck());
+ * environment.lifecycle().manage(refresher);
+ * environment.healthChecks().register("ES cluster health", refresher.register(new EsClusterHealthCheck(client)));
+ * </pre>
+ */
+public class EsHealthCheckRefresher implements Managed {
+    private final List<CachedEsHealthCheck> healthChecks = new CopyOnWriteArrayList<>();
+    private final long refreshIntervalMillis;
+    private final long maxStalenessNanos;
+    private final Clock clock;
+    private ScheduledExecutorService executor = null;
+
+    /**
+     * Create a new health check refresher.
+     *
+     * @param config a valid {@link HealthCheckConfiguration} instance
+     */
+    public EsHealthCheckRefresher(HealthCheckConfiguration config) {
+        this(config, Clock.defaultClock());
+    }
+
+    EsHealthCheckRefresher(HealthCheckConfiguration config, Clock clock) {
+        checkNotNull(config, "HealthCheckConfiguration must not be null");
+
+        this.refreshIntervalMillis = config.getRefreshInterval().toMilliseconds();
+        this.maxStalenessNanos = config.getMaxStaleness().toNanoseconds();
+        this.clock = checkNotNull(clock);
+    }
+
+    /**
+     * Register a health check whose result should be refreshed in the background.
+     *
+     * @param healthCheck the {@link AsyncEsHealthCheck} to refresh periodically
+     * @return a {@link CachedEsHealthCheck} returning the last result of {@code healthCheck}, which should be
+     *         registered with the Dropwizard environment
+     */
+    public CachedEsHealthCheck register(AsyncEsHealthCheck healthCheck) {
+        final CachedEsHealthCheck cachedHealthCheck = new CachedEsHealthCheck(healthCheck, clock, maxStalenessNanos);
+        healthChecks.add(cachedHealthCheck);
+        return cachedHealthCheck;
+    }
+
+    /**
+     * Starts refreshing the registered health checks. Called <i>before</i> the service becomes available.
+     *
+     * @throws Exception if something goes wrong; this will halt the service startup.
+     */
+    @Override
+    public void start() throws Exception {
+        executor = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder()
+                .setNameFormat("es-health-check-refresher-%d")
+                .setDaemon(true)
+                .build());
+        executor.scheduleWithFixedDelay(this::refresh, 0L, refreshIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops refreshing the registered health checks. Called <i>after</i> the service is no longer accepting requests.
+     *
+     * @throws Exception if something goes wrong.
+     */
+    @Override
+    public void stop() throws Exception {
+        if (null != executor) {
+            executor.shutdownNow();
+        }
+    }
+
+    void refresh() {
+        for (CachedEsHealthCheck healthCheck : healthChecks) {
+            healthCheck.refresh();
+        }
+    }
+}
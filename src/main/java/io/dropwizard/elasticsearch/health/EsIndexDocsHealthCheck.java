@@ -2,11 +2,14 @@ package io.dropwizard.elasticsearch.health;
 
 import com.codahale.metrics.health.HealthCheck;
 import com.google.common.collect.ImmutableList;
+import io.dropwizard.util.Duration;
+import org.elasticsearch.action.ActionListener;
 import org.elasticsearch.action.admin.indices.stats.IndexStats;
+import org.elasticsearch.action.admin.indices.stats.IndicesStatsRequestBuilder;
 import org.elasticsearch.action.admin.indices.stats.IndicesStatsResponse;
 import org.elasticsearch.client.Client;
+import org.elasticsearch.common.unit.TimeValue;
 
-import java.util.ArrayList;
 import java.util.List;
 
 import static com.google.common.base.Preconditions.checkArgument;
@@ -18,29 +21,47 @@ import static com.google.common.base.Preconditions.checkNotNull;
  *
  * @see <a href="http://www.elasticsearch.org/guide/reference/api/admin-indices-stats/">Admin Indices Stats</a>
  */
-public class EsIndexDocsHealthCheck extends HealthCheck {
+public class EsIndexDocsHealthCheck extends HealthCheck implements AsyncEsHealthCheck {
     private static final String HEALTH_CHECK_NAME = "elasticsearch-index-documents";
     private static final long DEFAULT_DOCUMENT_THRESHOLD = 1L;
     private final Client client;
     private final String[] indices;
     private final long documentThreshold;
+    private final TimeValue timeout;
 
     /**
-     * Construct a new Elasticsearch index document count health check.
+     * Construct a new Elasticsearch index document count health check which fails if the cluster doesn't respond in
+     * time.
      *
      * @param client            an Elasticsearch {@link Client} instance connected to the cluster
      * @param indices           a {@link List} of indices in Elasticsearch which should be checked
      * @param documentThreshold the minimal number of documents in an index
+     * @param timeout           the maximum duration of the health check, or {@literal null} to wait indefinitely
      * @throws IllegalArgumentException if {@code indices} was {@literal null} or empty,
      *                                  or {@code documentThreshold} was less than 1
      */
-    public EsIndexDocsHealthCheck(Client client, List<String> indices, long documentThreshold) {
+    public EsIndexDocsHealthCheck(Client client, List<String> indices, long documentThreshold, Duration timeout) {
         checkArgument(!indices.isEmpty(), "At least one index must be given");
         checkArgument(documentThreshold > 0L, "The document threshold must at least be 1");
 
         this.client = checkNotNull(client);
         this.indices = checkNotNull(indices.toArray(new String[indices.size()]));
         this.documentThreshold = documentThreshold;
+        this.timeout = Timeouts.toTimeValue(timeout);
+    }
+
+    /**
+     * Construct a new Elasticsearch index document count health check which fails if the cluster doesn't respond
+     * within 10 seconds.
+     *
+     * @param client            an Elasticsearch {@link Client} instance connected to the cluster
+     * @param indices           a {@link List} of indices in Elasticsearch which should be checked
+     * @param documentThreshold the minimal number of documents in an index
+     * @throws IllegalArgumentException if {@code indices} was {@literal null} or empty,
+     *                                  or {@code documentThreshold} was less than 1
+     */
+    public EsIndexDocsHealthCheck(Client client, List<String> indices, long documentThreshold) {
+        this(client, indices, documentThreshold, Timeouts.DEFAULT_TIMEOUT);
     }
 
 
@@ -86,28 +107,68 @@ public class EsIndexDocsHealthCheck extends HealthCheck {
      */
     @Override
     protected Result check() throws Exception {
-        final IndicesStatsResponse indicesStatsResponse = client.admin().indices().prepareStats(indices).get();
+        return result(Timeouts.get(prepareStats(), timeout));
+    }
+
+    /**
+     * Perform a check of the number of documents in the Elasticsearch indices without blocking the calling thread.
+     * The listener is notified with an {@link org.elasticsearch.ElasticsearchTimeoutException} if the cluster doesn't
+     * respond in time.
+     *
+     * @param listener the {@link ActionListener} which is notified with the result of the health check
+     */
+    @Override
+    public void checkAsync(final ActionListener<Result> listener) {
+        final ActionListener<IndicesStatsResponse> responseListener = new ActionListener<IndicesStatsResponse>() {
+            @Override
+            public void onResponse(IndicesStatsResponse response) {
+                listener.onResponse(result(response));
+            }
+
+            @Override
+            public void onFailure(Throwable e) {
+                listener.onFailure(e);
+            }
+        };
 
-        final List<String> indexDetails = new ArrayList<String>(indices.length);
+        prepareStats().execute(Timeouts.bounded(responseListener, timeout));
+    }
+
+    /**
+     * Only the document counts are transferred, which keeps the response small for indices with many shards.
+     */
+    private IndicesStatsRequestBuilder prepareStats() {
+        return client.admin().indices().prepareStats(indices).clear().setDocs(true);
+    }
+
+    private Result result(IndicesStatsResponse indicesStatsResponse) {
+        final StringBuilder resultDetails = new StringBuilder("Last stats: [");
         boolean healthy = true;
+        boolean first = true;
 
         for (IndexStats indexStats : indicesStatsResponse.getIndices().values()) {
-            long documentCount = indexStats.getPrimaries().getDocs().getCount();
+            final long documentCount = indexStats.getPrimaries().getDocs().getCount();
+
+            if (!first) {
+                resultDetails.append(", ");
+            }
+            first = false;
+            resultDetails.append(indexStats.getIndex()).append(" (").append(documentCount);
 
             if (documentCount < documentThreshold) {
                 healthy = false;
-                indexDetails.add(String.format("%s (%d)", indexStats.getIndex(), documentCount));
+                resultDetails.append(')');
             } else {
-                indexDetails.add(String.format("%s (%d!)", indexStats.getIndex(), documentCount));
+                resultDetails.append("!)");
             }
         }
 
-        final String resultDetails = String.format("Last stats: %s", indexDetails);
+        resultDetails.append(']');
 
         if (healthy) {
-            return Result.healthy(resultDetails);
+            return Result.healthy(resultDetails.toString());
         } else {
-            return Result.unhealthy(resultDetails);
+            return Result.unhealthy(resultDetails.toString());
         }
     }
 }
\ No newline at end of file
@@ -2,8 +2,11 @@ package io.dropwizard.elasticsearch.health;
 
 import com.codahale.metrics.health.HealthCheck;
 import com.google.common.collect.ImmutableList;
+import io.dropwizard.util.Duration;
+import org.elasticsearch.action.ActionListener;
 import org.elasticsearch.action.admin.indices.exists.indices.IndicesExistsResponse;
 import org.elasticsearch.client.Client;
+import org.elasticsearch.common.unit.TimeValue;
 
 import java.util.List;
 
@@ -15,22 +18,37 @@ import static com.google.common.base.Preconditions.checkNotNull;
  *
  * @see <a href="http://www.elasticsearch.org/guide/reference/api/admin-indices-indices-exists/">Admin Indices Indices Exists</a>
  */
-public class EsIndexExistsHealthCheck extends HealthCheck {
+public class EsIndexExistsHealthCheck extends HealthCheck implements AsyncEsHealthCheck {
     private final Client client;
     private final String[] indices;
+    private final TimeValue timeout;
 
     /**
-     * Construct a new Elasticsearch index exists health check.
+     * Construct a new Elasticsearch index exists health check which fails if the cluster doesn't respond in time.
      *
      * @param client  an Elasticsearch {@link Client} instance connected to the cluster
      * @param indices a {@link List} of indices in Elasticsearch which should be checked
+     * @param timeout the maximum duration of the health check, or {@literal null} to wait indefinitely
      * @throws IllegalArgumentException if {@code indices} was {@literal null} or empty
      */
-    public EsIndexExistsHealthCheck(Client client, List<String> indices) {
+    public EsIndexExistsHealthCheck(Client client, List<String> indices, Duration timeout) {
         checkArgument(!indices.isEmpty(), "At least one index must be given");
 
         this.client = checkNotNull(client);
         this.indices = checkNotNull(indices.toArray(new String[indices.size()]));
+        this.timeout = Timeouts.toTimeValue(timeout);
+    }
+
+    /**
+     * Construct a new Elasticsearch index exists health check which fails if the cluster doesn't respond within 10
+     * seconds.
+     *
+     * @param client  an Elasticsearch {@link Client} instance connected to the cluster
+     * @param indices a {@link List} of indices in Elasticsearch which should be checked
+     * @throws IllegalArgumentException if {@code indices} was {@literal null} or empty
+     */
+    public EsIndexExistsHealthCheck(Client client, List<String> indices) {
+        this(client, indices, Timeouts.DEFAULT_TIMEOUT);
     }
 
     /**
@@ -54,8 +72,34 @@ public class EsIndexExistsHealthCheck extends HealthCheck {
      */
     @Override
     protected Result check() throws Exception {
-        final IndicesExistsResponse indicesExistsResponse = client.admin().indices().prepareExists(indices).get();
+        return result(Timeouts.get(client.admin().indices().prepareExists(indices), timeout));
+    }
+
+    /**
+     * Perform a check of the existence of the Elasticsearch indices without blocking the calling thread. The
+     * listener is notified with an {@link org.elasticsearch.ElasticsearchTimeoutException} if the cluster doesn't
+     * respond in time.
+     *
+     * @param listener the {@link ActionListener} which is notified with the result of the health check
+     */
+    @Override
+    public void checkAsync(final ActionListener<Result> listener) {
+        final ActionListener<IndicesExistsResponse> responseListener = new ActionListener<IndicesExistsResponse>() {
+            @Override
+            public void onResponse(IndicesExistsResponse response) {
+                listener.onResponse(result(response));
+            }
+
+            @Override
+            public void onFailure(Throwable e) {
+                listener.onFailure(e);
+            }
+        };
+
+        client.admin().indices().prepareExists(indices).execute(Timeouts.bounded(responseListener, timeout));
+    }
 
+    private Result result(IndicesExistsResponse indicesExistsResponse) {
         if (indicesExistsResponse.isExists()) {
             return Result.healthy();
         } else {
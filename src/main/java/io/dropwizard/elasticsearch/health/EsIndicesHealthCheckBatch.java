@@ -0,0 +1,328 @@
+package io.dropwizard.elasticsearch.health;
+
+import com.carrotsearch.hppc.cursors.ObjectObjectCursor;
+import com.codahale.metrics.health.HealthCheck;
+import com.google.common.base.Throwables;
+import io.dropwizard.util.Duration;
+import org.elasticsearch.action.admin.indices.get.GetIndexRequest;
+import org.elasticsearch.action.admin.indices.get.GetIndexResponse;
+import org.elasticsearch.action.admin.indices.stats.IndexStats;
+import org.elasticsearch.action.admin.indices.stats.IndicesStatsRequest;
+import org.elasticsearch.action.admin.indices.stats.IndicesStatsResponse;
+import org.elasticsearch.action.support.IndicesOptions;
+import org.elasticsearch.client.Client;
+import org.elasticsearch.cluster.metadata.AliasMetaData;
+import org.elasticsearch.common.regex.Regex;
+import org.elasticsearch.common.unit.TimeValue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * A factory for index health checks which share a single indices stats request for all registered indices, instead
+ * of querying the cluster once per health check like {@link EsIndexDocsHealthCheck} and
+ * {@link EsIndexExistsHealthCheck} do.
+ * <p>
+ * The indices stats request only contains the {@code docs} metric and is reused by all health checks for
+ * {@code maxAge}, so that a complete run of the registered health checks results in a single request. Concurrent
+ * health checks wait for the request which is already in flight instead of issuing their own. Index names may be
+ * concrete indices, wildcard patterns or aliases; names which don't match any open index in the indices stats, like
+ * aliases and closed indices, are resolved with an additional get index request against the cluster metadata.
+ *
+ * @see <a href="https://www.elastic.co/guide/en/elasticsearch/reference/2.4/indices-stats.html">Indices Stats</a>
+ */
+public class EsIndicesHealthCheckBatch {
+    private static final Duration DEFAULT_MAX_AGE = Duration.seconds(1L);
+    private static final long DEFAULT_DOCUMENT_THRESHOLD = 1L;
+
+    private final Client client;
+    private final long maxAgeNanos;
+    private final TimeValue timeout;
+    private final Set<String> indexNames = ConcurrentHashMap.newKeySet();
+    private Snapshot snapshot = null;
+    private CompletableFuture<Snapshot> pendingFetch = null;
+
+    /**
+     * Construct a new batch of Elasticsearch index health checks which fail if the cluster doesn't respond in time.
+     *
+     * @param client  an Elasticsearch {@link Client} instance connected to the cluster
+     * @param maxAge  the maximum age of the indices stats shared by the health checks
+     * @param timeout the maximum duration of each request of the health checks, or {@literal null} to wait
+     *                indefinitely
+     */
+    public EsIndicesHealthCheckBatch(Client client, Duration maxAge, Duration timeout) {
+        this.client = checkNotNull(client);
+        this.maxAgeNanos = checkNotNull(maxAge).toNanoseconds();
+        this.timeout = Timeouts.toTimeValue(timeout);
+    }
+
+    /**
+     * Construct a new batch of Elasticsearch index health checks which fail if the cluster doesn't respond within 10
+     * seconds.
+     *
+     * @param client an Elasticsearch {@link Client} instance connected to the cluster
+     * @param maxAge the maximum age of the indices stats shared by the health checks
+     */
+    public EsIndicesHealthCheckBatch(Client client, Duration maxAge) {
+        this(client, maxAge, Timeouts.DEFAULT_TIMEOUT);
+    }
+
+    /**
+     * Construct a new batch of Elasticsearch index health checks which share their indices stats for one second and
+     * fail if the cluster doesn't respond within 10 seconds.
+     *
+     * @param client an Elasticsearch {@link Client} instance connected to the cluster
+     */
+    public EsIndicesHealthCheckBatch(Client client) {
+        this(client, DEFAULT_MAX_AGE);
+    }
+
+    /**
+     * Create a {@link HealthCheck} which checks if all indices matching {@code indexName} contain a given number of
+     * documents in their primaries.
+     *
+     * @param indexName         an index name, wildcard pattern or alias
+     * @param documentThreshold the minimal number of documents in an index
+     * @return a {@link HealthCheck} which is evaluated with the shared indices stats
+     * @throws IllegalArgumentException if {@code documentThreshold} was less than 1
+     */
+    public HealthCheck indexDocsHealthCheck(String indexName, long documentThreshold) {
+        checkArgument(documentThreshold > 0L, "The document threshold must at least be 1");
+        indexNames.add(checkNotNull(indexName));
+
+        return new HealthCheck() {
+            @Override
+            protected Result check() throws Exception {
+                return docsResult(indexName, documentThreshold);
+            }
+        };
+    }
+
+    /**
+     * Create a {@link HealthCheck} which checks if all indices matching {@code indexName} contain at least one
+     * document in their primaries.
+     *
+     * @param indexName an index name, wildcard pattern or alias
+     * @return a {@link HealthCheck} which is evaluated with the shared indices stats
+     */
+    public HealthCheck indexDocsHealthCheck(String indexName) {
+        return indexDocsHealthCheck(indexName, DEFAULT_DOCUMENT_THRESHOLD);
+    }
+
+    /**
+     * Create a {@link HealthCheck} which checks if at least one index matches {@code indexName}.
+     *
+     * @param indexName an index name, wildcard pattern or alias
+     * @return a {@link HealthCheck} which is evaluated with the shared indices stats
+     */
+    public HealthCheck indexExistsHealthCheck(String indexName) {
+        indexNames.add(checkNotNull(indexName));
+
+        return new HealthCheck() {
+            @Override
+            protected Result check() throws Exception {
+                return existsResult(indexName);
+            }
+        };
+    }
+
+    private HealthCheck.Result docsResult(String indexName, long documentThreshold) {
+        final Snapshot current = snapshot(indexName);
+        final SortedSet<String> indices = current.resolve(indexName);
+
+        if (indices.isEmpty()) {
+            return HealthCheck.Result.unhealthy("No index matches %s", indexName);
+        }
+
+        final List<String> indexDetails = new ArrayList<>(indices.size());
+        boolean healthy = true;
+
+        for (String index : indices) {
+            final Long documentCount = current.documentCounts.get(index);
+
+            if (documentCount == null) {
+                healthy = false;
+                indexDetails.add(String.format("%s (closed)", index));
+            } else if (documentCount < documentThreshold) {
+                healthy = false;
+                indexDetails.add(String.format("%s (%d)", index, documentCount));
+            } else {
+                indexDetails.add(String.format("%s (%d!)", index, documentCount));
+            }
+        }
+
+        final String resultDetails = String.format("Last stats: %s", indexDetails);
+
+        if (healthy) {
+            return HealthCheck.Result.healthy(resultDetails);
+        } else {
+            return HealthCheck.Result.unhealthy(resultDetails);
+        }
+    }
+
+    private HealthCheck.Result existsResult(String indexName) {
+        if (snapshot(indexName).resolve(indexName).isEmpty()) {
+            return HealthCheck.Result.unhealthy("Index %s does not exist.", indexName);
+        } else {
+            return HealthCheck.Result.healthy();
+        }
+    }
+
+    private Snapshot snapshot(String indexName) {
+        while (true) {
+            final CompletableFuture<Snapshot> fetch;
+            final boolean fetching;
+
+            synchronized (this) {
+                if (snapshot != null
+                        && System.nanoTime() - snapshot.createdAt <= maxAgeNanos
+                        && snapshot.indexNames.contains(indexName)) {
+                    return snapshot;
+                }
+
+                fetching = pendingFetch == null;
+                if (fetching) {
+                    pendingFetch = new CompletableFuture<>();
+                }
+                fetch = pendingFetch;
+            }
+
+            if (fetching) {
+                return fetchAndPublish(fetch);
+            }
+
+            final Snapshot fetched;
+            try {
+                fetched = fetch.join();
+            } catch (CompletionException e) {
+                Throwables.throwIfUnchecked(e.getCause());
+                throw e;
+            }
+
+            // The fetch may have started before this index name was registered
+            if (fetched.indexNames.contains(indexName)) {
+                return fetched;
+            }
+        }
+    }
+
+    private Snapshot fetchAndPublish(CompletableFuture<Snapshot> fetch) {
+        final Snapshot fetched;
+        try {
+            fetched = fetch(new HashSet<>(indexNames));
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                pendingFetch = null;
+            }
+            fetch.completeExceptionally(e);
+            throw e;
+        }
+
+        synchronized (this) {
+            snapshot = fetched;
+            pendingFetch = null;
+        }
+        fetch.complete(fetched);
+        return fetched;
+    }
+
+    private Snapshot fetch(Set<String> names) {
+        final IndicesStatsRequest statsRequest = new IndicesStatsRequest()
+                .indices(names.toArray(new String[names.size()]))
+                .indicesOptions(IndicesOptions.lenientExpandOpen())
+                .clear()
+                .docs(true);
+        final IndicesStatsResponse statsResponse =
+                Timeouts.actionGet(client.admin().indices().stats(statsRequest), timeout);
+
+        final Map<String, Long> documentCounts = new HashMap<>();
+        for (IndexStats indexStats : statsResponse.getIndices().values()) {
+            documentCounts.put(indexStats.getIndex(), indexStats.getPrimaries().getDocs().getCount());
+        }
+
+        final List<String> unresolvedNames = new ArrayList<>();
+        for (String name : names) {
+            if (resolve(name, documentCounts.keySet(), Collections.emptyMap()).isEmpty()) {
+                unresolvedNames.add(name);
+            }
+        }
+
+        final Set<String> indices = new HashSet<>(documentCounts.keySet());
+        final Map<String, Set<String>> aliases = new HashMap<>();
+        if (!unresolvedNames.isEmpty()) {
+            // Closed indices are missing from the indices stats, but they still exist in the cluster metadata
+            final GetIndexRequest metaDataRequest = new GetIndexRequest()
+                    .indices(unresolvedNames.toArray(new String[unresolvedNames.size()]))
+                    .features(GetIndexRequest.Feature.ALIASES)
+                    .indicesOptions(IndicesOptions.fromOptions(true, true, true, true));
+            final GetIndexResponse metaDataResponse =
+                    Timeouts.actionGet(client.admin().indices().getIndex(metaDataRequest), timeout);
+
+            indices.addAll(Arrays.asList(metaDataResponse.indices()));
+            for (ObjectObjectCursor<String, List<AliasMetaData>> cursor : metaDataResponse.aliases()) {
+                for (AliasMetaData alias : cursor.value) {
+                    aliases.computeIfAbsent(alias.alias(), key -> new HashSet<>()).add(cursor.key);
+                }
+            }
+        }
+
+        return new Snapshot(names, indices, documentCounts, aliases, System.nanoTime());
+    }
+
+    private static SortedSet<String> resolve(String indexName, Set<String> indices, Map<String, Set<String>> aliases) {
+        final SortedSet<String> resolved = new TreeSet<>();
+
+        if (Regex.isSimpleMatchPattern(indexName)) {
+            for (String index : indices) {
+                if (Regex.simpleMatch(indexName, index)) {
+                    resolved.add(index);
+                }
+            }
+        } else if (indices.contains(indexName)) {
+            resolved.add(indexName);
+        } else if (aliases.containsKey(indexName)) {
+            for (String index : aliases.get(indexName)) {
+                if (indices.contains(index)) {
+                    resolved.add(index);
+                }
+            }
+        }
+
+        return resolved;
+    }
+
+    private static class Snapshot {
+        private final Set<String> indexNames;
+        private final Set<String> indices;
+        private final Map<String, Long> documentCounts;
+        private final Map<String, Set<String>> aliases;
+        private final long createdAt;
+
+        private Snapshot(Set<String> indexNames, Set<String> indices, Map<String, Long> documentCounts,
+                         Map<String, Set<String>> aliases, long createdAt) {
+            this.indexNames = indexNames;
+            this.indices = indices;
+            this.documentCounts = documentCounts;
+            this.aliases = aliases;
+            this.createdAt = createdAt;
+        }
+
+        private SortedSet<String> resolve(String indexName) {
+            return EsIndicesHealthCheckBatch.resolve(indexName, indices, aliases);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package io.dropwizard.elasticsearch.health;
+
+import com.codahale.metrics.health.HealthCheck;
+import io.dropwizard.elasticsearch.managed.ManagedEsClient;
+import org.elasticsearch.client.Client;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * A {@link HealthCheck} which checks if a {@link ManagedEsClient} has finished connecting to the Elasticsearch
+ * cluster. This is mostly useful as readiness check if the client is started asynchronously.
+ *
+ * @see io.dropwizard.elasticsearch.config.EsConfiguration#isAsyncStartup()
+ */
+public class EsReadinessHealthCheck extends HealthCheck {
+    private final CompletableFuture<Client> clientFuture;
+
+    /**
+     * Construct a new Elasticsearch readiness health check.
+     *
+     * @param managedClient the {@link ManagedEsClient} instance to check
+     */
+    public EsReadinessHealthCheck(ManagedEsClient managedClient) {
+        this.clientFuture = checkNotNull(managedClient).getClientFuture();
+    }
+
+    /**
+     * Perform a check of the startup state of the managed Elasticsearch client.
+     *
+     * @return if the client has been connected, a healthy {@link com.codahale.metrics.health.HealthCheck.Result};
+     *         otherwise, an unhealthy {@link com.codahale.metrics.health.HealthCheck.Result} with a descriptive
+     *         error message or exception
+     * @throws Exception if there is an unhandled error during the health check; this will result in
+     *                   a failed health check
+     */
+    @Override
+    protected Result check() throws Exception {
+        if (!clientFuture.isDone()) {
+            return Result.unhealthy("connecting");
+        }
+
+        try {
+            clientFuture.get();
+            return Result.healthy("connected");
+        } catch (ExecutionException e) {
+            return Result.unhealthy(e.getCause());
+        }
+    }
+}
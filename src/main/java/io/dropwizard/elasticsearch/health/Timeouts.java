@@ -0,0 +1,92 @@
+package io.dropwizard.elasticsearch.health;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.dropwizard.util.Duration;
+import org.elasticsearch.ElasticsearchTimeoutException;
+import org.elasticsearch.action.ActionFuture;
+import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.action.ActionRequestBuilder;
+import org.elasticsearch.action.ActionResponse;
+import org.elasticsearch.common.unit.TimeValue;
+
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Helpers for bounding the requests of health checks by an optional timeout.
+ */
+final class Timeouts {
+    /**
+     * The maximum duration of health checks which were created without an explicit timeout, matching the default of
+     * {@link io.dropwizard.elasticsearch.config.HealthCheckConfiguration#getTimeout()}.
+     */
+    static final Duration DEFAULT_TIMEOUT = Duration.seconds(10L);
+
+    private Timeouts() {
+    }
+
+    static TimeValue toTimeValue(Duration timeout) {
+        return null == timeout ? null : TimeValue.timeValueNanos(timeout.toNanoseconds());
+    }
+
+    static <Response extends ActionResponse> Response get(ActionRequestBuilder<?, Response, ?> requestBuilder, TimeValue timeout) {
+        return null == timeout ? requestBuilder.get() : requestBuilder.get(timeout);
+    }
+
+    static <Response> Response actionGet(ActionFuture<Response> future, TimeValue timeout) {
+        return null == timeout ? future.actionGet() : future.actionGet(timeout);
+    }
+
+    /**
+     * Wrap a listener so that it is notified with an {@link ElasticsearchTimeoutException} if the wrapped request
+     * doesn't complete within the timeout. Later responses are ignored.
+     */
+    static <Response> ActionListener<Response> bounded(ActionListener<Response> listener, TimeValue timeout) {
+        if (null == timeout) {
+            return listener;
+        }
+
+        final AtomicBoolean completed = new AtomicBoolean(false);
+        final ScheduledFuture<?> timer = Timer.INSTANCE.schedule(() -> {
+            if (completed.compareAndSet(false, true)) {
+                listener.onFailure(new ElasticsearchTimeoutException("Health check timed out after {}", timeout));
+            }
+        }, timeout.nanos(), TimeUnit.NANOSECONDS);
+
+        return new ActionListener<Response>() {
+            @Override
+            public void onResponse(Response response) {
+                if (completed.compareAndSet(false, true)) {
+                    timer.cancel(false);
+                    listener.onResponse(response);
+                }
+            }
+
+            @Override
+            public void onFailure(Throwable e) {
+                if (completed.compareAndSet(false, true)) {
+                    timer.cancel(false);
+                    listener.onFailure(e);
+                }
+            }
+        };
+    }
+
+    /**
+     * The timer of the asynchronous health checks, created on first use.
+     */
+    private static final class Timer {
+        private static final ScheduledThreadPoolExecutor INSTANCE = create();
+
+        private static ScheduledThreadPoolExecutor create() {
+            final ScheduledThreadPoolExecutor timer = new ScheduledThreadPoolExecutor(1, new ThreadFactoryBuilder()
+                    .setNameFormat("es-health-check-timeout-%d")
+                    .setDaemon(true)
+                    .build());
+            timer.setRemoveOnCancelPolicy(true);
+            return timer;
+        }
+    }
+}
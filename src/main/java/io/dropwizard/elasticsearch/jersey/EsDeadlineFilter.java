@@ -0,0 +1,51 @@
+package io.dropwizard.elasticsearch.jersey;
+
+import io.dropwizard.elasticsearch.client.EsDeadline;
+import io.dropwizard.util.Duration;
+
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.FilterConfig;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import java.io.IOException;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * A servlet filter which sets an {@link EsDeadline} for every HTTP request, so that the Elasticsearch requests sent
+ * while handling it are bounded by the time budget of the HTTP request.
+ * <p>
+ * The deadline is bound to the thread handling the request and cleared on the same thread once the filter chain
+ * returns. It therefore only applies to synchronous resource methods; the threads resuming suspended requests have no
+ * deadline.
+ */
+public class EsDeadlineFilter implements Filter {
+    private final Duration budget;
+
+    /**
+     * Construct a new filter setting an Elasticsearch deadline for every HTTP request.
+     *
+     * @param budget the time after the start of an HTTP request after which its Elasticsearch requests time out
+     */
+    public EsDeadlineFilter(Duration budget) {
+        this.budget = checkNotNull(budget, "Budget must not be null");
+    }
+
+    @Override
+    public void init(FilterConfig filterConfig) {
+    }
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+            throws IOException, ServletException {
+        try (EsDeadline.Scope scope = EsDeadline.within(budget)) {
+            chain.doFilter(request, response);
+        }
+    }
+
+    @Override
+    public void destroy() {
+    }
+}
@@ -0,0 +1,55 @@
+package io.dropwizard.elasticsearch.managed;
+
+import io.dropwizard.elasticsearch.config.AdaptiveBulkConfiguration;
+import io.dropwizard.elasticsearch.config.BulkProcessorConfiguration;
+
+/**
+ * An additive increase/multiplicative decrease (AIMD) controller of the number of actions and the size of bulk
+ * requests as configured by an {@link AdaptiveBulkConfiguration}.
+ */
+class BulkSizeController {
+    private final int minActions;
+    private final int maxActions;
+    private final long minBytes;
+    private final long maxBytes;
+    private final long targetLatencyNanos;
+    private final double backoffRatio;
+    private double actions;
+    private double bytes;
+
+    BulkSizeController(BulkProcessorConfiguration config) {
+        final AdaptiveBulkConfiguration adaptive = config.getAdaptive();
+        this.minActions = adaptive.getMinActions();
+        this.maxActions = adaptive.getMaxActions();
+        this.minBytes = adaptive.getMinSize().toBytes();
+        this.maxBytes = adaptive.getMaxSize().toBytes();
+        this.targetLatencyNanos = adaptive.getTargetLatency().toNanoseconds();
+        this.backoffRatio = adaptive.getBackoffRatio();
+        this.actions = Math.min(maxActions, Math.max(minActions, config.getBulkActions()));
+        this.bytes = Math.min(maxBytes, Math.max(minBytes, config.getBulkSize().toBytes()));
+    }
+
+    /**
+     * Adjusts the bulk sizes to the outcome of a bulk request.
+     *
+     * @param latencyNanos the latency of the bulk request in nanoseconds
+     * @param rejected     whether the bulk request or any of its items has been rejected by the cluster
+     */
+    synchronized void update(long latencyNanos, boolean rejected) {
+        if (rejected || latencyNanos > targetLatencyNanos) {
+            actions = Math.max(minActions, actions * backoffRatio);
+            bytes = Math.max(minBytes, bytes * backoffRatio);
+        } else {
+            actions = Math.min(maxActions, actions + minActions);
+            bytes = Math.min(maxBytes, bytes + minBytes);
+        }
+    }
+
+    synchronized int getActions() {
+        return (int) actions;
+    }
+
+    synchronized long getBytes() {
+        return (long) bytes;
+    }
+}
@@ -0,0 +1,433 @@
+package io.dropwizard.elasticsearch.managed;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.Metric;
+import com.codahale.metrics.MetricRegistry;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.dropwizard.elasticsearch.config.BulkProcessorConfiguration;
+import io.dropwizard.lifecycle.Managed;
+import io.dropwizard.util.Duration;
+import org.elasticsearch.ExceptionsHelper;
+import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.action.ActionRequest;
+import org.elasticsearch.action.DocumentRequest;
+import org.elasticsearch.action.bulk.BulkItemResponse;
+import org.elasticsearch.action.bulk.BulkProcessor;
+import org.elasticsearch.action.bulk.BulkRequest;
+import org.elasticsearch.action.bulk.BulkResponse;
+import org.elasticsearch.action.delete.DeleteRequest;
+import org.elasticsearch.action.update.UpdateRequest;
+import org.elasticsearch.client.Client;
+import org.elasticsearch.common.util.concurrent.EsRejectedExecutionException;
+import org.elasticsearch.rest.RestStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.codahale.metrics.MetricRegistry.name;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+
+/**
+ * A Dropwizard managed bulk processor built on top of a {@link ManagedEsClient} which adapts the number of actions
+ * and the size of its bulk requests to the latency and the rejections of the cluster.
+ * <p>
+ * Like the {@link ManagedBulkProcessor}, requests are collected and sent as bulk requests, and adding requests blocks
+ * the caller while {@link BulkProcessorConfiguration#getConcurrentRequests()} (at least one) bulk requests are in
+ * flight. The thresholds for sending a bulk request start at {@link BulkProcessorConfiguration#getBulkActions()} and
+ * {@link BulkProcessorConfiguration#getBulkSize()} and are adjusted after every bulk request within the bounds of
+ * {@link BulkProcessorConfiguration#getAdaptive()}.
+ * <p>
+ * Items rejected with {@code 429 Too Many Requests}, and whole bulk requests rejected by the cluster, are retried up
+ * to {@link BulkProcessorConfiguration#getMaxRetries()} times with an exponential backoff starting at
+ * {@link BulkProcessorConfiguration#getRetryDelay()}, of which a random half is jittered so that concurrent clients
+ * don't retry in lockstep. The {@link BulkProcessor.Listener} is notified once per bulk request with the final
+ * results of all its items.
+ * <p>
+ * The current thresholds are registered as gauges {@code <prefix>.bulk.adaptive.actions} and
+ * {@code <prefix>.bulk.adaptive.size}; retried and finally rejected items are counted by the meters
+ * {@code <prefix>.bulk.adaptive.retries} and {@code <prefix>.bulk.adaptive.rejected}.
+ */
+public class ManagedAdaptiveBulkProcessor implements Managed {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ManagedAdaptiveBulkProcessor.class);
+
+    private final Client client;
+    private final BulkProcessor.Listener listener;
+    private final BulkSizeController sizeController;
+    private final long retryDelayMillis;
+    private final int maxRetries;
+    private final Duration awaitCloseTimeout;
+    private final Semaphore semaphore;
+    private final ScheduledExecutorService scheduler;
+    private final MetricRegistry metricRegistry;
+    private final Set<String> registeredNames = ConcurrentHashMap.newKeySet();
+    private final Meter retries;
+    private final Meter rejected;
+    private final AtomicLong executionIds = new AtomicLong();
+    private final Object outstandingLock = new Object();
+    private int outstanding = 0;
+    private BulkRequest bulkRequest = new BulkRequest();
+    private boolean closed = false;
+
+    /**
+     * Create a new adaptive bulk processor which logs failed bulk requests and doesn't report metrics.
+     *
+     * @param managedClient a valid {@link ManagedEsClient} instance
+     * @param config        a valid {@link BulkProcessorConfiguration} instance
+     */
+    public ManagedAdaptiveBulkProcessor(final ManagedEsClient managedClient, final BulkProcessorConfiguration config) {
+        this(managedClient, config, new ManagedBulkProcessor.LoggingListener(), new MetricRegistry(), "elasticsearch");
+    }
+
+    /**
+     * Create a new adaptive bulk processor.
+     *
+     * @param managedClient  a valid {@link ManagedEsClient} instance
+     * @param config         a valid {@link BulkProcessorConfiguration} instance
+     * @param listener       a {@link BulkProcessor.Listener} which is notified before and after each bulk request
+     * @param metricRegistry the {@link MetricRegistry} to register the metrics in
+     * @param prefix         the prefix of the metric names
+     */
+    public ManagedAdaptiveBulkProcessor(final ManagedEsClient managedClient,
+                                        final BulkProcessorConfiguration config,
+                                        final BulkProcessor.Listener listener,
+                                        final MetricRegistry metricRegistry,
+                                        final String prefix) {
+        checkNotNull(managedClient, "ManagedEsClient must not be null");
+        checkNotNull(config, "BulkProcessorConfiguration must not be null");
+        checkNotNull(prefix, "Metric prefix must not be null");
+
+        this.client = managedClient.getClient();
+        this.listener = checkNotNull(listener, "BulkProcessor listener must not be null");
+        this.metricRegistry = checkNotNull(metricRegistry, "MetricRegistry must not be null");
+        this.sizeController = new BulkSizeController(config);
+        this.retryDelayMillis = config.getRetryDelay().toMilliseconds();
+        this.maxRetries = config.getMaxRetries();
+        this.awaitCloseTimeout = config.getAwaitCloseTimeout();
+        this.semaphore = new Semaphore(Math.max(1, config.getConcurrentRequests()));
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder()
+                .setNameFormat("es-adaptive-bulk-%d")
+                .setDaemon(true)
+                .build());
+
+        final Duration flushInterval = config.getFlushInterval();
+        if (null != flushInterval) {
+            scheduler.scheduleWithFixedDelay(this::scheduledFlush, flushInterval.toMilliseconds(),
+                    flushInterval.toMilliseconds(), TimeUnit.MILLISECONDS);
+        }
+
+        final String metricPrefix = name(prefix, "bulk", "adaptive");
+        register(name(metricPrefix, "actions"), (Gauge<Integer>) sizeController::getActions);
+        register(name(metricPrefix, "size"), (Gauge<Long>) sizeController::getBytes);
+        this.retries = register(name(metricPrefix, "retries"), new Meter());
+        this.rejected = register(name(metricPrefix, "rejected"), new Meter());
+    }
+
+    /**
+     * The processor is created on construction, so there is nothing left to do. Called <i>before</i> the service
+     * becomes available.
+     *
+     * @throws Exception if something goes wrong; this will halt the service startup.
+     */
+    @Override
+    public void start() throws Exception {
+    }
+
+    /**
+     * Flushes all pending requests and waits for in-flight bulk requests and their retries to complete. Called
+     * <i>after</i> the service is no longer accepting requests.
+     *
+     * @throws Exception if something goes wrong.
+     */
+    @Override
+    public void stop() throws Exception {
+        final BulkRequest pending;
+        synchronized (this) {
+            closed = true;
+            pending = swap();
+        }
+        if (null != pending) {
+            execute(pending);
+        }
+
+        final long deadline = System.nanoTime() + awaitCloseTimeout.toNanoseconds();
+        synchronized (outstandingLock) {
+            long remaining;
+            while (outstanding > 0 && (remaining = deadline - System.nanoTime()) > 0L) {
+                TimeUnit.NANOSECONDS.timedWait(outstandingLock, remaining);
+            }
+            if (outstanding > 0) {
+                LOGGER.warn("Bulk requests did not complete within {}", awaitCloseTimeout);
+            }
+        }
+
+        scheduler.shutdownNow();
+        for (String name : registeredNames) {
+            metricRegistry.remove(name);
+        }
+        registeredNames.clear();
+    }
+
+    /**
+     * Add an index, update or delete request to the bulk processor. This call blocks if the maximum number of
+     * concurrent bulk requests is already in flight.
+     *
+     * @param request an index, update or delete request
+     * @return this {@link ManagedAdaptiveBulkProcessor} instance
+     * @throws IllegalStateException if the processor has been stopped
+     */
+    public ManagedAdaptiveBulkProcessor add(final ActionRequest<?> request) {
+        checkNotNull(request, "Request must not be null");
+
+        final BulkRequest full;
+        synchronized (this) {
+            checkState(!closed, "Bulk processor has been stopped");
+            bulkRequest.add(request);
+            full = bulkRequest.numberOfActions() >= sizeController.getActions()
+                    || bulkRequest.estimatedSizeInBytes() >= sizeController.getBytes() ? swap() : null;
+        }
+
+        if (null != full) {
+            execute(full);
+        }
+        return this;
+    }
+
+    /**
+     * Flush all pending requests.
+     */
+    public void flush() {
+        final BulkRequest pending;
+        synchronized (this) {
+            pending = swap();
+        }
+
+        if (null != pending) {
+            execute(pending);
+        }
+    }
+
+    private void scheduledFlush() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            LOGGER.warn("Couldn't flush pending bulk requests", e);
+        }
+    }
+
+    /**
+     * Get the current maximum number of actions of a bulk request.
+     *
+     * @return the current maximum number of actions
+     */
+    public int getBulkActions() {
+        return sizeController.getActions();
+    }
+
+    /**
+     * Get the current maximum size of a bulk request.
+     *
+     * @return the current maximum size in bytes
+     */
+    public long getBulkSize() {
+        return sizeController.getBytes();
+    }
+
+    private BulkRequest swap() {
+        if (bulkRequest.numberOfActions() == 0) {
+            return null;
+        }
+
+        final BulkRequest full = bulkRequest;
+        bulkRequest = new BulkRequest();
+        return full;
+    }
+
+    private void execute(BulkRequest request) {
+        synchronized (outstandingLock) {
+            outstanding++;
+        }
+
+        final Execution execution = new Execution(executionIds.incrementAndGet(), request);
+        listener.beforeBulk(execution.id, request);
+
+        final int[] positions = new int[request.numberOfActions()];
+        for (int i = 0; i < positions.length; i++) {
+            positions[i] = i;
+        }
+        send(execution, request, positions, 0);
+    }
+
+    private void send(Execution execution, BulkRequest request, int[] positions, int attempt) {
+        try {
+            semaphore.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            execution.fail(positions, e);
+            return;
+        }
+
+        final long start = System.nanoTime();
+        final AtomicBoolean completed = new AtomicBoolean(false);
+        final ActionListener<BulkResponse> responseListener = new ActionListener<BulkResponse>() {
+            @Override
+            public void onResponse(BulkResponse response) {
+                if (!completed.compareAndSet(false, true)) {
+                    return;
+                }
+                semaphore.release();
+
+                final BulkRequest retry = new BulkRequest();
+                final int[] retryPositions = new int[request.numberOfActions()];
+                boolean wasRejected = false;
+                for (BulkItemResponse item : response.getItems()) {
+                    final int position = positions[item.getItemId()];
+                    if (isRejected(item)) {
+                        wasRejected = true;
+                        if (attempt < maxRetries) {
+                            retryPositions[retry.numberOfActions()] = position;
+                            retry.add(request.requests().get(item.getItemId()));
+                            continue;
+                        }
+                        rejected.mark();
+                    }
+                    execution.complete(position, item);
+                }
+
+                sizeController.update(System.nanoTime() - start, wasRejected);
+                execution.tookInMillis += response.getTookInMillis();
+
+                if (retry.numberOfActions() > 0) {
+                    retry(execution, retry, Arrays.copyOf(retryPositions, retry.numberOfActions()),
+                            attempt);
+                } else {
+                    execution.finish();
+                }
+            }
+
+            @Override
+            public void onFailure(Throwable e) {
+                if (!completed.compareAndSet(false, true)) {
+                    LOGGER.warn("Handling the response of bulk request {} failed", execution.id, e);
+                    return;
+                }
+                semaphore.release();
+
+                final boolean wasRejected = ExceptionsHelper.unwrapCause(e) instanceof EsRejectedExecutionException;
+                sizeController.update(System.nanoTime() - start, wasRejected);
+
+                if (wasRejected && attempt < maxRetries) {
+                    retry(execution, request, positions, attempt);
+                } else {
+                    if (wasRejected) {
+                        rejected.mark(positions.length);
+                    }
+                    execution.fail(positions, e);
+                }
+            }
+        };
+
+        // The client may fail synchronously, e. g. with a NoNodeAvailableException
+        try {
+            client.bulk(request, responseListener);
+        } catch (RuntimeException e) {
+            responseListener.onFailure(e);
+        }
+    }
+
+    private void retry(Execution execution, BulkRequest request, int[] positions, int attempt) {
+        final long backoffMillis = retryDelayMillis << Math.min(attempt, 16);
+        final long delayMillis = backoffMillis / 2L + ThreadLocalRandom.current().nextLong(backoffMillis / 2L + 1L);
+        retries.mark(positions.length);
+        LOGGER.debug("Retrying {} rejected actions of bulk request {} in {}ms",
+                positions.length, execution.id, delayMillis);
+
+        try {
+            scheduler.schedule(() -> send(execution, request, positions, attempt + 1),
+                    delayMillis, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            execution.fail(positions, e);
+        }
+    }
+
+    private static String opType(ActionRequest<?> action) {
+        if (action instanceof DeleteRequest) {
+            return "delete";
+        } else if (action instanceof UpdateRequest) {
+            return "update";
+        } else {
+            return "index";
+        }
+    }
+
+    private static boolean isRejected(BulkItemResponse item) {
+        return item.isFailed() && item.getFailure().getStatus() == RestStatus.TOO_MANY_REQUESTS;
+    }
+
+    private <T extends Metric> T register(String name, T metric) {
+        registeredNames.add(name);
+        return metricRegistry.register(name, metric);
+    }
+
+    /**
+     * The results of the items of a bulk request over all of its attempts.
+     */
+    private class Execution {
+        private final long id;
+        private final BulkRequest request;
+        private final BulkItemResponse[] items;
+        private long tookInMillis = 0L;
+
+        private Execution(long id, BulkRequest request) {
+            this.id = id;
+            this.request = request;
+            this.items = new BulkItemResponse[request.numberOfActions()];
+        }
+
+        private void complete(int position, BulkItemResponse item) {
+            items[position] = item.isFailed()
+                    ? new BulkItemResponse(position, item.getOpType(), item.getFailure())
+                    : new BulkItemResponse(position, item.getOpType(), item.getResponse());
+        }
+
+        private void fail(int[] positions, Throwable failure) {
+            if (positions.length == items.length) {
+                listener.afterBulk(id, request, failure);
+                done();
+                return;
+            }
+
+            for (int position : positions) {
+                final ActionRequest<?> action = request.requests().get(position);
+                final DocumentRequest<?> document = (DocumentRequest<?>) action;
+                items[position] = new BulkItemResponse(position, opType(action), new BulkItemResponse.Failure(
+                        document.index(), document.type(), document.id(), failure));
+            }
+            finish();
+        }
+
+        private void finish() {
+            listener.afterBulk(id, request, new BulkResponse(items, tookInMillis));
+            done();
+        }
+
+        private void done() {
+            synchronized (outstandingLock) {
+                outstanding--;
+                outstandingLock.notifyAll();
+            }
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package io.dropwizard.elasticsearch.managed;
+
+import io.dropwizard.elasticsearch.config.BulkProcessorConfiguration;
+import io.dropwizard.lifecycle.Managed;
+import io.dropwizard.util.Duration;
+import org.elasticsearch.action.ActionRequest;
+import org.elasticsearch.action.bulk.BackoffPolicy;
+import org.elasticsearch.action.bulk.BulkProcessor;
+import org.elasticsearch.action.bulk.BulkRequest;
+import org.elasticsearch.action.bulk.BulkResponse;
+import org.elasticsearch.common.unit.ByteSizeValue;
+import org.elasticsearch.common.unit.TimeValue;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * A Dropwizard managed Elasticsearch {@link BulkProcessor} built on top of a {@link ManagedEsClient}.
+ * <p>
+ * Requests added to this processor are collected and sent as bulk requests according to the
+ * {@link BulkProcessorConfiguration}. If {@link BulkProcessorConfiguration#getConcurrentRequests()} bulk requests
+ * are already in flight, adding further requests blocks the caller until one of them has completed, so that the
+ * number of buffered requests stays bounded.
+ * <p>
+ * On {@link #stop()} all pending requests are flushed and in-flight bulk requests are awaited. Register this object
+ * with the Dropwizard lifecycle <i>after</i> the {@link ManagedEsClient}, so that it is stopped before the client.
+ *
+ * @see <a href="https://www.elastic.co/guide/en/elasticsearch/client/java-api/2.4/java-docs-bulk-processor.html">Bulk Processor</a>
+ */
+public class ManagedBulkProcessor implements Managed {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ManagedBulkProcessor.class);
+
+    private final BulkProcessor bulkProcessor;
+    private final Duration awaitCloseTimeout;
+
+    /**
+     * Create a new managed Elasticsearch {@link BulkProcessor} which logs failed bulk requests.
+     *
+     * @param managedClient a valid {@link ManagedEsClient} instance
+     * @param config        a valid {@link BulkProcessorConfiguration} instance
+     */
+    public ManagedBulkProcessor(final ManagedEsClient managedClient, final BulkProcessorConfiguration config) {
+        this(managedClient, config, new LoggingListener());
+    }
+
+    /**
+     * Create a new managed Elasticsearch {@link BulkProcessor}.
+     *
+     * @param managedClient a valid {@link ManagedEsClient} instance
+     * @param config        a valid {@link BulkProcessorConfiguration} instance
+     * @param listener      a {@link BulkProcessor.Listener} which is notified before and after each bulk request
+     */
+    public ManagedBulkProcessor(final ManagedEsClient managedClient,
+                                final BulkProcessorConfiguration config,
+                                final BulkProcessor.Listener listener) {
+        checkNotNull(managedClient, "ManagedEsClient must not be null");
+        checkNotNull(config, "BulkProcessorConfiguration must not be null");
+        checkNotNull(listener, "BulkProcessor listener must not be null");
+
+        final Duration flushInterval = config.getFlushInterval();
+        this.bulkProcessor = BulkProcessor.builder(managedClient.getClient(), listener)
+                .setName("dropwizard-bulk-processor")
+                .setBulkActions(config.getBulkActions())
+                .setBulkSize(new ByteSizeValue(config.getBulkSize().toBytes()))
+                .setFlushInterval(flushInterval == null ? null : TimeValue.timeValueMillis(flushInterval.toMilliseconds()))
+                .setConcurrentRequests(config.getConcurrentRequests())
+                .setBackoffPolicy(BackoffPolicy.exponentialBackoff(
+                        TimeValue.timeValueMillis(config.getRetryDelay().toMilliseconds()), config.getMaxRetries()))
+                .build();
+        this.awaitCloseTimeout = config.getAwaitCloseTimeout();
+    }
+
+    /**
+     * The {@link BulkProcessor} is created on construction, so there is nothing left to do. Called <i>before</i> the
+     * service becomes available.
+     *
+     * @throws Exception if something goes wrong; this will halt the service startup.
+     */
+    @Override
+    public void start() throws Exception {
+    }
+
+    /**
+     * Flushes all pending requests and waits for in-flight bulk requests to complete. Called <i>after</i> the service
+     * is no longer accepting requests.
+     *
+     * @throws Exception if something goes wrong.
+     */
+    @Override
+    public void stop() throws Exception {
+        if (!bulkProcessor.awaitClose(awaitCloseTimeout.getQuantity(), awaitCloseTimeout.getUnit())) {
+            LOGGER.warn("Bulk requests did not complete within {}", awaitCloseTimeout);
+        }
+    }
+
+    /**
+     * Add an index, update or delete request to the bulk processor. This call blocks if the maximum number of
+     * concurrent bulk requests is already in flight.
+     *
+     * @param request an index, update or delete request
+     * @return this {@link ManagedBulkProcessor} instance
+     */
+    public ManagedBulkProcessor add(final ActionRequest<?> request) {
+        bulkProcessor.add(request);
+        return this;
+    }
+
+    /**
+     * Flush all pending requests.
+     */
+    public void flush() {
+        bulkProcessor.flush();
+    }
+
+    /**
+     * Get the managed Elasticsearch {@link BulkProcessor} instance.
+     *
+     * @return a valid Elasticsearch {@link BulkProcessor} instance
+     */
+    public BulkProcessor getBulkProcessor() {
+        return bulkProcessor;
+    }
+
+    static class LoggingListener implements BulkProcessor.Listener {
+        @Override
+        public void beforeBulk(long executionId, BulkRequest request) {
+        }
+
+        @Override
+        public void afterBulk(long executionId, BulkRequest request, BulkResponse response) {
+            if (response.hasFailures()) {
+                LOGGER.warn("Bulk request {} had failures: {}", executionId, response.buildFailureMessage());
+            }
+        }
+
+        @Override
+        public void afterBulk(long executionId, BulkRequest request, Throwable failure) {
+            LOGGER.error("Bulk request {} with {} actions failed", executionId, request.numberOfActions(), failure);
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package io.dropwizard.elasticsearch.managed;
+
+import com.google.common.net.HostAndPort;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.dropwizard.elasticsearch.config.DnsConfiguration;
+import io.dropwizard.elasticsearch.util.TransportAddressHelper;
+import io.dropwizard.lifecycle.Managed;
+import io.dropwizard.util.Duration;
+import org.elasticsearch.client.transport.TransportClient;
+import org.elasticsearch.common.transport.TransportAddress;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * A Dropwizard managed object which periodically re-resolves the host names of the servers of a
+ * {@link TransportClient}, so that replaced nodes behind a DNS name are picked up without restarting the application.
+ * <p>
+ * Every IP address of a host name becomes a transport address of its own. If the resolved addresses change, they are
+ * passed to a listener, which by default adds the new addresses to the {@link TransportClient} and removes the
+ * addresses which are no longer resolved. If none of the host names can be resolved, the addresses are left untouched.
+ */
+public class ManagedDnsResolver implements Managed {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ManagedDnsResolver.class);
+
+    private final List<HostAndPort> servers;
+    private final Duration timeout;
+    private final long refreshIntervalMillis;
+    private final Consumer<Set<TransportAddress>> listener;
+    private Set<TransportAddress> addresses = Collections.emptySet();
+    private ScheduledExecutorService executor = null;
+
+    /**
+     * Create a new DNS resolver updating the transport addresses of a {@link TransportClient}.
+     *
+     * @param client  the {@link TransportClient} whose transport addresses are updated
+     * @param servers the servers whose host names are resolved
+     * @param config  a valid {@link DnsConfiguration} instance with a refresh interval
+     */
+    public ManagedDnsResolver(TransportClient client, List<HostAndPort> servers, DnsConfiguration config) {
+        this(servers, config, new TransportClientUpdater(checkNotNull(client, "Elasticsearch client must not be null"),
+                client.transportAddresses()));
+    }
+
+    /**
+     * Create a new DNS resolver passing the resolved addresses to a listener whenever they change.
+     *
+     * @param servers  the servers whose host names are resolved
+     * @param config   a valid {@link DnsConfiguration} instance with a refresh interval
+     * @param listener the listener which is called with all resolved addresses
+     */
+    public ManagedDnsResolver(List<HostAndPort> servers, DnsConfiguration config,
+                              Consumer<Set<TransportAddress>> listener) {
+        checkNotNull(config, "DnsConfiguration must not be null");
+        checkArgument(null != config.getRefreshInterval(), "The refresh interval must not be null");
+
+        this.servers = checkNotNull(servers, "Servers must not be null");
+        this.listener = checkNotNull(listener, "Listener must not be null");
+        this.timeout = config.getTimeout();
+        this.refreshIntervalMillis = config.getRefreshInterval().toMilliseconds();
+    }
+
+    /**
+     * Starts re-resolving the host names periodically. Called <i>after</i> the initially resolved transport addresses
+     * have been added to the {@link TransportClient}.
+     *
+     * @throws Exception if something goes wrong; this will halt the service startup.
+     */
+    @Override
+    public void start() throws Exception {
+        executor = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder()
+                .setNameFormat("es-dns-refresh-%d")
+                .setDaemon(true)
+                .build());
+        executor.scheduleWithFixedDelay(this::refresh, refreshIntervalMillis, refreshIntervalMillis,
+                TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops re-resolving the host names.
+     *
+     * @throws Exception if something goes wrong.
+     */
+    @Override
+    public void stop() throws Exception {
+        if (null != executor) {
+            executor.shutdownNow();
+        }
+    }
+
+    void refresh() {
+        try {
+            final Set<TransportAddress> resolved = TransportAddressHelper.resolveAll(servers, timeout);
+            if (resolved.isEmpty()) {
+                LOGGER.warn("Couldn't resolve any of {}, keeping the current transport addresses", servers);
+            } else if (!resolved.equals(addresses)) {
+                LOGGER.info("Resolved transport addresses changed to {}", resolved);
+                addresses = resolved;
+                listener.accept(resolved);
+            }
+        } catch (RuntimeException e) {
+            LOGGER.warn("Couldn't refresh the transport addresses", e);
+        }
+    }
+
+    static class TransportClientUpdater implements Consumer<Set<TransportAddress>> {
+        private final TransportClient client;
+        private Set<TransportAddress> previous;
+
+        TransportClientUpdater(TransportClient client, Collection<TransportAddress> initial) {
+            this.client = client;
+            this.previous = new HashSet<>(initial);
+        }
+
+        @Override
+        public void accept(Set<TransportAddress> addresses) {
+            for (TransportAddress address : addresses) {
+                if (!previous.contains(address)) {
+                    client.addTransportAddress(address);
+                }
+            }
+            for (TransportAddress address : previous) {
+                if (!addresses.contains(address)) {
+                    client.removeTransportAddress(address);
+                }
+            }
+            previous = new HashSet<>(addresses);
+        }
+    }
+}
@@ -1,20 +1,51 @@
 package io.dropwizard.elasticsearch.managed;
 
+import com.codahale.metrics.MetricRegistry;
 import com.google.common.io.Resources;
+import com.google.common.net.HostAndPort;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.dropwizard.elasticsearch.client.AsyncEsClient;
+import io.dropwizard.elasticsearch.client.BatchingClient;
+import io.dropwizard.elasticsearch.client.CachingClient;
+import io.dropwizard.elasticsearch.client.CoalescingClient;
+import io.dropwizard.elasticsearch.client.InstrumentedClient;
+import io.dropwizard.elasticsearch.client.LimitingClient;
+import io.dropwizard.elasticsearch.client.RoutingClient;
+import io.dropwizard.elasticsearch.client.ScrollIterator;
+import io.dropwizard.elasticsearch.client.TimeoutClient;
+import io.dropwizard.elasticsearch.config.ConnectionsPerNodeConfiguration;
+import io.dropwizard.elasticsearch.config.DnsConfiguration;
 import io.dropwizard.elasticsearch.config.EsConfiguration;
+import io.dropwizard.elasticsearch.config.TimeoutConfiguration;
+import io.dropwizard.elasticsearch.config.TransportConfiguration;
+import io.dropwizard.elasticsearch.config.TransportProfile;
 import io.dropwizard.elasticsearch.util.TransportAddressHelper;
 import io.dropwizard.lifecycle.Managed;
+import io.dropwizard.util.Duration;
+import org.elasticsearch.action.search.SearchRequest;
 import org.elasticsearch.client.Client;
 import org.elasticsearch.client.transport.TransportClient;
 import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.common.transport.TransportAddress;
 import org.elasticsearch.node.Node;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.io.File;
 import java.net.URISyntaxException;
 import java.net.URL;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.base.Strings.isNullOrEmpty;
@@ -28,48 +59,122 @@ import static org.elasticsearch.node.NodeBuilder.nodeBuilder;
  * @see <a href="http://www.elasticsearch.org/guide/reference/java-api/client/#transportclient">Transport Client</a>
  */
 public class ManagedEsClient implements Managed {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ManagedEsClient.class);
+    private static final String[] TUNING_SETTINGS_PREFIXES = {"transport.", "client.transport.", "threadpool."};
+    private static final long STARTUP_TERMINATION_TIMEOUT_SECONDS = 10L;
+
+    private final CompletableFuture<Client> connectedClient = new CompletableFuture<>();
+    private final Set<ScrollIterator> openScrolls = ConcurrentHashMap.newKeySet();
+    private final Object lifecycleLock = new Object();
+    private boolean stopped = false;
     private Node node = null;
     private Client client = null;
+    private TransportClient transportClient = null;
+    private List<HostAndPort> pendingServers = null;
+    private boolean asyncStartup = false;
+    private ExecutorService startupExecutor = null;
+    private ManagedNodeSelector nodeSelector = null;
+    private ManagedDnsResolver dnsResolver = null;
+    private RoutingClient routingClient = null;
+    private DnsConfiguration dnsConfig = null;
+    private List<HostAndPort> refreshedServers = null;
+    private Settings transportSettings = null;
 
     /**
      * Create a new managed Elasticsearch {@link Client}. If {@link EsConfiguration#nodeClient} is {@literal true}, a
      * Node Client is being created, otherwise a {@link TransportClient} is being created with {@link EsConfiguration#servers}
      * as transport addresses.
+     * <p>
+     * The settings of the {@link TransportProfile} are overridden by {@link EsConfiguration#getSettingsFile()}, which
+     * is overridden by {@link EsConfiguration#getSettings()}, which is overridden by the typed settings like
+     * {@link EsConfiguration#getTransport()} and {@link EsConfiguration#getThreadPools()}. The effective transport
+     * and thread pool settings are logged.
+     * <p>
+     * The host names of the servers are resolved in parallel to all of their IP addresses. If
+     * {@link DnsConfiguration#getRefreshInterval()} is set, they are re-resolved periodically by a
+     * {@link ManagedDnsResolver} after {@link #start()}.
+     * <p>
+     * If {@link EsConfiguration#isAsyncStartup()} is {@literal true}, the transport addresses are resolved and the
+     * {@link Node} is started in the background by {@link #start()}.
+     * <p>
+     * If any of the {@link EsConfiguration#getTimeouts() timeouts} is set, the timeouts of the requests are enforced
+     * by a {@link TimeoutClient}. Otherwise, the {@link TransportClient} or the client of the {@link Node} is used
+     * directly.
      *
      * @param config a valid {@link EsConfiguration} instance
      */
     public ManagedEsClient(final EsConfiguration config) {
-        checkNotNull(config, "EsConfiguration must not be null");
-
-        final Settings.Builder settingsBuilder = Settings.builder();
-        if (!isNullOrEmpty(config.getSettingsFile())) {
-            Path path = Paths.get(config.getSettingsFile());
-            if (!path.toFile().exists()) {
-                try {
-                    final URL url = Resources.getResource(config.getSettingsFile());
-                    path = new File(url.toURI()).toPath();
-                } catch (URISyntaxException | NullPointerException e) {
-                    throw new IllegalArgumentException("settings file cannot be found", e);
-                }
-            }
-            settingsBuilder.loadFromPath(path);
+        createClient(config);
+        if (hasTimeouts(config.getTimeouts())) {
+            this.client = new TimeoutClient(this.client, config.getTimeouts());
         }
+    }
 
-        final Settings settings = settingsBuilder
-                .put(config.getSettings())
-                .put("cluster.name", config.getClusterName())
-                .build();
+    /**
+     * Create a new managed Elasticsearch {@link Client} like {@link #ManagedEsClient(EsConfiguration)}. If
+     * {@link io.dropwizard.elasticsearch.config.MetricsConfiguration#isInstrumentClient()} is {@literal true}, the
+     * created {@link Client} is wrapped in an {@link InstrumentedClient} recording its metrics in the provided
+     * {@link MetricRegistry}. If {@link io.dropwizard.elasticsearch.config.BatchingConfiguration#isEnabled()} is
+     * {@literal true}, get and search requests are sent in batches by a {@link BatchingClient}. If
+     * {@link io.dropwizard.elasticsearch.config.ConcurrencyLimitConfiguration#isEnabled()} is {@literal true}, the
+     * number of concurrent read and write requests is limited by a {@link LimitingClient}. If
+     * {@link EsConfiguration#isCoalesceReads()} is {@literal true}, concurrent identical get and search requests are
+     * coalesced by a {@link CoalescingClient}. If
+     * {@link io.dropwizard.elasticsearch.config.ResultCacheConfiguration#isEnabled()} is {@literal true}, search
+     * responses are cached by a {@link CachingClient}. If
+     * {@link io.dropwizard.elasticsearch.config.NodeSelectionConfiguration#isEnabled()} is {@literal true} and a
+     * {@link TransportClient} is being created, its transport addresses are managed by a {@link ManagedNodeSelector}.
+     * If {@link io.dropwizard.elasticsearch.config.RoutingConfiguration#isEnabled()} is {@literal true} and a
+     * {@link TransportClient} is being created, bulk requests are split and sent to the nodes holding the primary
+     * shards by a {@link RoutingClient}.
+     *
+     * @param config         a valid {@link EsConfiguration} instance
+     * @param metricRegistry the {@link MetricRegistry} of the application
+     */
+    public ManagedEsClient(final EsConfiguration config, final MetricRegistry metricRegistry) {
+        this(config, metricRegistry, config.getMetrics().getPrefix());
+    }
 
-        if (config.isNodeClient()) {
-            this.node = nodeBuilder()
-                    .client(true)
-                    .data(false)
-                    .settings(settings)
-                    .build();
-            this.client = this.node.client();
-        } else {
-            final TransportAddress[] addresses = TransportAddressHelper.fromHostAndPorts(config.getServers());
-            this.client = TransportClient.builder().settings(settings).build().addTransportAddresses(addresses);
+    /**
+     * Create a new managed Elasticsearch {@link Client} like {@link #ManagedEsClient(EsConfiguration, MetricRegistry)},
+     * recording the metrics of the {@link InstrumentedClient}, {@link BatchingClient}, {@link LimitingClient},
+     * {@link CoalescingClient}, {@link CachingClient}, {@link RoutingClient} and {@link ManagedNodeSelector} below the
+     * provided prefix instead of {@link io.dropwizard.elasticsearch.config.MetricsConfiguration#getPrefix()}.
+     *
+     * @param config         a valid {@link EsConfiguration} instance
+     * @param metricRegistry the {@link MetricRegistry} of the application
+     * @param metricPrefix   the prefix of the metric names
+     */
+    public ManagedEsClient(final EsConfiguration config, final MetricRegistry metricRegistry, final String metricPrefix) {
+        createClient(config);
+        checkNotNull(metricRegistry, "MetricRegistry must not be null");
+        checkNotNull(metricPrefix, "Metric prefix must not be null");
+
+        if (config.getNodeSelection().isEnabled() && null != transportClient) {
+            this.nodeSelector = new ManagedNodeSelector(transportClient, config.getNodeSelection(),
+                    metricRegistry, metricPrefix);
+        }
+        if (config.getRouting().isEnabled() && null != transportClient) {
+            this.routingClient = new RoutingClient(this.client, transportSettings, config.getRouting(),
+                    metricRegistry, metricPrefix);
+            this.client = routingClient;
+        }
+
+        this.client = new TimeoutClient(this.client, config.getTimeouts());
+        if (config.getMetrics().isInstrumentClient()) {
+            this.client = new InstrumentedClient(this.client, metricRegistry, metricPrefix);
+        }
+        if (config.getBatching().isEnabled()) {
+            this.client = new BatchingClient(this.client, config.getBatching(), metricRegistry, metricPrefix);
+        }
+        if (config.getConcurrencyLimit().isEnabled()) {
+            this.client = new LimitingClient(this.client, config.getConcurrencyLimit(), metricRegistry, metricPrefix);
+        }
+        if (config.isCoalesceReads()) {
+            this.client = new CoalescingClient(this.client, metricRegistry, metricPrefix);
+        }
+        if (config.getResultCache().isEnabled()) {
+            this.client = new CachingClient(this.client, config.getResultCache(), metricRegistry, metricPrefix);
         }
     }
 
@@ -95,22 +200,60 @@ public class ManagedEsClient implements Managed {
 
     /**
      * Starts the Elasticsearch {@link Node} (if appropriate). Called <i>before</i> the service becomes available.
+     * In asynchronous startup mode, the {@link Node} is started in the background and this method returns
+     * immediately; use {@link #getClientFuture()} or {@link io.dropwizard.elasticsearch.health.EsReadinessHealthCheck}
+     * to find out when the client is connected.
      *
      * @throws Exception if something goes wrong; this will halt the service startup.
      */
     @Override
     public void start() throws Exception {
-        startNode();
+        if (asyncStartup) {
+            startupExecutor = Executors.newSingleThreadExecutor(new ThreadFactoryBuilder()
+                    .setNameFormat("es-client-startup-%d")
+                    .setDaemon(true)
+                    .build());
+            startupExecutor.execute(() -> {
+                try {
+                    connect();
+                } catch (RuntimeException e) {
+                    LOGGER.error("Couldn't start Elasticsearch client", e);
+                }
+            });
+        } else {
+            connect();
+        }
     }
 
     /**
      * Stops the Elasticsearch {@link Client} and (if appropriate) {@link Node} objects. Called <i>after</i> the service
-     * is no longer accepting requests.
+     * is no longer accepting requests. In asynchronous startup mode, a startup still in progress is interrupted and
+     * waited for before the client is closed.
      *
      * @throws Exception if something goes wrong.
      */
     @Override
     public void stop() throws Exception {
+        if (null != startupExecutor) {
+            startupExecutor.shutdownNow();
+            if (!startupExecutor.awaitTermination(STARTUP_TERMINATION_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                LOGGER.warn("Elasticsearch client startup didn't terminate within {}s",
+                        STARTUP_TERMINATION_TIMEOUT_SECONDS);
+            }
+        }
+        synchronized (lifecycleLock) {
+            stopped = true;
+        }
+        connectedClient.completeExceptionally(new IllegalStateException("Elasticsearch client has been stopped"));
+        for (ScrollIterator scroll : openScrolls) {
+            scroll.close();
+        }
+        if (null != dnsResolver) {
+            dnsResolver.stop();
+        }
+        if (null != nodeSelector) {
+            nodeSelector.stop();
+        }
         closeClient();
         closeNode();
     }
@@ -124,6 +267,215 @@ public class ManagedEsClient implements Managed {
         return client;
     }
 
+    /**
+     * Start a scroll search through the managed Elasticsearch {@link Client} instance. The returned
+     * {@link ScrollIterator} fetches the next page of hits while the current page is being processed, and is closed
+     * when the managed client is stopped at the latest.
+     *
+     * @param request   the search request; its size is the size of a page
+     * @param keepAlive the time the scroll context is kept alive between two pages
+     * @return a {@link ScrollIterator} over all hits of the search request
+     */
+    public ScrollIterator scroll(SearchRequest request, Duration keepAlive) {
+        final ScrollIterator iterator = new ScrollIterator(client, request, keepAlive, openScrolls::remove);
+        openScrolls.add(iterator);
+        return iterator;
+    }
+
+    /**
+     * Get an {@link AsyncEsClient} facade over the managed Elasticsearch {@link Client} instance, which completes its
+     * futures on the provided {@link Executor}.
+     *
+     * @param executor the {@link Executor} to complete the futures on, e. g. a Dropwizard managed executor service
+     * @return an {@link AsyncEsClient} sending its requests through {@link #getClient()}
+     */
+    public AsyncEsClient getAsyncClient(Executor executor) {
+        return new AsyncEsClient(client, executor);
+    }
+
+    /**
+     * Get a future of the managed Elasticsearch {@link Client} instance, which is completed once the {@link Node} has
+     * been started and joined the cluster or the transport addresses have been added to the {@link TransportClient}.
+     *
+     * @return a {@link CompletableFuture} of the Elasticsearch {@link Client} instance
+     */
+    public CompletableFuture<Client> getClientFuture() {
+        return connectedClient;
+    }
+
+    private void connect() {
+        try {
+            startNode();
+            addTransportAddresses();
+            synchronized (lifecycleLock) {
+                if (stopped) {
+                    return;
+                }
+                startNodeSelector();
+                startDnsResolver();
+                startRoutingClient();
+            }
+            connectedClient.complete(client);
+        } catch (RuntimeException e) {
+            connectedClient.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private void createClient(final EsConfiguration config) {
+        checkNotNull(config, "EsConfiguration must not be null");
+
+        final Settings.Builder settingsBuilder = Settings.builder();
+        final TransportProfile profile = config.getTransport().getProfile();
+        if (null != profile) {
+            settingsBuilder.put(profile.getSettings());
+        }
+        if (!isNullOrEmpty(config.getSettingsFile())) {
+            Path path = Paths.get(config.getSettingsFile());
+            if (!path.toFile().exists()) {
+                try {
+                    final URL url = Resources.getResource(config.getSettingsFile());
+                    path = new File(url.toURI()).toPath();
+                } catch (URISyntaxException | NullPointerException e) {
+                    throw new IllegalArgumentException("settings file cannot be found", e);
+                }
+            }
+            settingsBuilder.loadFromPath(path);
+        }
+
+        settingsBuilder.put(config.getSettings());
+        putTransportSettings(settingsBuilder, config.getTransport());
+        if (null != config.getNetworkThreads()) {
+            settingsBuilder.put("transport.netty.worker_count", config.getNetworkThreads());
+        }
+        for (Map.Entry<String, Integer> threadPool : config.getThreadPools().entrySet()) {
+            settingsBuilder.put("threadpool." + threadPool.getKey() + ".size", threadPool.getValue());
+        }
+
+        final Settings settings = settingsBuilder
+                .put("cluster.name", config.getClusterName())
+                .build();
+        logEffectiveSettings(settings, profile);
+
+        if (config.isNodeClient()) {
+            this.node = nodeBuilder()
+                    .client(true)
+                    .data(false)
+                    .settings(settings)
+                    .build();
+            this.client = this.node.client();
+        } else {
+            this.transportClient = TransportClient.builder().settings(settings).build();
+            this.transportSettings = settings;
+            this.client = this.transportClient;
+            this.pendingServers = config.getServers();
+            this.dnsConfig = config.getDns();
+        }
+
+        this.asyncStartup = config.isAsyncStartup();
+        if (!asyncStartup) {
+            addTransportAddresses();
+        }
+    }
+
+    private static boolean hasTimeouts(final TimeoutConfiguration timeouts) {
+        return null != timeouts.getSearch()
+                || null != timeouts.getIndex()
+                || null != timeouts.getBulk()
+                || null != timeouts.getAdmin();
+    }
+
+    private void addTransportAddresses() {
+        if (null != transportClient && null != pendingServers) {
+            final Set<TransportAddress> addresses =
+                    TransportAddressHelper.resolveAll(pendingServers, dnsConfig.getTimeout());
+            if (addresses.isEmpty() && !pendingServers.isEmpty() && null == dnsConfig.getRefreshInterval()) {
+                throw new IllegalArgumentException("None of the servers " + pendingServers + " could be resolved");
+            }
+            transportClient.addTransportAddresses(addresses.toArray(new TransportAddress[addresses.size()]));
+            if (null != dnsConfig.getRefreshInterval()) {
+                refreshedServers = pendingServers;
+            }
+            pendingServers = null;
+        }
+    }
+
+    private static void putTransportSettings(Settings.Builder settingsBuilder, TransportConfiguration transport) {
+        final ConnectionsPerNodeConfiguration connections = transport.getConnectionsPerNode();
+        putIfNotNull(settingsBuilder, "transport.connections_per_node.recovery", connections.getRecovery());
+        putIfNotNull(settingsBuilder, "transport.connections_per_node.bulk", connections.getBulk());
+        putIfNotNull(settingsBuilder, "transport.connections_per_node.reg", connections.getReg());
+        putIfNotNull(settingsBuilder, "transport.connections_per_node.state", connections.getState());
+        putIfNotNull(settingsBuilder, "transport.connections_per_node.ping", connections.getPing());
+        putIfNotNull(settingsBuilder, "transport.tcp.compress", transport.getCompress());
+        putIfNotNull(settingsBuilder, "transport.netty.tcp_no_delay", transport.getTcpNoDelay());
+        putIfNotNull(settingsBuilder, "transport.netty.tcp_keep_alive", transport.getTcpKeepAlive());
+        if (null != transport.getSendBufferSize()) {
+            settingsBuilder.put("transport.netty.tcp_send_buffer_size", transport.getSendBufferSize().toBytes() + "b");
+        }
+        if (null != transport.getReceiveBufferSize()) {
+            settingsBuilder.put("transport.netty.tcp_receive_buffer_size",
+                    transport.getReceiveBufferSize().toBytes() + "b");
+        }
+        putIfNotNull(settingsBuilder, "transport.tcp.connect_timeout", toSetting(transport.getConnectTimeout()));
+        putIfNotNull(settingsBuilder, "transport.ping_schedule", toSetting(transport.getPingInterval()));
+        putIfNotNull(settingsBuilder, "client.transport.ping_timeout", toSetting(transport.getPingTimeout()));
+        putIfNotNull(settingsBuilder, "client.transport.nodes_sampler_interval",
+                toSetting(transport.getNodesSamplerInterval()));
+    }
+
+    private static void putIfNotNull(Settings.Builder settingsBuilder, String key, Object value) {
+        if (null != value) {
+            settingsBuilder.put(key, value.toString());
+        }
+    }
+
+    private static String toSetting(Duration duration) {
+        return null == duration ? null : duration.toMilliseconds() + "ms";
+    }
+
+    private static void logEffectiveSettings(Settings settings, TransportProfile profile) {
+        final Map<String, String> tuning = new TreeMap<>();
+        for (Map.Entry<String, String> setting : settings.getAsMap().entrySet()) {
+            for (String prefix : TUNING_SETTINGS_PREFIXES) {
+                if (setting.getKey().startsWith(prefix)) {
+                    tuning.put(setting.getKey(), setting.getValue());
+                }
+            }
+        }
+        LOGGER.info("Elasticsearch client of cluster {} uses transport profile {} and settings {}",
+                settings.get("cluster.name"), null == profile ? "default" : profile, tuning);
+    }
+
+    private void startNodeSelector() {
+        if (null != nodeSelector) {
+            try {
+                nodeSelector.start();
+            } catch (Exception e) {
+                throw new IllegalStateException("Couldn't start node selection", e);
+            }
+        }
+    }
+
+    private void startDnsResolver() {
+        if (null != refreshedServers) {
+            dnsResolver = null == nodeSelector
+                    ? new ManagedDnsResolver(transportClient, refreshedServers, dnsConfig)
+                    : new ManagedDnsResolver(refreshedServers, dnsConfig, nodeSelector::setSeedAddresses);
+            try {
+                dnsResolver.start();
+            } catch (Exception e) {
+                throw new IllegalStateException("Couldn't start DNS re-resolution", e);
+            }
+        }
+    }
+
+    private void startRoutingClient() {
+        if (null != routingClient) {
+            routingClient.start();
+        }
+    }
+
     private Node startNode() {
         if (null != node) {
             return node.start();
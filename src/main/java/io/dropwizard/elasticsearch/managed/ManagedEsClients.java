@@ -0,0 +1,186 @@
+package io.dropwizard.elasticsearch.managed;
+
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.health.HealthCheckRegistry;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
+import io.dropwizard.elasticsearch.config.EsClustersConfiguration;
+import io.dropwizard.elasticsearch.config.EsConfiguration;
+import io.dropwizard.elasticsearch.health.EsClusterHealthCheck;
+import io.dropwizard.lifecycle.Managed;
+import io.dropwizard.util.Duration;
+import org.elasticsearch.client.Client;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static com.codahale.metrics.MetricRegistry.name;
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * A Dropwizard managed group of named Elasticsearch {@link Client clients}, one {@link ManagedEsClient} per cluster
+ * of an {@link EsClustersConfiguration}, which are started and stopped together.
+ * <p>
+ * Every cluster gets its own Node Client or {@link org.elasticsearch.client.transport.TransportClient} with its own
+ * thread pools, so that a slow cluster doesn't block the threads of the other clusters. The metrics of instrumented
+ * clients are recorded below {@code <prefix>.<cluster name>}.
+ */
+public class ManagedEsClients implements Managed {
+    private final Map<String, ManagedEsClient> clients;
+    private final Map<String, Duration> healthCheckTimeouts;
+
+    /**
+     * Create new managed Elasticsearch {@link Client clients} for all clusters of the configuration. If a client can't
+     * be created, the clients created before are closed again.
+     *
+     * @param config         a valid {@link EsClustersConfiguration} instance
+     * @param metricRegistry the {@link MetricRegistry} of the application
+     */
+    public ManagedEsClients(final EsClustersConfiguration config, final MetricRegistry metricRegistry) {
+        checkNotNull(config, "EsClustersConfiguration must not be null");
+        checkNotNull(metricRegistry, "MetricRegistry must not be null");
+
+        final ImmutableMap.Builder<String, ManagedEsClient> builder = ImmutableMap.builder();
+        final ImmutableMap.Builder<String, Duration> timeouts = ImmutableMap.builder();
+        final List<ManagedEsClient> created = new ArrayList<>(config.getClusters().size());
+        try {
+            for (Map.Entry<String, EsConfiguration> cluster : config.getClusters().entrySet()) {
+                final String metricPrefix = name(cluster.getValue().getMetrics().getPrefix(), cluster.getKey());
+                final ManagedEsClient client = new ManagedEsClient(cluster.getValue(), metricRegistry, metricPrefix);
+                created.add(client);
+                builder.put(cluster.getKey(), client);
+                if (null != cluster.getValue().getHealthCheck().getTimeout()) {
+                    timeouts.put(cluster.getKey(), cluster.getValue().getHealthCheck().getTimeout());
+                }
+            }
+        } catch (RuntimeException e) {
+            for (ManagedEsClient client : Lists.reverse(created)) {
+                try {
+                    client.stop();
+                } catch (Exception suppressed) {
+                    e.addSuppressed(suppressed);
+                }
+            }
+            throw e;
+        }
+        this.clients = builder.build();
+        this.healthCheckTimeouts = timeouts.build();
+    }
+
+    /**
+     * Create new managed Elasticsearch {@link Client clients} from the provided named {@link ManagedEsClient} instances.
+     *
+     * @param clients the named {@link ManagedEsClient} instances
+     */
+    public ManagedEsClients(final Map<String, ManagedEsClient> clients) {
+        this.clients = ImmutableMap.copyOf(checkNotNull(clients, "Clients must not be null"));
+        this.healthCheckTimeouts = ImmutableMap.of();
+    }
+
+    /**
+     * Starts all Elasticsearch clients in the order of the configuration. If a client fails to start, the clients
+     * started before are stopped again. Called <i>before</i> the service becomes available.
+     *
+     * @throws Exception if something goes wrong; this will halt the service startup.
+     */
+    @Override
+    public void start() throws Exception {
+        final List<ManagedEsClient> started = new ArrayList<>(clients.size());
+
+        try {
+            for (ManagedEsClient client : clients.values()) {
+                client.start();
+                started.add(client);
+            }
+        } catch (Exception e) {
+            for (ManagedEsClient client : Lists.reverse(started)) {
+                try {
+                    client.stop();
+                } catch (Exception suppressed) {
+                    e.addSuppressed(suppressed);
+                }
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Stops all Elasticsearch clients in reverse order, even if stopping one of them fails. Called <i>after</i> the
+     * service is no longer accepting requests.
+     *
+     * @throws Exception if something goes wrong.
+     */
+    @Override
+    public void stop() throws Exception {
+        Exception failure = null;
+
+        for (ManagedEsClient client : Lists.reverse(new ArrayList<>(clients.values()))) {
+            try {
+                client.stop();
+            } catch (Exception e) {
+                if (null == failure) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+
+        if (null != failure) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Register an {@link EsClusterHealthCheck} named {@code elasticsearch-<cluster name>} for every cluster, which
+     * honors the {@link io.dropwizard.elasticsearch.config.HealthCheckConfiguration#getTimeout() timeout} of the
+     * cluster's configuration.
+     *
+     * @param healthChecks the {@link HealthCheckRegistry} of the application
+     */
+    public void registerHealthChecks(final HealthCheckRegistry healthChecks) {
+        checkNotNull(healthChecks, "HealthCheckRegistry must not be null");
+
+        for (Map.Entry<String, ManagedEsClient> client : clients.entrySet()) {
+            healthChecks.register("elasticsearch-" + client.getKey(),
+                    new EsClusterHealthCheck(client.getValue().getClient(), false,
+                            healthCheckTimeouts.get(client.getKey())));
+        }
+    }
+
+    /**
+     * Get the names of the managed clusters.
+     *
+     * @return the names of the clusters in the order of the configuration
+     */
+    public Set<String> getNames() {
+        return clients.keySet();
+    }
+
+    /**
+     * Get the {@link ManagedEsClient} of a cluster.
+     *
+     * @param name the name of the cluster
+     * @return the {@link ManagedEsClient} of the cluster
+     * @throws IllegalArgumentException if there is no cluster with the given name
+     */
+    public ManagedEsClient getManagedClient(final String name) {
+        final ManagedEsClient client = clients.get(name);
+        checkArgument(null != client, "Unknown Elasticsearch cluster: %s", name);
+        return client;
+    }
+
+    /**
+     * Get the Elasticsearch {@link Client} of a cluster.
+     *
+     * @param name the name of the cluster
+     * @return a valid Elasticsearch {@link Client} instance
+     * @throws IllegalArgumentException if there is no cluster with the given name
+     */
+    public Client getClient(final String name) {
+        return getManagedClient(name).getClient();
+    }
+}
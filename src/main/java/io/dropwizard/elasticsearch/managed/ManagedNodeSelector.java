@@ -0,0 +1,427 @@
+package io.dropwizard.elasticsearch.managed;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.dropwizard.elasticsearch.config.NodeSelectionConfiguration;
+import io.dropwizard.lifecycle.Managed;
+import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.action.admin.cluster.node.info.NodeInfo;
+import org.elasticsearch.action.admin.cluster.node.info.NodesInfoRequest;
+import org.elasticsearch.action.admin.cluster.node.info.NodesInfoResponse;
+import org.elasticsearch.action.admin.cluster.node.stats.NodesStatsRequest;
+import org.elasticsearch.action.admin.cluster.node.stats.NodesStatsResponse;
+import org.elasticsearch.client.transport.TransportClient;
+import org.elasticsearch.cluster.node.DiscoveryNode;
+import org.elasticsearch.common.transport.TransportAddress;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static com.codahale.metrics.MetricRegistry.name;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * A Dropwizard managed object which routes the requests of a {@link TransportClient} away from slow or failing nodes.
+ * <p>
+ * The {@link TransportClient} of Elasticsearch 2.x sends its requests round-robin to all of its transport addresses
+ * and offers no hook to select a node per request. Instead, the node selector periodically probes every node with a
+ * targeted nodes stats request and keeps an exponentially weighted moving average of the probe latencies. Nodes
+ * whose probes fail or whose average latency exceeds {@code ejectionFactor} times the median of all nodes (and at
+ * least {@code minEjectionLatency}) are ejected, i. e. their transport address is removed from the client, for
+ * {@code ejectionDuration}. At most {@code maxEjectedPercent} percent of the nodes are ejected at the same time and
+ * the last node is never ejected.
+ * <p>
+ * If {@link NodeSelectionConfiguration#isSniff()} is {@literal true}, the transport addresses of all data nodes of
+ * the cluster are discovered with a nodes info request on every refresh and the configured servers are only used to
+ * bootstrap the discovery. Don't combine this with the {@code client.transport.sniff} setting, which makes the
+ * {@link TransportClient} ignore removed transport addresses.
+ * <p>
+ * The average latency and the ejection state of every node are registered as {@link Gauge gauges} below
+ * {@code <prefix>.node_selection.<node>}, the failed probes as a {@link Meter} named
+ * {@code <prefix>.node_selection.<node>.failures}. The metrics of nodes which are no longer candidates are removed.
+ */
+public class ManagedNodeSelector implements Managed {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ManagedNodeSelector.class);
+
+    private final TransportClient client;
+    private final boolean sniff;
+    private final long intervalMillis;
+    private final double ewmaAlpha;
+    private final double ejectionFactor;
+    private final long minEjectionLatencyNanos;
+    private final long ejectionDurationNanos;
+    private final int maxEjectedPercent;
+    private final MetricRegistry metricRegistry;
+    private final String prefix;
+    private final Map<TransportAddress, NodeState> nodes = new LinkedHashMap<>();
+    private final Set<String> registeredNames = new HashSet<>();
+    private List<TransportAddress> seedAddresses = Collections.emptyList();
+    private long round = 0L;
+    private ScheduledExecutorService executor = null;
+
+    /**
+     * Create a new node selector.
+     *
+     * @param client         the {@link TransportClient} whose transport addresses are managed
+     * @param config         a valid {@link NodeSelectionConfiguration} instance
+     * @param metricRegistry the {@link MetricRegistry} to register the per-node metrics in
+     * @param prefix         the prefix of the metric names
+     */
+    public ManagedNodeSelector(TransportClient client, NodeSelectionConfiguration config,
+                               MetricRegistry metricRegistry, String prefix) {
+        checkNotNull(config, "NodeSelectionConfiguration must not be null");
+
+        this.client = checkNotNull(client, "Elasticsearch client must not be null");
+        this.metricRegistry = checkNotNull(metricRegistry, "MetricRegistry must not be null");
+        this.prefix = checkNotNull(prefix, "Metric prefix must not be null");
+        this.sniff = config.isSniff();
+        this.intervalMillis = config.getInterval().toMilliseconds();
+        this.ewmaAlpha = config.getEwmaAlpha();
+        this.ejectionFactor = config.getEjectionFactor();
+        this.minEjectionLatencyNanos = config.getMinEjectionLatency().toNanoseconds();
+        this.ejectionDurationNanos = config.getEjectionDuration().toNanoseconds();
+        this.maxEjectedPercent = config.getMaxEjectedPercent();
+    }
+
+    /**
+     * Starts probing the nodes periodically. Called <i>after</i> the transport addresses have been added to the
+     * {@link TransportClient}.
+     *
+     * @throws Exception if something goes wrong; this will halt the service startup.
+     */
+    @Override
+    public void start() throws Exception {
+        synchronized (this) {
+            seedAddresses = new ArrayList<>(client.transportAddresses());
+        }
+
+        executor = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder()
+                .setNameFormat("es-node-selector-%d")
+                .setDaemon(true)
+                .build());
+        executor.scheduleWithFixedDelay(this::refresh, 0L, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops probing the nodes and removes the registered metrics. Called <i>before</i> the {@link TransportClient} is
+     * closed.
+     *
+     * @throws Exception if something goes wrong.
+     */
+    @Override
+    public void stop() throws Exception {
+        if (null != executor) {
+            executor.shutdownNow();
+        }
+
+        synchronized (this) {
+            for (String name : registeredNames) {
+                metricRegistry.remove(name);
+            }
+            registeredNames.clear();
+        }
+    }
+
+    /**
+     * Replaces the configured servers of the client, e. g. after their host names have been re-resolved by a
+     * {@link ManagedDnsResolver}. Takes effect with the next refresh.
+     *
+     * @param addresses the transport addresses of the configured servers
+     */
+    public synchronized void setSeedAddresses(Collection<TransportAddress> addresses) {
+        seedAddresses = new ArrayList<>(addresses);
+    }
+
+    void refresh() {
+        try {
+            discover();
+            probe();
+            select(System.nanoTime());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            LOGGER.warn("Couldn't refresh Elasticsearch node selection", e);
+        }
+    }
+
+    private void discover() {
+        final List<DiscoveryNode> discovered = new ArrayList<>(client.connectedNodes());
+
+        if (sniff) {
+            final NodesInfoResponse response = client.admin().cluster()
+                    .nodesInfo(new NodesInfoRequest().clear())
+                    .actionGet(intervalMillis);
+            final List<DiscoveryNode> dataNodes = new ArrayList<>();
+            for (NodeInfo nodeInfo : response.getNodes()) {
+                if (nodeInfo.getNode().dataNode()) {
+                    dataNodes.add(nodeInfo.getNode());
+                }
+            }
+            discovered.addAll(dataNodes);
+            update(discovered, dataNodes);
+        } else {
+            update(discovered, null);
+        }
+    }
+
+    /**
+     * Updates the known nodes. If {@code candidates} is {@literal null}, the seed addresses are the candidates for the
+     * transport addresses of the client, otherwise the addresses of the provided nodes.
+     */
+    synchronized void update(List<DiscoveryNode> discovered, List<DiscoveryNode> candidates) {
+        final Set<TransportAddress> discoveredAddresses = new HashSet<>();
+        for (DiscoveryNode node : discovered) {
+            state(node.address()).identify(node.id(), node.name());
+            discoveredAddresses.add(node.address());
+        }
+
+        final Set<TransportAddress> candidateAddresses = new LinkedHashSet<>();
+        if (null == candidates || candidates.isEmpty()) {
+            candidateAddresses.addAll(seedAddresses);
+        } else {
+            for (DiscoveryNode node : candidates) {
+                candidateAddresses.add(node.address());
+            }
+        }
+
+        final Iterator<NodeState> states = nodes.values().iterator();
+        while (states.hasNext()) {
+            final NodeState state = states.next();
+            state.candidate = candidateAddresses.contains(state.address);
+            if (!state.candidate) {
+                unregister(state);
+                if (!discoveredAddresses.contains(state.address)) {
+                    states.remove();
+                }
+            }
+        }
+        for (TransportAddress address : candidateAddresses) {
+            state(address).candidate = true;
+        }
+    }
+
+    private void probe() throws InterruptedException {
+        final List<NodeState> probed = new ArrayList<>();
+        final long probeRound;
+        synchronized (this) {
+            probeRound = nextRound();
+            for (NodeState state : nodes.values()) {
+                if (state.candidate && null != state.nodeId) {
+                    probed.add(state);
+                }
+            }
+        }
+
+        final CountDownLatch latch = new CountDownLatch(probed.size());
+        for (NodeState state : probed) {
+            final long startTime = System.nanoTime();
+            client.admin().cluster().nodesStats(new NodesStatsRequest(state.nodeId).clear(),
+                    new ActionListener<NodesStatsResponse>() {
+                        @Override
+                        public void onResponse(NodesStatsResponse response) {
+                            if (response.getNodes().length == 1) {
+                                record(state.address, probeRound, System.nanoTime() - startTime);
+                            } else {
+                                record(state.address, probeRound, null);
+                            }
+                            latch.countDown();
+                        }
+
+                        @Override
+                        public void onFailure(Throwable e) {
+                            LOGGER.debug("Probing Elasticsearch node {} failed", state.address, e);
+                            record(state.address, probeRound, null);
+                            latch.countDown();
+                        }
+                    });
+        }
+
+        if (!latch.await(intervalMillis, TimeUnit.MILLISECONDS)) {
+            synchronized (this) {
+                for (NodeState state : probed) {
+                    record(state.address, probeRound, null);
+                }
+            }
+        }
+    }
+
+    /**
+     * Starts a new probe round. Probe results of earlier rounds are ignored from now on.
+     */
+    synchronized long nextRound() {
+        return ++round;
+    }
+
+    /**
+     * Records the latency of a probe of the node with the given address, or a failed probe if {@code latencyNanos}
+     * is {@literal null}. Only the first result of the current round is recorded for each node.
+     */
+    synchronized void record(TransportAddress address, long probeRound, Long latencyNanos) {
+        final NodeState state = nodes.get(address);
+        if (null == state || probeRound != round || state.recordedRound == probeRound) {
+            return;
+        }
+        state.recordedRound = probeRound;
+
+        if (null == latencyNanos) {
+            state.failed = true;
+            metricRegistry.meter(register(state, name(prefix, "node_selection", state.metricName(), "failures")))
+                    .mark();
+        } else {
+            state.failed = false;
+            state.latencyNanos = state.latencyNanos < 0.0d
+                    ? latencyNanos
+                    : ewmaAlpha * latencyNanos + (1.0d - ewmaAlpha) * state.latencyNanos;
+        }
+    }
+
+    /**
+     * Ejects slow and failing nodes and updates the transport addresses of the client.
+     */
+    synchronized void select(long now) {
+        final List<NodeState> candidates = new ArrayList<>();
+        final List<Double> latencies = new ArrayList<>();
+        for (NodeState state : nodes.values()) {
+            if (state.candidate) {
+                candidates.add(state);
+                if (state.latencyNanos >= 0.0d && !state.failed) {
+                    latencies.add(state.latencyNanos);
+                }
+            }
+        }
+
+        final double threshold = Math.max(minEjectionLatencyNanos, ejectionFactor * median(latencies));
+        for (NodeState state : candidates) {
+            if (state.failed || state.latencyNanos > threshold) {
+                if (!state.isEjected(now)) {
+                    LOGGER.info("Ejecting Elasticsearch node {} ({})", state.metricName(), state.address);
+                }
+                state.ejectedUntil = now + ejectionDurationNanos;
+            }
+            registerGauges(state);
+        }
+
+        final List<NodeState> ejected = new ArrayList<>();
+        for (NodeState state : candidates) {
+            if (state.isEjected(now)) {
+                ejected.add(state);
+            }
+        }
+        final int maxEjected = Math.min(candidates.size() - 1, candidates.size() * maxEjectedPercent / 100);
+        if (ejected.size() > maxEjected) {
+            ejected.sort(Comparator.comparing((NodeState state) -> state.failed)
+                    .thenComparingDouble(state -> state.latencyNanos));
+            for (NodeState state : ejected.subList(0, ejected.size() - Math.max(0, maxEjected))) {
+                state.ejectedUntil = Long.MIN_VALUE;
+            }
+        }
+
+        final Set<TransportAddress> desired = new LinkedHashSet<>();
+        for (NodeState state : candidates) {
+            if (!state.isEjected(now)) {
+                desired.add(state.address);
+            }
+        }
+        if (desired.isEmpty()) {
+            return;
+        }
+
+        final Set<TransportAddress> current = new HashSet<>(client.transportAddresses());
+        for (TransportAddress address : desired) {
+            if (!current.contains(address)) {
+                LOGGER.debug("Adding transport address {}", address);
+                client.addTransportAddress(address);
+            }
+        }
+        for (TransportAddress address : current) {
+            if (!desired.contains(address)) {
+                LOGGER.debug("Removing transport address {}", address);
+                client.removeTransportAddress(address);
+            }
+        }
+    }
+
+    private NodeState state(TransportAddress address) {
+        return nodes.computeIfAbsent(address, NodeState::new);
+    }
+
+    private void registerGauges(NodeState state) {
+        final String latencyName = name(prefix, "node_selection", state.metricName(), "latency");
+        if (!registeredNames.contains(latencyName)) {
+            metricRegistry.register(register(state, latencyName), (Gauge<Double>) () ->
+                    state.latencyNanos < 0.0d ? null : state.latencyNanos / TimeUnit.MILLISECONDS.toNanos(1L));
+            metricRegistry.register(register(state, name(prefix, "node_selection", state.metricName(), "ejected")),
+                    (Gauge<Boolean>) () -> state.isEjected(System.nanoTime()));
+        }
+    }
+
+    private String register(NodeState state, String name) {
+        state.metricNames.add(name);
+        registeredNames.add(name);
+        return name;
+    }
+
+    private void unregister(NodeState state) {
+        for (String name : state.metricNames) {
+            metricRegistry.remove(name);
+            registeredNames.remove(name);
+        }
+        state.metricNames.clear();
+    }
+
+    private static double median(List<Double> values) {
+        if (values.isEmpty()) {
+            return 0.0d;
+        }
+
+        Collections.sort(values);
+        final int middle = values.size() / 2;
+        return values.size() % 2 == 1 ? values.get(middle) : (values.get(middle - 1) + values.get(middle)) / 2.0d;
+    }
+
+    private static class NodeState {
+        private final TransportAddress address;
+        private volatile String nodeId = null;
+        private volatile String nodeName = null;
+        private volatile double latencyNanos = -1.0d;
+        private volatile boolean failed = false;
+        private volatile long ejectedUntil = Long.MIN_VALUE;
+        private final Set<String> metricNames = new HashSet<>();
+        private long recordedRound = 0L;
+        private boolean candidate = false;
+
+        private NodeState(TransportAddress address) {
+            this.address = address;
+        }
+
+        private void identify(String id, String name) {
+            this.nodeId = id;
+            this.nodeName = name;
+        }
+
+        private boolean isEjected(long now) {
+            return ejectedUntil != Long.MIN_VALUE && now - ejectedUntil < 0L;
+        }
+
+        private String metricName() {
+            return null == nodeName ? address.toString() : nodeName;
+        }
+    }
+}
@@ -0,0 +1,370 @@
+package io.dropwizard.elasticsearch.managed;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.health.HealthCheck;
+import com.google.common.util.concurrent.RateLimiter;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.dropwizard.elasticsearch.config.FsyncPolicy;
+import io.dropwizard.elasticsearch.config.SpoolConfiguration;
+import io.dropwizard.lifecycle.Managed;
+import org.elasticsearch.ExceptionsHelper;
+import org.elasticsearch.action.ActionRequest;
+import org.elasticsearch.action.ActionRequestValidationException;
+import org.elasticsearch.action.bulk.BulkItemResponse;
+import org.elasticsearch.action.bulk.BulkRequest;
+import org.elasticsearch.action.bulk.BulkResponse;
+import org.elasticsearch.action.delete.DeleteRequest;
+import org.elasticsearch.action.index.IndexRequest;
+import org.elasticsearch.action.update.UpdateRequest;
+import org.elasticsearch.client.Client;
+import org.elasticsearch.common.io.stream.BytesStreamOutput;
+import org.elasticsearch.common.io.stream.StreamInput;
+import org.elasticsearch.common.unit.TimeValue;
+import org.elasticsearch.rest.RestStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static com.codahale.metrics.MetricRegistry.name;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+
+/**
+ * A Dropwizard managed write-ahead spool which stores index, delete and update requests on disk and replays them to
+ * the Elasticsearch cluster in bulk requests.
+ * <p>
+ * Requests {@link #add(ActionRequest) added} to the spool are appended to memory-mapped segment files in the
+ * configured directory, so that the heap doesn't grow while the cluster is unavailable. A background drainer replays
+ * them in the order they were added. If a bulk request fails or items of it are rejected with {@code 429 Too Many
+ * Requests} or {@code 503 Service Unavailable}, the drainer stops until the given {@link HealthCheck}, e. g. an
+ * {@link io.dropwizard.elasticsearch.health.EsClusterHealthCheck}, reports the cluster as healthy again and then
+ * resends the whole batch. A bulk request which doesn't complete within {@link SpoolConfiguration#getReplayTimeout()}
+ * is treated as failed. Items which fail for other reasons, spooled requests which fail validation and batches which
+ * the cluster refuses as bad requests are logged and dropped.
+ * <p>
+ * Replay is at-least-once: items of a resent batch may already have been applied. Use explicit document IDs and
+ * versions if duplicates matter. Requests which were spooled before a restart are replayed after {@link #start()}.
+ */
+public class ManagedWriteSpool implements Managed {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ManagedWriteSpool.class);
+    private static final long DRAIN_DELAY_MILLIS = 100L;
+    private static final byte INDEX = 0;
+    private static final byte DELETE = 1;
+    private static final byte UPDATE = 2;
+
+    private final Client client;
+    private final SpoolConfiguration config;
+    private final HealthCheck healthCheck;
+    private final MetricRegistry metricRegistry;
+    private final String prefix;
+    private final RateLimiter rateLimiter;
+    private final TimeValue replayTimeout;
+    private final Meter appended;
+    private final Meter replayed;
+    private final Meter dropped;
+    private final Set<String> registeredNames = ConcurrentHashMap.newKeySet();
+    private volatile SpoolLog log = null;
+    private boolean healthy = false;
+    private long lastHealthCheck = 0L;
+    private ScheduledExecutorService executor = null;
+
+    /**
+     * Create a new write-ahead spool without metrics.
+     *
+     * @param client      an Elasticsearch {@link Client} instance connected to the cluster
+     * @param config      a valid {@link SpoolConfiguration} instance with a spool directory
+     * @param healthCheck a {@link HealthCheck} which reports if the cluster is able to accept writes
+     */
+    public ManagedWriteSpool(Client client, SpoolConfiguration config, HealthCheck healthCheck) {
+        this(client, config, healthCheck, new MetricRegistry(), "elasticsearch");
+    }
+
+    /**
+     * Create a new write-ahead spool.
+     *
+     * @param client         an Elasticsearch {@link Client} instance connected to the cluster
+     * @param config         a valid {@link SpoolConfiguration} instance with a spool directory
+     * @param healthCheck    a {@link HealthCheck} which reports if the cluster is able to accept writes
+     * @param metricRegistry the {@link MetricRegistry} to register the spool metrics in
+     * @param prefix         the prefix of the metric names
+     */
+    public ManagedWriteSpool(Client client, SpoolConfiguration config, HealthCheck healthCheck,
+                             MetricRegistry metricRegistry, String prefix) {
+        this.client = checkNotNull(client, "Elasticsearch client must not be null");
+        this.config = checkNotNull(config, "SpoolConfiguration must not be null");
+        this.healthCheck = checkNotNull(healthCheck, "HealthCheck must not be null");
+        this.metricRegistry = checkNotNull(metricRegistry, "MetricRegistry must not be null");
+        this.prefix = checkNotNull(prefix, "Metric prefix must not be null");
+        checkNotNull(config.getDirectory(), "Spool directory must not be null");
+
+        this.rateLimiter = config.getMaxReplayRate() > 0.0d ? RateLimiter.create(config.getMaxReplayRate()) : null;
+        this.replayTimeout = TimeValue.timeValueMillis(config.getReplayTimeout().toMilliseconds());
+        this.appended = meter("appended");
+        this.replayed = meter("replayed");
+        this.dropped = meter("dropped");
+    }
+
+    /**
+     * Opens the spool, recovering requests which were spooled before, and starts the drainer. Called <i>before</i>
+     * the service becomes available.
+     *
+     * @throws Exception if something goes wrong; this will halt the service startup.
+     */
+    @Override
+    public void start() throws Exception {
+        log = new SpoolLog(Paths.get(config.getDirectory()), config.getSegmentSize().toBytes(),
+                config.getMaxSize().toBytes(), config.getFsyncPolicy());
+        gauge("size", log::getSize);
+        gauge("pending", log::getPending);
+
+        executor = Executors.newScheduledThreadPool(2, new ThreadFactoryBuilder()
+                .setNameFormat("es-write-spool-%d")
+                .setDaemon(true)
+                .build());
+        executor.scheduleWithFixedDelay(this::drain, 0L, DRAIN_DELAY_MILLIS, TimeUnit.MILLISECONDS);
+        if (config.getFsyncPolicy() == FsyncPolicy.INTERVAL) {
+            final long fsyncIntervalMillis = config.getFsyncInterval().toMilliseconds();
+            executor.scheduleWithFixedDelay(this::sync, fsyncIntervalMillis, fsyncIntervalMillis,
+                    TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Stops the drainer and closes the spool once a bulk request being replayed has completed or timed out; requests
+     * which haven't been replayed yet remain on disk. Called <i>after</i> the service is no longer accepting requests.
+     *
+     * @throws Exception if something goes wrong.
+     */
+    @Override
+    public void stop() throws Exception {
+        if (null != executor) {
+            executor.shutdownNow();
+            if (!executor.awaitTermination(config.getReplayTimeout().toMilliseconds(), TimeUnit.MILLISECONDS)) {
+                LOGGER.warn("Spool drainer didn't terminate within {}", config.getReplayTimeout());
+            }
+        }
+
+        // The drainer holds the monitor while it replays a batch, so the log isn't closed under it
+        synchronized (this) {
+            if (null != log) {
+                log.close();
+                log = null;
+            }
+        }
+
+        for (String name : registeredNames) {
+            metricRegistry.remove(name);
+        }
+        registeredNames.clear();
+    }
+
+    /**
+     * Append a request to the spool.
+     *
+     * @param request an {@link IndexRequest}, {@link DeleteRequest} or {@link UpdateRequest}
+     * @throws IllegalArgumentException if {@code request} is of any other type
+     * @throws ActionRequestValidationException if {@code request} is invalid, e. g. lacks an index or a source
+     * @throws IllegalStateException    if the spool hasn't been started or has been stopped
+     * @throws org.elasticsearch.common.util.concurrent.EsRejectedExecutionException if the spool is full
+     * @throws IOException              if the request couldn't be written to the spool
+     */
+    public void add(ActionRequest<?> request) throws IOException {
+        final SpoolLog currentLog = log;
+        checkState(null != currentLog, "Spool has not been started");
+
+        final BytesStreamOutput out = new BytesStreamOutput();
+        if (request instanceof IndexRequest) {
+            out.writeByte(INDEX);
+        } else if (request instanceof DeleteRequest) {
+            out.writeByte(DELETE);
+        } else if (request instanceof UpdateRequest) {
+            out.writeByte(UPDATE);
+        } else {
+            throw new IllegalArgumentException("Unsupported request type " + request.getClass().getName());
+        }
+
+        final ActionRequestValidationException validationException = request.validate();
+        if (null != validationException) {
+            throw validationException;
+        }
+        request.writeTo(out);
+
+        currentLog.append(out.bytes().toBytes());
+        appended.mark();
+    }
+
+    /**
+     * Get the number of spooled requests which haven't been replayed yet.
+     *
+     * @return the number of pending requests, or 0 if the spool hasn't been started
+     */
+    public long getPending() {
+        final SpoolLog currentLog = log;
+        return null == currentLog ? 0L : currentLog.getPending();
+    }
+
+    synchronized void drain() {
+        final SpoolLog currentLog = log;
+        if (null == currentLog) {
+            return;
+        }
+
+        try {
+            SpoolLog.Batch batch;
+            while (!Thread.currentThread().isInterrupted()
+                    && !(batch = currentLog.peek(config.getReplayBatchSize())).getRecords().isEmpty()
+                    && isHealthy()) {
+                if (null != rateLimiter) {
+                    rateLimiter.acquire(batch.getRecords().size());
+                }
+
+                if (!replay(batch)) {
+                    return;
+                }
+                currentLog.commit(batch);
+            }
+        } catch (Exception e) {
+            LOGGER.error("Couldn't replay spooled requests", e);
+        }
+    }
+
+    private boolean replay(SpoolLog.Batch batch) throws IOException {
+        final BulkRequest bulkRequest = new BulkRequest();
+        int invalid = 0;
+        for (byte[] record : batch.getRecords()) {
+            final ActionRequest<?> request;
+            try {
+                request = decode(record);
+            } catch (IOException e) {
+                LOGGER.error("Dropping corrupt spooled request", e);
+                invalid++;
+                continue;
+            }
+
+            // Requests spooled before they were validated on add would fail the whole bulk request forever
+            final ActionRequestValidationException validationException = request.validate();
+            if (null != validationException) {
+                LOGGER.error("Dropping invalid spooled request: {}", validationException.getMessage());
+                invalid++;
+                continue;
+            }
+            bulkRequest.add(request);
+        }
+
+        if (bulkRequest.numberOfActions() == 0) {
+            dropped.mark(invalid);
+            return true;
+        }
+
+        final BulkResponse response;
+        try {
+            response = client.bulk(bulkRequest).actionGet(replayTimeout);
+        } catch (Exception e) {
+            if (isPermanentFailure(e)) {
+                LOGGER.error("Dropping {} spooled requests which were refused by the cluster",
+                        bulkRequest.numberOfActions(), e);
+                dropped.mark(bulkRequest.numberOfActions() + invalid);
+                return true;
+            }
+
+            LOGGER.warn("Couldn't replay {} spooled requests, waiting for the cluster to recover",
+                    bulkRequest.numberOfActions(), e);
+            healthy = false;
+            return false;
+        }
+
+        int failed = 0;
+        for (BulkItemResponse item : response.getItems()) {
+            if (item.isFailed()) {
+                final RestStatus status = item.getFailure().getStatus();
+                if (status == RestStatus.TOO_MANY_REQUESTS || status == RestStatus.SERVICE_UNAVAILABLE) {
+                    LOGGER.warn("Spooled {} request for {}/{}/{} was rejected ({}), retrying the batch later",
+                            item.getOpType(), item.getIndex(), item.getType(), item.getId(), status);
+                    healthy = false;
+                    return false;
+                }
+
+                LOGGER.error("Dropping spooled {} request for {}/{}/{}: {}",
+                        item.getOpType(), item.getIndex(), item.getType(), item.getId(), item.getFailureMessage());
+                failed++;
+            }
+        }
+
+        dropped.mark(failed + invalid);
+        replayed.mark(response.getItems().length - failed);
+        return true;
+    }
+
+    private static boolean isPermanentFailure(Throwable e) {
+        final Throwable cause = ExceptionsHelper.unwrapCause(e);
+        return cause instanceof IllegalArgumentException || ExceptionsHelper.status(cause) == RestStatus.BAD_REQUEST;
+    }
+
+    private boolean isHealthy() {
+        final long now = System.nanoTime();
+        if (!healthy && (0L == lastHealthCheck
+                || now - lastHealthCheck >= config.getHealthCheckInterval().toNanoseconds())) {
+            lastHealthCheck = now;
+            final HealthCheck.Result result = healthCheck.execute();
+            healthy = result.isHealthy();
+            if (healthy) {
+                LOGGER.info("Cluster is healthy, replaying {} spooled requests", getPending());
+            } else {
+                LOGGER.debug("Cluster is unhealthy, not replaying spooled requests: {}", result.getMessage());
+            }
+        }
+        return healthy;
+    }
+
+    private void sync() {
+        final SpoolLog currentLog = log;
+        if (null != currentLog) {
+            try {
+                currentLog.sync();
+            } catch (Exception e) {
+                LOGGER.warn("Couldn't force spool to disk", e);
+            }
+        }
+    }
+
+    private static ActionRequest<?> decode(byte[] record) throws IOException {
+        final StreamInput in = StreamInput.wrap(record);
+        final ActionRequest<?> request;
+        switch (in.readByte()) {
+            case INDEX:
+                request = new IndexRequest();
+                break;
+            case DELETE:
+                request = new DeleteRequest();
+                break;
+            case UPDATE:
+                request = new UpdateRequest();
+                break;
+            default:
+                throw new IOException("Unknown request type in spool record");
+        }
+        request.readFrom(in);
+        return request;
+    }
+
+    private Meter meter(String name) {
+        final String metricName = name(prefix, "spool", name);
+        registeredNames.add(metricName);
+        return metricRegistry.meter(metricName);
+    }
+
+    private void gauge(String name, Gauge<Long> gauge) {
+        final String metricName = name(prefix, "spool", name);
+        registeredNames.add(metricName);
+        metricRegistry.register(metricName, gauge);
+    }
+}
@@ -0,0 +1,319 @@
+package io.dropwizard.elasticsearch.managed;
+
+import io.dropwizard.elasticsearch.config.FsyncPolicy;
+import org.elasticsearch.common.util.concurrent.EsRejectedExecutionException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.CRC32;
+
+/**
+ * A write-ahead log of opaque records in memory-mapped segment files of a fixed size.
+ * <p>
+ * Every record is stored as its length, its CRC32 checksum and its bytes. The length is written last, so a record
+ * which was torn by a crash ends the segment on recovery. The read position is stored in a separate position file
+ * whenever records have been {@link #commit(Batch) committed}; segments which have been read completely are deleted.
+ */
+class SpoolLog implements Closeable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(SpoolLog.class);
+    private static final String SEGMENT_PREFIX = "spool-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String POSITION_FILE = "spool.position";
+    private static final int HEADER_SIZE = 8;
+
+    private final Path directory;
+    private final int segmentSize;
+    private final long maxSize;
+    private final FsyncPolicy fsyncPolicy;
+    private final TreeMap<Long, Segment> segments = new TreeMap<>();
+    private final FileChannel positionChannel;
+    private long readSegment;
+    private int readOffset;
+    private long pending = 0L;
+    private boolean closed = false;
+
+    SpoolLog(Path directory, long segmentSize, long maxSize, FsyncPolicy fsyncPolicy) throws IOException {
+        if (segmentSize > Integer.MAX_VALUE || segmentSize <= HEADER_SIZE) {
+            throw new IllegalArgumentException("Invalid segment size " + segmentSize);
+        }
+
+        this.directory = Files.createDirectories(directory);
+        this.segmentSize = (int) segmentSize;
+        this.maxSize = maxSize;
+        this.fsyncPolicy = fsyncPolicy;
+        this.positionChannel = FileChannel.open(directory.resolve(POSITION_FILE),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+        recover();
+    }
+
+    /**
+     * Append a record to the log.
+     *
+     * @param record the bytes of the record
+     * @throws EsRejectedExecutionException if the log has reached its maximum size
+     * @throws IllegalStateException        if the log has been closed
+     * @throws IOException                  if a new segment couldn't be created
+     */
+    synchronized void append(byte[] record) throws IOException {
+        ensureOpen();
+        final int recordSize = HEADER_SIZE + record.length;
+        if (recordSize > segmentSize) {
+            throw new IllegalArgumentException("Record of " + record.length + " bytes exceeds the segment size");
+        }
+
+        Segment segment = segments.lastEntry().getValue();
+        if (segment.writeOffset + recordSize > segmentSize) {
+            if ((long) (segments.size() + 1) * segmentSize > maxSize) {
+                throw new EsRejectedExecutionException("Spool in " + directory + " is full");
+            }
+            segment = createSegment(segment.sequence + 1);
+        }
+
+        final CRC32 crc = new CRC32();
+        crc.update(record);
+        final int offset = segment.writeOffset;
+        final ByteBuffer buffer = segment.buffer.duplicate();
+        buffer.position(offset + 4);
+        buffer.putInt((int) crc.getValue());
+        buffer.put(record);
+        segment.buffer.putInt(offset, record.length);
+        segment.writeOffset += recordSize;
+        pending++;
+
+        if (fsyncPolicy == FsyncPolicy.ALWAYS) {
+            segment.buffer.force();
+        }
+    }
+
+    /**
+     * Read records from the read position without advancing it.
+     *
+     * @param maxRecords the maximum number of records to read
+     * @return a {@link Batch} of at most {@code maxRecords} records
+     */
+    synchronized Batch peek(int maxRecords) {
+        final List<byte[]> records = new ArrayList<>();
+        long sequence = readSegment;
+        int offset = readOffset;
+
+        while (records.size() < maxRecords) {
+            final Segment segment = segments.get(sequence);
+            final byte[] record = null == segment ? null : read(segment, offset);
+            if (null != record) {
+                records.add(record);
+                offset += HEADER_SIZE + record.length;
+            } else if (null != segments.higherKey(sequence)) {
+                sequence = segments.higherKey(sequence);
+                offset = 0;
+            } else {
+                break;
+            }
+        }
+
+        return new Batch(records, sequence, offset);
+    }
+
+    /**
+     * Advance the read position past a batch of records, deleting the segments which have been read completely.
+     *
+     * @param batch a {@link Batch} returned by the last call to {@link #peek(int)}
+     * @throws IllegalStateException if the log has been closed
+     * @throws IOException           if the read position couldn't be stored
+     */
+    synchronized void commit(Batch batch) throws IOException {
+        ensureOpen();
+        readSegment = batch.segment;
+        readOffset = batch.offset;
+        pending -= batch.records.size();
+        writePosition();
+
+        while (segments.firstKey() < readSegment) {
+            deleteSegment(segments.pollFirstEntry().getValue());
+        }
+    }
+
+    /**
+     * Force all segments and the read position to disk.
+     *
+     * @throws IllegalStateException if the log has been closed
+     * @throws IOException           if the read position couldn't be forced to disk
+     */
+    synchronized void sync() throws IOException {
+        ensureOpen();
+        for (Segment segment : segments.values()) {
+            segment.buffer.force();
+        }
+        positionChannel.force(false);
+    }
+
+    synchronized long getPending() {
+        return pending;
+    }
+
+    synchronized long getSize() {
+        return (long) segments.size() * segmentSize;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) {
+            return;
+        }
+
+        sync();
+        closed = true;
+        for (Segment segment : segments.values()) {
+            segment.channel.close();
+        }
+        segments.clear();
+        positionChannel.close();
+    }
+
+    private void ensureOpen() {
+        if (closed) {
+            throw new IllegalStateException("Spool in " + directory + " has been closed");
+        }
+    }
+
+    private void recover() throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            for (Path file : files) {
+                final String name = file.getFileName().toString();
+                final long sequence = Long.parseLong(
+                        name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+                segments.put(sequence, openSegment(sequence, file));
+            }
+        }
+
+        final ByteBuffer position = ByteBuffer.allocate(12);
+        if (positionChannel.read(position, 0L) == 12) {
+            position.flip();
+            readSegment = position.getLong();
+            readOffset = position.getInt();
+        } else {
+            readSegment = segments.isEmpty() ? 0L : segments.firstKey();
+            readOffset = 0;
+        }
+
+        while (!segments.isEmpty() && segments.firstKey() < readSegment) {
+            deleteSegment(segments.pollFirstEntry().getValue());
+        }
+        if (segments.isEmpty()) {
+            createSegment(readSegment);
+            readOffset = 0;
+        }
+
+        for (Map.Entry<Long, Segment> entry : segments.entrySet()) {
+            final Segment segment = entry.getValue();
+            int offset = 0;
+            byte[] record;
+            while (null != (record = read(segment, offset))) {
+                if (entry.getKey() > readSegment || offset >= readOffset) {
+                    pending++;
+                }
+                offset += HEADER_SIZE + record.length;
+            }
+            segment.writeOffset = offset;
+        }
+
+        if (pending > 0L) {
+            LOGGER.info("Recovered {} pending requests from spool in {}", pending, directory);
+        }
+    }
+
+    private byte[] read(Segment segment, int offset) {
+        if (offset + HEADER_SIZE > segmentSize) {
+            return null;
+        }
+
+        final int length = segment.buffer.getInt(offset);
+        if (length <= 0 || offset + HEADER_SIZE + length > segmentSize) {
+            return null;
+        }
+
+        final byte[] record = new byte[length];
+        final ByteBuffer buffer = segment.buffer.duplicate();
+        buffer.position(offset + HEADER_SIZE);
+        buffer.get(record);
+
+        final CRC32 crc = new CRC32();
+        crc.update(record);
+        if ((int) crc.getValue() != segment.buffer.getInt(offset + 4)) {
+            LOGGER.warn("Ignoring torn record at offset {} of spool segment {}", offset, segment.sequence);
+            return null;
+        }
+        return record;
+    }
+
+    private void writePosition() throws IOException {
+        final ByteBuffer position = ByteBuffer.allocate(12);
+        position.putLong(readSegment).putInt(readOffset).flip();
+        positionChannel.write(position, 0L);
+        if (fsyncPolicy == FsyncPolicy.ALWAYS) {
+            positionChannel.force(false);
+        }
+    }
+
+    private Segment createSegment(long sequence) throws IOException {
+        final Segment segment = openSegment(sequence,
+                directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, sequence, SEGMENT_SUFFIX)));
+        segments.put(sequence, segment);
+        return segment;
+    }
+
+    private Segment openSegment(long sequence, Path file) throws IOException {
+        final FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        return new Segment(sequence, channel, channel.map(FileChannel.MapMode.READ_WRITE, 0L, segmentSize));
+    }
+
+    private void deleteSegment(Segment segment) throws IOException {
+        segment.channel.close();
+        Files.deleteIfExists(directory.resolve(
+                String.format("%s%020d%s", SEGMENT_PREFIX, segment.sequence, SEGMENT_SUFFIX)));
+    }
+
+    static class Batch {
+        private final List<byte[]> records;
+        private final long segment;
+        private final int offset;
+
+        private Batch(List<byte[]> records, long segment, int offset) {
+            this.records = Collections.unmodifiableList(records);
+            this.segment = segment;
+            this.offset = offset;
+        }
+
+        List<byte[]> getRecords() {
+            return records;
+        }
+    }
+
+    private static class Segment {
+        private final long sequence;
+        private final FileChannel channel;
+        private final MappedByteBuffer buffer;
+        private int writeOffset = 0;
+
+        private Segment(long sequence, FileChannel channel, MappedByteBuffer buffer) {
+            this.sequence = sequence;
+            this.channel = channel;
+            this.buffer = buffer;
+        }
+    }
+}
@@ -0,0 +1,223 @@
+package io.dropwizard.elasticsearch.metrics;
+
+import com.codahale.metrics.Clock;
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.dropwizard.elasticsearch.config.MetricsConfiguration;
+import io.dropwizard.lifecycle.Managed;
+import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.action.admin.cluster.node.stats.NodeStats;
+import org.elasticsearch.action.admin.cluster.node.stats.NodesStatsResponse;
+import org.elasticsearch.action.admin.cluster.stats.ClusterStatsIndices;
+import org.elasticsearch.action.admin.cluster.stats.ClusterStatsResponse;
+import org.elasticsearch.action.admin.indices.stats.CommonStatsFlags;
+import org.elasticsearch.client.Client;
+import org.elasticsearch.indices.NodeIndicesStats;
+import org.elasticsearch.threadpool.ThreadPoolStats;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static com.codahale.metrics.MetricRegistry.name;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * A Dropwizard managed object which periodically pulls the nodes stats and cluster stats of an Elasticsearch cluster
+ * and exposes them as {@link Gauge gauges} in a {@link MetricRegistry}.
+ * <p>
+ * Node stats are summed up over all nodes of the cluster and registered below {@code <prefix>.nodes}, e. g.
+ * {@code elasticsearch.nodes.thread_pool.bulk.rejected} or {@code elasticsearch.nodes.jvm.heap.used}. Cluster stats
+ * are registered below {@code <prefix>.cluster}.
+ *
+ * @see <a href="https://www.elastic.co/guide/en/elasticsearch/reference/2.4/cluster-nodes-stats.html">Nodes Stats</a>
+ * @see <a href="https://www.elastic.co/guide/en/elasticsearch/reference/2.4/cluster-stats.html">Cluster Stats</a>
+ */
+public class EsStatsMetrics implements Managed {
+    private static final Logger LOGGER = LoggerFactory.getLogger(EsStatsMetrics.class);
+
+    private final Client client;
+    private final MetricRegistry metricRegistry;
+    private final String prefix;
+    private final long refreshIntervalMillis;
+    private final Clock clock;
+    private final ConcurrentMap<String, Number> values = new ConcurrentHashMap<>();
+    private final Set<String> registeredNames = ConcurrentHashMap.newKeySet();
+    private final Map<String, Long> previousCounts = new HashMap<>();
+    private long previousTick = 0L;
+    private ScheduledExecutorService executor = null;
+
+    /**
+     * Create a new Elasticsearch stats collector.
+     *
+     * @param client         an Elasticsearch {@link Client} instance connected to the cluster
+     * @param config         a valid {@link MetricsConfiguration} instance
+     * @param metricRegistry the {@link MetricRegistry} to register the gauges in
+     */
+    public EsStatsMetrics(Client client, MetricsConfiguration config, MetricRegistry metricRegistry) {
+        this(client, config, metricRegistry, Clock.defaultClock());
+    }
+
+    EsStatsMetrics(Client client, MetricsConfiguration config, MetricRegistry metricRegistry, Clock clock) {
+        checkNotNull(config, "MetricsConfiguration must not be null");
+
+        this.client = checkNotNull(client, "Elasticsearch client must not be null");
+        this.metricRegistry = checkNotNull(metricRegistry, "MetricRegistry must not be null");
+        this.prefix = config.getPrefix();
+        this.refreshIntervalMillis = config.getStatsRefreshInterval().toMilliseconds();
+        this.clock = checkNotNull(clock);
+    }
+
+    /**
+     * Starts pulling the stats periodically. Called <i>before</i> the service becomes available.
+     *
+     * @throws Exception if something goes wrong; this will halt the service startup.
+     */
+    @Override
+    public void start() throws Exception {
+        executor = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder()
+                .setNameFormat("es-stats-metrics-%d")
+                .setDaemon(true)
+                .build());
+        executor.scheduleWithFixedDelay(this::refresh, 0L, refreshIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops pulling the stats and removes the registered gauges. Called <i>after</i> the service is no longer
+     * accepting requests.
+     *
+     * @throws Exception if something goes wrong.
+     */
+    @Override
+    public void stop() throws Exception {
+        if (null != executor) {
+            executor.shutdownNow();
+        }
+
+        for (String name : registeredNames) {
+            metricRegistry.remove(name);
+        }
+        registeredNames.clear();
+    }
+
+    void refresh() {
+        // The client may fail synchronously, e. g. with a NoNodeAvailableException, which would cancel the schedule
+        try {
+            client.admin().cluster().prepareNodesStats()
+                    .clear()
+                    .setJvm(true)
+                    .setThreadPool(true)
+                    .setIndices(new CommonStatsFlags(
+                            CommonStatsFlags.Flag.Indexing,
+                            CommonStatsFlags.Flag.Search,
+                            CommonStatsFlags.Flag.Merge,
+                            CommonStatsFlags.Flag.Refresh,
+                            CommonStatsFlags.Flag.FieldData,
+                            CommonStatsFlags.Flag.QueryCache))
+                    .execute(new ActionListener<NodesStatsResponse>() {
+                        @Override
+                        public void onResponse(NodesStatsResponse response) {
+                            update(response);
+                        }
+
+                        @Override
+                        public void onFailure(Throwable e) {
+                            LOGGER.warn("Couldn't retrieve Elasticsearch nodes stats", e);
+                        }
+                    });
+
+            client.admin().cluster().prepareClusterStats().execute(new ActionListener<ClusterStatsResponse>() {
+                @Override
+                public void onResponse(ClusterStatsResponse response) {
+                    update(response);
+                }
+
+                @Override
+                public void onFailure(Throwable e) {
+                    LOGGER.warn("Couldn't retrieve Elasticsearch cluster stats", e);
+                }
+            });
+        } catch (RuntimeException e) {
+            LOGGER.warn("Couldn't refresh Elasticsearch stats", e);
+        }
+    }
+
+    synchronized void update(NodesStatsResponse response) {
+        final Map<String, Long> nodeValues = new HashMap<>();
+
+        for (NodeStats nodeStats : response.getNodes()) {
+            if (null != nodeStats.getThreadPool()) {
+                for (ThreadPoolStats.Stats stats : nodeStats.getThreadPool()) {
+                    add(nodeValues, name("thread_pool", stats.getName(), "queue"), stats.getQueue());
+                    add(nodeValues, name("thread_pool", stats.getName(), "rejected"), stats.getRejected());
+                    add(nodeValues, name("thread_pool", stats.getName(), "active"), stats.getActive());
+                }
+            }
+
+            if (null != nodeStats.getJvm()) {
+                add(nodeValues, "jvm.heap.used", nodeStats.getJvm().getMem().getHeapUsed().bytes());
+                add(nodeValues, "jvm.heap.max", nodeStats.getJvm().getMem().getHeapMax().bytes());
+            }
+
+            final NodeIndicesStats indices = nodeStats.getIndices();
+            if (null != indices) {
+                add(nodeValues, "search.query.count", indices.getSearch().getTotal().getQueryCount());
+                add(nodeValues, "indexing.index.count", indices.getIndexing().getTotal().getIndexCount());
+                add(nodeValues, "merges.time", indices.getMerge().getTotalTimeInMillis());
+                add(nodeValues, "refresh.time", indices.getRefresh().getTotalTimeInMillis());
+                add(nodeValues, "fielddata.size", indices.getFieldData().getMemorySizeInBytes());
+                add(nodeValues, "query_cache.size", indices.getQueryCache().getMemorySizeInBytes());
+            }
+        }
+
+        for (Map.Entry<String, Long> entry : nodeValues.entrySet()) {
+            set(name(prefix, "nodes", entry.getKey()), entry.getValue());
+        }
+
+        final long tick = clock.getTick();
+        final double elapsedSeconds = (tick - previousTick) / (double) TimeUnit.SECONDS.toNanos(1L);
+        for (String counter : new String[]{"search.query", "indexing.index"}) {
+            final Long count = nodeValues.get(counter + ".count");
+            final Long previousCount = previousCounts.get(counter);
+            if (null != count && null != previousCount && elapsedSeconds > 0.0d) {
+                set(name(prefix, "nodes", counter, "rate"), Math.max(0L, count - previousCount) / elapsedSeconds);
+            }
+            if (null != count) {
+                previousCounts.put(counter, count);
+            }
+        }
+        previousTick = tick;
+    }
+
+    void update(ClusterStatsResponse response) {
+        set(name(prefix, "cluster", "nodes.count"), response.getNodesStats().getCounts().getTotal());
+
+        final ClusterStatsIndices indices = response.getIndicesStats();
+        set(name(prefix, "cluster", "indices.count"), indices.getIndexCount());
+        set(name(prefix, "cluster", "docs.count"), indices.getDocs().getCount());
+        set(name(prefix, "cluster", "store.size"), indices.getStore().getSizeInBytes());
+        set(name(prefix, "cluster", "fielddata.size"), indices.getFieldData().getMemorySizeInBytes());
+        set(name(prefix, "cluster", "query_cache.size"), indices.getQueryCache().getMemorySizeInBytes());
+    }
+
+    private static void add(Map<String, Long> values, String name, long value) {
+        final Long current = values.get(name);
+        values.put(name, current == null ? value : current + value);
+    }
+
+    private void set(String name, Number value) {
+        values.put(name, value);
+
+        if (registeredNames.add(name)) {
+            metricRegistry.gauge(name, () -> (Gauge<Number>) () -> values.get(name));
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package io.dropwizard.elasticsearch.reindex;
+
+import org.elasticsearch.action.index.IndexRequest;
+import org.elasticsearch.search.SearchHit;
+
+/**
+ * A hook of the {@link Reindexer} which transforms every document before it is written to the target index.
+ */
+public interface DocumentTransformer {
+    /**
+     * A transformer which copies the documents unchanged.
+     */
+    DocumentTransformer IDENTITY = (hit, request) -> request;
+
+    /**
+     * Transform a document of the source index.
+     *
+     * @param hit     the document read from the source index
+     * @param request the {@link IndexRequest} writing the unchanged document to the target index
+     * @return the (possibly modified) {@link IndexRequest}, or {@literal null} to skip the document
+     */
+    IndexRequest transform(SearchHit hit, IndexRequest request);
+}
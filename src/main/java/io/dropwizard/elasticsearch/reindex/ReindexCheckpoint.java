@@ -0,0 +1,99 @@
+package io.dropwizard.elasticsearch.reindex;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.dropwizard.jackson.Jackson;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+/**
+ * The progress of a {@link ReindexJob}, i. e. the shards of the source index which have been copied completely.
+ */
+public class ReindexCheckpoint {
+    private static final ObjectMapper OBJECT_MAPPER = Jackson.newObjectMapper();
+
+    @JsonProperty
+    private String sourceIndex;
+
+    @JsonProperty
+    private String targetIndex;
+
+    @JsonProperty
+    private SortedSet<Integer> completedShards = new TreeSet<>();
+
+    @JsonProperty
+    private long documents = 0L;
+
+    ReindexCheckpoint() {
+    }
+
+    ReindexCheckpoint(String sourceIndex, String targetIndex) {
+        this.sourceIndex = sourceIndex;
+        this.targetIndex = targetIndex;
+    }
+
+    /**
+     * Load the checkpoint of a job from a file, or create an empty checkpoint if the file doesn't exist.
+     *
+     * @param file the checkpoint file
+     * @param job  the {@link ReindexJob} of the checkpoint
+     * @return the {@link ReindexCheckpoint} of the job
+     * @throws IOException              if the file couldn't be read
+     * @throws IllegalArgumentException if the file contains the checkpoint of a different job
+     */
+    static ReindexCheckpoint load(Path file, ReindexJob job) throws IOException {
+        if (!Files.exists(file)) {
+            return new ReindexCheckpoint(job.getSourceIndex(), job.getTargetIndex());
+        }
+
+        final ReindexCheckpoint checkpoint = OBJECT_MAPPER.readValue(file.toFile(), ReindexCheckpoint.class);
+        if (!job.getSourceIndex().equals(checkpoint.sourceIndex)
+                || !job.getTargetIndex().equals(checkpoint.targetIndex)) {
+            throw new IllegalArgumentException("Checkpoint file " + file + " belongs to a reindex from "
+                    + checkpoint.sourceIndex + " to " + checkpoint.targetIndex);
+        }
+        return checkpoint;
+    }
+
+    /**
+     * Replace the checkpoint file atomically.
+     *
+     * @param file the checkpoint file
+     * @throws IOException if the file couldn't be written
+     */
+    synchronized void save(Path file) throws IOException {
+        final Path tempFile = file.resolveSibling(file.getFileName() + ".tmp");
+        OBJECT_MAPPER.writeValue(tempFile.toFile(), this);
+        Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    synchronized boolean isCompleted(int shard) {
+        return completedShards.contains(shard);
+    }
+
+    synchronized void complete(int shard, long shardDocuments) {
+        completedShards.add(shard);
+        documents += shardDocuments;
+    }
+
+    public String getSourceIndex() {
+        return sourceIndex;
+    }
+
+    public String getTargetIndex() {
+        return targetIndex;
+    }
+
+    public synchronized SortedSet<Integer> getCompletedShards() {
+        return new TreeSet<>(completedShards);
+    }
+
+    public synchronized long getDocuments() {
+        return documents;
+    }
+}
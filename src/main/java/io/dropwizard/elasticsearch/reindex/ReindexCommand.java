@@ -0,0 +1,108 @@
+package io.dropwizard.elasticsearch.reindex;
+
+import io.dropwizard.Configuration;
+import io.dropwizard.cli.ConfiguredCommand;
+import io.dropwizard.elasticsearch.config.EsConfiguration;
+import io.dropwizard.elasticsearch.managed.ManagedEsClient;
+import io.dropwizard.setup.Bootstrap;
+import io.dropwizard.util.Duration;
+import net.sourceforge.argparse4j.inf.Namespace;
+import net.sourceforge.argparse4j.inf.Subparser;
+
+import java.io.File;
+
+/**
+ * A Dropwizard command which copies the documents of an index to another index with a {@link Reindexer}, e. g.
+ * {@code java -jar app.jar reindex --source events-v1 --target events-v2 config.yml}.
+ * <p>
+ * Register a subclass with {@link Bootstrap#addCommand(io.dropwizard.cli.Command)} which returns the
+ * {@link EsConfiguration} of the application and optionally a {@link DocumentTransformer}.
+ *
+ * @param <T> the {@link Configuration} subclass which is loaded from the configuration file
+ */
+public abstract class ReindexCommand<T extends Configuration> extends ConfiguredCommand<T> {
+    /**
+     * Create a new reindex command named {@code reindex}.
+     */
+    protected ReindexCommand() {
+        this("reindex", "Copies the documents of an Elasticsearch index to another index");
+    }
+
+    /**
+     * Create a new reindex command.
+     *
+     * @param name        the name of the command
+     * @param description a description of the command
+     */
+    protected ReindexCommand(String name, String description) {
+        super(name, description);
+    }
+
+    /**
+     * Get the {@link EsConfiguration} of the cluster to reindex in.
+     *
+     * @param configuration the configuration of the application
+     * @return a valid {@link EsConfiguration} instance
+     */
+    protected abstract EsConfiguration getEsConfiguration(T configuration);
+
+    /**
+     * Get the {@link DocumentTransformer} applied to every document. Copies the documents unchanged by default.
+     *
+     * @param namespace the parsed arguments of the command
+     * @return a {@link DocumentTransformer} instance
+     */
+    protected DocumentTransformer getTransformer(Namespace namespace) {
+        return DocumentTransformer.IDENTITY;
+    }
+
+    @Override
+    public void configure(Subparser subparser) {
+        super.configure(subparser);
+
+        subparser.addArgument("--source").dest("source").required(true)
+                .help("the index (or alias) to read from");
+        subparser.addArgument("--target").dest("target").required(true)
+                .help("the index (or alias) to write to");
+        subparser.addArgument("--query").dest("query")
+                .help("only copy the documents matching this query (JSON query DSL)");
+        subparser.addArgument("--parallelism").dest("parallelism").type(Integer.class)
+                .setDefault(Runtime.getRuntime().availableProcessors())
+                .help("the number of shards copied in parallel");
+        subparser.addArgument("--batch-size").dest("batchSize").type(Integer.class).setDefault(1000)
+                .help("the number of documents per shard read by a scroll request");
+        subparser.addArgument("--max-docs-per-second").dest("maxDocsPerSecond").type(Double.class).setDefault(0.0d)
+                .help("throttle the copy to this number of documents per second (0 disables throttling)");
+        subparser.addArgument("--checkpoint").dest("checkpoint").type(File.class)
+                .help("record the completed shards in this file and skip them when resuming");
+        subparser.addArgument("--scroll-keep-alive").dest("scrollKeepAlive").setDefault("5m")
+                .help("the keep alive of the scroll contexts");
+    }
+
+    @Override
+    protected void run(Bootstrap<T> bootstrap, Namespace namespace, T configuration) throws Exception {
+        final EsConfiguration esConfig = getEsConfiguration(configuration);
+        final ManagedEsClient managedClient = new ManagedEsClient(esConfig, bootstrap.getMetricRegistry());
+
+        managedClient.start();
+        try {
+            managedClient.getClientFuture().get();
+            new Reindexer(managedClient.getClient(), esConfig.getBulkProcessor(), bootstrap.getMetricRegistry(),
+                    esConfig.getMetrics().getPrefix())
+                    .run(job(namespace).transformer(getTransformer(namespace)));
+        } finally {
+            managedClient.stop();
+        }
+    }
+
+    static ReindexJob job(Namespace namespace) {
+        final File checkpoint = namespace.get("checkpoint");
+        return new ReindexJob(namespace.getString("source"), namespace.getString("target"))
+                .query(namespace.getString("query"))
+                .parallelism(namespace.getInt("parallelism"))
+                .batchSize(namespace.getInt("batchSize"))
+                .maxDocsPerSecond(namespace.getDouble("maxDocsPerSecond"))
+                .scrollKeepAlive(Duration.parse(namespace.getString("scrollKeepAlive")))
+                .checkpointFile(null == checkpoint ? null : checkpoint.toPath());
+    }
+}
@@ -0,0 +1,151 @@
+package io.dropwizard.elasticsearch.reindex;
+
+import io.dropwizard.util.Duration;
+
+import java.nio.file.Path;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * The parameters of a copy of the documents of one index to another index by a {@link Reindexer}.
+ */
+public class ReindexJob {
+    private final String sourceIndex;
+    private final String targetIndex;
+    private String query = null;
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+    private int batchSize = 1000;
+    private Duration scrollKeepAlive = Duration.minutes(5L);
+    private double maxDocsPerSecond = 0.0d;
+    private Path checkpointFile = null;
+    private DocumentTransformer transformer = DocumentTransformer.IDENTITY;
+
+    /**
+     * Create a new reindex job copying all documents.
+     *
+     * @param sourceIndex the name of the index (or alias) to read from
+     * @param targetIndex the name of the index (or alias) to write to
+     */
+    public ReindexJob(String sourceIndex, String targetIndex) {
+        this.sourceIndex = checkNotNull(sourceIndex, "Source index must not be null");
+        this.targetIndex = checkNotNull(targetIndex, "Target index must not be null");
+        checkArgument(!sourceIndex.equals(targetIndex), "Source and target index must differ");
+    }
+
+    public String getSourceIndex() {
+        return sourceIndex;
+    }
+
+    public String getTargetIndex() {
+        return targetIndex;
+    }
+
+    public String getQuery() {
+        return query;
+    }
+
+    /**
+     * Only copy the documents matching a query.
+     *
+     * @param query a query in the JSON query DSL, or {@literal null} to copy all documents
+     * @return this {@link ReindexJob} instance
+     */
+    public ReindexJob query(String query) {
+        this.query = query;
+        return this;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Set the number of shards which are copied in parallel.
+     *
+     * @param parallelism the number of shards which are copied in parallel
+     * @return this {@link ReindexJob} instance
+     */
+    public ReindexJob parallelism(int parallelism) {
+        checkArgument(parallelism > 0, "Parallelism must be positive");
+        this.parallelism = parallelism;
+        return this;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * Set the number of documents per shard read by a single scroll request.
+     *
+     * @param batchSize the number of documents per shard of a scroll request
+     * @return this {@link ReindexJob} instance
+     */
+    public ReindexJob batchSize(int batchSize) {
+        checkArgument(batchSize > 0, "Batch size must be positive");
+        this.batchSize = batchSize;
+        return this;
+    }
+
+    public Duration getScrollKeepAlive() {
+        return scrollKeepAlive;
+    }
+
+    /**
+     * Set the time the scroll contexts are kept alive between two scroll requests.
+     *
+     * @param scrollKeepAlive the keep alive of the scroll contexts
+     * @return this {@link ReindexJob} instance
+     */
+    public ReindexJob scrollKeepAlive(Duration scrollKeepAlive) {
+        this.scrollKeepAlive = checkNotNull(scrollKeepAlive, "Scroll keep alive must not be null");
+        return this;
+    }
+
+    public double getMaxDocsPerSecond() {
+        return maxDocsPerSecond;
+    }
+
+    /**
+     * Throttle the copy to a number of documents per second over all shards.
+     *
+     * @param maxDocsPerSecond the maximum number of documents per second, or 0 to disable throttling
+     * @return this {@link ReindexJob} instance
+     */
+    public ReindexJob maxDocsPerSecond(double maxDocsPerSecond) {
+        checkArgument(maxDocsPerSecond >= 0.0d, "Maximum documents per second must not be negative");
+        this.maxDocsPerSecond = maxDocsPerSecond;
+        return this;
+    }
+
+    public Path getCheckpointFile() {
+        return checkpointFile;
+    }
+
+    /**
+     * Record the completed shards in a file, so that an interrupted job can be resumed.
+     *
+     * @param checkpointFile the checkpoint file, or {@literal null} to disable checkpointing
+     * @return this {@link ReindexJob} instance
+     */
+    public ReindexJob checkpointFile(Path checkpointFile) {
+        this.checkpointFile = checkpointFile;
+        return this;
+    }
+
+    public DocumentTransformer getTransformer() {
+        return transformer;
+    }
+
+    /**
+     * Transform every document before it is written to the target index.
+     *
+     * @param transformer a {@link DocumentTransformer} instance
+     * @return this {@link ReindexJob} instance
+     */
+    public ReindexJob transformer(DocumentTransformer transformer) {
+        this.transformer = checkNotNull(transformer, "Transformer must not be null");
+        return this;
+    }
+}
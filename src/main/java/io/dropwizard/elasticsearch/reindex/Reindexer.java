@@ -0,0 +1,285 @@
+package io.dropwizard.elasticsearch.reindex;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.google.common.util.concurrent.RateLimiter;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.dropwizard.elasticsearch.client.ScrollIterator;
+import io.dropwizard.elasticsearch.config.BulkProcessorConfiguration;
+import io.dropwizard.util.Duration;
+import org.elasticsearch.action.admin.indices.settings.get.GetSettingsRequest;
+import org.elasticsearch.action.admin.indices.settings.get.GetSettingsResponse;
+import org.elasticsearch.action.bulk.BackoffPolicy;
+import org.elasticsearch.action.bulk.BulkItemResponse;
+import org.elasticsearch.action.bulk.BulkProcessor;
+import org.elasticsearch.action.bulk.BulkRequest;
+import org.elasticsearch.action.bulk.BulkResponse;
+import org.elasticsearch.action.index.IndexRequest;
+import org.elasticsearch.action.search.SearchRequest;
+import org.elasticsearch.client.Client;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.unit.ByteSizeValue;
+import org.elasticsearch.common.unit.TimeValue;
+import org.elasticsearch.index.query.QueryBuilders;
+import org.elasticsearch.search.SearchHit;
+import org.elasticsearch.search.SearchHitField;
+import org.elasticsearch.search.builder.SearchSourceBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.codahale.metrics.MetricRegistry.name;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Copies the documents of an index to another index, since Elasticsearch 2.x has no reindex API.
+ * <p>
+ * Elasticsearch 2.x has no sliced scroll either, so the source index is read with one scroll search per shard (using
+ * the {@code _shards} preference) and {@link ReindexJob#getParallelism()} shards are copied in parallel. Every shard
+ * is written by a {@link BulkProcessor} of its own, configured by a {@link BulkProcessorConfiguration}. If the job has
+ * a checkpoint file, every shard which has been copied without failures is recorded in it, and shards recorded in an
+ * existing checkpoint file are skipped, so that an interrupted job can be resumed. Shards which were interrupted are
+ * copied again from the beginning, which is safe since documents are indexed with their original IDs.
+ * <p>
+ * The progress is recorded as {@code <prefix>.reindex.read}, {@code <prefix>.reindex.written} and
+ * {@code <prefix>.reindex.failed} ({@link Meter}), and {@code <prefix>.reindex.shards.completed} ({@link Counter}).
+ */
+public class Reindexer {
+    private static final Logger LOGGER = LoggerFactory.getLogger(Reindexer.class);
+
+    private final Client sourceClient;
+    private final Client targetClient;
+    private final BulkProcessorConfiguration bulkConfig;
+    private final Meter read;
+    private final Meter written;
+    private final Meter failed;
+    private final Counter shardsCompleted;
+
+    /**
+     * Create a new reindexer which reads and writes through the same client.
+     *
+     * @param client         the Elasticsearch {@link Client} to read and write the documents with
+     * @param bulkConfig     a valid {@link BulkProcessorConfiguration} for writing the documents
+     * @param metricRegistry the {@link MetricRegistry} to record the progress in
+     * @param prefix         the prefix of the metric names
+     */
+    public Reindexer(Client client, BulkProcessorConfiguration bulkConfig, MetricRegistry metricRegistry,
+                     String prefix) {
+        this(client, client, bulkConfig, metricRegistry, prefix);
+    }
+
+    /**
+     * Create a new reindexer which may copy the documents to another cluster.
+     *
+     * @param sourceClient   the Elasticsearch {@link Client} to read the documents with
+     * @param targetClient   the Elasticsearch {@link Client} to write the documents with
+     * @param bulkConfig     a valid {@link BulkProcessorConfiguration} for writing the documents
+     * @param metricRegistry the {@link MetricRegistry} to record the progress in
+     * @param prefix         the prefix of the metric names
+     */
+    public Reindexer(Client sourceClient, Client targetClient, BulkProcessorConfiguration bulkConfig,
+                     MetricRegistry metricRegistry, String prefix) {
+        checkNotNull(metricRegistry, "MetricRegistry must not be null");
+        checkNotNull(prefix, "Metric prefix must not be null");
+
+        this.sourceClient = checkNotNull(sourceClient, "Source client must not be null");
+        this.targetClient = checkNotNull(targetClient, "Target client must not be null");
+        this.bulkConfig = checkNotNull(bulkConfig, "BulkProcessorConfiguration must not be null");
+        this.read = metricRegistry.meter(name(prefix, "reindex", "read"));
+        this.written = metricRegistry.meter(name(prefix, "reindex", "written"));
+        this.failed = metricRegistry.meter(name(prefix, "reindex", "failed"));
+        this.shardsCompleted = metricRegistry.counter(name(prefix, "reindex", "shards", "completed"));
+    }
+
+    /**
+     * Run a reindex job and block until all shards have been copied.
+     *
+     * @param job the {@link ReindexJob} to run
+     * @return the {@link ReindexCheckpoint} of the job, containing the copied shards and documents
+     * @throws IOException          if the checkpoint file couldn't be read or written
+     * @throws InterruptedException if the calling thread was interrupted
+     * @throws IllegalStateException if some shards couldn't be copied without failures
+     */
+    public ReindexCheckpoint run(ReindexJob job) throws IOException, InterruptedException {
+        checkNotNull(job, "ReindexJob must not be null");
+
+        final ReindexCheckpoint checkpoint = null == job.getCheckpointFile()
+                ? new ReindexCheckpoint(job.getSourceIndex(), job.getTargetIndex())
+                : ReindexCheckpoint.load(job.getCheckpointFile(), job);
+        final RateLimiter rateLimiter = job.getMaxDocsPerSecond() > 0.0d
+                ? RateLimiter.create(job.getMaxDocsPerSecond())
+                : null;
+
+        final int shards = numberOfShards(job.getSourceIndex());
+        LOGGER.info("Copying {} shards of {} to {}, {} of them already completed",
+                shards, job.getSourceIndex(), job.getTargetIndex(), checkpoint.getCompletedShards().size());
+
+        final ExecutorService executor = Executors.newFixedThreadPool(job.getParallelism(),
+                new ThreadFactoryBuilder().setNameFormat("es-reindex-%d").setDaemon(true).build());
+        final List<Future<Boolean>> results = new ArrayList<>();
+        try {
+            for (int shard = 0; shard < shards; shard++) {
+                if (!checkpoint.isCompleted(shard)) {
+                    final int currentShard = shard;
+                    results.add(executor.submit(() -> copyShard(job, currentShard, checkpoint, rateLimiter)));
+                }
+            }
+
+            int failedShards = 0;
+            for (Future<Boolean> result : results) {
+                try {
+                    if (!result.get()) {
+                        failedShards++;
+                    }
+                } catch (ExecutionException e) {
+                    LOGGER.error("Copying a shard of {} failed", job.getSourceIndex(), e.getCause());
+                    failedShards++;
+                }
+            }
+
+            if (failedShards > 0) {
+                throw new IllegalStateException(failedShards + " shards of " + job.getSourceIndex()
+                        + " couldn't be copied completely");
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        LOGGER.info("Copied {} documents from {} to {}",
+                checkpoint.getDocuments(), job.getSourceIndex(), job.getTargetIndex());
+        return checkpoint;
+    }
+
+    private int numberOfShards(String index) {
+        final GetSettingsResponse response = sourceClient.admin().indices()
+                .getSettings(new GetSettingsRequest().indices(index).names("index.number_of_shards"))
+                .actionGet();
+
+        int shards = 0;
+        for (Settings settings : response.getIndexToSettings().values().toArray(Settings.class)) {
+            shards = Math.max(shards, settings.getAsInt("index.number_of_shards", 0));
+        }
+        if (shards == 0) {
+            throw new IllegalArgumentException("Index " + index + " doesn't exist");
+        }
+        return shards;
+    }
+
+    private boolean copyShard(ReindexJob job, int shard, ReindexCheckpoint checkpoint, RateLimiter rateLimiter)
+            throws IOException, InterruptedException {
+        final ShardListener listener = new ShardListener();
+        final BulkProcessor bulkProcessor = BulkProcessor.builder(targetClient, listener)
+                .setName("es-reindex-" + shard)
+                .setBulkActions(bulkConfig.getBulkActions())
+                .setBulkSize(new ByteSizeValue(bulkConfig.getBulkSize().toBytes()))
+                .setConcurrentRequests(bulkConfig.getConcurrentRequests())
+                .setBackoffPolicy(BackoffPolicy.exponentialBackoff(
+                        TimeValue.timeValueMillis(bulkConfig.getRetryDelay().toMilliseconds()),
+                        bulkConfig.getMaxRetries()))
+                .build();
+
+        final SearchSourceBuilder source = new SearchSourceBuilder()
+                .size(job.getBatchSize())
+                .sort("_doc");
+        if (null != job.getQuery()) {
+            source.query(QueryBuilders.wrapperQuery(job.getQuery()));
+        }
+        final SearchRequest request = new SearchRequest(job.getSourceIndex())
+                .preference("_shards:" + shard)
+                .source(source);
+
+        try (ScrollIterator hits = new ScrollIterator(sourceClient, request, job.getScrollKeepAlive())) {
+            while (hits.hasNext()) {
+                if (Thread.interrupted()) {
+                    throw new InterruptedException();
+                }
+
+                final SearchHit hit = hits.next();
+                read.mark();
+                if (null != rateLimiter) {
+                    rateLimiter.acquire();
+                }
+
+                final IndexRequest indexRequest = job.getTransformer().transform(hit, indexRequest(job, hit));
+                if (null != indexRequest) {
+                    bulkProcessor.add(indexRequest);
+                }
+            }
+        } finally {
+            final Duration timeout = bulkConfig.getAwaitCloseTimeout();
+            if (!bulkProcessor.awaitClose(timeout.getQuantity(), timeout.getUnit())) {
+                listener.failures.incrementAndGet();
+                LOGGER.warn("Bulk requests of shard {} did not complete within {}", shard, timeout);
+            }
+        }
+
+        if (listener.failures.get() > 0L) {
+            LOGGER.warn("Copying shard {} of {} had {} failures", shard, job.getSourceIndex(), listener.failures);
+            return false;
+        }
+
+        checkpoint.complete(shard, listener.documents.get());
+        if (null != job.getCheckpointFile()) {
+            checkpoint.save(job.getCheckpointFile());
+        }
+        shardsCompleted.inc();
+        LOGGER.info("Copied shard {} of {} with {} documents", shard, job.getSourceIndex(), listener.documents);
+        return true;
+    }
+
+    private static IndexRequest indexRequest(ReindexJob job, SearchHit hit) {
+        final IndexRequest request = new IndexRequest(job.getTargetIndex(), hit.getType(), hit.getId())
+                .source(hit.getSourceRef());
+
+        final SearchHitField routing = hit.field("_routing");
+        if (null != routing) {
+            request.routing(routing.<String>getValue());
+        }
+        final SearchHitField parent = hit.field("_parent");
+        if (null != parent) {
+            request.parent(parent.<String>getValue());
+        }
+        return request;
+    }
+
+    private class ShardListener implements BulkProcessor.Listener {
+        private final AtomicLong documents = new AtomicLong();
+        private final AtomicLong failures = new AtomicLong();
+
+        @Override
+        public void beforeBulk(long executionId, BulkRequest request) {
+        }
+
+        @Override
+        public void afterBulk(long executionId, BulkRequest request, BulkResponse response) {
+            long itemFailures = 0L;
+            for (BulkItemResponse item : response.getItems()) {
+                if (item.isFailed()) {
+                    itemFailures++;
+                    LOGGER.debug("Couldn't copy document {}: {}", item.getId(), item.getFailureMessage());
+                }
+            }
+
+            documents.addAndGet(response.getItems().length - itemFailures);
+            failures.addAndGet(itemFailures);
+            written.mark(response.getItems().length - itemFailures);
+            failed.mark(itemFailures);
+        }
+
+        @Override
+        public void afterBulk(long executionId, BulkRequest request, Throwable failure) {
+            LOGGER.warn("Bulk request with {} documents failed", request.numberOfActions(), failure);
+            failures.addAndGet(request.numberOfActions());
+            failed.mark(request.numberOfActions());
+        }
+    }
+}
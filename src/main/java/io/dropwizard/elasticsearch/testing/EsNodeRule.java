@@ -0,0 +1,213 @@
+package io.dropwizard.elasticsearch.testing;
+
+import com.google.common.io.Resources;
+import io.dropwizard.elasticsearch.managed.ManagedEsClient;
+import org.elasticsearch.action.bulk.BulkRequest;
+import org.elasticsearch.action.bulk.BulkResponse;
+import org.elasticsearch.action.support.IndicesOptions;
+import org.elasticsearch.client.Client;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.util.concurrent.UncategorizedExecutionException;
+import org.elasticsearch.node.Node;
+import org.junit.rules.ExternalResource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.URL;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static org.elasticsearch.node.NodeBuilder.nodeBuilder;
+
+/**
+ * A JUnit rule providing an embedded local-mode Elasticsearch {@link Node} for integration tests.
+ * <p>
+ * The node uses the local transport and local discovery, so it doesn't open any network ports, and stores its data in
+ * a temporary directory. It is started on first use, shared by all tests of the JVM and closed by a shutdown hook, so
+ * that only the first test pays for the startup. Before every test, all indices and index templates are deleted and
+ * the registered fixtures are loaded:
+ * <pre>{@code
+ * @Rule
+ * public final EsNodeRule elasticsearch = new EsNodeRule()
+ *         .withFixture("tweets", "tweet", "fixtures/tweets.json");
+ * }</pre>
+ * Fixtures are classpath resources in the format of the bulk API. The index and type of the fixture are the defaults
+ * for actions without {@code _index} and {@code _type}. The affected indices are refreshed after loading, so that the
+ * documents are immediately searchable. When used as a {@link org.junit.ClassRule}, indices are only reset and
+ * fixtures only loaded once per test class.
+ * <p>
+ * The JUnit dependency of this bundle is {@code provided}, so projects using this rule must depend on JUnit 4
+ * themselves.
+ *
+ * @see <a href="https://www.elastic.co/guide/en/elasticsearch/reference/2.4/docs-bulk.html">Bulk API</a>
+ */
+public class EsNodeRule extends ExternalResource {
+    private static final Logger LOGGER = LoggerFactory.getLogger(EsNodeRule.class);
+    private static ManagedEsClient sharedClient = null;
+
+    private final List<Fixture> fixtures = new ArrayList<>();
+
+    /**
+     * Load a fixture into the given index before every test.
+     *
+     * @param index    the default index of the actions in the fixture
+     * @param type     the default type of the actions in the fixture
+     * @param resource the name of a classpath resource in the format of the bulk API
+     * @return this {@link EsNodeRule} instance
+     */
+    public EsNodeRule withFixture(String index, String type, String resource) {
+        fixtures.add(new Fixture(checkNotNull(index, "Index must not be null"),
+                checkNotNull(type, "Type must not be null"),
+                checkNotNull(resource, "Resource must not be null")));
+        return this;
+    }
+
+    @Override
+    protected void before() throws Throwable {
+        reset();
+        for (Fixture fixture : fixtures) {
+            loadFixture(fixture.index, fixture.type, fixture.resource);
+        }
+    }
+
+    /**
+     * Get the {@link ManagedEsClient} of the shared node, starting the node if necessary.
+     *
+     * @return the {@link ManagedEsClient} created with {@link ManagedEsClient#ManagedEsClient(Node)}
+     */
+    public ManagedEsClient getManagedClient() {
+        return sharedClient();
+    }
+
+    /**
+     * Get a {@link Client} connected to the shared node, starting the node if necessary.
+     *
+     * @return the Elasticsearch {@link Client} of the shared node
+     */
+    public Client getClient() {
+        return sharedClient().getClient();
+    }
+
+    /**
+     * Delete all indices and index templates of the shared node.
+     */
+    public void reset() {
+        final Client client = getClient();
+        client.admin().indices().prepareDelete("_all")
+                .setIndicesOptions(IndicesOptions.lenientExpandOpen())
+                .get();
+        client.admin().indices().prepareDeleteTemplate("*").get();
+    }
+
+    /**
+     * Load a fixture in the format of the bulk API into the shared node and refresh the affected indices.
+     *
+     * @param index    the default index of the actions in the fixture
+     * @param type     the default type of the actions in the fixture
+     * @param resource the name of a classpath resource in the format of the bulk API
+     * @return the {@link BulkResponse} of the fixture
+     * @throws IllegalArgumentException if the resource doesn't exist or can't be parsed
+     * @throws IllegalStateException    if any action of the fixture failed
+     */
+    public BulkResponse loadFixture(String index, String type, String resource) {
+        final URL url = Resources.getResource(resource);
+        final BulkRequest request = new BulkRequest().refresh(true);
+        try {
+            final byte[] data = Resources.toByteArray(url);
+            request.add(data, 0, data.length, index, type);
+        } catch (Exception e) {
+            throw new IllegalArgumentException("Couldn't read fixture " + resource, e);
+        }
+
+        final BulkResponse response = getClient().bulk(request).actionGet();
+        if (response.hasFailures()) {
+            throw new IllegalStateException("Couldn't load fixture " + resource + ": "
+                    + response.buildFailureMessage());
+        }
+        return response;
+    }
+
+    private static synchronized ManagedEsClient sharedClient() {
+        if (null == sharedClient) {
+            sharedClient = startNode();
+        }
+        return sharedClient;
+    }
+
+    private static ManagedEsClient startNode() {
+        final Path home;
+        try {
+            home = Files.createTempDirectory("es-node-rule");
+        } catch (IOException e) {
+            throw new IllegalStateException("Couldn't create data directory of embedded node", e);
+        }
+
+        final Settings settings = Settings.builder()
+                .put("path.home", home.toString())
+                .put("node.name", "es-node-rule")
+                .put("http.enabled", false)
+                .put("index.number_of_shards", 1)
+                .put("index.number_of_replicas", 0)
+                .build();
+        final Node node = nodeBuilder()
+                .local(true)
+                .clusterName("es-node-rule-" + UUID.randomUUID())
+                .settings(settings)
+                .build();
+
+        final ManagedEsClient managedClient = new ManagedEsClient(node);
+        try {
+            managedClient.start();
+        } catch (Exception e) {
+            throw new UncategorizedExecutionException("Couldn't start embedded node", e);
+        }
+        managedClient.getClient().admin().cluster().prepareHealth().setWaitForYellowStatus().get();
+        LOGGER.info("Started embedded Elasticsearch node in {}", home);
+
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try {
+                managedClient.stop();
+                deleteRecursively(home);
+            } catch (Exception e) {
+                LOGGER.warn("Couldn't stop embedded Elasticsearch node", e);
+            }
+        }, "es-node-rule-shutdown"));
+        return managedClient;
+    }
+
+    private static void deleteRecursively(Path directory) throws IOException {
+        Files.walkFileTree(directory, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                Files.delete(file);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult postVisitDirectory(Path dir, IOException exc) throws IOException {
+                Files.delete(dir);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    private static class Fixture {
+        private final String index;
+        private final String type;
+        private final String resource;
+
+        private Fixture(String index, String type, String resource) {
+            this.index = index;
+            this.type = type;
+            this.resource = resource;
+        }
+    }
+}
@@ -1,17 +1,37 @@
 package io.dropwizard.elasticsearch.util;
 
 import com.google.common.net.HostAndPort;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.dropwizard.util.Duration;
 import org.elasticsearch.common.transport.InetSocketTransportAddress;
 import org.elasticsearch.common.transport.TransportAddress;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import java.net.InetAddress;
 import java.net.InetSocketAddress;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static com.google.common.base.Preconditions.checkNotNull;
 
 /**
  * Helper class for converting Guava {@link HostAndPort} objects to Elasticsearch {@link TransportAddress}.
  */
 public class TransportAddressHelper {
+    private static final Logger LOGGER = LoggerFactory.getLogger(TransportAddressHelper.class);
     private static final int DEFAULT_PORT = 9300;
+    private static final int MAX_RESOLVER_THREADS = 16;
 
     /**
      * Convert a {@link HostAndPort} instance to {@link TransportAddress}. If the {@link HostAndPort} instance doesn't
@@ -45,4 +65,65 @@ public class TransportAddressHelper {
             return transportAddresses;
         }
     }
+
+    /**
+     * Resolve a list of {@link HostAndPort} instances to the {@link TransportAddress} instances of all of their IP
+     * addresses. The host names are resolved in parallel; host names which cannot be resolved within
+     * {@code timeout} are skipped with a warning.
+     *
+     * @param hostAndPorts a {@link List} of valid {@link HostAndPort} instances
+     * @param timeout      the maximum duration of the resolution of all host names
+     * @return the resolved {@link TransportAddress} instances in the order of {@code hostAndPorts}
+     * @see #fromHostAndPort(com.google.common.net.HostAndPort)
+     */
+    public static Set<TransportAddress> resolveAll(final List<HostAndPort> hostAndPorts, final Duration timeout) {
+        return resolveAll(hostAndPorts, timeout, InetAddress::getAllByName);
+    }
+
+    static Set<TransportAddress> resolveAll(final List<HostAndPort> hostAndPorts, final Duration timeout,
+                                            final HostResolver resolver) {
+        checkNotNull(timeout, "Timeout must not be null");
+
+        final Set<TransportAddress> transportAddresses = new LinkedHashSet<>();
+        if (hostAndPorts == null || hostAndPorts.isEmpty()) {
+            return transportAddresses;
+        }
+
+        final List<Callable<InetAddress[]>> lookups = new ArrayList<>(hostAndPorts.size());
+        for (HostAndPort hostAndPort : hostAndPorts) {
+            lookups.add(() -> resolver.resolve(hostAndPort.getHost()));
+        }
+
+        final ExecutorService executor = Executors.newFixedThreadPool(
+                Math.min(hostAndPorts.size(), MAX_RESOLVER_THREADS),
+                new ThreadFactoryBuilder().setNameFormat("es-dns-resolver-%d").setDaemon(true).build());
+        try {
+            final List<Future<InetAddress[]>> results =
+                    executor.invokeAll(lookups, timeout.toNanoseconds(), TimeUnit.NANOSECONDS);
+
+            for (int i = 0; i < hostAndPorts.size(); i++) {
+                final HostAndPort hostAndPort = hostAndPorts.get(i);
+                try {
+                    for (InetAddress address : results.get(i).get()) {
+                        transportAddresses.add(new InetSocketTransportAddress(
+                                address, hostAndPort.getPortOrDefault(DEFAULT_PORT)));
+                    }
+                } catch (CancellationException e) {
+                    LOGGER.warn("Resolving {} timed out after {}", hostAndPort.getHost(), timeout);
+                } catch (ExecutionException e) {
+                    LOGGER.warn("Couldn't resolve {}", hostAndPort.getHost(), e.getCause());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            executor.shutdownNow();
+        }
+
+        return transportAddresses;
+    }
+
+    interface HostResolver {
+        InetAddress[] resolve(String host) throws UnknownHostException;
+    }
 }
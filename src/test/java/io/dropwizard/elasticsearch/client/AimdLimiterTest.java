@@ -0,0 +1,64 @@
+package io.dropwizard.elasticsearch.client;
+
+import io.dropwizard.elasticsearch.config.AimdLimitConfiguration;
+import io.dropwizard.jackson.Jackson;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests for {@link AimdLimiter}.
+ */
+public class AimdLimiterTest {
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(10L);
+    private static final long SLOW = TimeUnit.SECONDS.toNanos(2L);
+
+    private AimdLimiter limiter;
+
+    @Before
+    public void setUp() throws IOException {
+        final AimdLimitConfiguration config = Jackson.newObjectMapper().readValue(
+                "{\"initialLimit\": 4, \"minLimit\": 2, \"maxLimit\": 5, \"backoffRatio\": 0.5}",
+                AimdLimitConfiguration.class);
+        limiter = new AimdLimiter(config);
+    }
+
+    @Test
+    public void requestsAboveLimitShouldBeRejected() {
+        for (int i = 0; i < 4; i++) {
+            assertTrue(limiter.tryAcquire());
+        }
+
+        assertFalse(limiter.tryAcquire());
+        assertEquals(4, limiter.getInFlight());
+    }
+
+    @Test
+    public void fastRequestsUnderLoadShouldIncreaseLimit() {
+        for (int i = 0; i < 4; i++) {
+            limiter.tryAcquire();
+        }
+        limiter.release(FAST, false);
+        limiter.release(FAST, false);
+        limiter.release(FAST, false);
+
+        assertEquals(5, limiter.getLimit());
+    }
+
+    @Test
+    public void slowOrOverloadedRequestsShouldDecreaseLimit() {
+        limiter.tryAcquire();
+        limiter.release(SLOW, false);
+        assertEquals(2, limiter.getLimit());
+
+        limiter.tryAcquire();
+        limiter.release(FAST, true);
+        assertEquals(2, limiter.getLimit());
+    }
+}
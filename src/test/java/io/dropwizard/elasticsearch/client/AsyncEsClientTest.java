@@ -0,0 +1,130 @@
+package io.dropwizard.elasticsearch.client;
+
+import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.action.bulk.BulkAction;
+import org.elasticsearch.action.bulk.BulkRequest;
+import org.elasticsearch.action.bulk.BulkResponse;
+import org.elasticsearch.action.search.SearchAction;
+import org.elasticsearch.action.search.SearchRequest;
+import org.elasticsearch.action.search.SearchRequestBuilder;
+import org.elasticsearch.action.search.SearchResponse;
+import org.elasticsearch.client.Client;
+import org.elasticsearch.common.util.concurrent.EsRejectedExecutionException;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Unit tests for {@link AsyncEsClient}.
+ */
+public class AsyncEsClientTest {
+    private final Client client = mock(Client.class);
+    private final List<Runnable> completions = new ArrayList<>();
+    private final Executor executor = completions::add;
+    private final List<ActionListener<SearchResponse>> pendingSearches = new ArrayList<>();
+    private AsyncEsClient asyncClient;
+
+    @Before
+    public void setUp() {
+        doAnswer(invocation -> {
+            pendingSearches.add(invocation.getArgument(2));
+            return null;
+        }).when(client).execute(eq(SearchAction.INSTANCE), any(SearchRequest.class), any());
+
+        asyncClient = new AsyncEsClient(client, executor);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void initializationWithNullClientShouldFail() {
+        new AsyncEsClient(null, executor);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void initializationWithNullExecutorShouldFail() {
+        new AsyncEsClient(client, null);
+    }
+
+    @Test
+    public void responseShouldCompleteFutureOnExecutor() throws Exception {
+        final SearchResponse response = new SearchResponse();
+        final CompletableFuture<SearchResponse> future = asyncClient.search(new SearchRequest("index"));
+
+        pendingSearches.get(0).onResponse(response);
+        assertFalse(future.isDone());
+
+        completions.get(0).run();
+        assertSame(response, future.get());
+    }
+
+    @Test
+    public void failureShouldCompleteFutureExceptionally() throws Exception {
+        final CompletableFuture<SearchResponse> future = asyncClient.search(new SearchRequest("index"));
+        final EsRejectedExecutionException failure = new EsRejectedExecutionException("rejected");
+
+        pendingSearches.get(0).onFailure(failure);
+        completions.get(0).run();
+
+        try {
+            future.get();
+            fail("Expected the search to fail");
+        } catch (ExecutionException e) {
+            assertSame(failure, e.getCause());
+        }
+    }
+
+    @Test
+    public void rejectedCompletionShouldRunOnCallingThread() throws Exception {
+        final AsyncEsClient rejectingClient = new AsyncEsClient(client, command -> {
+            throw new RejectedExecutionException();
+        });
+        final SearchResponse response = new SearchResponse();
+        final CompletableFuture<SearchResponse> future = rejectingClient.search(new SearchRequest("index"));
+
+        pendingSearches.get(0).onResponse(response);
+
+        assertSame(response, future.get());
+    }
+
+    @Test
+    public void exceptionOfClientShouldCompleteFutureExceptionally() {
+        final IllegalStateException failure = new IllegalStateException("closed");
+        doAnswer(invocation -> {
+            throw failure;
+        }).when(client).execute(eq(BulkAction.INSTANCE), any(BulkRequest.class), any());
+
+        final CompletableFuture<BulkResponse> future = asyncClient.bulk(new BulkRequest());
+
+        assertTrue(future.isCompletedExceptionally());
+        assertEquals(0, completions.size());
+    }
+
+    @Test
+    public void exceptionOfRequestBuilderShouldCompleteFutureExceptionally() {
+        final IllegalStateException failure = new IllegalStateException("closed");
+        doAnswer(invocation -> {
+            throw failure;
+        }).when(client).execute(eq(SearchAction.INSTANCE), any(SearchRequest.class), any());
+
+        final CompletableFuture<SearchResponse> future =
+                asyncClient.execute(new SearchRequestBuilder(client, SearchAction.INSTANCE));
+
+        assertTrue(future.isCompletedExceptionally());
+        assertEquals(0, completions.size());
+    }
+}
@@ -0,0 +1,170 @@
+package io.dropwizard.elasticsearch.client;
+
+import com.codahale.metrics.MetricRegistry;
+import io.dropwizard.elasticsearch.config.BatchingConfiguration;
+import io.dropwizard.jackson.Jackson;
+import io.dropwizard.util.Duration;
+import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.action.ListenableActionFuture;
+import org.elasticsearch.action.get.GetAction;
+import org.elasticsearch.action.get.GetRequest;
+import org.elasticsearch.action.get.GetResponse;
+import org.elasticsearch.action.get.MultiGetAction;
+import org.elasticsearch.action.get.MultiGetItemResponse;
+import org.elasticsearch.action.get.MultiGetRequest;
+import org.elasticsearch.action.get.MultiGetResponse;
+import org.elasticsearch.action.search.MultiSearchAction;
+import org.elasticsearch.action.search.MultiSearchRequest;
+import org.elasticsearch.action.search.MultiSearchResponse;
+import org.elasticsearch.action.search.SearchRequest;
+import org.elasticsearch.action.search.SearchResponse;
+import org.elasticsearch.client.Client;
+import org.elasticsearch.client.support.Headers;
+import org.elasticsearch.common.settings.Settings;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for {@link BatchingClient}.
+ */
+public class BatchingClientTest {
+    private static final String PREFIX = "elasticsearch";
+
+    private final Client client = mock(Client.class);
+    private final MetricRegistry metricRegistry = new MetricRegistry();
+    private final GetResponse first = mock(GetResponse.class);
+    private final GetResponse second = mock(GetResponse.class);
+    private BatchingClient batchingClient;
+
+    @Before
+    public void setUp() throws IOException {
+        when(client.settings()).thenReturn(Settings.EMPTY);
+        when(client.headers()).thenReturn(Headers.EMPTY);
+
+        final MultiGetResponse multiGetResponse = new MultiGetResponse(new MultiGetItemResponse[]{
+                new MultiGetItemResponse(first, null),
+                new MultiGetItemResponse(second, null)});
+        doAnswer(invocation -> {
+            final ActionListener<MultiGetResponse> listener = invocation.getArgument(2);
+            listener.onResponse(multiGetResponse);
+            return null;
+        }).when(client).execute(eq(MultiGetAction.INSTANCE), any(MultiGetRequest.class), any());
+
+        // Batches are only sent once they are full, unless they take a minute to fill up
+        final BatchingConfiguration config = Jackson.newObjectMapper()
+                .readValue("{\"window\": \"1m\", \"maxBatchSize\": 2}", BatchingConfiguration.class);
+        batchingClient = new BatchingClient(client, config, metricRegistry, PREFIX);
+    }
+
+    @After
+    public void tearDown() {
+        batchingClient.close();
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void initializationWithNullClientShouldFail() {
+        new BatchingClient(null, new BatchingConfiguration(), metricRegistry, PREFIX);
+    }
+
+    @Test
+    public void concurrentGetsShouldBeSentAsMultiGet() throws Exception {
+        final ListenableActionFuture<GetResponse> firstFuture = batchingClient.prepareGet("index", "type", "1").execute();
+        final ListenableActionFuture<GetResponse> secondFuture = batchingClient.prepareGet("index", "type", "2").execute();
+
+        assertSame(first, firstFuture.get(5L, TimeUnit.SECONDS));
+        assertSame(second, secondFuture.get(5L, TimeUnit.SECONDS));
+
+        final ArgumentCaptor<MultiGetRequest> captor = ArgumentCaptor.forClass(MultiGetRequest.class);
+        verify(client).execute(eq(MultiGetAction.INSTANCE), captor.capture(), any());
+        assertEquals(2, captor.getValue().getItems().size());
+        assertEquals("2", captor.getValue().getItems().get(1).id());
+        verify(client, never()).execute(eq(GetAction.INSTANCE), any(GetRequest.class), any());
+        assertEquals(1L, metricRegistry.histogram("elasticsearch.batch.get.size").getCount());
+    }
+
+    @Test
+    public void singleGetShouldBeSentUnbatchedAfterWindow() {
+        final BatchingClient shortWindowClient =
+                new BatchingClient(client, new BatchingConfiguration(), metricRegistry, PREFIX);
+        shortWindowClient.prepareGet("index", "type", "1").execute();
+
+        verify(client, timeout(5000L)).execute(eq(GetAction.INSTANCE), any(GetRequest.class), any());
+        verify(client, never()).execute(eq(MultiGetAction.INSTANCE), any(MultiGetRequest.class), any());
+        shortWindowClient.close();
+    }
+
+    @Test
+    public void getsWithPreferenceShouldNotBeBatched() {
+        batchingClient.prepareGet("index", "type", "1").setPreference("session-1").execute();
+
+        verify(client).execute(eq(GetAction.INSTANCE), any(GetRequest.class), any());
+        verify(client, never()).execute(eq(MultiGetAction.INSTANCE), any(MultiGetRequest.class), any());
+    }
+
+    @Test
+    public void callerDeadlineShouldApplyToBatch() throws Exception {
+        final CompletableFuture<Long> remainingNanos = new CompletableFuture<>();
+        doAnswer(invocation -> {
+            remainingNanos.complete(EsDeadline.remainingNanos());
+            return null;
+        }).when(client).execute(eq(GetAction.INSTANCE), any(GetRequest.class), any());
+
+        final BatchingClient shortWindowClient =
+                new BatchingClient(client, new BatchingConfiguration(), metricRegistry, PREFIX);
+        try (EsDeadline.Scope scope = EsDeadline.within(Duration.seconds(30L))) {
+            shortWindowClient.prepareGet("index", "type", "1").execute();
+        }
+
+        final Long remaining = remainingNanos.get(5L, TimeUnit.SECONDS);
+        assertNotNull(remaining);
+        assertTrue(remaining > 0L && remaining <= TimeUnit.SECONDS.toNanos(30L));
+        shortWindowClient.close();
+    }
+
+    @Test
+    public void failedSearchItemsShouldFailTheirRequests() throws Exception {
+        final SearchResponse response = mock(SearchResponse.class);
+        final IllegalStateException failure = new IllegalStateException("boom");
+        final MultiSearchResponse multiSearchResponse = new MultiSearchResponse(new MultiSearchResponse.Item[]{
+                new MultiSearchResponse.Item(response, null),
+                new MultiSearchResponse.Item(null, failure)});
+        doAnswer(invocation -> {
+            final ActionListener<MultiSearchResponse> listener = invocation.getArgument(2);
+            listener.onResponse(multiSearchResponse);
+            return null;
+        }).when(client).execute(eq(MultiSearchAction.INSTANCE), any(MultiSearchRequest.class), any());
+
+        final ListenableActionFuture<SearchResponse> firstFuture = batchingClient.prepareSearch("first").execute();
+        final ListenableActionFuture<SearchResponse> secondFuture = batchingClient.prepareSearch("second").execute();
+
+        assertSame(response, firstFuture.get(5L, TimeUnit.SECONDS));
+        try {
+            secondFuture.get(5L, TimeUnit.SECONDS);
+            fail("Expected the search to fail");
+        } catch (ExecutionException e) {
+            assertSame(failure, e.getCause());
+        }
+        verify(client, never()).execute(any(), any(SearchRequest.class), any());
+    }
+}
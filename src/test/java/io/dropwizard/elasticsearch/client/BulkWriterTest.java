@@ -0,0 +1,142 @@
+package io.dropwizard.elasticsearch.client;
+
+import org.elasticsearch.ElasticsearchTimeoutException;
+import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.action.ActionRequest;
+import org.elasticsearch.action.bulk.BulkItemResponse;
+import org.elasticsearch.action.bulk.BulkRequest;
+import org.elasticsearch.action.bulk.BulkResponse;
+import org.elasticsearch.action.delete.DeleteRequest;
+import org.elasticsearch.action.index.IndexRequest;
+import org.elasticsearch.client.Client;
+import org.elasticsearch.common.xcontent.XContentBuilder;
+import org.elasticsearch.common.xcontent.XContentFactory;
+import org.elasticsearch.common.xcontent.XContentHelper;
+import org.elasticsearch.common.xcontent.XContentType;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Unit tests for {@link BulkWriter}.
+ */
+public class BulkWriterTest {
+    private final Client client = mock(Client.class);
+    private final List<BulkRequest> requests = new ArrayList<>();
+
+    @Before
+    public void setUp() {
+        doAnswer(invocation -> {
+            requests.add(invocation.getArgument(0));
+            final ActionListener<BulkResponse> listener = invocation.getArgument(1);
+            listener.onResponse(new BulkResponse(new BulkItemResponse[0], 1L));
+            return null;
+        }).when(client).bulk(any(BulkRequest.class), any());
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void initializationWithNullClientShouldFail() {
+        new BulkWriter(null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void cborShouldBeRejected() {
+        new BulkWriter(client, XContentType.CBOR, 1, 1024);
+    }
+
+    @Test
+    public void jsonDocumentsShouldBeSentAsBulkRequest() throws Exception {
+        final BulkWriter writer = new BulkWriter(client);
+        final BulkWriter.Batch batch = writer.newBatch()
+                .index("index", "type", "1", bytes("{\"field\":\"one\"}"))
+                .index("index", "type", null, bytes("{\"field\":\"two\"}"))
+                .delete("other", "type", "3");
+        assertEquals(3, batch.numberOfActions());
+        batch.execute().actionGet();
+
+        final List<ActionRequest> items = requests.get(0).requests();
+        assertEquals(3, items.size());
+        final IndexRequest first = (IndexRequest) items.get(0);
+        assertEquals("index", first.index());
+        assertEquals("1", first.id());
+        assertEquals("{\"field\":\"one\"}", first.source().toUtf8());
+        assertNull(((IndexRequest) items.get(1)).id());
+        assertEquals("other", ((DeleteRequest) items.get(2)).index());
+    }
+
+    @Test
+    public void smileDocumentsShouldBeSentAsBulkRequest() throws Exception {
+        final XContentBuilder source = XContentFactory.smileBuilder().startObject().field("field", "value").endObject();
+        final BulkWriter writer = new BulkWriter(client, XContentType.SMILE, 1, 1024);
+        writer.newBatch()
+                .index("index", "type", "1", source.bytes())
+                .index("index", "type", "2", source.bytes())
+                .execute().actionGet();
+
+        final List<ActionRequest> items = requests.get(0).requests();
+        assertEquals(2, items.size());
+        final Map<String, Object> parsed = XContentHelper.convertToMap(((IndexRequest) items.get(1)).source(), false).v2();
+        assertEquals("value", parsed.get("field"));
+    }
+
+    @Test
+    public void buffersShouldBeReused() throws Exception {
+        final BulkWriter writer = new BulkWriter(client, XContentType.JSON, 1, 1024);
+        writer.newBatch().index("index", "type", "1", bytes("{}")).execute().actionGet();
+        assertEquals(1, writer.getIdleBuffers());
+
+        final BulkWriter.Batch batch = writer.newBatch();
+        assertEquals(0, writer.getIdleBuffers());
+        assertEquals(0, batch.sizeInBytes());
+        batch.close();
+        assertEquals(1, writer.getIdleBuffers());
+    }
+
+    @Test
+    public void buffersOfFailedRequestsShouldNotBeReused() throws Exception {
+        final Client failing = mock(Client.class);
+        final List<BulkRequest> inFlight = new ArrayList<>();
+        doAnswer(invocation -> {
+            // Fail early like a timeout while the request is still in flight
+            inFlight.add(invocation.getArgument(0));
+            final ActionListener<BulkResponse> listener = invocation.getArgument(1);
+            listener.onFailure(new ElasticsearchTimeoutException("Timed out"));
+            return null;
+        }).when(failing).bulk(any(BulkRequest.class), any());
+
+        final BulkWriter writer = new BulkWriter(failing, XContentType.JSON, 1, 1024);
+        try {
+            writer.newBatch().index("index", "type", "1", bytes("{\"field\":\"one\"}")).execute().actionGet();
+            fail("Expected the bulk request to fail");
+        } catch (ElasticsearchTimeoutException e) {
+            assertEquals(0, writer.getIdleBuffers());
+        }
+
+        writer.newBatch().index("index", "type", "2", bytes("{\"field\":\"two\"}")).close();
+
+        final IndexRequest first = (IndexRequest) inFlight.get(0).requests().get(0);
+        assertEquals("{\"field\":\"one\"}", first.source().toUtf8());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void executedBatchShouldNotBeReused() throws Exception {
+        final BulkWriter.Batch batch = new BulkWriter(client).newBatch().index("index", "type", "1", bytes("{}"));
+        batch.execute();
+        batch.index("index", "type", "2", bytes("{}"));
+    }
+
+    private static byte[] bytes(String json) {
+        return json.getBytes(StandardCharsets.UTF_8);
+    }
+}
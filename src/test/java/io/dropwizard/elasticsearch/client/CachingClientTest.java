@@ -0,0 +1,175 @@
+package io.dropwizard.elasticsearch.client;
+
+import com.codahale.metrics.MetricRegistry;
+import io.dropwizard.elasticsearch.config.ResultCacheConfiguration;
+import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.action.index.IndexAction;
+import org.elasticsearch.action.index.IndexRequest;
+import org.elasticsearch.action.index.IndexResponse;
+import org.elasticsearch.action.search.SearchAction;
+import org.elasticsearch.action.search.SearchRequest;
+import org.elasticsearch.action.search.SearchResponse;
+import org.elasticsearch.action.search.ShardSearchFailure;
+import org.elasticsearch.client.Client;
+import org.elasticsearch.client.support.Headers;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.unit.TimeValue;
+import org.elasticsearch.search.internal.InternalSearchResponse;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for {@link CachingClient}.
+ */
+public class CachingClientTest {
+    private static final String PREFIX = "elasticsearch";
+
+    private final Client client = mock(Client.class);
+    private final MetricRegistry metricRegistry = new MetricRegistry();
+    private final List<ActionListener<SearchResponse>> pendingSearches = new ArrayList<>();
+    private CachingClient cachingClient;
+    private boolean answerSearches = true;
+
+    @Before
+    public void setUp() {
+        when(client.settings()).thenReturn(Settings.EMPTY);
+        when(client.headers()).thenReturn(Headers.EMPTY);
+
+        doAnswer(invocation -> {
+            final ActionListener<SearchResponse> listener = invocation.getArgument(2);
+            if (answerSearches) {
+                listener.onResponse(searchResponse());
+            } else {
+                pendingSearches.add(listener);
+            }
+            return null;
+        }).when(client).execute(eq(SearchAction.INSTANCE), any(SearchRequest.class), any());
+        doAnswer(invocation -> {
+            final ActionListener<IndexResponse> listener = invocation.getArgument(2);
+            listener.onResponse(mock(IndexResponse.class));
+            return null;
+        }).when(client).execute(eq(IndexAction.INSTANCE), any(IndexRequest.class), any());
+
+        cachingClient = new CachingClient(client, new ResultCacheConfiguration(), metricRegistry, PREFIX);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void initializationWithNullClientShouldFail() {
+        new CachingClient(null, new ResultCacheConfiguration(), metricRegistry, PREFIX);
+    }
+
+    @Test
+    public void identicalSearchesShouldBeCached() {
+        search("index", "{\"size\":1}");
+        search("index", "{\"size\":1}");
+
+        verify(client, times(1)).execute(eq(SearchAction.INSTANCE), any(SearchRequest.class), any());
+        assertEquals(1L, metricRegistry.meter("elasticsearch.cache.hits").getCount());
+        assertEquals(1L, metricRegistry.meter("elasticsearch.cache.misses").getCount());
+        assertEquals(1L, metricRegistry.getGauges().get("elasticsearch.cache.entries").getValue());
+    }
+
+    @Test
+    public void differentSearchesShouldNotShareCacheEntries() {
+        search("index", "{\"size\":1}");
+        search("index", "{\"size\":2}");
+        search("other", "{\"size\":1}");
+
+        verify(client, times(3)).execute(eq(SearchAction.INSTANCE), any(SearchRequest.class), any());
+    }
+
+    @Test
+    public void scrollSearchesShouldNotBeCached() {
+        cachingClient.prepareSearch("index").setScroll(TimeValue.timeValueMinutes(1L)).get();
+        cachingClient.prepareSearch("index").setScroll(TimeValue.timeValueMinutes(1L)).get();
+
+        verify(client, times(2)).execute(eq(SearchAction.INSTANCE), any(SearchRequest.class), any());
+    }
+
+    @Test
+    public void writesShouldInvalidateSearchesOnWrittenIndex() {
+        search("index", "{}");
+        search("other", "{}");
+        search("ind*", "{}");
+
+        cachingClient.prepareIndex("index", "type").setSource("field", "value").get();
+
+        search("index", "{}");
+        search("other", "{}");
+        search("ind*", "{}");
+
+        verify(client, times(5)).execute(eq(SearchAction.INSTANCE), any(SearchRequest.class), any());
+    }
+
+    @Test
+    public void writesShouldPreventCachingOfInFlightSearches() {
+        answerSearches = false;
+        cachingClient.prepareSearch("index").setSource("{}").execute();
+        cachingClient.prepareIndex("index", "type").setSource("field", "value").get();
+        pendingSearches.get(0).onResponse(searchResponse());
+
+        answerSearches = true;
+        search("index", "{}");
+
+        verify(client, times(2)).execute(eq(SearchAction.INSTANCE), any(SearchRequest.class), any());
+    }
+
+    @Test
+    public void writesShouldInvalidateSearchesOnAllIndices() {
+        search("_all", "{}");
+        search("other", "{}");
+
+        cachingClient.prepareIndex("index", "type").setSource("field", "value").get();
+
+        search("_all", "{}");
+        search("other", "{}");
+
+        verify(client, times(3)).execute(eq(SearchAction.INSTANCE), any(SearchRequest.class), any());
+    }
+
+    @Test
+    public void invalidatedSearchesShouldBeCachedAgain() {
+        search("index", "{}");
+        cachingClient.prepareIndex("index", "type").setSource("field", "value").get();
+        search("index", "{}");
+        search("index", "{}");
+
+        verify(client, times(2)).execute(eq(SearchAction.INSTANCE), any(SearchRequest.class), any());
+        assertEquals(1L, metricRegistry.getGauges().get("elasticsearch.cache.entries").getValue());
+    }
+
+    @Test
+    public void closeShouldRemoveGauges() {
+        cachingClient.close();
+
+        assertFalse(metricRegistry.getGauges().containsKey("elasticsearch.cache.entries"));
+        assertFalse(metricRegistry.getGauges().containsKey("elasticsearch.cache.weight"));
+        verify(client).close();
+
+        // A new client with the same prefix can register its gauges again
+        new CachingClient(client, new ResultCacheConfiguration(), metricRegistry, PREFIX);
+        assertTrue(metricRegistry.getGauges().containsKey("elasticsearch.cache.entries"));
+    }
+
+    private void search(String index, String source) {
+        cachingClient.prepareSearch(index).setSource(source).get();
+    }
+
+    private static SearchResponse searchResponse() {
+        return new SearchResponse(InternalSearchResponse.empty(), null, 1, 1, 1L, ShardSearchFailure.EMPTY_ARRAY);
+    }
+}
@@ -0,0 +1,106 @@
+package io.dropwizard.elasticsearch.client;
+
+import com.codahale.metrics.MetricRegistry;
+import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.action.ListenableActionFuture;
+import org.elasticsearch.action.get.GetAction;
+import org.elasticsearch.action.get.GetRequest;
+import org.elasticsearch.action.get.GetResponse;
+import org.elasticsearch.client.Client;
+import org.elasticsearch.client.support.Headers;
+import org.elasticsearch.common.settings.Settings;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for {@link CoalescingClient}.
+ */
+public class CoalescingClientTest {
+    private static final String PREFIX = "elasticsearch";
+
+    private final Client client = mock(Client.class);
+    private final MetricRegistry metricRegistry = new MetricRegistry();
+    private final List<ActionListener<GetResponse>> pendingGets = new ArrayList<>();
+    private CoalescingClient coalescingClient;
+
+    @Before
+    public void setUp() {
+        when(client.settings()).thenReturn(Settings.EMPTY);
+        when(client.headers()).thenReturn(Headers.EMPTY);
+
+        doAnswer(invocation -> {
+            pendingGets.add(invocation.getArgument(2));
+            return null;
+        }).when(client).execute(eq(GetAction.INSTANCE), any(GetRequest.class), any());
+
+        coalescingClient = new CoalescingClient(client, metricRegistry, PREFIX);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void initializationWithNullClientShouldFail() {
+        new CoalescingClient(null, metricRegistry, PREFIX);
+    }
+
+    @Test
+    public void identicalInFlightRequestsShouldBeCoalesced() throws Exception {
+        final ListenableActionFuture<GetResponse> first = coalescingClient.prepareGet("index", "type", "1").execute();
+        final ListenableActionFuture<GetResponse> second = coalescingClient.prepareGet("index", "type", "1").execute();
+        final ListenableActionFuture<GetResponse> other = coalescingClient.prepareGet("index", "type", "2").execute();
+
+        assertEquals(2, pendingGets.size());
+        assertEquals(1L, metricRegistry.meter("elasticsearch.coalesced").getCount());
+
+        final GetResponse response = mock(GetResponse.class);
+        pendingGets.get(0).onResponse(response);
+        pendingGets.get(1).onResponse(mock(GetResponse.class));
+
+        assertSame(response, first.get());
+        assertSame(response, second.get());
+        assertTrue(other.isDone());
+    }
+
+    @Test
+    public void completedRequestsShouldNotBeCoalesced() {
+        coalescingClient.prepareGet("index", "type", "1").execute();
+        pendingGets.get(0).onResponse(mock(GetResponse.class));
+        coalescingClient.prepareGet("index", "type", "1").execute();
+
+        verify(client, times(2)).execute(eq(GetAction.INSTANCE), any(GetRequest.class), any());
+        assertEquals(0L, metricRegistry.meter("elasticsearch.coalesced").getCount());
+    }
+
+    @Test
+    public void failuresShouldBePassedToAllCallers() throws Exception {
+        final ListenableActionFuture<GetResponse> first = coalescingClient.prepareGet("index", "type", "1").execute();
+        final ListenableActionFuture<GetResponse> second = coalescingClient.prepareGet("index", "type", "1").execute();
+
+        final IllegalStateException failure = new IllegalStateException("boom");
+        pendingGets.get(0).onFailure(failure);
+
+        for (ListenableActionFuture<GetResponse> future : Arrays.asList(first, second)) {
+            try {
+                future.get();
+                fail("Expected the request to fail");
+            } catch (ExecutionException e) {
+                assertSame(failure, e.getCause());
+            }
+        }
+    }
+}
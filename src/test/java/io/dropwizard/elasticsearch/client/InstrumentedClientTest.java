@@ -0,0 +1,79 @@
+package io.dropwizard.elasticsearch.client;
+
+import com.codahale.metrics.MetricRegistry;
+import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.action.get.GetAction;
+import org.elasticsearch.action.get.GetRequest;
+import org.elasticsearch.action.get.GetResponse;
+import org.elasticsearch.client.Client;
+import org.elasticsearch.client.support.Headers;
+import org.elasticsearch.common.settings.Settings;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for {@link InstrumentedClient}.
+ */
+public class InstrumentedClientTest {
+    private static final String PREFIX = "elasticsearch";
+    private static final String GET_METRIC = "elasticsearch.indices.data.read.get";
+
+    private final Client client = mock(Client.class);
+    private final MetricRegistry metricRegistry = new MetricRegistry();
+
+    @Before
+    public void setUp() {
+        when(client.settings()).thenReturn(Settings.EMPTY);
+        when(client.headers()).thenReturn(Headers.EMPTY);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void initializationWithNullClientShouldFail() {
+        new InstrumentedClient(null, metricRegistry, PREFIX);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void initializationWithNullMetricRegistryShouldFail() {
+        new InstrumentedClient(client, null, PREFIX);
+    }
+
+    @Test
+    public void successfulRequestShouldBeRecorded() {
+        doAnswer(invocation -> {
+            final ActionListener<GetResponse> listener = invocation.getArgument(2);
+            listener.onResponse(mock(GetResponse.class));
+            return null;
+        }).when(client).execute(eq(GetAction.INSTANCE), any(GetRequest.class), any());
+
+        new InstrumentedClient(client, metricRegistry, PREFIX).prepareGet("index", "type", "id").get();
+
+        assertEquals(1L, metricRegistry.timer(GET_METRIC + ".latency").getCount());
+        assertEquals(1L, metricRegistry.meter(GET_METRIC + ".requests").getCount());
+        assertEquals(0L, metricRegistry.counter(GET_METRIC + ".errors").getCount());
+    }
+
+    @Test
+    public void failedRequestShouldBeRecorded() {
+        doAnswer(invocation -> {
+            final ActionListener<GetResponse> listener = invocation.getArgument(2);
+            listener.onFailure(new IllegalStateException("boom"));
+            return null;
+        }).when(client).execute(eq(GetAction.INSTANCE), any(GetRequest.class), any());
+
+        try {
+            new InstrumentedClient(client, metricRegistry, PREFIX).prepareGet("index", "type", "id").get();
+        } catch (IllegalStateException e) {
+            // expected
+        }
+
+        assertEquals(1L, metricRegistry.timer(GET_METRIC + ".latency").getCount());
+        assertEquals(1L, metricRegistry.counter(GET_METRIC + ".errors").getCount());
+    }
+}
@@ -0,0 +1,106 @@
+package io.dropwizard.elasticsearch.client;
+
+import com.codahale.metrics.MetricRegistry;
+import io.dropwizard.elasticsearch.config.ConcurrencyLimitConfiguration;
+import io.dropwizard.jackson.Jackson;
+import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.action.get.GetAction;
+import org.elasticsearch.action.get.GetRequest;
+import org.elasticsearch.action.get.GetResponse;
+import org.elasticsearch.action.index.IndexAction;
+import org.elasticsearch.action.index.IndexRequest;
+import org.elasticsearch.action.index.IndexResponse;
+import org.elasticsearch.client.Client;
+import org.elasticsearch.client.support.Headers;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.util.concurrent.EsRejectedExecutionException;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for {@link LimitingClient}.
+ */
+public class LimitingClientTest {
+    private static final String PREFIX = "elasticsearch";
+
+    private final Client client = mock(Client.class);
+    private final MetricRegistry metricRegistry = new MetricRegistry();
+    private final List<ActionListener<GetResponse>> pendingGets = new ArrayList<>();
+    private LimitingClient limitingClient;
+
+    @Before
+    public void setUp() throws IOException {
+        when(client.settings()).thenReturn(Settings.EMPTY);
+        when(client.headers()).thenReturn(Headers.EMPTY);
+
+        doAnswer(invocation -> {
+            pendingGets.add(invocation.getArgument(2));
+            return null;
+        }).when(client).execute(eq(GetAction.INSTANCE), any(GetRequest.class), any());
+        doAnswer(invocation -> {
+            final ActionListener<IndexResponse> listener = invocation.getArgument(2);
+            listener.onResponse(mock(IndexResponse.class));
+            return null;
+        }).when(client).execute(eq(IndexAction.INSTANCE), any(IndexRequest.class), any());
+
+        final ConcurrencyLimitConfiguration config = Jackson.newObjectMapper().readValue(
+                "{\"enabled\": true, \"reads\": {\"initialLimit\": 2, \"minLimit\": 1}}",
+                ConcurrencyLimitConfiguration.class);
+        limitingClient = new LimitingClient(client, config, metricRegistry, PREFIX);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void initializationWithNullClientShouldFail() {
+        new LimitingClient(null, new ConcurrencyLimitConfiguration(), metricRegistry, PREFIX);
+    }
+
+    @Test
+    public void requestsAboveLimitShouldBeRejected() {
+        limitingClient.prepareGet("index", "type", "1").execute();
+        limitingClient.prepareGet("index", "type", "2").execute();
+
+        try {
+            limitingClient.prepareGet("index", "type", "3").get();
+            fail("Expected the request to be rejected");
+        } catch (EsRejectedExecutionException e) {
+            assertEquals(2, pendingGets.size());
+        }
+
+        assertEquals(1L, metricRegistry.meter("elasticsearch.concurrency.read.rejected").getCount());
+        assertEquals(2, metricRegistry.getGauges().get("elasticsearch.concurrency.read.in_flight").getValue());
+    }
+
+    @Test
+    public void writesShouldHaveTheirOwnLimit() {
+        limitingClient.prepareGet("index", "type", "1").execute();
+        limitingClient.prepareGet("index", "type", "2").execute();
+
+        limitingClient.prepareIndex("index", "type").setSource("field", "value").get();
+
+        assertEquals(0L, metricRegistry.meter("elasticsearch.concurrency.write.rejected").getCount());
+    }
+
+    @Test
+    public void completedRequestsShouldReleaseTheirPermits() {
+        limitingClient.prepareGet("index", "type", "1").execute();
+        limitingClient.prepareGet("index", "type", "2").execute();
+        pendingGets.get(0).onResponse(mock(GetResponse.class));
+
+        limitingClient.prepareGet("index", "type", "3").execute();
+
+        assertEquals(3, pendingGets.size());
+        assertEquals(0L, metricRegistry.meter("elasticsearch.concurrency.read.rejected").getCount());
+    }
+}
@@ -0,0 +1,247 @@
+package io.dropwizard.elasticsearch.client;
+
+import com.codahale.metrics.MetricRegistry;
+import io.dropwizard.elasticsearch.config.RoutingConfiguration;
+import io.dropwizard.jackson.Jackson;
+import org.elasticsearch.Version;
+import org.elasticsearch.action.ActionFuture;
+import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.action.ActionRequest;
+import org.elasticsearch.action.bulk.BulkAction;
+import org.elasticsearch.action.bulk.BulkItemResponse;
+import org.elasticsearch.action.bulk.BulkRequest;
+import org.elasticsearch.action.bulk.BulkResponse;
+import org.elasticsearch.action.index.IndexRequest;
+import org.elasticsearch.action.index.IndexResponse;
+import org.elasticsearch.client.Client;
+import org.elasticsearch.client.transport.NoNodeAvailableException;
+import org.elasticsearch.client.support.Headers;
+import org.elasticsearch.cluster.ClusterName;
+import org.elasticsearch.cluster.ClusterState;
+import org.elasticsearch.cluster.metadata.IndexMetaData;
+import org.elasticsearch.cluster.metadata.MetaData;
+import org.elasticsearch.cluster.node.DiscoveryNode;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.transport.DummyTransportAddress;
+import org.elasticsearch.index.shard.ShardId;
+import org.elasticsearch.transport.ConnectTransportException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for {@link RoutingClient}.
+ */
+public class RoutingClientTest {
+    private static final int SHARDS = 4;
+
+    private final Client client = mock(Client.class);
+    private final Map<String, Client> nodeClients = new HashMap<>();
+    private final MetricRegistry metricRegistry = new MetricRegistry();
+    private final DiscoveryNode first = node("node-1");
+    private final DiscoveryNode second = node("node-2");
+    private RoutingClient routingClient;
+    private RoutingClient.Routing routing;
+
+    @Before
+    public void setUp() throws Exception {
+        when(client.settings()).thenReturn(Settings.EMPTY);
+        when(client.headers()).thenReturn(Headers.EMPTY);
+        respond(client);
+        doAnswer(invocation -> {
+            final BulkRequest request = invocation.getArgument(1);
+            final ActionListener<BulkResponse> listener = invocation.getArgument(2);
+            listener.onResponse(response(request));
+            return null;
+        }).when(client).execute(eq(BulkAction.INSTANCE), any(BulkRequest.class), any());
+
+        final RoutingConfiguration config = Jackson.newObjectMapper()
+                .readValue("{\"enabled\": true, \"refreshInterval\": \"1h\"}", RoutingConfiguration.class);
+        routingClient = new RoutingClient(client, config, node -> {
+            final Client nodeClient = mock(Client.class);
+            respond(nodeClient);
+            nodeClients.put(node.getId(), nodeClient);
+            return nodeClient;
+        }, metricRegistry, "elasticsearch");
+
+        final ClusterState state = ClusterState.builder(new ClusterName("test"))
+                .metaData(MetaData.builder().put(IndexMetaData.builder("index")
+                        .settings(Settings.builder().put(IndexMetaData.SETTING_VERSION_CREATED, Version.CURRENT))
+                        .numberOfShards(SHARDS)
+                        .numberOfReplicas(0)))
+                .build();
+        final Map<ShardId, DiscoveryNode> primaries = new HashMap<>();
+        for (int shard = 0; shard < SHARDS; shard++) {
+            primaries.put(new ShardId("index", shard), shard % 2 == 0 ? first : second);
+        }
+        routing = new RoutingClient.Routing(state, primaries);
+    }
+
+    @After
+    public void tearDown() {
+        routingClient.close();
+    }
+
+    @Test
+    public void bulkRequestsShouldBeSentThroughClientWithoutRoutingTable() {
+        routingClient.bulk(bulkRequest(10)).actionGet();
+
+        verify(client).execute(eq(BulkAction.INSTANCE), any(BulkRequest.class), any());
+    }
+
+    @Test
+    public void itemsShouldBeGroupedByPrimaryNode() {
+        routingClient.update(routing);
+
+        final BulkResponse response = routingClient.bulk(bulkRequest(20)).actionGet();
+
+        assertFalse(response.hasFailures());
+        for (int i = 0; i < 20; i++) {
+            assertEquals(i, response.getItems()[i].getItemId());
+            assertEquals(String.valueOf(i), response.getItems()[i].getId());
+        }
+
+        int routedItems = 0;
+        for (Map.Entry<String, Client> nodeClient : nodeClients.entrySet()) {
+            final ArgumentCaptor<BulkRequest> captor = ArgumentCaptor.forClass(BulkRequest.class);
+            verify(nodeClient.getValue()).bulk(captor.capture(), any());
+            for (ActionRequest item : captor.getValue().requests()) {
+                assertEquals(nodeClient.getKey(), routing.primary(item).getId());
+                routedItems++;
+            }
+        }
+        assertEquals(20, routedItems);
+        assertEquals(20L, metricRegistry.meter("elasticsearch.routing.routed").getCount());
+        verify(client, never()).execute(eq(BulkAction.INSTANCE), any(BulkRequest.class), any());
+    }
+
+    @Test
+    public void itemsWithoutIdOrForUnknownIndicesShouldBeSentThroughClient() {
+        routingClient.update(routing);
+
+        final BulkRequest request = bulkRequest(2)
+                .add(new IndexRequest("index", "type").source("field", "value"))
+                .add(new IndexRequest("alias", "type", "3").source("field", "value"));
+        final BulkResponse response = routingClient.bulk(request).actionGet();
+
+        assertEquals(4, response.getItems().length);
+        final ArgumentCaptor<BulkRequest> captor = ArgumentCaptor.forClass(BulkRequest.class);
+        verify(client).execute(eq(BulkAction.INSTANCE), captor.capture(), any());
+        assertEquals(2, captor.getValue().numberOfActions());
+        assertEquals(2L, metricRegistry.meter("elasticsearch.routing.unrouted").getCount());
+    }
+
+    @Test
+    public void unreachableNodeShouldFallBackToClient() {
+        routingClient.update(routing);
+        for (Client nodeClient : nodeClients.values()) {
+            doAnswer(invocation -> {
+                final ActionListener<BulkResponse> listener = invocation.getArgument(1);
+                listener.onFailure(new ConnectTransportException(first, "unreachable"));
+                return null;
+            }).when(nodeClient).bulk(any(BulkRequest.class), any());
+        }
+
+        final BulkResponse response = routingClient.bulk(bulkRequest(10)).actionGet();
+
+        assertFalse(response.hasFailures());
+        assertEquals(10, response.getItems().length);
+        assertTrue(metricRegistry.meter("elasticsearch.routing.unrouted").getCount() > 0L);
+    }
+
+    @Test
+    public void nodeClientThrowingShouldFallBackToClient() {
+        routingClient.update(routing);
+        final Client firstClient = nodeClients.get("node-1");
+        doThrow(new NoNodeAvailableException("not connected")).when(firstClient).bulk(any(BulkRequest.class), any());
+
+        final BulkResponse response = routingClient.bulk(bulkRequest(10)).actionGet();
+
+        assertFalse(response.hasFailures());
+        assertEquals(10, response.getItems().length);
+        verify(client).execute(eq(BulkAction.INSTANCE), any(BulkRequest.class), any());
+        verify(nodeClients.get("node-2")).bulk(any(BulkRequest.class), any());
+
+        // The failed part has been released, so the retired client is closed right away
+        final Map<ShardId, DiscoveryNode> primaries = new HashMap<>();
+        for (int shard = 0; shard < SHARDS; shard++) {
+            primaries.put(new ShardId("index", shard), second);
+        }
+        routingClient.update(new RoutingClient.Routing(routing.state(), primaries));
+        verify(firstClient).close();
+    }
+
+    @Test
+    public void nodeClientShouldBeClosedAfterInFlightPartsCompleted() {
+        routingClient.update(routing);
+        final Client firstClient = nodeClients.get("node-1");
+        final List<ActionListener<BulkResponse>> pending = new ArrayList<>();
+        final List<BulkRequest> pendingRequests = new ArrayList<>();
+        doAnswer(invocation -> {
+            pendingRequests.add(invocation.getArgument(0));
+            pending.add(invocation.getArgument(1));
+            return null;
+        }).when(firstClient).bulk(any(BulkRequest.class), any());
+
+        final ActionFuture<BulkResponse> future = routingClient.bulk(bulkRequest(10));
+
+        final Map<ShardId, DiscoveryNode> primaries = new HashMap<>();
+        for (int shard = 0; shard < SHARDS; shard++) {
+            primaries.put(new ShardId("index", shard), second);
+        }
+        routingClient.update(new RoutingClient.Routing(routing.state(), primaries));
+        verify(firstClient, never()).close();
+
+        pending.get(0).onResponse(response(pendingRequests.get(0)));
+        verify(firstClient).close();
+        assertFalse(future.actionGet().hasFailures());
+    }
+
+    private static void respond(Client nodeClient) {
+        doAnswer(invocation -> {
+            final BulkRequest request = invocation.getArgument(0);
+            final ActionListener<BulkResponse> listener = invocation.getArgument(1);
+            listener.onResponse(response(request));
+            return null;
+        }).when(nodeClient).bulk(any(BulkRequest.class), any());
+    }
+
+    private static BulkResponse response(BulkRequest request) {
+        final BulkItemResponse[] items = new BulkItemResponse[request.numberOfActions()];
+        for (int i = 0; i < items.length; i++) {
+            final IndexRequest item = (IndexRequest) request.requests().get(i);
+            items[i] = new BulkItemResponse(i, "index", new IndexResponse(item.index(), item.type(), item.id(), 1L, true));
+        }
+        return new BulkResponse(items, 1L);
+    }
+
+    private static BulkRequest bulkRequest(int size) {
+        final BulkRequest request = new BulkRequest();
+        for (int i = 0; i < size; i++) {
+            request.add(new IndexRequest("index", "type", String.valueOf(i)).source("field", "value"));
+        }
+        return request;
+    }
+
+    private static DiscoveryNode node(String id) {
+        return new DiscoveryNode(id, id, DummyTransportAddress.INSTANCE, new HashMap<>(), Version.CURRENT);
+    }
+}
@@ -0,0 +1,174 @@
+package io.dropwizard.elasticsearch.client;
+
+import io.dropwizard.util.Duration;
+import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.action.search.ClearScrollRequest;
+import org.elasticsearch.action.search.SearchPhaseExecutionException;
+import org.elasticsearch.action.search.SearchRequest;
+import org.elasticsearch.action.search.SearchResponse;
+import org.elasticsearch.action.search.SearchScrollRequest;
+import org.elasticsearch.action.search.SearchType;
+import org.elasticsearch.action.search.ShardSearchFailure;
+import org.elasticsearch.client.Client;
+import org.elasticsearch.search.SearchHit;
+import org.elasticsearch.search.SearchHits;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for {@link ScrollIterator}.
+ */
+public class ScrollIteratorTest {
+    private final Client client = mock(Client.class);
+    private final List<ActionListener<SearchResponse>> pendingPages = new ArrayList<>();
+
+    @Before
+    public void setUp() {
+        doAnswer(invocation -> {
+            pendingPages.add(invocation.getArgument(1));
+            return null;
+        }).when(client).search(any(SearchRequest.class), any());
+        doAnswer(invocation -> {
+            pendingPages.add(invocation.getArgument(1));
+            return null;
+        }).when(client).searchScroll(any(SearchScrollRequest.class), any());
+    }
+
+    @Test
+    public void nextPageShouldBePrefetched() {
+        final ScrollIterator iterator = new ScrollIterator(client, new SearchRequest("index"), Duration.minutes(1L));
+        pendingPages.get(0).onResponse(page("scroll-1", "1", "2"));
+
+        assertTrue(iterator.hasNext());
+        assertEquals(2, pendingPages.size());
+        verify(client).searchScroll(any(SearchScrollRequest.class), any());
+
+        assertEquals("1", iterator.next().getId());
+        assertEquals("2", iterator.next().getId());
+        pendingPages.get(1).onResponse(page("scroll-2", "3"));
+        assertEquals("3", iterator.next().getId());
+        pendingPages.get(2).onResponse(page("scroll-3"));
+        assertFalse(iterator.hasNext());
+
+        final ArgumentCaptor<ClearScrollRequest> captor = ArgumentCaptor.forClass(ClearScrollRequest.class);
+        verify(client).clearScroll(captor.capture(), any());
+        assertEquals("scroll-3", captor.getValue().getScrollIds().get(0));
+    }
+
+    @Test
+    public void emptyInitialPageOfScanSearchShouldNotEndIteration() {
+        final List<SearchResponse> scrollPages = new ArrayList<>();
+        scrollPages.add(page("scroll-1", "1", "2"));
+        scrollPages.add(page("scroll-2"));
+        doAnswer(invocation -> {
+            final ActionListener<SearchResponse> listener = invocation.getArgument(1);
+            listener.onResponse(scrollPages.remove(0));
+            return null;
+        }).when(client).searchScroll(any(SearchScrollRequest.class), any());
+
+        final SearchRequest request = new SearchRequest("index").searchType(SearchType.SCAN);
+        final ScrollIterator iterator = new ScrollIterator(client, request, Duration.minutes(1L));
+        pendingPages.get(0).onResponse(page("scroll-0", 2L));
+
+        assertEquals("1", iterator.next().getId());
+        assertEquals("2", iterator.next().getId());
+        assertFalse(iterator.hasNext());
+        verify(client, times(2)).searchScroll(any(SearchScrollRequest.class), any());
+    }
+
+    @Test
+    public void scanSearchWithoutMatchesShouldEndIteration() {
+        final SearchRequest request = new SearchRequest("index").searchType(SearchType.SCAN);
+        final ScrollIterator iterator = new ScrollIterator(client, request, Duration.minutes(1L));
+        pendingPages.get(0).onResponse(page("scroll-0", 0L));
+
+        assertFalse(iterator.hasNext());
+        verify(client, never()).searchScroll(any(SearchScrollRequest.class), any());
+        verify(client).clearScroll(any(ClearScrollRequest.class), any());
+    }
+
+    @Test
+    public void closeShouldClearScrollOfPendingPage() {
+        final List<ScrollIterator> closed = new ArrayList<>();
+        final ScrollIterator iterator =
+                new ScrollIterator(client, new SearchRequest("index"), Duration.minutes(1L), closed::add);
+        pendingPages.get(0).onResponse(page("scroll-1", "1"));
+        assertEquals("1", iterator.next().getId());
+
+        iterator.close();
+        iterator.close();
+        verify(client, never()).clearScroll(any(ClearScrollRequest.class), any());
+        assertFalse(iterator.hasNext());
+        assertEquals(1, closed.size());
+
+        pendingPages.get(1).onResponse(page("scroll-2", "2"));
+        verify(client, times(1)).clearScroll(any(ClearScrollRequest.class), any());
+    }
+
+    @Test
+    public void streamShouldCloseIterator() {
+        final ScrollIterator iterator = new ScrollIterator(client, new SearchRequest("index"), Duration.minutes(1L));
+        pendingPages.get(0).onResponse(page("scroll-1", "1", "2"));
+
+        try (Stream<SearchHit> hits = iterator.stream()) {
+            assertEquals("1", hits.limit(1).map(SearchHit::getId).collect(Collectors.joining()));
+        }
+        pendingPages.get(1).onResponse(page("scroll-2", "3"));
+
+        verify(client).clearScroll(any(ClearScrollRequest.class), any());
+    }
+
+    @Test
+    public void failureShouldBeThrownAndClearScroll() {
+        final ScrollIterator iterator = new ScrollIterator(client, new SearchRequest("index"), Duration.minutes(1L));
+        pendingPages.get(0).onResponse(page("scroll-1", "1"));
+        iterator.next();
+        pendingPages.get(1).onFailure(
+                new SearchPhaseExecutionException("query", "failed", ShardSearchFailure.EMPTY_ARRAY));
+
+        try {
+            iterator.hasNext();
+            fail("Expected the scroll search to fail");
+        } catch (SearchPhaseExecutionException e) {
+            verify(client).clearScroll(any(ClearScrollRequest.class), any());
+        }
+    }
+
+    private static SearchResponse page(String scrollId, String... ids) {
+        return page(scrollId, ids.length, ids);
+    }
+
+    private static SearchResponse page(String scrollId, long totalHits, String... ids) {
+        final SearchHit[] hits = new SearchHit[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            hits[i] = mock(SearchHit.class);
+            when(hits[i].getId()).thenReturn(ids[i]);
+        }
+
+        final SearchHits searchHits = mock(SearchHits.class);
+        when(searchHits.getHits()).thenReturn(hits);
+        when(searchHits.getTotalHits()).thenReturn(totalHits);
+        final SearchResponse response = mock(SearchResponse.class);
+        when(response.getScrollId()).thenReturn(scrollId);
+        when(response.getHits()).thenReturn(searchHits);
+        return response;
+    }
+}
@@ -0,0 +1,95 @@
+package io.dropwizard.elasticsearch.client;
+
+import io.dropwizard.elasticsearch.config.TimeoutConfiguration;
+import io.dropwizard.jackson.Jackson;
+import io.dropwizard.util.Duration;
+import org.elasticsearch.ElasticsearchTimeoutException;
+import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.action.get.GetAction;
+import org.elasticsearch.action.get.GetRequest;
+import org.elasticsearch.action.get.GetResponse;
+import org.elasticsearch.client.Client;
+import org.elasticsearch.client.support.Headers;
+import org.elasticsearch.common.settings.Settings;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for {@link TimeoutClient}.
+ */
+public class TimeoutClientTest {
+    private final Client client = mock(Client.class);
+    private TimeoutClient timeoutClient;
+
+    @Before
+    public void setUp() throws IOException {
+        when(client.settings()).thenReturn(Settings.EMPTY);
+        when(client.headers()).thenReturn(Headers.EMPTY);
+
+        final TimeoutConfiguration config = Jackson.newObjectMapper()
+                .readValue("{\"search\": \"100ms\"}", TimeoutConfiguration.class);
+        timeoutClient = new TimeoutClient(client, config);
+    }
+
+    @After
+    public void tearDown() {
+        timeoutClient.close();
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void initializationWithNullClientShouldFail() {
+        new TimeoutClient(null, new TimeoutConfiguration());
+    }
+
+    @Test
+    public void hangingRequestsShouldTimeOut() {
+        doNothing().when(client).execute(eq(GetAction.INSTANCE), any(GetRequest.class), any());
+
+        final long start = System.nanoTime();
+        try {
+            timeoutClient.prepareGet("index", "type", "id").get();
+            fail("Expected the request to time out");
+        } catch (ElasticsearchTimeoutException e) {
+            assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5L));
+        }
+    }
+
+    @Test
+    public void completedRequestsShouldReturnTheirResponse() {
+        final GetResponse response = mock(GetResponse.class);
+        doAnswer(invocation -> {
+            final ActionListener<GetResponse> listener = invocation.getArgument(2);
+            listener.onResponse(response);
+            return null;
+        }).when(client).execute(eq(GetAction.INSTANCE), any(GetRequest.class), any());
+
+        assertSame(response, timeoutClient.prepareGet("index", "type", "id").get());
+    }
+
+    @Test
+    public void requestsAfterDeadlineShouldFailImmediately() throws InterruptedException {
+        try (EsDeadline.Scope scope = EsDeadline.within(Duration.milliseconds(1L))) {
+            Thread.sleep(10L);
+            timeoutClient.prepareGet("index", "type", "id").get();
+            fail("Expected the request to fail");
+        } catch (ElasticsearchTimeoutException e) {
+            verify(client, never()).execute(eq(GetAction.INSTANCE), any(GetRequest.class), any());
+        }
+    }
+}
@@ -4,6 +4,8 @@ import io.dropwizard.configuration.ConfigurationException;
 import io.dropwizard.configuration.ConfigurationFactory;
 import io.dropwizard.configuration.DefaultConfigurationFactoryFactory;
 import io.dropwizard.jackson.Jackson;
+import io.dropwizard.util.Duration;
+import io.dropwizard.util.Size;
 import org.junit.Test;
 
 import javax.validation.Validation;
@@ -13,6 +15,8 @@ import java.io.IOException;
 import java.net.URISyntaxException;
 import java.net.URL;
 
+import static org.junit.Assert.assertEquals;
+
 /**
  * Unit tests for {@link EsConfiguration}.
  */
@@ -27,10 +31,36 @@ public class EsConfigurationTest {
         configFactory.build();
     }
 
+    @Test
+    public void bulkProcessorShouldBeConfigurable() throws IOException, ConfigurationException, URISyntaxException {
+        URL configFileUrl = this.getClass().getResource("/bulk_processor.yml");
+        File configFile = new File(configFileUrl.toURI());
+        BulkProcessorConfiguration bulkProcessor = configFactory.build(configFile).getBulkProcessor();
+
+        assertEquals(500, bulkProcessor.getBulkActions());
+        assertEquals(Size.megabytes(10L), bulkProcessor.getBulkSize());
+        assertEquals(Duration.seconds(1L), bulkProcessor.getFlushInterval());
+        assertEquals(2, bulkProcessor.getConcurrentRequests());
+    }
+
     @Test(expected = ConfigurationException.class)
     public void eitherNodeClientOrServerListMustBeSet() throws IOException, ConfigurationException, URISyntaxException {
         URL configFileUrl = this.getClass().getResource("/invalid.yml");
         File configFile = new File(configFileUrl.toURI());
         configFactory.build(configFile);
     }
+
+    @Test(expected = ConfigurationException.class)
+    public void threadPoolSizesMustBePositive() throws IOException, ConfigurationException, URISyntaxException {
+        URL configFileUrl = this.getClass().getResource("/invalid_thread_pools.yml");
+        File configFile = new File(configFileUrl.toURI());
+        configFactory.build(configFile);
+    }
+
+    @Test(expected = ConfigurationException.class)
+    public void transportProfileMustBeKnown() throws IOException, ConfigurationException, URISyntaxException {
+        URL configFileUrl = this.getClass().getResource("/invalid_transport_profile.yml");
+        File configFile = new File(configFileUrl.toURI());
+        configFactory.build(configFile);
+    }
 }
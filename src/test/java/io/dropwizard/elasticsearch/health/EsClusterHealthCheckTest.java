@@ -1,9 +1,22 @@
 package io.dropwizard.elasticsearch.health;
 
+import com.codahale.metrics.health.HealthCheck;
+import io.dropwizard.util.Duration;
+import org.elasticsearch.ElasticsearchTimeoutException;
+import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.action.admin.cluster.health.ClusterHealthRequestBuilder;
 import org.elasticsearch.client.Client;
+import org.elasticsearch.common.unit.TimeValue;
 import org.junit.Test;
+import org.mockito.Answers;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 /**
  * Unit tests for {@link EsClusterHealthCheck}
@@ -18,4 +31,42 @@ public class EsClusterHealthCheckTest {
     public void initializationWithClientShouldSucceed() {
         new EsClusterHealthCheck(mock(Client.class));
     }
+
+    @Test
+    public void checkShouldBeUnhealthyAfterTimeout() {
+        final Client client = mock(Client.class, Answers.RETURNS_DEEP_STUBS);
+        final ClusterHealthRequestBuilder requestBuilder = mock(ClusterHealthRequestBuilder.class);
+        when(client.admin().cluster().prepareHealth()).thenReturn(requestBuilder);
+        when(requestBuilder.get(TimeValue.timeValueSeconds(5L)))
+                .thenThrow(new ElasticsearchTimeoutException("Timeout waiting for task."));
+
+        final HealthCheck.Result result =
+                new EsClusterHealthCheck(client, false, Duration.seconds(5L)).execute();
+
+        assertFalse(result.isHealthy());
+        assertTrue(result.getError() instanceof ElasticsearchTimeoutException);
+    }
+
+    @Test
+    public void asyncCheckShouldFailAfterTimeout() throws Exception {
+        final Client client = mock(Client.class, Answers.RETURNS_DEEP_STUBS);
+        final ClusterHealthRequestBuilder requestBuilder = mock(ClusterHealthRequestBuilder.class);
+        when(client.admin().cluster().prepareHealth()).thenReturn(requestBuilder);
+
+        final CompletableFuture<Throwable> failure = new CompletableFuture<>();
+        new EsClusterHealthCheck(client, false, Duration.milliseconds(50L))
+                .checkAsync(new ActionListener<HealthCheck.Result>() {
+                    @Override
+                    public void onResponse(HealthCheck.Result result) {
+                        failure.complete(null);
+                    }
+
+                    @Override
+                    public void onFailure(Throwable e) {
+                        failure.complete(e);
+                    }
+                });
+
+        assertTrue(failure.get(5L, TimeUnit.SECONDS) instanceof ElasticsearchTimeoutException);
+    }
 }
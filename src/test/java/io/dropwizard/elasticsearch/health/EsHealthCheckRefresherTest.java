@@ -0,0 +1,108 @@
+package io.dropwizard.elasticsearch.health;
+
+import com.codahale.metrics.Clock;
+import com.codahale.metrics.health.HealthCheck;
+import io.dropwizard.elasticsearch.config.HealthCheckConfiguration;
+import org.elasticsearch.action.ActionListener;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests for {@link EsHealthCheckRefresher} and {@link CachedEsHealthCheck}.
+ */
+public class EsHealthCheckRefresherTest {
+    private final ManualClock clock = new ManualClock();
+    private final EsHealthCheckRefresher refresher = new EsHealthCheckRefresher(new HealthCheckConfiguration(), clock);
+
+    @Test(expected = NullPointerException.class)
+    public void initializationWithNullConfigShouldFail() {
+        new EsHealthCheckRefresher(null);
+    }
+
+    @Test
+    public void healthCheckWithoutResultShouldBeUnhealthy() {
+        final HealthCheck healthCheck = refresher.register(listener -> listener.onResponse(HealthCheck.Result.healthy()));
+
+        assertFalse(healthCheck.execute().isHealthy());
+    }
+
+    @Test
+    public void healthCheckShouldReturnLastResult() {
+        final HealthCheck healthCheck = refresher.register(listener -> listener.onResponse(HealthCheck.Result.healthy("ok")));
+
+        refresher.refresh();
+        final HealthCheck.Result result = healthCheck.execute();
+
+        assertTrue(result.isHealthy());
+        assertEquals("ok", result.getMessage());
+    }
+
+    @Test
+    public void staleResultShouldBeUnhealthy() {
+        final HealthCheck healthCheck = refresher.register(listener -> listener.onResponse(HealthCheck.Result.healthy()));
+
+        refresher.refresh();
+        clock.advance(31L, TimeUnit.SECONDS);
+
+        assertFalse(healthCheck.execute().isHealthy());
+    }
+
+    @Test
+    public void failedRefreshShouldBeUnhealthy() {
+        final HealthCheck healthCheck = refresher.register(listener -> listener.onFailure(new IllegalStateException("boom")));
+
+        refresher.refresh();
+
+        assertFalse(healthCheck.execute().isHealthy());
+    }
+
+    @Test
+    public void refreshShouldNotOverlap() {
+        final AtomicInteger invocations = new AtomicInteger();
+        refresher.register(listener -> invocations.incrementAndGet());
+
+        refresher.refresh();
+        refresher.refresh();
+
+        assertEquals(1, invocations.get());
+    }
+
+    @Test
+    public void hungRefreshShouldBeAbandonedAfterMaxStaleness() {
+        final List<ActionListener<HealthCheck.Result>> listeners = new ArrayList<>();
+        final HealthCheck healthCheck = refresher.register(listeners::add);
+
+        refresher.refresh();
+        clock.advance(31L, TimeUnit.SECONDS);
+        refresher.refresh();
+        assertEquals(2, listeners.size());
+        assertFalse(healthCheck.execute().isHealthy());
+
+        listeners.get(0).onResponse(HealthCheck.Result.healthy("late"));
+        assertFalse(healthCheck.execute().isHealthy());
+
+        listeners.get(1).onResponse(HealthCheck.Result.healthy("ok"));
+        assertEquals("ok", healthCheck.execute().getMessage());
+    }
+
+    private static class ManualClock extends Clock {
+        private long tick = 0L;
+
+        @Override
+        public long getTick() {
+            return tick;
+        }
+
+        void advance(long duration, TimeUnit unit) {
+            tick += unit.toNanos(duration);
+        }
+    }
+}
@@ -1,12 +1,26 @@
 package io.dropwizard.elasticsearch.health;
 
+import com.codahale.metrics.health.HealthCheck;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import org.elasticsearch.action.admin.indices.stats.CommonStats;
+import org.elasticsearch.action.admin.indices.stats.IndexStats;
+import org.elasticsearch.action.admin.indices.stats.IndicesStatsRequestBuilder;
+import org.elasticsearch.action.admin.indices.stats.IndicesStatsResponse;
 import org.elasticsearch.client.Client;
+import org.elasticsearch.common.unit.TimeValue;
+import org.elasticsearch.index.shard.DocsStats;
 import org.junit.Test;
+import org.mockito.Answers;
 
 import java.util.Collections;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 /**
  * Unit tests for {@link EsIndexDocsHealthCheck}.
@@ -46,4 +60,26 @@ public class EsIndexDocsHealthCheckTest {
     public void initializationWithValidParametersShouldSucceedl() {
         new EsIndexDocsHealthCheck(mock(Client.class), "index", 10L);
     }
+
+    @Test
+    public void checkShouldOnlyRequestDocumentCounts() {
+        final CommonStats primaries = mock(CommonStats.class);
+        when(primaries.getDocs()).thenReturn(new DocsStats(5L, 0L));
+        final IndexStats indexStats = mock(IndexStats.class);
+        when(indexStats.getIndex()).thenReturn("index");
+        when(indexStats.getPrimaries()).thenReturn(primaries);
+        final IndicesStatsResponse response = mock(IndicesStatsResponse.class);
+        when(response.getIndices()).thenReturn(ImmutableMap.of("index", indexStats));
+        final IndicesStatsRequestBuilder requestBuilder = mock(IndicesStatsRequestBuilder.class, Answers.RETURNS_SELF);
+        when(requestBuilder.get(any(TimeValue.class))).thenReturn(response);
+        final Client client = mock(Client.class, Answers.RETURNS_DEEP_STUBS);
+        when(client.admin().indices().prepareStats("index")).thenReturn(requestBuilder);
+
+        final HealthCheck.Result result = new EsIndexDocsHealthCheck(client, "index", 10L).execute();
+
+        assertFalse(result.isHealthy());
+        assertEquals("Last stats: [index (5)]", result.getMessage());
+        verify(requestBuilder).clear();
+        verify(requestBuilder).setDocs(true);
+    }
 }
@@ -0,0 +1,165 @@
+package io.dropwizard.elasticsearch.health;
+
+import com.codahale.metrics.health.HealthCheck;
+import com.google.common.collect.ImmutableMap;
+import org.elasticsearch.action.ActionFuture;
+import org.elasticsearch.action.admin.indices.get.GetIndexRequest;
+import org.elasticsearch.action.admin.indices.get.GetIndexResponse;
+import org.elasticsearch.action.admin.indices.stats.CommonStats;
+import org.elasticsearch.action.admin.indices.stats.IndexStats;
+import org.elasticsearch.action.admin.indices.stats.IndicesStatsRequest;
+import org.elasticsearch.action.admin.indices.stats.IndicesStatsResponse;
+import org.elasticsearch.client.Client;
+import org.elasticsearch.cluster.metadata.AliasMetaData;
+import org.elasticsearch.common.collect.ImmutableOpenMap;
+import org.elasticsearch.common.unit.TimeValue;
+import org.elasticsearch.index.shard.DocsStats;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Answers;
+import org.mockito.ArgumentCaptor;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for {@link EsIndicesHealthCheckBatch}.
+ */
+public class EsIndicesHealthCheckBatchTest {
+    private final Client client = mock(Client.class, Answers.RETURNS_DEEP_STUBS);
+    @SuppressWarnings("unchecked")
+    private final ActionFuture<IndicesStatsResponse> future = mock(ActionFuture.class);
+    @SuppressWarnings("unchecked")
+    private final ActionFuture<GetIndexResponse> metaDataFuture = mock(ActionFuture.class);
+
+    @Before
+    public void setUp() {
+        final IndexStats first = indexStats("tenant-1", 10L);
+        final IndexStats second = indexStats("tenant-2", 0L);
+        final IndicesStatsResponse response = mock(IndicesStatsResponse.class);
+        when(response.getIndices()).thenReturn(ImmutableMap.of("tenant-1", first, "tenant-2", second));
+        when(future.actionGet(any(TimeValue.class))).thenReturn(response);
+        when(client.admin().indices().stats(any(IndicesStatsRequest.class))).thenReturn(future);
+
+        final GetIndexResponse metaDataResponse = mock(GetIndexResponse.class);
+        when(metaDataResponse.indices()).thenReturn(new String[]{"tenant-1", "archive"});
+        when(metaDataResponse.aliases()).thenReturn(ImmutableOpenMap.<String, List<AliasMetaData>>builder()
+                .fPut("tenant-1", Collections.singletonList(AliasMetaData.builder("tenants").build()))
+                .build());
+        when(metaDataFuture.actionGet(any(TimeValue.class))).thenReturn(metaDataResponse);
+        when(client.admin().indices().getIndex(any(GetIndexRequest.class))).thenReturn(metaDataFuture);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void initializationWithNullClientShouldFail() {
+        new EsIndicesHealthCheckBatch(null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void documentThresholdTooLowShouldFail() {
+        new EsIndicesHealthCheckBatch(client).indexDocsHealthCheck("index", 0L);
+    }
+
+    @Test
+    public void healthChecksShouldShareIndicesStats() {
+        final EsIndicesHealthCheckBatch batch = new EsIndicesHealthCheckBatch(client);
+        final HealthCheck firstDocs = batch.indexDocsHealthCheck("tenant-1", 5L);
+        final HealthCheck secondDocs = batch.indexDocsHealthCheck("tenant-2");
+        final HealthCheck exists = batch.indexExistsHealthCheck("tenant-1");
+
+        assertTrue(firstDocs.execute().isHealthy());
+        assertFalse(secondDocs.execute().isHealthy());
+        assertTrue(exists.execute().isHealthy());
+
+        final ArgumentCaptor<IndicesStatsRequest> captor = ArgumentCaptor.forClass(IndicesStatsRequest.class);
+        verify(client.admin().indices(), times(1)).stats(captor.capture());
+        assertTrue(captor.getValue().docs());
+        assertFalse(captor.getValue().search());
+        verify(client.admin().indices(), never()).getIndex(any(GetIndexRequest.class));
+    }
+
+    @Test
+    public void closedIndicesShouldExist() {
+        final EsIndicesHealthCheckBatch batch = new EsIndicesHealthCheckBatch(client);
+
+        assertTrue(batch.indexExistsHealthCheck("archive").execute().isHealthy());
+        assertFalse(batch.indexDocsHealthCheck("archive").execute().isHealthy());
+
+        final ArgumentCaptor<GetIndexRequest> captor = ArgumentCaptor.forClass(GetIndexRequest.class);
+        verify(client.admin().indices(), times(1)).getIndex(captor.capture());
+        assertTrue(captor.getValue().indicesOptions().expandWildcardsClosed());
+        assertFalse(captor.getValue().indicesOptions().forbidClosedIndices());
+    }
+
+    @Test
+    public void aliasesShouldBeResolved() {
+        final EsIndicesHealthCheckBatch batch = new EsIndicesHealthCheckBatch(client);
+
+        assertTrue(batch.indexExistsHealthCheck("tenants").execute().isHealthy());
+        assertTrue(batch.indexDocsHealthCheck("tenants", 10L).execute().isHealthy());
+        assertFalse(batch.indexExistsHealthCheck("missing").execute().isHealthy());
+    }
+
+    @Test
+    public void concurrentHealthChecksShouldShareFetch() throws Exception {
+        final CountDownLatch fetching = new CountDownLatch(1);
+        final CountDownLatch released = new CountDownLatch(1);
+        final IndicesStatsResponse response = future.actionGet(TimeValue.timeValueSeconds(10L));
+        when(future.actionGet(any(TimeValue.class))).thenAnswer(invocation -> {
+            fetching.countDown();
+            released.await();
+            return response;
+        });
+
+        final EsIndicesHealthCheckBatch batch = new EsIndicesHealthCheckBatch(client);
+        final HealthCheck first = batch.indexDocsHealthCheck("tenant-1");
+        final HealthCheck second = batch.indexExistsHealthCheck("tenant-1");
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        try {
+            final Future<HealthCheck.Result> firstResult = executor.submit(first::execute);
+            assertTrue(fetching.await(5L, TimeUnit.SECONDS));
+            final Future<HealthCheck.Result> secondResult = executor.submit(second::execute);
+            released.countDown();
+
+            assertTrue(firstResult.get(5L, TimeUnit.SECONDS).isHealthy());
+            assertTrue(secondResult.get(5L, TimeUnit.SECONDS).isHealthy());
+            verify(client.admin().indices(), times(1)).stats(any(IndicesStatsRequest.class));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void patternsShouldBeResolved() {
+        final EsIndicesHealthCheckBatch batch = new EsIndicesHealthCheckBatch(client);
+
+        assertTrue(batch.indexExistsHealthCheck("tenant-*").execute().isHealthy());
+        assertFalse(batch.indexDocsHealthCheck("tenant-*").execute().isHealthy());
+        assertFalse(batch.indexExistsHealthCheck("other-*").execute().isHealthy());
+    }
+
+    private static IndexStats indexStats(String index, long documentCount) {
+        final CommonStats primaries = mock(CommonStats.class);
+        when(primaries.getDocs()).thenReturn(new DocsStats(documentCount, 0L));
+
+        final IndexStats indexStats = mock(IndexStats.class);
+        when(indexStats.getIndex()).thenReturn(index);
+        when(indexStats.getPrimaries()).thenReturn(primaries);
+        return indexStats;
+    }
+}
@@ -0,0 +1,56 @@
+package io.dropwizard.elasticsearch.health;
+
+import com.codahale.metrics.health.HealthCheck;
+import io.dropwizard.elasticsearch.managed.ManagedEsClient;
+import org.elasticsearch.client.Client;
+import org.elasticsearch.node.Node;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for {@link EsReadinessHealthCheck}.
+ */
+public class EsReadinessHealthCheckTest {
+    @Test(expected = NullPointerException.class)
+    public void initializationWithNullClientShouldFail() {
+        new EsReadinessHealthCheck(null);
+    }
+
+    @Test
+    public void healthCheckShouldReportConnectingBeforeStart() {
+        final HealthCheck.Result result = new EsReadinessHealthCheck(new ManagedEsClient(mock(Client.class))).execute();
+
+        assertFalse(result.isHealthy());
+        assertEquals("connecting", result.getMessage());
+    }
+
+    @Test
+    public void healthCheckShouldBeHealthyAfterStart() throws Exception {
+        final ManagedEsClient managedClient = new ManagedEsClient(mock(Client.class));
+        managedClient.start();
+
+        assertTrue(new EsReadinessHealthCheck(managedClient).execute().isHealthy());
+    }
+
+    @Test
+    public void healthCheckShouldBeUnhealthyIfStartFailed() {
+        final Node node = mock(Node.class);
+        when(node.start()).thenThrow(new IllegalStateException("boom"));
+        final ManagedEsClient managedClient = new ManagedEsClient(node);
+
+        try {
+            managedClient.start();
+        } catch (Exception e) {
+            // expected
+        }
+
+        final HealthCheck.Result result = new EsReadinessHealthCheck(managedClient).execute();
+        assertFalse(result.isHealthy());
+        assertEquals("boom", result.getMessage());
+    }
+}
@@ -0,0 +1,103 @@
+package io.dropwizard.elasticsearch.jersey;
+
+import io.dropwizard.elasticsearch.client.EsDeadline;
+import io.dropwizard.util.Duration;
+import org.junit.Test;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Unit tests for {@link EsDeadlineFilter}.
+ */
+public class EsDeadlineFilterTest {
+    private final EsDeadlineFilter filter = new EsDeadlineFilter(Duration.seconds(2L));
+    private final ServletRequest request = mock(ServletRequest.class);
+    private final ServletResponse response = mock(ServletResponse.class);
+
+    @Test(expected = NullPointerException.class)
+    public void initializationWithNullBudgetShouldFail() {
+        new EsDeadlineFilter(null);
+    }
+
+    @Test
+    public void deadlineShouldBeSetForTheDurationOfTheRequest() throws Exception {
+        final Long[] remaining = new Long[1];
+        filter.doFilter(request, response, (req, res) -> remaining[0] = EsDeadline.remainingNanos());
+
+        assertTrue(remaining[0] > 0L && remaining[0] <= TimeUnit.SECONDS.toNanos(2L));
+        assertNull(EsDeadline.remainingNanos());
+    }
+
+    @Test
+    public void deadlineShouldBeClearedWhenTheResponseIsCompletedOnAnotherThread() throws Exception {
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            final CompletableFuture<Future<Long>> resumed = new CompletableFuture<>();
+            final FilterChain suspendingChain = (req, res) ->
+                    resumed.complete(executor.submit(EsDeadline::remainingNanos));
+
+            filter.doFilter(request, response, suspendingChain);
+
+            assertNull(EsDeadline.remainingNanos());
+            assertNull(resumed.get().get(5L, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void scopeClosedOnAnotherThreadShouldNotAffectThatThread() throws Exception {
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try (EsDeadline.Scope outer = EsDeadline.within(Duration.seconds(1L))) {
+            final EsDeadline.Scope scope = EsDeadline.within(Duration.milliseconds(500L));
+            final Future<Long> remaining = executor.submit(() -> {
+                try (EsDeadline.Scope own = EsDeadline.within(Duration.seconds(5L))) {
+                    scope.close();
+                    return EsDeadline.remainingNanos();
+                }
+            });
+
+            assertTrue(remaining.get(5L, TimeUnit.SECONDS) > TimeUnit.SECONDS.toNanos(1L));
+            assertTrue(EsDeadline.remainingNanos() <= TimeUnit.MILLISECONDS.toNanos(500L));
+            scope.close();
+        } finally {
+            executor.shutdownNow();
+        }
+        assertNull(EsDeadline.remainingNanos());
+    }
+
+    @Test
+    public void passedDeadlineShouldBeReplaced() throws Exception {
+        try (EsDeadline.Scope leaked = EsDeadline.within(Duration.milliseconds(1L))) {
+            Thread.sleep(5L);
+            assertTrue(EsDeadline.remainingNanos() < 0L);
+
+            try (EsDeadline.Scope scope = EsDeadline.within(Duration.seconds(1L))) {
+                assertTrue(EsDeadline.remainingNanos() > 0L);
+            }
+        }
+        assertNull(EsDeadline.remainingNanos());
+    }
+
+    @Test
+    public void nestedDeadlinesShouldOnlyShortenTheDeadline() {
+        try (EsDeadline.Scope outer = EsDeadline.within(Duration.seconds(1L))) {
+            try (EsDeadline.Scope inner = EsDeadline.within(Duration.minutes(1L))) {
+                assertTrue(EsDeadline.remainingNanos() <= TimeUnit.SECONDS.toNanos(1L));
+            }
+            assertTrue(EsDeadline.remainingNanos() > 0L);
+        }
+        assertNull(EsDeadline.remainingNanos());
+    }
+}
@@ -0,0 +1,58 @@
+package io.dropwizard.elasticsearch.managed;
+
+import io.dropwizard.elasticsearch.config.BulkProcessorConfiguration;
+import io.dropwizard.jackson.Jackson;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Unit tests for {@link BulkSizeController}.
+ */
+public class BulkSizeControllerTest {
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(10L);
+    private static final long SLOW = TimeUnit.SECONDS.toNanos(2L);
+
+    private BulkSizeController controller;
+
+    @Before
+    public void setUp() throws IOException {
+        final BulkProcessorConfiguration config = Jackson.newObjectMapper().readValue(
+                "{\"bulkActions\": 400, \"bulkSize\": \"4MB\", \"adaptive\": {\"minActions\": 100, "
+                        + "\"maxActions\": 600, \"minSize\": \"1MB\", \"maxSize\": \"5MB\", \"targetLatency\": \"1s\"}}",
+                BulkProcessorConfiguration.class);
+        controller = new BulkSizeController(config);
+    }
+
+    @Test
+    public void fastBulkRequestsShouldGrowSizesUpToMaximum() {
+        controller.update(FAST, false);
+        assertEquals(500, controller.getActions());
+        assertEquals(5L * 1024L * 1024L, controller.getBytes());
+
+        controller.update(FAST, false);
+        controller.update(FAST, false);
+        assertEquals(600, controller.getActions());
+        assertEquals(5L * 1024L * 1024L, controller.getBytes());
+    }
+
+    @Test
+    public void slowBulkRequestsShouldShrinkSizes() {
+        controller.update(SLOW, false);
+        assertEquals(200, controller.getActions());
+        assertEquals(2L * 1024L * 1024L, controller.getBytes());
+    }
+
+    @Test
+    public void rejectionsShouldShrinkSizesDownToMinimum() {
+        for (int i = 0; i < 5; i++) {
+            controller.update(FAST, true);
+        }
+        assertEquals(100, controller.getActions());
+        assertEquals(1024L * 1024L, controller.getBytes());
+    }
+}
@@ -0,0 +1,156 @@
+package io.dropwizard.elasticsearch.managed;
+
+import com.codahale.metrics.MetricRegistry;
+import io.dropwizard.elasticsearch.config.BulkProcessorConfiguration;
+import io.dropwizard.jackson.Jackson;
+import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.action.ActionRequest;
+import org.elasticsearch.action.bulk.BulkItemResponse;
+import org.elasticsearch.action.bulk.BulkProcessor;
+import org.elasticsearch.action.bulk.BulkRequest;
+import org.elasticsearch.action.bulk.BulkResponse;
+import org.elasticsearch.action.index.IndexRequest;
+import org.elasticsearch.action.index.IndexResponse;
+import org.elasticsearch.client.Client;
+import org.elasticsearch.client.transport.NoNodeAvailableException;
+import org.elasticsearch.common.util.concurrent.EsRejectedExecutionException;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Unit tests for {@link ManagedAdaptiveBulkProcessor}.
+ */
+public class ManagedAdaptiveBulkProcessorTest {
+    private final Client client = mock(Client.class);
+    private final BulkProcessor.Listener listener = mock(BulkProcessor.Listener.class);
+    private final MetricRegistry metricRegistry = new MetricRegistry();
+    private final Set<String> rejectOnce = ConcurrentHashMap.newKeySet();
+    private final List<BulkRequest> sent = new ArrayList<>();
+    private BulkProcessorConfiguration config;
+
+    @Before
+    public void setUp() throws Exception {
+        config = Jackson.newObjectMapper().readValue(
+                "{\"bulkActions\": 2, \"flushInterval\": null, \"retryDelay\": \"1ms\", \"maxRetries\": 3, "
+                        + "\"adaptive\": {\"minActions\": 1, \"maxActions\": 4, \"targetLatency\": \"1m\"}}",
+                BulkProcessorConfiguration.class);
+
+        doAnswer(invocation -> {
+            final BulkRequest request = invocation.getArgument(0);
+            final ActionListener<BulkResponse> responseListener = invocation.getArgument(1);
+            synchronized (sent) {
+                sent.add(request);
+            }
+
+            final List<BulkItemResponse> items = new ArrayList<>();
+            for (ActionRequest<?> item : request.requests()) {
+                final IndexRequest indexRequest = (IndexRequest) item;
+                items.add(rejectOnce.remove(indexRequest.id())
+                        ? new BulkItemResponse(items.size(), "index", new BulkItemResponse.Failure(indexRequest.index(),
+                        indexRequest.type(), indexRequest.id(), new EsRejectedExecutionException("queue full")))
+                        : new BulkItemResponse(items.size(), "index", new IndexResponse(indexRequest.index(),
+                        indexRequest.type(), indexRequest.id(), 1L, true)));
+            }
+            responseListener.onResponse(new BulkResponse(items.toArray(new BulkItemResponse[items.size()]), 1L));
+            return null;
+        }).when(client).bulk(any(BulkRequest.class), any());
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void ensureManagedEsClientIsNotNull() {
+        new ManagedAdaptiveBulkProcessor(null, config);
+    }
+
+    @Test
+    public void fastBulkRequestsShouldGrowBulkSize() throws Exception {
+        final ManagedAdaptiveBulkProcessor processor = newProcessor();
+
+        processor.add(indexRequest("1")).add(indexRequest("2"));
+        assertEquals(1, sent.size());
+        assertEquals(3, processor.getBulkActions());
+
+        processor.add(indexRequest("3")).add(indexRequest("4")).add(indexRequest("5"));
+        assertEquals(2, sent.size());
+        assertEquals(3, sent.get(1).numberOfActions());
+        processor.stop();
+    }
+
+    @Test
+    public void rejectedItemsShouldBeRetried() throws Exception {
+        final ManagedAdaptiveBulkProcessor processor = newProcessor();
+        rejectOnce.add("2");
+
+        processor.add(indexRequest("1")).add(indexRequest("2"));
+
+        final ArgumentCaptor<BulkResponse> captor = ArgumentCaptor.forClass(BulkResponse.class);
+        verify(listener, timeout(1000L)).afterBulk(eq(1L), any(BulkRequest.class), captor.capture());
+        assertFalse(captor.getValue().hasFailures());
+        assertEquals(2, captor.getValue().getItems().length);
+        assertEquals("2", captor.getValue().getItems()[1].getId());
+        assertEquals(2, sent.size());
+        assertEquals(1, sent.get(1).numberOfActions());
+        assertEquals(1L, metricRegistry.meter("elasticsearch.bulk.adaptive.retries").getCount());
+        processor.stop();
+    }
+
+    @Test
+    public void stopShouldFlushPendingRequestsAndRemoveMetrics() throws Exception {
+        final ManagedAdaptiveBulkProcessor processor = newProcessor();
+        assertTrue(metricRegistry.getGauges().containsKey("elasticsearch.bulk.adaptive.actions"));
+
+        processor.add(indexRequest("1"));
+        processor.stop();
+
+        verify(listener).afterBulk(anyLong(), any(BulkRequest.class), any(BulkResponse.class));
+        assertEquals(1, sent.size());
+        assertTrue(metricRegistry.getMetrics().isEmpty());
+    }
+
+    @Test(timeout = 5000L)
+    public void synchronousClientFailuresShouldReleasePermits() throws Exception {
+        doThrow(new NoNodeAvailableException("No node available")).when(client).bulk(any(BulkRequest.class), any());
+        final ManagedAdaptiveBulkProcessor processor = newProcessor();
+
+        for (int i = 0; i < 4; i++) {
+            processor.add(indexRequest(String.valueOf(2 * i))).add(indexRequest(String.valueOf(2 * i + 1)));
+        }
+        processor.stop();
+
+        verify(listener, atLeast(2)).afterBulk(anyLong(), any(BulkRequest.class), any(NoNodeAvailableException.class));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void addAfterStopShouldFail() throws Exception {
+        final ManagedAdaptiveBulkProcessor processor = newProcessor();
+        processor.stop();
+        processor.add(indexRequest("1"));
+    }
+
+    private ManagedAdaptiveBulkProcessor newProcessor() {
+        return new ManagedAdaptiveBulkProcessor(new ManagedEsClient(client), config, listener, metricRegistry,
+                "elasticsearch");
+    }
+
+    private static IndexRequest indexRequest(String id) {
+        return new IndexRequest("index", "type", id).source("field", "value");
+    }
+}
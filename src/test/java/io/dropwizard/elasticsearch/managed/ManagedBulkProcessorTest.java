@@ -0,0 +1,73 @@
+package io.dropwizard.elasticsearch.managed;
+
+import io.dropwizard.elasticsearch.config.BulkProcessorConfiguration;
+import io.dropwizard.lifecycle.Managed;
+import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.action.bulk.BulkItemResponse;
+import org.elasticsearch.action.bulk.BulkRequest;
+import org.elasticsearch.action.bulk.BulkResponse;
+import org.elasticsearch.action.index.IndexRequest;
+import org.elasticsearch.client.Client;
+import org.elasticsearch.common.settings.Settings;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for {@link ManagedBulkProcessor}.
+ */
+public class ManagedBulkProcessorTest {
+    private final Client client = mock(Client.class);
+
+    @Before
+    public void setUp() {
+        when(client.settings()).thenReturn(Settings.EMPTY);
+        doAnswer(invocation -> {
+            final ActionListener<BulkResponse> listener = invocation.getArgument(1);
+            listener.onResponse(new BulkResponse(new BulkItemResponse[0], 1L));
+            return null;
+        }).when(client).bulk(any(BulkRequest.class), any());
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void ensureManagedEsClientIsNotNull() {
+        new ManagedBulkProcessor(null, new BulkProcessorConfiguration());
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void ensureConfigurationIsNotNull() {
+        new ManagedBulkProcessor(new ManagedEsClient(client), null);
+    }
+
+    @Test
+    public void stopWithoutPendingRequestsShouldNotSendBulkRequest() throws Exception {
+        Managed managed = new ManagedBulkProcessor(new ManagedEsClient(client), new BulkProcessorConfiguration());
+
+        managed.start();
+        managed.stop();
+
+        verify(client, never()).bulk(any(BulkRequest.class), any());
+    }
+
+    @Test
+    public void stopShouldFlushPendingRequests() throws Exception {
+        ManagedBulkProcessor managed = new ManagedBulkProcessor(new ManagedEsClient(client), new BulkProcessorConfiguration());
+
+        managed.start();
+        managed.add(new IndexRequest("index", "type", "1").source("field", "value"));
+        managed.add(new IndexRequest("index", "type", "2").source("field", "value"));
+        managed.stop();
+
+        ArgumentCaptor<BulkRequest> captor = ArgumentCaptor.forClass(BulkRequest.class);
+        verify(client).bulk(captor.capture(), any());
+        assertEquals(2, captor.getValue().numberOfActions());
+    }
+}
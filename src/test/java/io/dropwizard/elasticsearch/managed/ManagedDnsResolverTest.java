@@ -0,0 +1,81 @@
+package io.dropwizard.elasticsearch.managed;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.net.HostAndPort;
+import io.dropwizard.elasticsearch.config.DnsConfiguration;
+import io.dropwizard.jackson.Jackson;
+import org.elasticsearch.client.transport.TransportClient;
+import org.elasticsearch.common.transport.LocalTransportAddress;
+import org.elasticsearch.common.transport.TransportAddress;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Unit tests for {@link ManagedDnsResolver}.
+ */
+public class ManagedDnsResolverTest {
+    private final List<HostAndPort> servers = ImmutableList.of(
+            HostAndPort.fromParts("127.0.0.1", 9300), HostAndPort.fromParts("127.0.0.2", 9300));
+
+    @Test(expected = IllegalArgumentException.class)
+    public void initializationWithoutRefreshIntervalShouldFail() {
+        new ManagedDnsResolver(servers, new DnsConfiguration(), addresses -> {
+        });
+    }
+
+    @Test
+    public void changedAddressesShouldBePassedToListener() throws IOException {
+        final List<Set<TransportAddress>> updates = new ArrayList<>();
+        final ManagedDnsResolver resolver = new ManagedDnsResolver(servers, config(), updates::add);
+
+        resolver.refresh();
+        resolver.refresh();
+
+        assertEquals(1, updates.size());
+        assertEquals(2, updates.get(0).size());
+    }
+
+    @Test
+    public void unresolvableServersShouldKeepAddresses() throws IOException {
+        final List<Set<TransportAddress>> updates = new ArrayList<>();
+        final ManagedDnsResolver resolver = new ManagedDnsResolver(
+                ImmutableList.of(HostAndPort.fromString("nonexistent.invalid")), config(), updates::add);
+
+        resolver.refresh();
+
+        assertEquals(0, updates.size());
+    }
+
+    @Test
+    public void transportClientUpdaterShouldAddAndRemoveAddresses() {
+        final TransportClient client = mock(TransportClient.class);
+        final TransportAddress first = new LocalTransportAddress("1");
+        final TransportAddress second = new LocalTransportAddress("2");
+        final TransportAddress third = new LocalTransportAddress("3");
+        final ManagedDnsResolver.TransportClientUpdater updater =
+                new ManagedDnsResolver.TransportClientUpdater(client, ImmutableList.of(first, second));
+
+        updater.accept(ImmutableSet.of(first, second));
+        verify(client, never()).addTransportAddress(any(TransportAddress.class));
+        verify(client, never()).removeTransportAddress(any(TransportAddress.class));
+
+        updater.accept(ImmutableSet.of(second, third));
+        verify(client).addTransportAddress(third);
+        verify(client).removeTransportAddress(first);
+    }
+
+    private static DnsConfiguration config() throws IOException {
+        return Jackson.newObjectMapper().readValue("{\"refreshInterval\":\"1m\"}", DnsConfiguration.class);
+    }
+}
@@ -1,13 +1,20 @@
 package io.dropwizard.elasticsearch.managed;
 
+import com.codahale.metrics.MetricRegistry;
 import com.google.common.net.HostAndPort;
 import io.dropwizard.configuration.ConfigurationException;
 import io.dropwizard.configuration.ConfigurationFactory;
 import io.dropwizard.configuration.DefaultConfigurationFactoryFactory;
+import io.dropwizard.elasticsearch.client.CachingClient;
+import io.dropwizard.elasticsearch.client.InstrumentedClient;
+import io.dropwizard.elasticsearch.client.ScrollIterator;
+import io.dropwizard.elasticsearch.client.TimeoutClient;
 import io.dropwizard.elasticsearch.config.EsConfiguration;
 import io.dropwizard.elasticsearch.util.TransportAddressHelper;
 import io.dropwizard.jackson.Jackson;
 import io.dropwizard.lifecycle.Managed;
+import io.dropwizard.util.Duration;
+import org.elasticsearch.action.search.SearchRequest;
 import org.elasticsearch.client.Client;
 import org.elasticsearch.client.node.NodeClient;
 import org.elasticsearch.client.transport.TransportClient;
@@ -20,8 +27,10 @@ import java.io.File;
 import java.io.IOException;
 import java.net.URISyntaxException;
 import java.net.URL;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
@@ -77,6 +86,17 @@ public class ManagedEsClientTest {
         verify(node).close();
     }
 
+    @Test
+    public void clientFutureShouldBeCompletedOnStart() throws Exception {
+        Client client = mock(Client.class);
+        ManagedEsClient managed = new ManagedEsClient(client);
+
+        assertFalse(managed.getClientFuture().isDone());
+        managed.start();
+
+        assertSame(client, managed.getClientFuture().get(1L, TimeUnit.SECONDS));
+    }
+
     @Test
     public void managedEsClientWithNodeShouldReturnClient() throws Exception {
         Client client = mock(Client.class);
@@ -106,6 +126,32 @@ public class ManagedEsClientTest {
         assertEquals("false", nodeClient.settings().get("node.data"));
     }
 
+    @Test
+    public void instrumentedClientShouldBeCreatedFromConfig() throws URISyntaxException, IOException, ConfigurationException {
+        URL configFileUrl = this.getClass().getResource("/instrumented_client.yml");
+        File configFile = new File(configFileUrl.toURI());
+        EsConfiguration config = configFactory.build(configFile);
+
+        ManagedEsClient managedEsClient = new ManagedEsClient(config, new MetricRegistry());
+        Client client = managedEsClient.getClient();
+
+        assertNotNull(client);
+        assertTrue(client instanceof InstrumentedClient);
+    }
+
+    @Test
+    public void cachingClientShouldBeCreatedFromConfig() throws URISyntaxException, IOException, ConfigurationException {
+        URL configFileUrl = this.getClass().getResource("/result_cache.yml");
+        File configFile = new File(configFileUrl.toURI());
+        EsConfiguration config = configFactory.build(configFile);
+
+        ManagedEsClient managedEsClient = new ManagedEsClient(config, new MetricRegistry());
+        Client client = managedEsClient.getClient();
+
+        assertNotNull(client);
+        assertTrue(client instanceof CachingClient);
+    }
+
     @Test
     public void transportClientShouldBeCreatedFromConfig() throws URISyntaxException, IOException, ConfigurationException {
         URL configFileUrl = this.getClass().getResource("/transport_client.yml");
@@ -131,6 +177,90 @@ public class ManagedEsClientTest {
                 transportClient.transportAddresses().get(2));
     }
 
+    @Test
+    public void configuredTimeoutsShouldBeAppliedWithoutMetricRegistry()
+            throws URISyntaxException, IOException, ConfigurationException {
+        URL configFileUrl = this.getClass().getResource("/transport_client_timeouts.yml");
+        File configFile = new File(configFileUrl.toURI());
+        EsConfiguration config = configFactory.build(configFile);
+
+        ManagedEsClient managedEsClient = new ManagedEsClient(config);
+
+        assertTrue(managedEsClient.getClient() instanceof TimeoutClient);
+    }
+
+    @Test
+    public void threadPoolSizesShouldBeApplied() throws URISyntaxException, IOException, ConfigurationException {
+        URL configFileUrl = this.getClass().getResource("/thread_pools.yml");
+        File configFile = new File(configFileUrl.toURI());
+        EsConfiguration config = configFactory.build(configFile);
+
+        ManagedEsClient managedEsClient = new ManagedEsClient(config);
+        TransportClient transportClient = (TransportClient) managedEsClient.getClient();
+
+        assertEquals("2", transportClient.settings().get("transport.netty.worker_count"));
+        assertEquals("3", transportClient.settings().get("threadpool.listener.size"));
+    }
+
+    @Test
+    public void stopShouldCloseOpenScrolls() throws Exception {
+        final Client client = mock(Client.class);
+        final ManagedEsClient managedEsClient = new ManagedEsClient(client);
+
+        final ScrollIterator scroll = managedEsClient.scroll(new SearchRequest("index"), Duration.minutes(1L));
+        managedEsClient.stop();
+
+        assertFalse(scroll.hasNext());
+        verify(client).close();
+    }
+
+    @Test
+    public void transportProfileShouldBeOverriddenByTypedSettings()
+            throws URISyntaxException, IOException, ConfigurationException {
+        URL configFileUrl = this.getClass().getResource("/transport_profile.yml");
+        File configFile = new File(configFileUrl.toURI());
+        EsConfiguration config = configFactory.build(configFile);
+
+        ManagedEsClient managedEsClient = new ManagedEsClient(config);
+        TransportClient transportClient = (TransportClient) managedEsClient.getClient();
+
+        assertEquals("1mb", transportClient.settings().get("transport.netty.tcp_send_buffer_size"));
+        assertEquals("2", transportClient.settings().get("transport.connections_per_node.reg"));
+        assertEquals("16", transportClient.settings().get("transport.connections_per_node.bulk"));
+        assertEquals("false", transportClient.settings().get("transport.tcp.compress"));
+        assertEquals("3000ms", transportClient.settings().get("client.transport.ping_timeout"));
+    }
+
+    @Test
+    public void asyncTransportClientShouldAddTransportAddressesOnStart() throws Exception {
+        URL configFileUrl = this.getClass().getResource("/transport_client_async.yml");
+        File configFile = new File(configFileUrl.toURI());
+        EsConfiguration config = configFactory.build(configFile);
+
+        ManagedEsClient managedEsClient = new ManagedEsClient(config);
+        TransportClient transportClient = (TransportClient) managedEsClient.getClient();
+        assertTrue(transportClient.transportAddresses().isEmpty());
+
+        managedEsClient.start();
+        managedEsClient.getClientFuture().get(30L, TimeUnit.SECONDS);
+        assertEquals(3, transportClient.transportAddresses().size());
+
+        managedEsClient.stop();
+    }
+
+    @Test
+    public void stopShouldWaitForAsyncStartup() throws Exception {
+        URL configFileUrl = this.getClass().getResource("/transport_client_async.yml");
+        File configFile = new File(configFileUrl.toURI());
+        EsConfiguration config = configFactory.build(configFile);
+
+        ManagedEsClient managedEsClient = new ManagedEsClient(config);
+        managedEsClient.start();
+        managedEsClient.stop();
+
+        assertTrue(managedEsClient.getClientFuture().isDone());
+    }
+
     @Test
     public void managedClientShouldUseCustomElasticsearchConfig() throws URISyntaxException, IOException, ConfigurationException {
         URL configFileUrl = this.getClass().getResource("/custom_settings_file.yml");
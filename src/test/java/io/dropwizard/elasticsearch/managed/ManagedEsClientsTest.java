@@ -0,0 +1,146 @@
+package io.dropwizard.elasticsearch.managed;
+
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.health.HealthCheckRegistry;
+import com.google.common.collect.ImmutableMap;
+import io.dropwizard.configuration.ConfigurationException;
+import io.dropwizard.configuration.ConfigurationFactory;
+import io.dropwizard.configuration.DefaultConfigurationFactoryFactory;
+import io.dropwizard.elasticsearch.client.InstrumentedClient;
+import io.dropwizard.elasticsearch.client.TimeoutClient;
+import io.dropwizard.elasticsearch.config.EsClustersConfiguration;
+import io.dropwizard.jackson.Jackson;
+import org.elasticsearch.client.Client;
+import org.junit.Test;
+import org.mockito.InOrder;
+
+import javax.validation.Validation;
+import javax.validation.Validator;
+import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for {@link ManagedEsClients}.
+ */
+public class ManagedEsClientsTest {
+    private final Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+    private final ConfigurationFactory<EsClustersConfiguration> configFactory =
+            new DefaultConfigurationFactoryFactory<EsClustersConfiguration>()
+                    .create(EsClustersConfiguration.class, validator, Jackson.newObjectMapper(), "dw");
+
+    private final ManagedEsClient hot = mock(ManagedEsClient.class);
+    private final ManagedEsClient archive = mock(ManagedEsClient.class);
+    private final ManagedEsClients clients = new ManagedEsClients(ImmutableMap.of("hot", hot, "archive", archive));
+
+    @Test(expected = NullPointerException.class)
+    public void ensureEsClustersConfigurationIsNotNull() {
+        new ManagedEsClients(null, new MetricRegistry());
+    }
+
+    @Test(expected = ConfigurationException.class)
+    public void atLeastOneClusterMustBeConfigured() throws IOException, ConfigurationException {
+        configFactory.build();
+    }
+
+    @Test
+    public void clientsShouldBeCreatedFromConfig() throws URISyntaxException, IOException, ConfigurationException {
+        URL configFileUrl = this.getClass().getResource("/clusters.yml");
+        File configFile = new File(configFileUrl.toURI());
+        EsClustersConfiguration config = configFactory.build(configFile);
+
+        ManagedEsClients managedEsClients = new ManagedEsClients(config, new MetricRegistry());
+        assertEquals(config.getClusters().keySet(), managedEsClients.getNames());
+
+        Client hotClient = managedEsClients.getClient("hot");
+        assertTrue(hotClient instanceof InstrumentedClient);
+        assertEquals("hot_cluster", hotClient.settings().get("cluster.name"));
+        assertEquals("2", hotClient.settings().get("transport.netty.worker_count"));
+
+        Client archiveClient = managedEsClients.getClient("archive");
+        assertTrue(archiveClient instanceof TimeoutClient);
+        assertEquals("archive_cluster", archiveClient.settings().get("cluster.name"));
+        assertEquals("1", archiveClient.settings().get("transport.netty.worker_count"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void failedClientCreationShouldBeRethrown() throws URISyntaxException, IOException, ConfigurationException {
+        URL configFileUrl = this.getClass().getResource("/clusters_invalid_settings_file.yml");
+        File configFile = new File(configFileUrl.toURI());
+        EsClustersConfiguration config = configFactory.build(configFile);
+
+        new ManagedEsClients(config, new MetricRegistry());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void unknownClusterShouldFail() {
+        clients.getClient("unknown");
+    }
+
+    @Test
+    public void lifecycleMethodsShouldStartAndStopAllClients() throws Exception {
+        clients.start();
+        clients.stop();
+
+        final InOrder inOrder = inOrder(hot, archive);
+        inOrder.verify(hot).start();
+        inOrder.verify(archive).start();
+        inOrder.verify(archive).stop();
+        inOrder.verify(hot).stop();
+    }
+
+    @Test
+    public void failedStartShouldStopStartedClients() throws Exception {
+        final IllegalStateException failure = new IllegalStateException("archive");
+        doThrow(failure).when(archive).start();
+
+        try {
+            clients.start();
+            fail("Expected start to fail");
+        } catch (IllegalStateException e) {
+            assertSame(failure, e);
+        }
+
+        verify(hot).stop();
+        verify(archive, never()).stop();
+    }
+
+    @Test
+    public void stopShouldStopAllClientsDespiteFailures() throws Exception {
+        final IllegalStateException failure = new IllegalStateException("archive");
+        doThrow(failure).when(archive).stop();
+
+        try {
+            clients.stop();
+            fail("Expected stop to fail");
+        } catch (IllegalStateException e) {
+            assertSame(failure, e);
+        }
+
+        verify(hot).stop();
+    }
+
+    @Test
+    public void healthChecksShouldBeRegisteredPerCluster() {
+        when(hot.getClient()).thenReturn(mock(Client.class));
+        when(archive.getClient()).thenReturn(mock(Client.class));
+
+        final HealthCheckRegistry healthChecks = new HealthCheckRegistry();
+        clients.registerHealthChecks(healthChecks);
+
+        assertTrue(healthChecks.getNames().contains("elasticsearch-hot"));
+        assertTrue(healthChecks.getNames().contains("elasticsearch-archive"));
+    }
+}
@@ -0,0 +1,186 @@
+package io.dropwizard.elasticsearch.managed;
+
+import com.codahale.metrics.MetricRegistry;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import io.dropwizard.elasticsearch.config.NodeSelectionConfiguration;
+import io.dropwizard.jackson.Jackson;
+import org.elasticsearch.Version;
+import org.elasticsearch.client.transport.TransportClient;
+import org.elasticsearch.cluster.node.DiscoveryNode;
+import org.elasticsearch.common.transport.LocalTransportAddress;
+import org.elasticsearch.common.transport.TransportAddress;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for {@link ManagedNodeSelector}.
+ */
+public class ManagedNodeSelectorTest {
+    private final TransportClient client = mock(TransportClient.class);
+    private final MetricRegistry metricRegistry = new MetricRegistry();
+    private final TransportAddress first = new LocalTransportAddress("1");
+    private final TransportAddress second = new LocalTransportAddress("2");
+    private final TransportAddress third = new LocalTransportAddress("3");
+    private final List<DiscoveryNode> nodes = ImmutableList.of(
+            node("node-1", first), node("node-2", second), node("node-3", third));
+    private ManagedNodeSelector nodeSelector;
+
+    @Before
+    public void setUp() throws IOException {
+        final NodeSelectionConfiguration config = Jackson.newObjectMapper()
+                .readValue("{\"enabled\":true,\"sniff\":true}", NodeSelectionConfiguration.class);
+        nodeSelector = new ManagedNodeSelector(client, config, metricRegistry, "elasticsearch");
+        when(client.transportAddresses()).thenReturn(ImmutableList.of(first, second, third));
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void initializationWithNullClientShouldFail() {
+        new ManagedNodeSelector(null, new NodeSelectionConfiguration(), metricRegistry, "elasticsearch");
+    }
+
+    @Test
+    public void slowNodeShouldBeEjected() {
+        nodeSelector.update(nodes, nodes);
+        final long round = nodeSelector.nextRound();
+        nodeSelector.record(first, round, millis(10L));
+        nodeSelector.record(second, round, millis(12L));
+        nodeSelector.record(third, round, millis(500L));
+        nodeSelector.select(0L);
+
+        verify(client).removeTransportAddress(third);
+        verify(client, never()).removeTransportAddress(first);
+        verify(client, never()).removeTransportAddress(second);
+        verify(client, never()).addTransportAddress(any(TransportAddress.class));
+        assertEquals(500.0d, metricRegistry.getGauges().get("elasticsearch.node_selection.node-3.latency").getValue());
+    }
+
+    @Test
+    public void failingNodeShouldBeEjected() {
+        nodeSelector.update(nodes, nodes);
+        final long round = nodeSelector.nextRound();
+        nodeSelector.record(first, round, millis(10L));
+        nodeSelector.record(second, round, null);
+        nodeSelector.record(third, round, millis(10L));
+        nodeSelector.select(0L);
+
+        verify(client).removeTransportAddress(second);
+        assertEquals(1L, metricRegistry.meter("elasticsearch.node_selection.node-2.failures").getCount());
+    }
+
+    @Test
+    public void ejectionsShouldBeCapped() {
+        nodeSelector.update(nodes, nodes);
+        final long round = nodeSelector.nextRound();
+        nodeSelector.record(first, round, null);
+        nodeSelector.record(second, round, null);
+        nodeSelector.record(third, round, millis(10L));
+        nodeSelector.select(0L);
+
+        verify(client, times(1)).removeTransportAddress(any(TransportAddress.class));
+    }
+
+    @Test
+    public void ejectedNodeShouldBeReaddedAfterEjectionDuration() {
+        nodeSelector.update(nodes, nodes);
+        long round = nodeSelector.nextRound();
+        nodeSelector.record(first, round, millis(10L));
+        nodeSelector.record(second, round, millis(10L));
+        nodeSelector.record(third, round, null);
+        nodeSelector.select(0L);
+        verify(client).removeTransportAddress(third);
+
+        when(client.transportAddresses()).thenReturn(ImmutableList.of(first, second));
+        round = nodeSelector.nextRound();
+        nodeSelector.record(first, round, millis(10L));
+        nodeSelector.record(second, round, millis(10L));
+        nodeSelector.record(third, round, millis(10L));
+        nodeSelector.select(TimeUnit.SECONDS.toNanos(10L));
+        verify(client, never()).addTransportAddress(third);
+
+        nodeSelector.select(TimeUnit.SECONDS.toNanos(31L));
+        verify(client).addTransportAddress(third);
+    }
+
+    @Test
+    public void sniffedNodesShouldBeAddedAndRemoved() {
+        final TransportAddress fourth = new LocalTransportAddress("4");
+        final List<DiscoveryNode> sniffed = ImmutableList.of(
+                nodes.get(0), nodes.get(1), node("node-4", fourth));
+        nodeSelector.update(sniffed, sniffed);
+        nodeSelector.select(0L);
+
+        verify(client).addTransportAddress(fourth);
+        verify(client).removeTransportAddress(third);
+    }
+
+    @Test
+    public void stopShouldRemoveMetrics() throws Exception {
+        nodeSelector.update(nodes, nodes);
+        final long round = nodeSelector.nextRound();
+        nodeSelector.record(first, round, null);
+        nodeSelector.select(0L);
+        assertTrue(!metricRegistry.getMetrics().isEmpty());
+
+        nodeSelector.stop();
+
+        assertTrue(metricRegistry.getMetrics().isEmpty());
+    }
+
+    @Test
+    public void staleProbesShouldBeIgnored() {
+        nodeSelector.update(nodes, nodes);
+        final long staleRound = nodeSelector.nextRound();
+        nodeSelector.record(first, staleRound, millis(10L));
+        nodeSelector.record(second, staleRound, millis(10L));
+        nodeSelector.select(0L);
+
+        final long round = nodeSelector.nextRound();
+        nodeSelector.record(third, staleRound, millis(500L));
+        nodeSelector.record(first, round, millis(10L));
+        nodeSelector.record(second, round, millis(10L));
+        nodeSelector.record(third, round, millis(10L));
+        nodeSelector.select(0L);
+
+        verify(client, never()).removeTransportAddress(any(TransportAddress.class));
+        assertEquals(10.0d, metricRegistry.getGauges().get("elasticsearch.node_selection.node-3.latency").getValue());
+    }
+
+    @Test
+    public void metricsOfRemovedNodesShouldBeRemoved() {
+        nodeSelector.update(nodes, nodes);
+        final long round = nodeSelector.nextRound();
+        nodeSelector.record(third, round, null);
+        nodeSelector.select(0L);
+        assertTrue(metricRegistry.getGauges().containsKey("elasticsearch.node_selection.node-3.latency"));
+
+        final List<DiscoveryNode> remaining = ImmutableList.of(nodes.get(0), nodes.get(1));
+        nodeSelector.update(remaining, remaining);
+
+        assertFalse(metricRegistry.getGauges().containsKey("elasticsearch.node_selection.node-3.latency"));
+        assertFalse(metricRegistry.getMeters().containsKey("elasticsearch.node_selection.node-3.failures"));
+        assertTrue(metricRegistry.getGauges().containsKey("elasticsearch.node_selection.node-1.latency"));
+    }
+
+    private static Long millis(long millis) {
+        return TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+
+    private static DiscoveryNode node(String name, TransportAddress address) {
+        return new DiscoveryNode(name, name, address, ImmutableMap.of(), Version.CURRENT);
+    }
+}
@@ -0,0 +1,240 @@
+package io.dropwizard.elasticsearch.managed;
+
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.health.HealthCheck;
+import io.dropwizard.elasticsearch.config.FsyncPolicy;
+import io.dropwizard.elasticsearch.config.SpoolConfiguration;
+import io.dropwizard.jackson.Jackson;
+import org.elasticsearch.ElasticsearchTimeoutException;
+import org.elasticsearch.action.ActionFuture;
+import org.elasticsearch.action.ActionRequest;
+import org.elasticsearch.action.ActionRequestValidationException;
+import org.elasticsearch.action.bulk.BulkItemResponse;
+import org.elasticsearch.action.bulk.BulkRequest;
+import org.elasticsearch.action.bulk.BulkResponse;
+import org.elasticsearch.action.delete.DeleteRequest;
+import org.elasticsearch.action.index.IndexRequest;
+import org.elasticsearch.action.index.IndexResponse;
+import org.elasticsearch.client.Client;
+import org.elasticsearch.common.io.stream.BytesStreamOutput;
+import org.elasticsearch.common.unit.TimeValue;
+import org.elasticsearch.common.util.concurrent.EsRejectedExecutionException;
+import org.elasticsearch.index.VersionType;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for {@link ManagedWriteSpool}.
+ */
+public class ManagedWriteSpoolTest {
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private final Client client = mock(Client.class);
+    private final HealthCheck healthCheck = mock(HealthCheck.class);
+    private final MetricRegistry metricRegistry = new MetricRegistry();
+    private final List<ActionRequest<?>> replayed = Collections.synchronizedList(new ArrayList<>());
+    private ManagedWriteSpool spool;
+
+    @Before
+    public void setUp() throws Exception {
+        when(healthCheck.execute()).thenReturn(HealthCheck.Result.healthy());
+
+        final SpoolConfiguration config = Jackson.newObjectMapper().readValue(
+                "{\"directory\":\"" + temporaryFolder.getRoot().getAbsolutePath() + "\",\"segmentSize\":\"1MB\","
+                        + "\"maxSize\":\"4MB\",\"healthCheckInterval\":\"1h\"}", SpoolConfiguration.class);
+        spool = new ManagedWriteSpool(client, config, healthCheck, metricRegistry, "elasticsearch");
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        spool.stop();
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void initializationWithoutDirectoryShouldFail() {
+        new ManagedWriteSpool(client, new SpoolConfiguration(), healthCheck);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void addBeforeStartShouldFail() throws IOException {
+        spool.add(new IndexRequest("index", "type", "1"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void unsupportedRequestShouldFail() throws Exception {
+        spool.start();
+        spool.add(new BulkRequest());
+    }
+
+    @Test
+    public void spooledRequestsShouldBeReplayedInOrder() throws Exception {
+        respond(item -> new BulkItemResponse(0, "index", new IndexResponse("index", "type", "1", 1L, true)));
+        spool.start();
+
+        spool.add(new IndexRequest("index", "type", "1").source("{\"field\":1}"));
+        spool.add(new DeleteRequest("index", "type", "2"));
+        spool.add(new IndexRequest("index", "type", "3").source("{\"field\":3}"));
+        spool.drain();
+
+        assertEquals(0L, spool.getPending());
+        assertEquals(3, replayed.size());
+        assertEquals("1", ((IndexRequest) replayed.get(0)).id());
+        assertEquals("2", ((DeleteRequest) replayed.get(1)).id());
+        assertEquals("{\"field\":3}", ((IndexRequest) replayed.get(2)).source().toUtf8());
+        assertEquals(3L, metricRegistry.meter("elasticsearch.spool.replayed").getCount());
+    }
+
+    @Test
+    public void requestsShouldBeKeptWhileClusterIsUnhealthy() throws Exception {
+        when(healthCheck.execute()).thenReturn(HealthCheck.Result.unhealthy("red"));
+        spool.start();
+
+        spool.add(new IndexRequest("index", "type", "1").source("{}"));
+        spool.drain();
+
+        assertEquals(1L, spool.getPending());
+        verify(client, never()).bulk(any(BulkRequest.class));
+        assertEquals(1L, metricRegistry.getGauges().get("elasticsearch.spool.pending").getValue());
+    }
+
+    @Test
+    public void rejectedRequestsShouldBeRetained() throws Exception {
+        respond(item -> new BulkItemResponse(0, "index", new BulkItemResponse.Failure(
+                "index", "type", "1", new EsRejectedExecutionException("queue full"))));
+        spool.start();
+
+        spool.add(new IndexRequest("index", "type", "1").source("{}"));
+        spool.drain();
+
+        assertEquals(1L, spool.getPending());
+        assertEquals(0L, metricRegistry.meter("elasticsearch.spool.dropped").getCount());
+    }
+
+    @Test
+    public void permanentFailuresShouldBeDropped() throws Exception {
+        respond(item -> new BulkItemResponse(0, "index", new BulkItemResponse.Failure(
+                "index", "type", "1", new IllegalArgumentException("mapping"))));
+        spool.start();
+
+        spool.add(new IndexRequest("index", "type", "1").source("{}"));
+        spool.drain();
+
+        assertEquals(0L, spool.getPending());
+        assertEquals(1L, metricRegistry.meter("elasticsearch.spool.dropped").getCount());
+    }
+
+    @Test
+    public void stopShouldRemoveMetrics() throws Exception {
+        spool.start();
+        spool.stop();
+
+        assertTrue(metricRegistry.getMetrics().isEmpty());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void addAfterStopShouldFail() throws Exception {
+        spool.start();
+        spool.stop();
+        spool.add(new IndexRequest("index", "type", "1"));
+    }
+
+    @Test
+    public void timedOutReplayShouldBeRetried() throws Exception {
+        when(client.bulk(any(BulkRequest.class))).thenAnswer(invocation -> {
+            @SuppressWarnings("unchecked")
+            final ActionFuture<BulkResponse> future = mock(ActionFuture.class);
+            when(future.actionGet(any(TimeValue.class)))
+                    .thenThrow(new ElasticsearchTimeoutException("Timeout waiting for task."));
+            return future;
+        });
+        spool.start();
+
+        spool.add(new IndexRequest("index", "type", "1").source("{\"field\":1}"));
+        spool.drain();
+
+        assertEquals(1L, spool.getPending());
+    }
+
+    @Test(expected = ActionRequestValidationException.class)
+    public void invalidRequestShouldFail() throws Exception {
+        spool.start();
+        spool.add(new IndexRequest("index", "type", "1"));
+    }
+
+    @Test
+    public void invalidSpooledRequestsShouldBeDropped() throws Exception {
+        respond(item -> new BulkItemResponse(0, "index", new IndexResponse("index", "type", "2", 1L, true)));
+        try (SpoolLog log = new SpoolLog(temporaryFolder.getRoot().toPath(), 1024L * 1024L, 4L * 1024L * 1024L,
+                FsyncPolicy.NEVER)) {
+            log.append(record(new IndexRequest("index", "type", "1").source("{}")
+                    .versionType(VersionType.EXTERNAL).version(-5L)));
+            log.append(record(new IndexRequest("index", "type", "2").source("{}")));
+        }
+        spool.start();
+
+        spool.drain();
+
+        assertEquals(0L, spool.getPending());
+        assertEquals(1, replayed.size());
+        assertEquals("2", ((IndexRequest) replayed.get(0)).id());
+        assertEquals(1L, metricRegistry.meter("elasticsearch.spool.dropped").getCount());
+    }
+
+    @Test
+    public void batchesRefusedAsBadRequestsShouldBeDropped() throws Exception {
+        when(client.bulk(any(BulkRequest.class))).thenAnswer(invocation -> {
+            @SuppressWarnings("unchecked")
+            final ActionFuture<BulkResponse> future = mock(ActionFuture.class);
+            when(future.actionGet(any(TimeValue.class))).thenThrow(new IllegalArgumentException("bad request"));
+            return future;
+        });
+        spool.start();
+
+        spool.add(new IndexRequest("index", "type", "1").source("{}"));
+        spool.drain();
+
+        assertEquals(0L, spool.getPending());
+        assertEquals(1L, metricRegistry.meter("elasticsearch.spool.dropped").getCount());
+    }
+
+    private static byte[] record(IndexRequest request) throws IOException {
+        final BytesStreamOutput out = new BytesStreamOutput();
+        out.writeByte((byte) 0);
+        request.writeTo(out);
+        return out.bytes().toBytes();
+    }
+
+    private void respond(Function<ActionRequest<?>, BulkItemResponse> itemResponse) {
+        when(client.bulk(any(BulkRequest.class))).thenAnswer(invocation -> {
+            final BulkRequest request = invocation.getArgument(0);
+            final List<BulkItemResponse> items = new ArrayList<>();
+            for (ActionRequest<?> item : request.requests()) {
+                replayed.add(item);
+                items.add(itemResponse.apply(item));
+            }
+
+            @SuppressWarnings("unchecked")
+            final ActionFuture<BulkResponse> future = mock(ActionFuture.class);
+            when(future.actionGet(any(TimeValue.class))).thenReturn(new BulkResponse(items.toArray(new BulkItemResponse[items.size()]), 1L));
+            return future;
+        });
+    }
+}
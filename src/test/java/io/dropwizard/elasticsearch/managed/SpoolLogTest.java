@@ -0,0 +1,139 @@
+package io.dropwizard.elasticsearch.managed;
+
+import io.dropwizard.elasticsearch.config.FsyncPolicy;
+import org.elasticsearch.common.util.concurrent.EsRejectedExecutionException;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests for {@link SpoolLog}.
+ */
+public class SpoolLogTest {
+    private static final int SEGMENT_SIZE = 64;
+
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void peekShouldNotAdvanceUntilCommit() throws IOException {
+        try (SpoolLog log = open(temporaryFolder.getRoot().toPath(), SEGMENT_SIZE * 4)) {
+            log.append(bytes("first"));
+            log.append(bytes("second"));
+            log.append(bytes("third"));
+
+            final SpoolLog.Batch batch = log.peek(2);
+            assertEquals(2, batch.getRecords().size());
+            assertArrayEquals(bytes("first"), batch.getRecords().get(0));
+            assertArrayEquals(bytes("first"), log.peek(2).getRecords().get(0));
+            assertEquals(3L, log.getPending());
+
+            log.commit(batch);
+            assertEquals(1L, log.getPending());
+            assertArrayEquals(bytes("third"), log.peek(2).getRecords().get(0));
+        }
+    }
+
+    @Test
+    public void reopeningShouldRecoverPendingRecords() throws IOException {
+        final Path directory = temporaryFolder.getRoot().toPath();
+        try (SpoolLog log = open(directory, SEGMENT_SIZE * 4)) {
+            for (int i = 0; i < 10; i++) {
+                log.append(bytes("record-" + i));
+            }
+            log.commit(log.peek(4));
+        }
+
+        try (SpoolLog log = open(directory, SEGMENT_SIZE * 4)) {
+            assertEquals(6L, log.getPending());
+            assertArrayEquals(bytes("record-4"), log.peek(1).getRecords().get(0));
+
+            log.append(bytes("record-10"));
+            assertEquals(7, log.peek(100).getRecords().size());
+        }
+    }
+
+    @Test
+    public void segmentsShouldBeRolledAndDeleted() throws IOException {
+        final File directory = temporaryFolder.getRoot();
+        try (SpoolLog log = open(directory.toPath(), SEGMENT_SIZE * 4)) {
+            for (int i = 0; i < 10; i++) {
+                log.append(bytes("record-" + i));
+            }
+            assertEquals(3L * SEGMENT_SIZE, log.getSize());
+            assertEquals(3, segmentFiles(directory));
+
+            log.commit(log.peek(5));
+            assertEquals(2, segmentFiles(directory));
+            log.commit(log.peek(5));
+            assertEquals(1, segmentFiles(directory));
+            assertEquals(0L, log.getPending());
+        }
+    }
+
+    @Test(expected = EsRejectedExecutionException.class)
+    public void appendShouldBeRejectedWhenFull() throws IOException {
+        try (SpoolLog log = open(temporaryFolder.getRoot().toPath(), SEGMENT_SIZE * 2)) {
+            for (int i = 0; i < 10; i++) {
+                log.append(bytes("record-" + i));
+            }
+        }
+    }
+
+    @Test
+    public void tornRecordShouldEndSegment() throws IOException {
+        final Path directory = temporaryFolder.getRoot().toPath();
+        try (SpoolLog log = open(directory, SEGMENT_SIZE * 4)) {
+            log.append(bytes("first"));
+            log.append(bytes("second"));
+        }
+
+        final File segment = directory.resolve(String.format("spool-%020d.log", 0L)).toFile();
+        try (RandomAccessFile file = new RandomAccessFile(segment, "rw")) {
+            file.seek(8L + 5L + 8L);
+            file.write('X');
+        }
+
+        try (SpoolLog log = open(directory, SEGMENT_SIZE * 4)) {
+            assertEquals(1L, log.getPending());
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void appendAfterCloseShouldFail() throws IOException {
+        final SpoolLog log = open(temporaryFolder.getRoot().toPath(), SEGMENT_SIZE * 4);
+        log.close();
+        log.append(new byte[]{1});
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void recordLargerThanSegmentShouldFail() throws IOException {
+        try (SpoolLog log = open(temporaryFolder.getRoot().toPath(), SEGMENT_SIZE * 4)) {
+            log.append(new byte[SEGMENT_SIZE]);
+        }
+    }
+
+    private static SpoolLog open(Path directory, long maxSize) throws IOException {
+        return new SpoolLog(directory, SEGMENT_SIZE, maxSize, FsyncPolicy.NEVER);
+    }
+
+    private static int segmentFiles(File directory) {
+        final File[] files = directory.listFiles((dir, name) -> name.endsWith(".log"));
+        assertTrue(null != files);
+        return files.length;
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,89 @@
+package io.dropwizard.elasticsearch.metrics;
+
+import com.codahale.metrics.MetricRegistry;
+import io.dropwizard.elasticsearch.config.MetricsConfiguration;
+import org.elasticsearch.action.admin.cluster.node.stats.NodeStats;
+import org.elasticsearch.action.admin.cluster.node.stats.NodesStatsResponse;
+import org.elasticsearch.client.Client;
+import org.elasticsearch.client.transport.NoNodeAvailableException;
+import org.elasticsearch.common.unit.ByteSizeValue;
+import org.elasticsearch.monitor.jvm.JvmStats;
+import org.elasticsearch.threadpool.ThreadPoolStats;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for {@link EsStatsMetrics}.
+ */
+public class EsStatsMetricsTest {
+    private final MetricRegistry metricRegistry = new MetricRegistry();
+    private final EsStatsMetrics statsMetrics =
+            new EsStatsMetrics(mock(Client.class), new MetricsConfiguration(), metricRegistry);
+
+    @Test(expected = NullPointerException.class)
+    public void initializationWithNullClientShouldFail() {
+        new EsStatsMetrics(null, new MetricsConfiguration(), metricRegistry);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void initializationWithNullMetricRegistryShouldFail() {
+        new EsStatsMetrics(mock(Client.class), new MetricsConfiguration(), null);
+    }
+
+    @Test
+    public void synchronousClientFailuresShouldNotEscapeRefresh() {
+        final Client client = mock(Client.class);
+        when(client.admin()).thenThrow(new NoNodeAvailableException("No node available"));
+
+        new EsStatsMetrics(client, new MetricsConfiguration(), metricRegistry).refresh();
+    }
+
+    @Test
+    public void nodeStatsShouldBeSummedUp() {
+        final NodeStats[] nodes = {nodeStats(2, 5L, 100L), nodeStats(3, 1L, 200L)};
+        final NodesStatsResponse response = mock(NodesStatsResponse.class);
+        when(response.getNodes()).thenReturn(nodes);
+
+        statsMetrics.update(response);
+
+        assertEquals(5L, metricRegistry.getGauges().get("elasticsearch.nodes.thread_pool.bulk.queue").getValue());
+        assertEquals(6L, metricRegistry.getGauges().get("elasticsearch.nodes.thread_pool.bulk.rejected").getValue());
+        assertEquals(300L, metricRegistry.getGauges().get("elasticsearch.nodes.jvm.heap.used").getValue());
+    }
+
+    @Test
+    public void stopShouldRemoveGauges() throws Exception {
+        final NodeStats[] nodes = {nodeStats(2, 5L, 100L)};
+        final NodesStatsResponse response = mock(NodesStatsResponse.class);
+        when(response.getNodes()).thenReturn(nodes);
+
+        statsMetrics.update(response);
+        statsMetrics.stop();
+
+        assertTrue(metricRegistry.getGauges().isEmpty());
+    }
+
+    private static NodeStats nodeStats(int bulkQueue, long bulkRejected, long heapUsed) {
+        final JvmStats.Mem mem = mock(JvmStats.Mem.class);
+        when(mem.getHeapUsed()).thenReturn(new ByteSizeValue(heapUsed));
+        when(mem.getHeapMax()).thenReturn(new ByteSizeValue(1024L));
+        final JvmStats jvmStats = mock(JvmStats.class);
+        when(jvmStats.getMem()).thenReturn(mem);
+
+        final List<ThreadPoolStats.Stats> threadPools = new ArrayList<>();
+        threadPools.add(new ThreadPoolStats.Stats("bulk", 4, bulkQueue, 1, bulkRejected, 4, 100L));
+        final ThreadPoolStats threadPoolStats = new ThreadPoolStats(threadPools);
+
+        final NodeStats nodeStats = mock(NodeStats.class);
+        when(nodeStats.getThreadPool()).thenReturn(threadPoolStats);
+        when(nodeStats.getJvm()).thenReturn(jvmStats);
+        return nodeStats;
+    }
+}
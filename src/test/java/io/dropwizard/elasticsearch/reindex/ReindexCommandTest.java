@@ -0,0 +1,43 @@
+package io.dropwizard.elasticsearch.reindex;
+
+import com.google.common.collect.ImmutableMap;
+import io.dropwizard.util.Duration;
+import net.sourceforge.argparse4j.inf.Namespace;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Unit tests for {@link ReindexCommand}.
+ */
+public class ReindexCommandTest {
+    @Test
+    public void jobShouldBeCreatedFromArguments() {
+        final Map<String, Object> arguments = new HashMap<>(ImmutableMap.<String, Object>builder()
+                .put("source", "events-v1")
+                .put("target", "events-v2")
+                .put("parallelism", 4)
+                .put("batchSize", 500)
+                .put("maxDocsPerSecond", 1000.0d)
+                .put("scrollKeepAlive", "10m")
+                .put("checkpoint", new File("reindex.json"))
+                .build());
+        arguments.put("query", null);
+
+        final ReindexJob job = ReindexCommand.job(new Namespace(arguments));
+
+        assertEquals("events-v1", job.getSourceIndex());
+        assertEquals("events-v2", job.getTargetIndex());
+        assertNull(job.getQuery());
+        assertEquals(4, job.getParallelism());
+        assertEquals(500, job.getBatchSize());
+        assertEquals(1000.0d, job.getMaxDocsPerSecond(), 0.0d);
+        assertEquals(Duration.minutes(10L), job.getScrollKeepAlive());
+        assertEquals(new File("reindex.json").toPath(), job.getCheckpointFile());
+    }
+}
@@ -0,0 +1,185 @@
+package io.dropwizard.elasticsearch.reindex;
+
+import com.codahale.metrics.MetricRegistry;
+import io.dropwizard.elasticsearch.config.BulkProcessorConfiguration;
+import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.action.ActionRequest;
+import org.elasticsearch.action.admin.indices.settings.get.GetSettingsRequest;
+import org.elasticsearch.action.admin.indices.settings.get.GetSettingsResponse;
+import org.elasticsearch.action.bulk.BulkItemResponse;
+import org.elasticsearch.action.bulk.BulkRequest;
+import org.elasticsearch.action.bulk.BulkResponse;
+import org.elasticsearch.action.index.IndexRequest;
+import org.elasticsearch.action.index.IndexResponse;
+import org.elasticsearch.action.search.SearchRequest;
+import org.elasticsearch.action.search.SearchResponse;
+import org.elasticsearch.action.search.SearchScrollRequest;
+import org.elasticsearch.client.Client;
+import org.elasticsearch.common.bytes.BytesArray;
+import org.elasticsearch.common.collect.ImmutableOpenMap;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.search.SearchHit;
+import org.elasticsearch.search.SearchHits;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.Answers;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for {@link Reindexer}.
+ */
+public class ReindexerTest {
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private final Client client = mock(Client.class, Answers.RETURNS_DEEP_STUBS);
+    private final MetricRegistry metricRegistry = new MetricRegistry();
+    private final List<IndexRequest> indexed = Collections.synchronizedList(new ArrayList<>());
+    private final Set<String> preferences = ConcurrentHashMap.newKeySet();
+    private volatile boolean failBulk = false;
+    private Reindexer reindexer;
+
+    @Before
+    public void setUp() {
+        when(client.settings()).thenReturn(Settings.EMPTY);
+        final ImmutableOpenMap<String, Settings> indexSettings = ImmutableOpenMap.<String, Settings>builder()
+                .fPut("events-v1", Settings.builder().put("index.number_of_shards", 2).build())
+                .build();
+        when(client.admin().indices().getSettings(any(GetSettingsRequest.class)).actionGet())
+                .thenReturn(new GetSettingsResponse(indexSettings));
+
+        doAnswer(invocation -> {
+            final SearchRequest request = invocation.getArgument(0);
+            preferences.add(request.preference());
+            final String shard = request.preference().substring("_shards:".length());
+            final ActionListener<SearchResponse> listener = invocation.getArgument(1);
+            listener.onResponse(page("scroll-" + shard, "doc-" + shard + "-1", "doc-" + shard + "-2"));
+            return null;
+        }).when(client).search(any(SearchRequest.class), any());
+        doAnswer(invocation -> {
+            final SearchScrollRequest request = invocation.getArgument(0);
+            final ActionListener<SearchResponse> listener = invocation.getArgument(1);
+            listener.onResponse(page(request.scrollId()));
+            return null;
+        }).when(client).searchScroll(any(SearchScrollRequest.class), any());
+        doAnswer(invocation -> {
+            final BulkRequest request = invocation.getArgument(0);
+            final ActionListener<BulkResponse> listener = invocation.getArgument(1);
+            final List<BulkItemResponse> items = new ArrayList<>();
+            for (ActionRequest<?> item : request.requests()) {
+                final IndexRequest indexRequest = (IndexRequest) item;
+                indexed.add(indexRequest);
+                items.add(failBulk
+                        ? new BulkItemResponse(items.size(), "index", new BulkItemResponse.Failure(
+                        indexRequest.index(), indexRequest.type(), indexRequest.id(), new IllegalStateException()))
+                        : new BulkItemResponse(items.size(), "index", new IndexResponse(
+                        indexRequest.index(), indexRequest.type(), indexRequest.id(), 1L, true)));
+            }
+            listener.onResponse(new BulkResponse(items.toArray(new BulkItemResponse[items.size()]), 1L));
+            return null;
+        }).when(client).bulk(any(BulkRequest.class), any());
+
+        reindexer = new Reindexer(client, new BulkProcessorConfiguration(), metricRegistry, "elasticsearch");
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void initializationWithNullClientShouldFail() {
+        new Reindexer(null, new BulkProcessorConfiguration(), metricRegistry, "elasticsearch");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void sameSourceAndTargetShouldFail() {
+        new ReindexJob("events", "events");
+    }
+
+    @Test
+    public void allShardsShouldBeCopied() throws Exception {
+        final Path checkpointFile = temporaryFolder.getRoot().toPath().resolve("checkpoint.json");
+        final ReindexCheckpoint checkpoint = reindexer.run(new ReindexJob("events-v1", "events-v2")
+                .parallelism(2)
+                .checkpointFile(checkpointFile));
+
+        assertEquals(4L, checkpoint.getDocuments());
+        assertEquals(4, indexed.size());
+        for (IndexRequest request : indexed) {
+            assertEquals("events-v2", request.index());
+        }
+        assertEquals(4L, metricRegistry.meter("elasticsearch.reindex.written").getCount());
+        assertEquals(2L, metricRegistry.counter("elasticsearch.reindex.shards.completed").getCount());
+        assertEquals(2, ReindexCheckpoint.load(checkpointFile, new ReindexJob("events-v1", "events-v2"))
+                .getCompletedShards().size());
+    }
+
+    @Test
+    public void completedShardsShouldBeSkipped() throws Exception {
+        final Path checkpointFile = temporaryFolder.getRoot().toPath().resolve("checkpoint.json");
+        final ReindexCheckpoint previous = new ReindexCheckpoint("events-v1", "events-v2");
+        previous.complete(0, 2L);
+        previous.save(checkpointFile);
+
+        final ReindexCheckpoint checkpoint = reindexer.run(new ReindexJob("events-v1", "events-v2")
+                .checkpointFile(checkpointFile));
+
+        assertEquals(Collections.singleton("_shards:1"), preferences);
+        assertEquals(4L, checkpoint.getDocuments());
+    }
+
+    @Test
+    public void transformerShouldModifyAndSkipDocuments() throws Exception {
+        reindexer.run(new ReindexJob("events-v1", "events-v2").transformer((hit, request) ->
+                hit.getId().endsWith("-2") ? null : request.type("migrated")));
+
+        assertEquals(2, indexed.size());
+        for (IndexRequest request : indexed) {
+            assertEquals("migrated", request.type());
+        }
+    }
+
+    @Test
+    public void failedDocumentsShouldNotCompleteShards() throws Exception {
+        failBulk = true;
+        final Path checkpointFile = temporaryFolder.getRoot().toPath().resolve("checkpoint.json");
+
+        try {
+            reindexer.run(new ReindexJob("events-v1", "events-v2").checkpointFile(checkpointFile));
+            fail("Expected the reindex to fail");
+        } catch (IllegalStateException e) {
+            assertEquals(4L, metricRegistry.meter("elasticsearch.reindex.failed").getCount());
+            assertTrue(ReindexCheckpoint.load(checkpointFile, new ReindexJob("events-v1", "events-v2"))
+                    .getCompletedShards().isEmpty());
+        }
+    }
+
+    private static SearchResponse page(String scrollId, String... ids) {
+        final SearchHit[] hits = new SearchHit[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            hits[i] = mock(SearchHit.class);
+            when(hits[i].getId()).thenReturn(ids[i]);
+            when(hits[i].getType()).thenReturn("event");
+            when(hits[i].getSourceRef()).thenReturn(new BytesArray("{\"id\":\"" + ids[i] + "\"}"));
+        }
+
+        final SearchHits searchHits = mock(SearchHits.class);
+        when(searchHits.getHits()).thenReturn(hits);
+        final SearchResponse response = mock(SearchResponse.class);
+        when(response.getScrollId()).thenReturn(scrollId);
+        when(response.getHits()).thenReturn(searchHits);
+        return response;
+    }
+}
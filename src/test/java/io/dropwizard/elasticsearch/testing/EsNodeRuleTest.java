@@ -0,0 +1,69 @@
+package io.dropwizard.elasticsearch.testing;
+
+import io.dropwizard.elasticsearch.health.EsClusterHealthCheck;
+import org.elasticsearch.action.bulk.BulkResponse;
+import org.elasticsearch.index.query.QueryBuilders;
+import org.junit.Rule;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Integration tests for {@link EsNodeRule}.
+ */
+public class EsNodeRuleTest {
+    @Rule
+    public final EsNodeRule elasticsearch = new EsNodeRule()
+            .withFixture("messages", "message", "fixtures/messages.json");
+
+    @Test(expected = NullPointerException.class)
+    public void fixtureWithNullIndexShouldFail() {
+        new EsNodeRule().withFixture(null, "message", "fixtures/messages.json");
+    }
+
+    @Test
+    public void nodeShouldBeHealthy() {
+        assertTrue(new EsClusterHealthCheck(elasticsearch.getClient()).execute().isHealthy());
+    }
+
+    @Test
+    public void nodeShouldBeShared() {
+        assertSame(elasticsearch.getManagedClient(), new EsNodeRule().getManagedClient());
+    }
+
+    @Test
+    public void fixturesShouldBeSearchable() {
+        final long hits = elasticsearch.getClient().prepareSearch("messages")
+                .setQuery(QueryBuilders.termQuery("user", "alice"))
+                .setSize(0)
+                .get()
+                .getHits()
+                .getTotalHits();
+
+        assertEquals(2L, hits);
+    }
+
+    @Test
+    public void resetShouldDeleteIndices() {
+        elasticsearch.reset();
+
+        assertFalse(elasticsearch.getClient().admin().indices().prepareExists("messages").get().isExists());
+    }
+
+    @Test
+    public void loadFixtureShouldUseDefaultIndex() {
+        final BulkResponse response = elasticsearch.loadFixture("copies", "message", "fixtures/messages.json");
+
+        assertEquals(3, response.getItems().length);
+        assertEquals("copies", response.getItems()[0].getIndex());
+        assertEquals(3L, elasticsearch.getClient().prepareSearch("copies").setSize(0).get().getHits().getTotalHits());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void missingFixtureShouldFail() {
+        elasticsearch.loadFixture("messages", "message", "fixtures/missing.json");
+    }
+}
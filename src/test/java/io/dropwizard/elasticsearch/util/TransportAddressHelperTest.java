@@ -4,10 +4,16 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.net.HostAndPort;
 import org.elasticsearch.common.transport.InetSocketTransportAddress;
 import org.elasticsearch.common.transport.TransportAddress;
+import io.dropwizard.util.Duration;
 import org.junit.Test;
 
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Set;
 
 import static org.junit.Assert.assertEquals;
 
@@ -72,4 +78,69 @@ public class TransportAddressHelperTest {
             assertEquals(hostAndPorts.get(i).getPortOrDefault(ES_DEFAULT_PORT), transportAddress.address().getPort());
         }
     }
+
+    @Test
+    public void resolveAllShouldExpandAllAddresses() {
+        final List<HostAndPort> hostAndPorts = ImmutableList.of(
+                HostAndPort.fromParts("es.example.net", 1234),
+                HostAndPort.fromString("es2.example.net"));
+
+        final Set<TransportAddress> result = TransportAddressHelper.resolveAll(hostAndPorts, Duration.seconds(1L),
+                host -> "es.example.net".equals(host)
+                        ? new InetAddress[]{address(host, 1), address(host, 2)}
+                        : new InetAddress[]{address(host, 3)});
+
+        assertEquals(ImmutableList.of("10.0.0.1:1234", "10.0.0.2:1234", "10.0.0.3:9300"), addresses(result));
+    }
+
+    @Test
+    public void resolveAllShouldSkipUnresolvableHosts() {
+        final List<HostAndPort> hostAndPorts = ImmutableList.of(
+                HostAndPort.fromString("unknown.example.net"),
+                HostAndPort.fromString("es.example.net"));
+
+        final Set<TransportAddress> result = TransportAddressHelper.resolveAll(hostAndPorts, Duration.seconds(1L),
+                host -> {
+                    if ("unknown.example.net".equals(host)) {
+                        throw new UnknownHostException(host);
+                    }
+                    return new InetAddress[]{address(host, 1)};
+                });
+
+        assertEquals(ImmutableList.of("10.0.0.1:9300"), addresses(result));
+    }
+
+    @Test
+    public void resolveAllShouldSkipHostsResolvedTooSlowly() {
+        final List<HostAndPort> hostAndPorts = ImmutableList.of(
+                HostAndPort.fromString("slow.example.net"),
+                HostAndPort.fromString("es.example.net"));
+
+        final Set<TransportAddress> result = TransportAddressHelper.resolveAll(hostAndPorts, Duration.milliseconds(200L),
+                host -> {
+                    if ("slow.example.net".equals(host)) {
+                        try {
+                            Thread.sleep(10000L);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                    }
+                    return new InetAddress[]{address(host, 1)};
+                });
+
+        assertEquals(ImmutableList.of("10.0.0.1:9300"), addresses(result));
+    }
+
+    private static InetAddress address(String host, int lastOctet) throws UnknownHostException {
+        return InetAddress.getByAddress(host, new byte[]{10, 0, 0, (byte) lastOctet});
+    }
+
+    private static List<String> addresses(Set<TransportAddress> transportAddresses) {
+        final List<String> result = new ArrayList<>();
+        for (TransportAddress transportAddress : transportAddresses) {
+            final InetSocketAddress address = ((InetSocketTransportAddress) transportAddress).address();
+            result.add(address.getAddress().getHostAddress() + ":" + address.getPort());
+        }
+        return result;
+    }
 }